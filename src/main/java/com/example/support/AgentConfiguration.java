@@ -1,11 +1,19 @@
 package com.example.support;
 
+import com.example.support.model.ModelScript;
+import com.example.support.model.PromptPrefixCache;
+import com.example.support.model.ScriptedModel;
+import com.example.support.tools.ToolRegistry;
 import com.google.adk.agents.BaseAgent;
 import com.google.adk.agents.LlmAgent;
 import com.google.adk.agents.SequentialAgent;
-import com.google.adk.tools.FunctionTool;
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.LlmRegistry;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 /**
  * AgentConfiguration defines the hierarchical multi-agent architecture for customer support,
@@ -17,19 +25,47 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class AgentConfiguration {
 
-  private final CustomerSupportAgent customerSupportAgent;
+  /** The {@link CustomerSupportAgent} methods the agents call as tools. */
+  public static final List<String> TOOLS =
+      List.of(
+          "getCustomerAccount",
+          "processPayment",
+          "createTicket",
+          "getTickets",
+          "updateAccountSettings",
+          "validateRefundEligibility",
+          "processRefund",
+          "searchTickets",
+          "updateTicketStatus");
 
-  public AgentConfiguration(CustomerSupportAgent customerSupportAgent) {
-    this.customerSupportAgent = customerSupportAgent;
+  private static final String MODEL = "gemini-2.0-flash";
+
+  private final ToolRegistry tools;
+
+  // Present only with support.agent.model-script, for offline tests and benchmarks
+  private final ObjectProvider<ModelScript> modelScript;
+
+  // Present only with support.agent.prompt-cache.enabled
+  private final ObjectProvider<PromptPrefixCache> promptCache;
+
+  public AgentConfiguration(
+      ToolRegistry tools,
+      ObjectProvider<ModelScript> modelScript,
+      ObjectProvider<PromptPrefixCache> promptCache) {
+    this.tools = tools;
+    this.modelScript = modelScript;
+    this.promptCache = promptCache;
   }
 
-  /** Root orchestrator agent that routes queries to specialized sub-agents. */
+  /**
+   * Root orchestrator agent that routes queries to specialized sub-agents. Built on first use, not
+   * at startup; the tools themselves are compiled by {@link ToolRegistry}.
+   */
   @Bean
+  @Lazy
   public BaseAgent rootCustomerSupportAgent() {
-    return LlmAgent.builder()
-        .name("customer-support-orchestrator")
+    return llmAgent("customer-support-orchestrator")
         .description("Main router agent for customer inquiries")
-        .model("gemini-2.0-flash")
         .instruction(
             "You are a helpful customer support agent for Acme Corp. "
                 + "Analyze the customer's request and delegate it to the appropriate specialist:\n"
@@ -47,80 +83,89 @@ public class AgentConfiguration {
   }
 
   private LlmAgent createBillingAgent() {
-    return LlmAgent.builder()
-        .name("billing-agent")
+    return llmAgent("billing-agent")
         .description("Handles billing and payment inquiries")
-        .model("gemini-2.0-flash")
         .instruction(
             "You are a billing specialist. Handle queries about payments, balances, and invoices. "
                 + "Always confirm the customer's ID before processing transactions. "
                 + "After successful payments, provide the new balance and transaction ID.")
         .tools(
-            FunctionTool.create(customerSupportAgent, "getCustomerAccount"),
-            FunctionTool.create(customerSupportAgent, "processPayment"),
-            FunctionTool.create(customerSupportAgent, "getTickets"))
+            tools.tool("getCustomerAccount"),
+            tools.tool("processPayment"),
+            tools.tool("getTickets"))
         .build();
   }
 
   private LlmAgent createTechnicalSupportAgent() {
-    return LlmAgent.builder()
-        .name("technical-support-agent")
+    return llmAgent("technical-support-agent")
         .description("Handles technical issues and troubleshooting")
-        .model("gemini-2.0-flash")
         .instruction(
             "You are a technical support specialist. Troubleshoot customer issues. "
+                + "Search existing tickets for similar reports before opening a new one. "
                 + "If the issue cannot be resolved immediately, create a detailed support ticket. "
-                + "Inform the customer of the ticket ID and expected response time.")
+                + "Inform the customer of the ticket ID and expected response time. "
+                + "Close a ticket only after the customer confirms the issue is resolved, and "
+                + "set it to pending while waiting on information from the customer.")
         .tools(
-            FunctionTool.create(customerSupportAgent, "getCustomerAccount"),
-            FunctionTool.create(customerSupportAgent, "createTicket"),
-            FunctionTool.create(customerSupportAgent, "getTickets"))
+            tools.tool("getCustomerAccount"),
+            tools.tool("createTicket"),
+            tools.tool("getTickets"),
+            tools.tool("searchTickets"),
+            tools.tool("updateTicketStatus"))
         .build();
   }
 
   private LlmAgent createAccountAgent() {
-    return LlmAgent.builder()
-        .name("account-agent")
+    return llmAgent("account-agent")
         .description("Manages account settings and profile updates")
-        .model("gemini-2.0-flash")
         .instruction(
             "You are an account management specialist. Handle changes to email, tier status, "
                 + "and general profile settings. Update values only when explicitly provided "
                 + "by the customer, and always send a confirmation after updating.")
-        .tools(
-            FunctionTool.create(customerSupportAgent, "getCustomerAccount"),
-            FunctionTool.create(customerSupportAgent, "updateAccountSettings"))
+        .tools(tools.tool("getCustomerAccount"), tools.tool("updateAccountSettings"))
         .build();
   }
 
+  /**
+   * A builder for an agent, on Gemini or, when a script is configured, a {@link ScriptedModel};
+   * with the prompt cache enabled, its prompt prefix goes through a {@link PromptPrefixCache}.
+   */
+  private LlmAgent.Builder llmAgent(String name) {
+    ModelScript script = modelScript.getIfAvailable();
+    PromptPrefixCache cache = promptCache.getIfAvailable();
+    LlmAgent.Builder builder = LlmAgent.builder().name(name);
+    if (cache == null) {
+      return script != null ? builder.model(new ScriptedModel(script, name)) : builder.model(MODEL);
+    }
+    BaseLlm model = script != null ? new ScriptedModel(script, name) : LlmRegistry.getLlm(MODEL);
+    return builder.model(cache.wrap(model, name));
+  }
+
   /**
    * Sequential workflow for refund processing. Step 1: Validate eligibility. Step 2: Process refund
    * (if eligible).
    */
   private SequentialAgent createRefundWorkflow() {
     LlmAgent validator =
-        LlmAgent.builder()
-            .name("refund-validator")
+        llmAgent("refund-validator")
             .description("Validates refund eligibility")
-            .model("gemini-2.0-flash")
             .instruction(
                 "Validate refund requests by calling 'validateRefundEligibility'. "
                     + "Store the result in ToolContext as 'validation_result'. "
                     + "If not eligible, explain why. If eligible, continue to the next step.")
-            .tools(FunctionTool.create(customerSupportAgent, "validateRefundEligibility"))
+            .tools(tools.tool("validateRefundEligibility"))
             .outputKey("validation_result")
             .build();
 
     LlmAgent processor =
-        LlmAgent.builder()
-            .name("refund-processor")
+        llmAgent("refund-processor")
             .description("Processes approved refunds")
-            .model("gemini-2.0-flash")
             .instruction(
-                "Process approved refunds by checking ToolContext for the 'refund_eligible' flag. "
-                    + "If eligible, call 'processRefund' and inform the customer that processing "
-                    + "takes 5–7 business days.")
-            .tools(FunctionTool.create(customerSupportAgent, "processRefund"))
+                "Process approved refunds. If the customer was found eligible, call "
+                    + "'processRefund' for at most the validated maximum amount and inform the "
+                    + "customer that processing takes 5–7 business days. If the eligibility has "
+                    + "expired, validate it again first.")
+            .tools(tools.tool("processRefund"))
             .build();
 
     return SequentialAgent.builder()
@@ -1,12 +1,22 @@
 package com.example.support;
 
+import com.example.support.config.SupportRuntimeHints;
+import com.example.support.idempotency.IdempotencyService;
+import com.example.support.idempotency.IdempotentResponse;
 import com.example.support.logging.CustomLogger;
+import com.example.support.refund.RefundTokens;
+import com.example.support.versioning.CustomerVersions;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /** Main application entry point and REST API controller. */
 @SpringBootApplication
@@ -14,10 +24,15 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 @ComponentScan(basePackages = "com.example.support")
+@ImportRuntimeHints(SupportRuntimeHints.class)
 public class App {
 
   @Autowired private CustomerSupportAgent agent;
 
+  @Autowired private IdempotencyService idempotency;
+
+  @Autowired private CustomerVersions versions;
+
   @Autowired private CustomLogger logger;
 
   public static void main(String[] args) {
@@ -34,7 +49,10 @@ public class App {
   }
 
   @GetMapping("/customer/{customerId}")
-  public Map<String, Object> getCustomer(@PathVariable String customerId) {
+  public Map<String, Object> getCustomer(@PathVariable String customerId, WebRequest request) {
+    if (notModified(customerId, request)) {
+      return null;
+    }
     return agent.getCustomerAccount(customerId, null);
   }
 
@@ -45,26 +63,61 @@ public class App {
   }
 
   @PostMapping("/payment")
-  public Map<String, Object> processPayment(@RequestBody Map<String, Object> request) {
-    return agent.processPayment(
-        (String) request.get("customerId"),
-        request.get("amount") != null ? ((Number) request.get("amount")).doubleValue() : null,
-        null);
+  public Map<String, Object> processPayment(
+      @RequestBody Map<String, Object> request,
+      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+      HttpServletResponse response) {
+    return idempotent(
+        "payment",
+        idempotencyKey,
+        request,
+        response,
+        () ->
+            agent.processPayment(
+                (String) request.get("customerId"),
+                request.get("amount") != null
+                    ? ((Number) request.get("amount")).doubleValue()
+                    : null,
+                null));
   }
 
   @PostMapping("/ticket")
-  public Map<String, Object> createTicket(@RequestBody Map<String, String> request) {
-    return agent.createTicket(
-        request.get("customerId"),
-        request.get("subject"),
-        request.get("description"),
-        request.get("priority"),
-        null);
+  public Map<String, Object> createTicket(
+      @RequestBody Map<String, String> request,
+      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+      HttpServletResponse response) {
+    return idempotent(
+        "ticket",
+        idempotencyKey,
+        request,
+        response,
+        () ->
+            agent.createTicket(
+                request.get("customerId"),
+                request.get("subject"),
+                request.get("description"),
+                request.get("priority"),
+                null));
+  }
+
+  @PutMapping("/ticket/status")
+  public Map<String, Object> updateTicketStatus(@RequestBody Map<String, String> request) {
+    return agent.updateTicketStatus(
+        request.get("customerId"), request.get("ticketId"), request.get("status"), null);
   }
 
   @GetMapping("/tickets/{customerId}")
   public Map<String, Object> getTickets(
-      @PathVariable String customerId, @RequestParam(defaultValue = "all") String status) {
+      @PathVariable String customerId,
+      @RequestParam(defaultValue = "all") String status,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      WebRequest request) {
+    if (notModified(customerId, request)) {
+      return null;
+    }
+    if (includeArchived) {
+      return agent.getTicketsIncludingArchived(customerId, status, null);
+    }
     return agent.getTickets(customerId, status, null);
   }
 
@@ -74,10 +127,52 @@ public class App {
   }
 
   @PostMapping("/refund/process")
-  public Map<String, Object> processRefund(@RequestBody Map<String, Object> request) {
-    return agent.processRefund(
-        (String) request.get("customerId"),
-        request.get("amount") != null ? ((Number) request.get("amount")).doubleValue() : null,
-        null);
+  public Map<String, Object> processRefund(
+      @RequestBody Map<String, Object> request,
+      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+      HttpServletResponse response) {
+    return idempotent(
+        "refund",
+        idempotencyKey,
+        request,
+        response,
+        () -> {
+          String customerId = (String) request.get("customerId");
+          // The token returned by /refund/validate stands in for the agent's session state
+          Map<String, Object> context = new HashMap<>();
+          if (request.get("refundToken") != null) {
+            context.put(RefundTokens.contextKey(customerId), request.get("refundToken"));
+          }
+          return agent.processRefund(
+              customerId,
+              request.get("amount") != null ? ((Number) request.get("amount")).doubleValue() : null,
+              context);
+        });
+  }
+
+  /** Runs the call once per Idempotency-Key when the client sent one; see IdempotencyService. */
+  private Map<String, Object> idempotent(
+      String operation,
+      String idempotencyKey,
+      Map<String, ?> request,
+      HttpServletResponse response,
+      Supplier<Map<String, Object>> call) {
+    if (idempotencyKey == null) {
+      return call.get();
+    }
+    IdempotentResponse result = idempotency.execute(operation, idempotencyKey, request, call);
+    if (result.replayed()) {
+      response.setHeader(IdempotencyService.REPLAYED_HEADER, "true");
+    }
+    return result.body();
+  }
+
+  /**
+   * Tags the response with the customer's version and reports whether the client's copy is still
+   * current, in which case the response is a 304 and the database is never read.
+   */
+  private boolean notModified(String customerId, WebRequest request) {
+    String etag = versions.etag(customerId);
+    return etag != null && request.checkNotModified(etag);
   }
 }
@@ -1,31 +1,88 @@
 package com.example.support;
 
+import com.example.support.analytics.AnalyticsMetric;
+import com.example.support.analytics.AnalyticsRollups;
+import com.example.support.archive.TicketArchiver;
+import com.example.support.dedup.DuplicateTicketDetector;
+import com.example.support.dedup.NearDuplicate;
 import com.example.support.entity.Customer;
 import com.example.support.entity.Ticket;
 import com.example.support.logging.CustomLogger;
+import com.example.support.metrics.ToolMetrics;
+import com.example.support.queue.TicketWorkQueue;
+import com.example.support.refund.RefundToken;
+import com.example.support.refund.RefundTokens;
 import com.example.support.repository.CustomerRepository;
 import com.example.support.repository.TicketRepository;
+import com.example.support.search.TicketSearch;
 import com.example.support.service.NotificationService;
+import com.example.support.sla.SlaEngine;
+import com.example.support.tracing.SupportTracing;
+import com.example.support.versioning.CustomerVersions;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Core business logic for customer support operations. Provides 7 tools for multi-agent system. */
+/** Core business logic for customer support operations. Provides 9 tools for multi-agent system. */
 @Component
 public class CustomerSupportAgent {
 
+  private static final int MAX_SEARCH_RESULTS = 10;
+  private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
   @Autowired private CustomerRepository customerRepository;
 
   @Autowired private TicketRepository ticketRepository;
 
+  @Autowired private TicketSearch ticketSearch;
+
+  @Autowired private DuplicateTicketDetector duplicateDetector;
+
+  @Autowired private SlaEngine slaEngine;
+
+  @Autowired private TicketWorkQueue workQueue;
+
+  @Autowired private AnalyticsRollups analytics;
+
+  @Autowired private TicketArchiver ticketArchiver;
+
+  @Autowired private CustomerVersions versions;
+
+  @Autowired private RefundTokens refundTokens;
+
   @Autowired(required = false)
   private NotificationService notificationService;
 
   @Autowired private CustomLogger logger;
 
+  @Autowired private ToolMetrics toolMetrics;
+
+  @Autowired private SupportTracing tracing;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  // Transactions are demarcated programmatically rather than with @Transactional so this bean
+  // stays unproxied: ToolRegistry reflects on its methods and parameter names.
+  private TransactionTemplate readTransaction;
+  private TransactionTemplate writeTransaction;
+
+  @PostConstruct
+  void initTransactions() {
+    readTransaction = new TransactionTemplate(transactionManager);
+    readTransaction.setReadOnly(true);
+    writeTransaction = new TransactionTemplate(transactionManager);
+  }
+
   /**
    * Tool 1: Get customer account details.
    *
@@ -34,6 +91,11 @@ public class CustomerSupportAgent {
    * @return customer account data
    */
   public Map<String, Object> getCustomerAccount(String customerId, Map<String, Object> context) {
+    return invoke(
+        "getCustomerAccount", readTransaction, () -> doGetCustomerAccount(customerId, context));
+  }
+
+  private Map<String, Object> doGetCustomerAccount(String customerId, Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -52,7 +114,7 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    logger.info(CustomerSupportAgent.class, "Fetching customer account: " + customerId);
+    logger.info(CustomerSupportAgent.class, "Fetching customer account: {}", customerId);
     // Retrieve customer
     Optional<Customer> customerOpt = customerRepository.findById(customerId);
     if (customerOpt.isEmpty()) {
@@ -85,6 +147,12 @@ public class CustomerSupportAgent {
    */
   public Map<String, Object> processPayment(
       String customerId, Double amount, Map<String, Object> context) {
+    return invoke(
+        "processPayment", writeTransaction, () -> doProcessPayment(customerId, amount, context));
+  }
+
+  private Map<String, Object> doProcessPayment(
+      String customerId, Double amount, Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -100,7 +168,7 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    double paymentAmount = ValidationUtils.roundAmount(amount);
+    long paymentAmount = amountMinor(amount);
 
     if (!ValidationUtils.isValidAmount(paymentAmount)) {
       result.put("success", false);
@@ -108,8 +176,8 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    // Get customer
-    Optional<Customer> customerOpt = customerRepository.findById(customerId);
+    // Get customer, locked and read past the entity cache
+    Optional<Customer> customerOpt = customerRepository.findByIdForUpdate(customerId);
     if (customerOpt.isEmpty()) {
       result.put("success", false);
       result.put("error", "Customer not found");
@@ -119,18 +187,26 @@ public class CustomerSupportAgent {
     Customer customer = customerOpt.get();
 
     // Process payment
-    double currentBalance = customer.getBalance();
-    double newBalance = ValidationUtils.roundAmount(currentBalance + paymentAmount);
-    customer.setBalance(newBalance);
+    long newBalance = Math.addExact(customer.getBalanceMinor(), paymentAmount);
+    customer.setBalanceMinor(newBalance);
     customerRepository.save(customer);
+    analytics.record(AnalyticsMetric.PAYMENTS, null, paymentAmount);
+    afterCommit(() -> versions.bump(customerId));
 
-    logger.info(
+    logger.infoKv(
         CustomerSupportAgent.class,
-        "Processed payment for customer: " + customerId + ", amount: " + paymentAmount);
+        "Processed payment",
+        "customerId",
+        customerId,
+        "amount",
+        Money.toDecimal(paymentAmount));
 
     if (notificationService != null) {
-      notificationService.notifyPaymentProcessed(customerId, paymentAmount);
-      notificationService.notifyAnalyticsUpdated();
+      afterCommit(
+          () -> {
+            notificationService.notifyPaymentProcessed(customerId, paymentAmount);
+            notificationService.notifyAnalyticsUpdated();
+          });
     }
 
     // Generate transaction ID
@@ -143,8 +219,8 @@ public class CustomerSupportAgent {
 
     Map<String, Object> data = new HashMap<>();
     data.put("transactionId", transactionId);
-    data.put("amount", paymentAmount);
-    data.put("newBalance", newBalance);
+    data.put("amount", Money.toDouble(paymentAmount));
+    data.put("newBalance", Money.toDouble(newBalance));
     data.put("timestamp", LocalDateTime.now().toString());
 
     result.put("success", true);
@@ -169,6 +245,18 @@ public class CustomerSupportAgent {
       String description,
       String priority,
       Map<String, Object> context) {
+    return invoke(
+        "createTicket",
+        writeTransaction,
+        () -> doCreateTicket(customerId, subject, description, priority, context));
+  }
+
+  private Map<String, Object> doCreateTicket(
+      String customerId,
+      String subject,
+      String description,
+      String priority,
+      Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -203,22 +291,65 @@ public class CustomerSupportAgent {
       return result;
     }
 
+    String sanitizedSubject = ValidationUtils.sanitize(subject);
+    String sanitizedDescription = ValidationUtils.sanitize(description);
+
+    // Return the customer's open ticket for the same issue instead of filing a near-duplicate
+    for (NearDuplicate duplicate :
+        duplicateDetector.findDuplicates(customerId, sanitizedSubject, sanitizedDescription)) {
+      Optional<Ticket> existing =
+          ticketRepository
+              .findById(duplicate.ticketId())
+              // The index tells customers apart by hash only
+              .filter(t -> customerId.equals(t.getCustomerId()))
+              .filter(t -> !"closed".equals(t.getStatus()));
+      if (existing.isPresent()) {
+        logger.infoKv(
+            CustomerSupportAgent.class,
+            "Matched near-duplicate ticket",
+            "customerId",
+            customerId,
+            "ticketId",
+            duplicate.ticketId(),
+            "similarity",
+            duplicate.similarity());
+        result.put("success", true);
+        result.put("duplicate", true);
+        result.put("similarity", duplicate.similarity());
+        result.put("data", ticketToMap(existing.get()));
+        result.put("message", "A similar open ticket already exists");
+        return result;
+      }
+    }
+
     // Create ticket
     String ticketId = TransactionIdGenerator.generateTicketId();
     Ticket ticket = new Ticket();
     ticket.setTicketId(ticketId);
     ticket.setCustomerId(customerId);
-    ticket.setSubject(ValidationUtils.sanitize(subject));
-    ticket.setDescription(ValidationUtils.sanitize(description));
+    ticket.setSubject(sanitizedSubject);
+    ticket.setDescription(sanitizedDescription);
     ticket.setPriority(priority.toLowerCase());
     ticket.setStatus("open");
     ticket.setCreated(LocalDateTime.now());
+    ticket.setSlaDue(slaEngine.dueFrom(ticket.getCreated(), ticket.getPriority()));
 
     ticketRepository.save(ticket);
+    duplicateDetector.register(ticket);
+    analytics.record(AnalyticsMetric.TICKETS_CREATED, ticket.getPriority(), 0);
+    afterCommit(
+        () -> {
+          versions.bump(customerId);
+          slaEngine.track(ticketId, ticket.getSlaDue());
+          workQueue.enqueue(ticket);
+        });
 
     if (notificationService != null) {
-      notificationService.notifyTicketCreated(customerId, ticketId);
-      notificationService.notifyAnalyticsUpdated();
+      afterCommit(
+          () -> {
+            notificationService.notifyTicketCreated(customerId, ticketId);
+            notificationService.notifyAnalyticsUpdated();
+          });
     }
 
     result.put("success", true);
@@ -237,6 +368,30 @@ public class CustomerSupportAgent {
    */
   public Map<String, Object> getTickets(
       String customerId, String status, Map<String, Object> context) {
+    return invoke(
+        "getTickets", readTransaction, () -> doGetTickets(customerId, status, false, context));
+  }
+
+  /**
+   * Tool 4 followed by the customer's archived tickets, for the REST and GraphQL APIs. Not offered
+   * to the agents: archived tickets are closed and read from compressed storage. Named apart from
+   * getTickets because tools are looked up by method name.
+   *
+   * @param customerId the customer ID
+   * @param status filter by status (optional, use "all" for all)
+   * @param context tool context
+   * @return list of tickets, live ones first
+   */
+  public Map<String, Object> getTicketsIncludingArchived(
+      String customerId, String status, Map<String, Object> context) {
+    return invoke(
+        "getTicketsIncludingArchived",
+        readTransaction,
+        () -> doGetTickets(customerId, status, true, context));
+  }
+
+  private Map<String, Object> doGetTickets(
+      String customerId, String status, boolean includeArchived, Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -270,6 +425,13 @@ public class CustomerSupportAgent {
 
     List<Map<String, Object>> ticketMaps =
         tickets.stream().map(this::ticketToMap).collect(Collectors.toList());
+    if (includeArchived) {
+      List<Ticket> archived =
+          ticketArchiver.archivedTickets(
+              customerId, normalizedStatus.equals("all") ? null : normalizedStatus);
+      archived.stream().map(this::ticketToMap).forEach(ticketMaps::add);
+      result.put("archivedCount", archived.size());
+    }
 
     result.put("success", true);
     result.put("data", ticketMaps);
@@ -288,6 +450,14 @@ public class CustomerSupportAgent {
    */
   public Map<String, Object> updateAccountSettings(
       String customerId, String email, String tier, Map<String, Object> context) {
+    return invoke(
+        "updateAccountSettings",
+        writeTransaction,
+        () -> doUpdateAccountSettings(customerId, email, tier, context));
+  }
+
+  private Map<String, Object> doUpdateAccountSettings(
+      String customerId, String email, String tier, Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -315,8 +485,8 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    // Get customer
-    Optional<Customer> customerOpt = customerRepository.findById(customerId);
+    // Get customer, locked and read past the entity cache
+    Optional<Customer> customerOpt = customerRepository.findByIdForUpdate(customerId);
     if (customerOpt.isEmpty()) {
       result.put("success", false);
       result.put("error", "Customer not found");
@@ -338,6 +508,7 @@ public class CustomerSupportAgent {
     }
 
     customerRepository.save(customer);
+    afterCommit(() -> versions.bump(customerId));
 
     // Clear cache
     if (context != null) {
@@ -351,7 +522,8 @@ public class CustomerSupportAgent {
   }
 
   /**
-   * Tool 6: Validate refund eligibility.
+   * Tool 6: Validate refund eligibility. An eligible customer gets a signed, single-use refund
+   * token, kept in the context for {@link #processRefund}.
    *
    * @param customerId the customer ID
    * @param context tool context
@@ -359,6 +531,14 @@ public class CustomerSupportAgent {
    */
   public Map<String, Object> validateRefundEligibility(
       String customerId, Map<String, Object> context) {
+    return invoke(
+        "validateRefundEligibility",
+        readTransaction,
+        () -> doValidateRefundEligibility(customerId, context));
+  }
+
+  private Map<String, Object> doValidateRefundEligibility(
+      String customerId, Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -391,10 +571,18 @@ public class CustomerSupportAgent {
     data.put("accountStatus", status);
 
     if (eligible) {
+      // Up to the current balance; processRefund trusts the token instead of checking again
+      RefundToken token =
+          refundTokens.issue(
+              customerId, Math.min(customer.getBalanceMinor(), ValidationUtils.MAX_AMOUNT_MINOR));
       data.put("message", "Customer is eligible for refund");
+      data.put("refundToken", token.token());
+      data.put("maxAmount", Money.toDouble(token.maxAmountMinor()));
+      data.put("tokenExpiresAt", Instant.ofEpochSecond(token.expiresAt()).toString());
       // Store validation state
       if (context != null) {
         context.put("refund_validated_" + customerId, true);
+        context.put(RefundTokens.contextKey(customerId), token.token());
       }
     } else {
       if (daysSinceCreation > 30) {
@@ -414,11 +602,17 @@ public class CustomerSupportAgent {
    *
    * @param customerId the customer ID
    * @param amount refund amount
-   * @param context tool context
+   * @param context tool context holding the token from {@link #validateRefundEligibility}
    * @return refund result
    */
   public Map<String, Object> processRefund(
       String customerId, Double amount, Map<String, Object> context) {
+    return invoke(
+        "processRefund", writeTransaction, () -> doProcessRefund(customerId, amount, context));
+  }
+
+  private Map<String, Object> doProcessRefund(
+      String customerId, Double amount, Map<String, Object> context) {
     Map<String, Object> result = new HashMap<>();
 
     // Validation
@@ -428,12 +622,19 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    // Check validation state
-    if (context == null || !Boolean.TRUE.equals(context.get("refund_validated_" + customerId))) {
+    // Check the eligibility token from validateRefundEligibility
+    Object token = context == null ? null : context.get(RefundTokens.contextKey(customerId));
+    if (token == null) {
       result.put("success", false);
       result.put("error", "Refund eligibility must be validated first");
       return result;
     }
+    RefundToken grant = refundTokens.verify(token.toString(), customerId);
+    if (grant == null) {
+      result.put("success", false);
+      result.put("error", "Refund eligibility has expired or is invalid; validate again");
+      return result;
+    }
 
     if (amount == null) {
       result.put("success", false);
@@ -441,7 +642,7 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    double refundAmount = ValidationUtils.roundAmount(amount);
+    long refundAmount = amountMinor(amount);
 
     if (!ValidationUtils.isValidAmount(refundAmount)) {
       result.put("success", false);
@@ -449,8 +650,8 @@ public class CustomerSupportAgent {
       return result;
     }
 
-    // Get customer
-    Optional<Customer> customerOpt = customerRepository.findById(customerId);
+    // Get customer, locked and read past the entity cache
+    Optional<Customer> customerOpt = customerRepository.findByIdForUpdate(customerId);
     if (customerOpt.isEmpty()) {
       result.put("success", false);
       result.put("error", "Customer not found");
@@ -460,17 +661,35 @@ public class CustomerSupportAgent {
     Customer customer = customerOpt.get();
 
     // Check sufficient balance
-    double currentBalance = customer.getBalance();
+    long currentBalance = customer.getBalanceMinor();
     if (currentBalance < refundAmount) {
       result.put("success", false);
       result.put("error", "Insufficient balance for refund");
       return result;
     }
 
+    if (refundAmount > grant.maxAmountMinor()) {
+      result.put("success", false);
+      result.put(
+          "error",
+          "Refund amount exceeds the validated maximum of "
+              + Money.toDecimal(grant.maxAmountMinor()));
+      return result;
+    }
+
+    if (!refundTokens.spend(grant)) {
+      result.put("success", false);
+      result.put("error", "Refund eligibility has already been used; validate again");
+      return result;
+    }
+    afterRollback(() -> refundTokens.unspend(grant));
+
     // Process refund
-    double newBalance = ValidationUtils.roundAmount(currentBalance - refundAmount);
-    customer.setBalance(newBalance);
+    long newBalance = currentBalance - refundAmount;
+    customer.setBalanceMinor(newBalance);
     customerRepository.save(customer);
+    analytics.record(AnalyticsMetric.REFUNDS, null, refundAmount);
+    afterCommit(() -> versions.bump(customerId));
 
     String refundId = TransactionIdGenerator.generateRefundId();
 
@@ -478,12 +697,13 @@ public class CustomerSupportAgent {
     if (context != null) {
       context.remove("customer_" + customerId);
       context.remove("refund_validated_" + customerId);
+      context.remove(RefundTokens.contextKey(customerId));
     }
 
     Map<String, Object> data = new HashMap<>();
     data.put("refundId", refundId);
-    data.put("amount", refundAmount);
-    data.put("newBalance", newBalance);
+    data.put("amount", Money.toDouble(refundAmount));
+    data.put("newBalance", Money.toDouble(newBalance));
     data.put("processedAt", LocalDateTime.now().toString());
     data.put("estimatedArrival", "5-7 business days");
 
@@ -493,13 +713,236 @@ public class CustomerSupportAgent {
     return result;
   }
 
+  /**
+   * Tool 8: Search a customer's tickets by subject and description. Other customers' tickets are
+   * never returned.
+   *
+   * @param customerId the customer ID
+   * @param query free-text search terms
+   * @param status filter by status (optional, use "all" for all)
+   * @param context tool context
+   * @return best-matching tickets, most relevant first
+   */
+  public Map<String, Object> searchTickets(
+      String customerId, String query, String status, Map<String, Object> context) {
+    return invoke(
+        "searchTickets",
+        readTransaction,
+        () -> doSearchTickets(customerId, query, status, context));
+  }
+
+  private Map<String, Object> doSearchTickets(
+      String customerId, String query, String status, Map<String, Object> context) {
+    Map<String, Object> result = new HashMap<>();
+
+    // Validation
+    if (!ValidationUtils.isValidCustomerId(customerId)) {
+      result.put("success", false);
+      result.put("error", "Invalid customer ID");
+      return result;
+    }
+
+    String sanitizedQuery = ValidationUtils.sanitize(query);
+    if (sanitizedQuery.isEmpty()) {
+      result.put("success", false);
+      result.put("error", "Search query is required");
+      return result;
+    }
+
+    if (sanitizedQuery.length() > MAX_SEARCH_QUERY_LENGTH) {
+      result.put("success", false);
+      result.put("error", "Search query must be at most 200 characters");
+      return result;
+    }
+
+    if (status == null || status.isBlank()) {
+      status = "all";
+    }
+    if (!ValidationUtils.isValidStatus(status)) {
+      result.put("success", false);
+      result.put("error", "Invalid status. Must be: open, closed, pending, or all");
+      return result;
+    }
+
+    String normalizedStatus = status.trim().toLowerCase();
+    List<Ticket> tickets =
+        ticketSearch.search(
+            sanitizedQuery,
+            customerId,
+            normalizedStatus.equals("all") ? null : normalizedStatus,
+            0,
+            MAX_SEARCH_RESULTS);
+
+    List<Map<String, Object>> ticketMaps =
+        tickets.stream().map(this::ticketToMap).collect(Collectors.toList());
+
+    result.put("success", true);
+    result.put("data", ticketMaps);
+    result.put("count", ticketMaps.size());
+    return result;
+  }
+
+  /**
+   * Tool 9: Update a ticket's status. Moving a ticket to pending or closed stops its SLA clock;
+   * moving it back to open starts a new response-time deadline.
+   *
+   * @param customerId the customer ID that owns the ticket
+   * @param ticketId the ticket ID
+   * @param status the new status: open, pending, or closed
+   * @param context tool context
+   * @return the updated ticket
+   */
+  public Map<String, Object> updateTicketStatus(
+      String customerId, String ticketId, String status, Map<String, Object> context) {
+    return invoke(
+        "updateTicketStatus",
+        writeTransaction,
+        () -> doUpdateTicketStatus(customerId, ticketId, status, context));
+  }
+
+  private Map<String, Object> doUpdateTicketStatus(
+      String customerId, String ticketId, String status, Map<String, Object> context) {
+    Map<String, Object> result = new HashMap<>();
+
+    // Validation
+    if (!ValidationUtils.isValidCustomerId(customerId)) {
+      result.put("success", false);
+      result.put("error", "Invalid customer ID");
+      return result;
+    }
+
+    if (ticketId == null || ticketId.trim().isEmpty()) {
+      result.put("success", false);
+      result.put("error", "Ticket ID is required");
+      return result;
+    }
+
+    if (!ValidationUtils.isValidStatus(status) || status.trim().equalsIgnoreCase("all")) {
+      result.put("success", false);
+      result.put("error", "Invalid status. Must be: open, pending, or closed");
+      return result;
+    }
+
+    // Get ticket; another customer's ticket is reported as not found
+    Optional<Ticket> ticketOpt =
+        ticketRepository
+            .findById(ticketId.trim())
+            .filter(t -> customerId.equals(t.getCustomerId()));
+    if (ticketOpt.isEmpty()) {
+      result.put("success", false);
+      result.put("error", "Ticket not found");
+      return result;
+    }
+
+    Ticket ticket = ticketOpt.get();
+    String previousStatus = ticket.getStatus();
+    String newStatus = status.trim().toLowerCase();
+    if (newStatus.equals(previousStatus)) {
+      result.put("success", false);
+      result.put("error", "Ticket is already " + newStatus);
+      return result;
+    }
+
+    // Update status and SLA deadline
+    ticket.setStatus(newStatus);
+    ticket.setSlaDue(
+        newStatus.equals("open")
+            ? slaEngine.dueFrom(LocalDateTime.now(), ticket.getPriority())
+            : null);
+    ticketRepository.save(ticket);
+    analytics.record(AnalyticsMetric.TICKET_STATUS, newStatus, 0);
+
+    logger.infoKv(
+        CustomerSupportAgent.class,
+        "Updated ticket status",
+        "ticketId",
+        ticket.getTicketId(),
+        "from",
+        previousStatus,
+        "to",
+        newStatus);
+
+    LocalDateTime slaDue = ticket.getSlaDue();
+    afterCommit(
+        () -> {
+          versions.bump(customerId);
+          slaEngine.track(ticket.getTicketId(), slaDue);
+          workQueue.enqueue(ticket);
+          if (notificationService != null) {
+            notificationService.notifyTicketStatusChanged(
+                customerId, ticket.getTicketId(), newStatus);
+            notificationService.notifyAnalyticsUpdated();
+          }
+        });
+
+    Map<String, Object> data = ticketToMap(ticket);
+    data.put("previousStatus", previousStatus);
+
+    result.put("success", true);
+    result.put("data", data);
+    result.put("message", "Ticket status updated to " + newStatus);
+    return result;
+  }
+
+  /** Runs a tool body in a transaction inside its span, and records its metrics. */
+  private Map<String, Object> invoke(
+      String tool, TransactionTemplate transaction, Supplier<Map<String, Object>> body) {
+    return tracing.inSpan(
+        "tool " + tool,
+        () -> toolMetrics.record(tool, () -> transaction.execute(status -> body.get())));
+  }
+
+  /**
+   * A tool's amount argument in minor units, or 0 (rejected as invalid) if it is not a finite
+   * number within range. The range check is in major units, before rounding, so nothing above the
+   * maximum rounds down into it.
+   */
+  private static long amountMinor(double amount) {
+    if (!Double.isFinite(amount)
+        || Math.abs(amount) > Money.toDouble(ValidationUtils.MAX_AMOUNT_MINOR)) {
+      return 0;
+    }
+    return Money.fromDouble(amount);
+  }
+
+  /** Runs an action once the current transaction commits, or immediately outside one. */
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  /** Runs an action if the current transaction rolls back. */
+  private static void afterRollback(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+              action.run();
+            }
+          }
+        });
+  }
+
   private Map<String, Object> customerToMap(Customer customer) {
     Map<String, Object> map = new HashMap<>();
     map.put("customerId", customer.getCustomerId());
     map.put("name", customer.getName());
     map.put("email", customer.getEmail());
     map.put("tier", customer.getTier());
-    map.put("balance", customer.getBalance());
+    map.put("balance", Money.toDouble(customer.getBalanceMinor()));
     map.put("accountCreated", customer.getAccountCreated());
     map.put("status", customer.getStatus());
     return map;
@@ -514,6 +957,12 @@ public class CustomerSupportAgent {
     map.put("priority", ticket.getPriority());
     map.put("status", ticket.getStatus());
     map.put("created", ticket.getCreated().toString());
+    if (ticket.getSlaDue() != null) {
+      map.put("slaDue", ticket.getSlaDue().toString());
+    }
+    if (ticket.getAssignee() != null) {
+      map.put("assignee", ticket.getAssignee());
+    }
     return map;
   }
 }
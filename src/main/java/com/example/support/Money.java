@@ -0,0 +1,51 @@
+package com.example.support;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as a {@code long} count of minor units (cents). Balances and amounts are stored as {@code
+ * NUMERIC(19,2)} and held and summed as minor units everywhere in between, so arithmetic is exact
+ * and never boxes; conversion to a decimal or a {@code double} happens only at the API edge.
+ */
+public final class Money {
+
+  /** Fractional digits of a major unit. */
+  public static final int SCALE = 2;
+
+  private static final double MINOR_PER_MAJOR = 100.0;
+
+  private Money() {}
+
+  /**
+   * Converts an amount in major units, as the model and JSON clients send it, to minor units.
+   * Sub-cent digits are rounded half up.
+   *
+   * @param amount the amount; its shortest decimal form is taken, so {@code 0.1} is ten cents
+   */
+  public static long fromDouble(double amount) {
+    return fromDecimal(BigDecimal.valueOf(amount));
+  }
+
+  /**
+   * Converts a decimal amount in major units to minor units, rounding sub-cent digits half up.
+   *
+   * @throws ArithmeticException if the amount does not fit in a {@code long} of minor units
+   */
+  public static long fromDecimal(BigDecimal amount) {
+    return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  /** The exact decimal value of an amount in minor units, with two fractional digits. */
+  public static BigDecimal toDecimal(long minor) {
+    return BigDecimal.valueOf(minor, SCALE);
+  }
+
+  /**
+   * The nearest {@code double} to an amount in minor units, for JSON responses. It prints as the
+   * exact decimal, but must not be used for further arithmetic.
+   */
+  public static double toDouble(long minor) {
+    return minor / MINOR_PER_MAJOR;
+  }
+}
@@ -10,6 +10,12 @@ public class ValidationUtils {
 
   private static final Pattern CUSTOMER_ID_PATTERN = Pattern.compile("^CUST\\d{3,}$");
 
+  private static final Pattern AGENT_ID_PATTERN = Pattern.compile("^[A-Za-z0-9._@-]{1,100}$");
+
+  private static final Pattern UNSAFE_CHARACTERS = Pattern.compile("[<>\"']");
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
   /**
    * Validates a customer ID.
    *
@@ -22,6 +28,16 @@ public class ValidationUtils {
         && CUSTOMER_ID_PATTERN.matcher(customerId).matches();
   }
 
+  /**
+   * Validates a human agent's ID (a username or email address).
+   *
+   * @param agentId the agent ID to validate
+   * @return true if valid, false otherwise
+   */
+  public static boolean isValidAgentId(String agentId) {
+    return agentId != null && AGENT_ID_PATTERN.matcher(agentId).matches();
+  }
+
   /**
    * Validates an email address.
    *
@@ -32,14 +48,17 @@ public class ValidationUtils {
     return email != null && !email.trim().isEmpty() && EMAIL_PATTERN.matcher(email).matches();
   }
 
+  /** Largest payment or refund, in minor units (100,000.00). */
+  public static final long MAX_AMOUNT_MINOR = 10_000_000L;
+
   /**
    * Validates an amount is positive and within reasonable limits.
    *
-   * @param amount the amount to validate
+   * @param amountMinor the amount to validate, in minor units (see {@link Money})
    * @return true if valid, false otherwise
    */
-  public static boolean isValidAmount(double amount) {
-    return amount > 0 && amount <= 100000.00;
+  public static boolean isValidAmount(long amountMinor) {
+    return amountMinor > 0 && amountMinor <= MAX_AMOUNT_MINOR;
   }
 
   /**
@@ -102,16 +121,8 @@ public class ValidationUtils {
     if (input == null) {
       return "";
     }
-    return input.trim().replaceAll("[<>\"']", "").replaceAll("\\s+", " ");
-  }
-
-  /**
-   * Rounds an amount to 2 decimal places.
-   *
-   * @param amount the amount to round
-   * @return rounded amount
-   */
-  public static double roundAmount(double amount) {
-    return Math.round(amount * 100.0) / 100.0;
+    return WHITESPACE
+        .matcher(UNSAFE_CHARACTERS.matcher(input.trim()).replaceAll(""))
+        .replaceAll(" ");
   }
 }
@@ -0,0 +1,24 @@
+package com.example.support.analytics;
+
+/** What a rollup row counts. The dimension is noted per metric; it is empty where there is none. */
+public enum AnalyticsMetric {
+  /** Tickets created, by priority. */
+  TICKETS_CREATED("tickets_created"),
+  /** Ticket status changes, by the new status. */
+  TICKET_STATUS("ticket_status"),
+  /** Payments processed; the amount column holds their total. */
+  PAYMENTS("payments"),
+  /** Refunds processed; the amount column holds their total. */
+  REFUNDS("refunds");
+
+  private final String value;
+
+  AnalyticsMetric(String value) {
+    this.value = value;
+  }
+
+  /** The name stored in the rollup tables and returned to clients. */
+  public String value() {
+    return value;
+  }
+}
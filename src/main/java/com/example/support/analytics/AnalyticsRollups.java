@@ -0,0 +1,363 @@
+package com.example.support.analytics;
+
+import com.example.support.Money;
+import com.example.support.logging.CustomLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hourly and daily totals of ticket and money activity, for time-series charts that must not scan
+ * the raw tables.
+ *
+ * <p>Writes append one row to {@code analytics_deltas} inside the business transaction, so the
+ * totals commit or roll back with it and concurrent writers never contend on a shared counter row.
+ * A background job folds the deltas into {@code analytics_rollups} (one row per granularity,
+ * bucket, metric and dimension) and deletes them, and drops hourly rows past {@code
+ * support.analytics.hourly-retention}; daily rows are kept. Queries read the rollups plus the few
+ * deltas not yet folded in, so results are exact.
+ *
+ * <p>If two nodes fold the same new bucket at once, one transaction fails on the primary key and
+ * its deltas are simply folded on the next run.
+ */
+@Component
+public class AnalyticsRollups {
+
+  private static final int COMPACTION_BATCH_SIZE = 10_000;
+  private static final String INSERT_DELTA =
+      "INSERT INTO analytics_deltas (occurred, metric, dimension, count, amount)"
+          + " VALUES (?, ?, ?, ?, ?)";
+
+  // Resolved on first use: slice tests load this bean without a DataSource
+  @Autowired private ObjectProvider<DataSource> dataSource;
+
+  @Autowired private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  @Autowired private CustomLogger logger;
+
+  @Value("${support.analytics.compaction-interval:30s}")
+  private Duration compactionInterval;
+
+  @Value("${support.analytics.hourly-retention:400d}")
+  private Duration hourlyRetention;
+
+  private volatile JdbcTemplate jdbcTemplate;
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  void start() {
+    if (dataSource.getIfAvailable() == null) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "analytics-compaction");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = compactionInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(
+        this::runCompaction, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Counts one event now, in the caller's transaction.
+   *
+   * @param metric what happened
+   * @param dimension the breakdown value (priority, status), or null
+   * @param amountMinor the money involved, in minor units, or 0
+   */
+  public void record(AnalyticsMetric metric, String dimension, long amountMinor) {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return;
+    }
+    jdbc.update(
+        INSERT_DELTA,
+        Timestamp.valueOf(LocalDateTime.now()),
+        metric.value(),
+        dimension == null ? "" : dimension,
+        1,
+        Money.toDecimal(amountMinor));
+  }
+
+  /**
+   * Counts many events now, one delta per dimension value, on a connection the caller commits
+   * itself (bulk imports, which run outside Spring's transactions).
+   *
+   * @param connection the caller's connection, in its open transaction
+   * @param metric what happened
+   * @param counts events per dimension value
+   */
+  public void record(Connection connection, AnalyticsMetric metric, Map<String, Long> counts)
+      throws SQLException {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    try (PreparedStatement insert = connection.prepareStatement(INSERT_DELTA)) {
+      for (Map.Entry<String, Long> count : counts.entrySet()) {
+        insert.setTimestamp(1, now);
+        insert.setString(2, metric.value());
+        insert.setString(3, count.getKey() == null ? "" : count.getKey());
+        insert.setLong(4, count.getValue());
+        insert.setBigDecimal(5, BigDecimal.ZERO);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  /**
+   * Totals per bucket in {@code [from, to)}, ordered by bucket, metric and dimension. Buckets with
+   * no activity are omitted.
+   *
+   * @throws IllegalArgumentException if the range is empty or longer than the granularity allows
+   */
+  public List<TimeSeriesPoint> timeSeries(
+      LocalDateTime from, LocalDateTime to, Granularity granularity) {
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+    if (Duration.between(from, to).compareTo(granularity.maxRange()) > 0) {
+      throw new IllegalArgumentException(
+          "Range too long for "
+              + granularity.value()
+              + " granularity; at most "
+              + granularity.maxRange().toDays()
+              + " days");
+    }
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return List.of();
+    }
+    Timestamp start = Timestamp.valueOf(granularity.bucket(from));
+    Timestamp end = Timestamp.valueOf(to);
+
+    TransactionTemplate readTransaction = new TransactionTemplate(transactionManager.getObject());
+    readTransaction.setReadOnly(true);
+    Map<RollupKey, Totals> totals = new HashMap<>();
+    readTransaction.executeWithoutResult(
+        status -> {
+          jdbc.query(
+              "SELECT bucket_start, metric, dimension, count, amount FROM analytics_rollups"
+                  + " WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?",
+              rs -> {
+                totals
+                    .computeIfAbsent(
+                        new RollupKey(
+                            rs.getTimestamp(1).toLocalDateTime(), rs.getString(2), rs.getString(3)),
+                        key -> new Totals())
+                    .add(rs.getLong(4), Money.fromDecimal(rs.getBigDecimal(5)));
+              },
+              granularity.value(),
+              start,
+              end);
+          // Deltas not folded in yet: at most one compaction interval's worth
+          jdbc.query(
+              "SELECT occurred, metric, dimension, count, amount FROM analytics_deltas"
+                  + " WHERE occurred >= ? AND occurred < ?",
+              rs -> {
+                totals
+                    .computeIfAbsent(
+                        new RollupKey(
+                            granularity.bucket(rs.getTimestamp(1).toLocalDateTime()),
+                            rs.getString(2),
+                            rs.getString(3)),
+                        key -> new Totals())
+                    .add(rs.getLong(4), Money.fromDecimal(rs.getBigDecimal(5)));
+              },
+              start,
+              end);
+        });
+
+    List<TimeSeriesPoint> points = new ArrayList<>(totals.size());
+    totals.forEach(
+        (key, total) ->
+            points.add(
+                new TimeSeriesPoint(
+                    key.bucket(), key.metric(), key.dimension(), total.count, total.amountMinor)));
+    points.sort(
+        Comparator.comparing(TimeSeriesPoint::bucket)
+            .thenComparing(TimeSeriesPoint::metric)
+            .thenComparing(TimeSeriesPoint::dimension));
+    return points;
+  }
+
+  /**
+   * Folds the oldest pending deltas into the hourly and daily rollups and deletes them.
+   *
+   * @return the number of deltas folded; less than the batch size once the backlog is drained
+   */
+  public int compact() {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return 0;
+    }
+    TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager.getObject());
+    Integer folded =
+        writeTransaction.execute(
+            status -> {
+              List<Long> ids = new ArrayList<>();
+              Map<RollupKey, Totals> hourly = new HashMap<>();
+              Map<RollupKey, Totals> daily = new HashMap<>();
+              jdbc.query(
+                  "SELECT id, occurred, metric, dimension, count, amount FROM analytics_deltas"
+                      + " ORDER BY id LIMIT ? FOR UPDATE",
+                  rs -> {
+                    ids.add(rs.getLong(1));
+                    LocalDateTime occurred = rs.getTimestamp(2).toLocalDateTime();
+                    String metric = rs.getString(3);
+                    String dimension = rs.getString(4);
+                    long count = rs.getLong(5);
+                    long amountMinor = Money.fromDecimal(rs.getBigDecimal(6));
+                    hourly
+                        .computeIfAbsent(
+                            new RollupKey(Granularity.HOUR.bucket(occurred), metric, dimension),
+                            key -> new Totals())
+                        .add(count, amountMinor);
+                    daily
+                        .computeIfAbsent(
+                            new RollupKey(Granularity.DAY.bucket(occurred), metric, dimension),
+                            key -> new Totals())
+                        .add(count, amountMinor);
+                  },
+                  COMPACTION_BATCH_SIZE);
+              if (ids.isEmpty()) {
+                return 0;
+              }
+              addToRollups(jdbc, Granularity.HOUR, hourly);
+              addToRollups(jdbc, Granularity.DAY, daily);
+              jdbc.batchUpdate(
+                  "DELETE FROM analytics_deltas WHERE id = ?",
+                  ids,
+                  COMPACTION_BATCH_SIZE,
+                  (ps, id) -> ps.setLong(1, id));
+              return ids.size();
+            });
+    return folded != null ? folded : 0;
+  }
+
+  /**
+   * Deletes hourly rollups older than the retention period, in its own write transaction.
+   *
+   * @return the number of rows deleted
+   */
+  public int purgeExpiredHourly() {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return 0;
+    }
+    TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager.getObject());
+    Integer purged =
+        writeTransaction.execute(
+            status ->
+                jdbc.update(
+                    "DELETE FROM analytics_rollups WHERE granularity = ? AND bucket_start < ?",
+                    Granularity.HOUR.value(),
+                    Timestamp.valueOf(LocalDateTime.now().minus(hourlyRetention))));
+    return purged != null ? purged : 0;
+  }
+
+  private void runCompaction() {
+    try {
+      int total = 0;
+      int folded;
+      do {
+        folded = compact();
+        total += folded;
+      } while (folded == COMPACTION_BATCH_SIZE);
+      int purged = purgeExpiredHourly();
+      if (total > 0 || purged > 0) {
+        logger.debug(
+            AnalyticsRollups.class, "Folded {} deltas, purged {} hourly rollups", total, purged);
+      }
+    } catch (RuntimeException e) {
+      logger.warn(AnalyticsRollups.class, "Analytics compaction failed: {}", e.getMessage());
+    }
+  }
+
+  private static void addToRollups(
+      JdbcTemplate jdbc, Granularity granularity, Map<RollupKey, Totals> totals) {
+    for (Map.Entry<RollupKey, Totals> entry : totals.entrySet()) {
+      RollupKey key = entry.getKey();
+      Totals total = entry.getValue();
+      Timestamp bucket = Timestamp.valueOf(key.bucket());
+      int updated =
+          jdbc.update(
+              "UPDATE analytics_rollups SET count = count + ?, amount = amount + ?"
+                  + " WHERE granularity = ? AND bucket_start = ? AND metric = ? AND dimension = ?",
+              total.count,
+              Money.toDecimal(total.amountMinor),
+              granularity.value(),
+              bucket,
+              key.metric(),
+              key.dimension());
+      if (updated == 0) {
+        jdbc.update(
+            "INSERT INTO analytics_rollups"
+                + " (granularity, bucket_start, metric, dimension, count, amount)"
+                + " VALUES (?, ?, ?, ?, ?, ?)",
+            granularity.value(),
+            bucket,
+            key.metric(),
+            key.dimension(),
+            total.count,
+            Money.toDecimal(total.amountMinor));
+      }
+    }
+  }
+
+  private JdbcTemplate jdbc() {
+    JdbcTemplate jdbc = jdbcTemplate;
+    if (jdbc == null) {
+      DataSource source = dataSource.getIfAvailable();
+      if (source == null) {
+        return null;
+      }
+      jdbc = new JdbcTemplate(source);
+      jdbcTemplate = jdbc;
+    }
+    return jdbc;
+  }
+
+  private record RollupKey(LocalDateTime bucket, String metric, String dimension) {}
+
+  /** Exact running totals: money is summed as minor units, never as doubles. */
+  private static final class Totals {
+    long count;
+    long amountMinor;
+
+    void add(long count, long amountMinor) {
+      this.count += count;
+      this.amountMinor = Math.addExact(this.amountMinor, amountMinor);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.support.analytics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/** Rollup bucket widths, with the longest range a single time-series query may span. */
+public enum Granularity {
+  HOUR(ChronoUnit.HOURS, Duration.ofDays(92)),
+  DAY(ChronoUnit.DAYS, Duration.ofDays(3 * 366));
+
+  private final ChronoUnit unit;
+  private final Duration maxRange;
+
+  Granularity(ChronoUnit unit, Duration maxRange) {
+    this.unit = unit;
+    this.maxRange = maxRange;
+  }
+
+  /** The name stored in the rollup table. */
+  public String value() {
+    return name().toLowerCase();
+  }
+
+  /** The start of the bucket holding the given time. */
+  public LocalDateTime bucket(LocalDateTime time) {
+    return time.truncatedTo(unit);
+  }
+
+  public Duration maxRange() {
+    return maxRange;
+  }
+
+  /**
+   * Parses a granularity.
+   *
+   * @throws IllegalArgumentException if the value is not hour or day
+   */
+  public static Granularity from(String value) {
+    if (value != null) {
+      for (Granularity granularity : values()) {
+        if (granularity.value().equalsIgnoreCase(value.trim())) {
+          return granularity;
+        }
+      }
+    }
+    throw new IllegalArgumentException("Invalid granularity. Must be: hour or day");
+  }
+}
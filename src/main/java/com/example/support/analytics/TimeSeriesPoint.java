@@ -0,0 +1,11 @@
+package com.example.support.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * One metric's totals for one bucket of a time series.
+ *
+ * @param amountMinor the money involved, in minor units; see {@link com.example.support.Money}
+ */
+public record TimeSeriesPoint(
+    LocalDateTime bucket, String metric, String dimension, long count, long amountMinor) {}
@@ -0,0 +1,90 @@
+package com.example.support.archive;
+
+import com.example.support.entity.Ticket;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped NDJSON holding one archive chunk's tickets. Field names are written explicitly rather
+ * than derived from the entity, so chunks stay readable after the entity changes.
+ */
+final class ArchiveCodec {
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private ArchiveCodec() {}
+
+  static byte[] encode(List<Ticket> tickets) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * tickets.size());
+    try (OutputStream gzip = new GZIPOutputStream(bytes);
+        JsonGenerator generator = JSON.createGenerator(gzip)) {
+      for (Ticket ticket : tickets) {
+        generator.writeStartObject();
+        generator.writeStringField("ticketId", ticket.getTicketId());
+        generator.writeStringField("customerId", ticket.getCustomerId());
+        generator.writeStringField("subject", ticket.getSubject());
+        generator.writeStringField("description", ticket.getDescription());
+        generator.writeStringField("priority", ticket.getPriority());
+        generator.writeStringField("status", ticket.getStatus());
+        writeTime(generator, "created", ticket.getCreated());
+        if (ticket.getAssignee() != null) {
+          generator.writeStringField("assignee", ticket.getAssignee());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static List<Ticket> decode(byte[] payload) {
+    List<Ticket> tickets = new ArrayList<>();
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload));
+        JsonParser parser = JSON.createParser(gzip)) {
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        Ticket ticket = new Ticket();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          String value = parser.nextTextValue();
+          switch (field) {
+            case "ticketId" -> ticket.setTicketId(value);
+            case "customerId" -> ticket.setCustomerId(value);
+            case "subject" -> ticket.setSubject(value);
+            case "description" -> ticket.setDescription(value);
+            case "priority" -> ticket.setPriority(value);
+            case "status" -> ticket.setStatus(value);
+            case "created" -> ticket.setCreated(LocalDateTime.parse(value));
+            case "assignee" -> ticket.setAssignee(value);
+            default -> parser.skipChildren();
+          }
+        }
+        tickets.add(ticket);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return tickets;
+  }
+
+  private static void writeTime(JsonGenerator generator, String field, LocalDateTime time)
+      throws IOException {
+    if (time != null) {
+      generator.writeStringField(field, time.toString());
+    }
+  }
+}
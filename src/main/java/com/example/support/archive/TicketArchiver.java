@@ -0,0 +1,305 @@
+package com.example.support.archive;
+
+import com.example.support.entity.Ticket;
+import com.example.support.logging.CustomLogger;
+import com.example.support.search.TicketSearch;
+import com.example.support.versioning.CustomerVersions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the {@code tickets} table down to the working set.
+ *
+ * <p>On Postgres the table is range-partitioned by created month (V6). This job creates the
+ * partitions for the coming months ahead of time, and drops old partitions once archiving has
+ * emptied them; rows outside every partition land in {@code tickets_default}.
+ *
+ * <p>Closed tickets created more than {@code support.archive.closed-after} ago are moved, a batch
+ * at a time, into {@code ticket_archive}: one gzipped NDJSON chunk per customer and created month.
+ * Archived tickets are read-only and only returned when a caller asks for them (see {@link
+ * #archivedTickets}); search, the agent tools and updates see the live table only.
+ */
+@Component
+public class TicketArchiver {
+
+  private static final String TICKET_COLUMNS =
+      "ticket_id, customer_id, subject, description, priority, status, created, sla_due, assignee";
+
+  private static final RowMapper<Ticket> TICKET_ROW =
+      (rs, rowNum) -> {
+        Ticket ticket =
+            new Ticket(
+                rs.getString(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getTimestamp(7).toLocalDateTime());
+        Timestamp slaDue = rs.getTimestamp(8);
+        ticket.setSlaDue(slaDue != null ? slaDue.toLocalDateTime() : null);
+        ticket.setAssignee(rs.getString(9));
+        return ticket;
+      };
+
+  // Resolved on first use: slice tests load this bean without a DataSource
+  @Autowired private ObjectProvider<DataSource> dataSource;
+
+  @Autowired private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  @Autowired private ObjectProvider<TicketSearch> ticketSearch;
+
+  @Autowired private CustomerVersions versions;
+
+  @Autowired private CustomLogger logger;
+
+  @Value("${support.archive.enabled:true}")
+  private boolean enabled;
+
+  @Value("${support.archive.closed-after:180d}")
+  private Duration closedAfter;
+
+  @Value("${support.archive.interval:1h}")
+  private Duration interval;
+
+  @Value("${support.archive.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${support.tickets.partitions-ahead:3}")
+  private int partitionsAhead;
+
+  private volatile JdbcTemplate jdbcTemplate;
+  private volatile Boolean postgres;
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  void start() {
+    if (!enabled || dataSource.getIfAvailable() == null) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "ticket-archiver");
+              thread.setDaemon(true);
+              return thread;
+            });
+    // Partitions for this month and the next are needed before the first insert
+    scheduler.execute(this::maintainPartitions);
+    long millis = interval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::run, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Moves up to one batch of closed tickets created before the cutoff into the archive.
+   *
+   * @return the IDs of the archived tickets; fewer than the batch size once none are left
+   */
+  public List<String> archiveClosed(LocalDateTime cutoff) {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return List.of();
+    }
+    TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager.getObject());
+    Set<String> customers = new HashSet<>();
+    List<String> archived =
+        writeTransaction.execute(
+            status -> {
+              List<Ticket> tickets =
+                  jdbc.query(
+                      "SELECT "
+                          + TICKET_COLUMNS
+                          + " FROM tickets WHERE status = 'closed' AND created < ?"
+                          + " ORDER BY created, ticket_id LIMIT ? FOR UPDATE",
+                      TICKET_ROW,
+                      Timestamp.valueOf(cutoff),
+                      batchSize);
+              if (tickets.isEmpty()) {
+                return List.<String>of();
+              }
+              Map<ChunkKey, List<Ticket>> chunks = new LinkedHashMap<>();
+              for (Ticket ticket : tickets) {
+                customers.add(ticket.getCustomerId());
+                chunks
+                    .computeIfAbsent(
+                        new ChunkKey(
+                            ticket.getCustomerId(),
+                            ticket.getCreated().toLocalDate().withDayOfMonth(1)),
+                        key -> new ArrayList<>())
+                    .add(ticket);
+              }
+              Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+              chunks.forEach(
+                  (key, chunk) ->
+                      jdbc.update(
+                          "INSERT INTO ticket_archive"
+                              + " (customer_id, month_start, ticket_count, archived_at, payload)"
+                              + " VALUES (?, ?, ?, ?, ?)",
+                          key.customerId(),
+                          Date.valueOf(key.monthStart()),
+                          chunk.size(),
+                          now,
+                          ArchiveCodec.encode(chunk)));
+              // The created column lets Postgres prune each delete to a single partition
+              jdbc.batchUpdate(
+                  "DELETE FROM tickets WHERE ticket_id = ? AND created = ?",
+                  tickets,
+                  batchSize,
+                  (ps, ticket) -> {
+                    ps.setString(1, ticket.getTicketId());
+                    ps.setTimestamp(2, Timestamp.valueOf(ticket.getCreated()));
+                  });
+              return tickets.stream().map(Ticket::getTicketId).toList();
+            });
+    customers.forEach(versions::bump);
+    TicketSearch search = ticketSearch.getIfAvailable();
+    if (search != null) {
+      archived.forEach(search::ticketRemoved);
+    }
+    return archived;
+  }
+
+  /**
+   * A customer's archived tickets, oldest month first.
+   *
+   * @param status status filter, or null for any status
+   */
+  public List<Ticket> archivedTickets(String customerId, String status) {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return List.of();
+    }
+    TransactionTemplate readTransaction = new TransactionTemplate(transactionManager.getObject());
+    readTransaction.setReadOnly(true);
+    List<byte[]> payloads =
+        readTransaction.execute(
+            transaction ->
+                jdbc.queryForList(
+                    "SELECT payload FROM ticket_archive WHERE customer_id = ?"
+                        + " ORDER BY month_start, id",
+                    byte[].class,
+                    customerId));
+    List<Ticket> tickets = new ArrayList<>();
+    for (byte[] payload : payloads) {
+      for (Ticket ticket : ArchiveCodec.decode(payload)) {
+        if (status == null || status.equals(ticket.getStatus())) {
+          tickets.add(ticket);
+        }
+      }
+    }
+    return tickets;
+  }
+
+  /**
+   * Postgres only: creates the monthly partitions up to {@code support.tickets.partitions-ahead}
+   * months out and drops empty ones that ended before the archive cutoff.
+   */
+  public void maintainPartitions() {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null || !isPostgres(jdbc)) {
+      return;
+    }
+    try {
+      TransactionTemplate writeTransaction =
+          new TransactionTemplate(transactionManager.getObject());
+      LocalDate cutoff = LocalDate.now().minus(closedAfter).withDayOfMonth(1);
+      Integer[] changed =
+          writeTransaction.execute(
+              status ->
+                  new Integer[] {
+                    jdbc.queryForObject(
+                        "SELECT create_ticket_partitions(?)", Integer.class, partitionsAhead),
+                    jdbc.queryForObject(
+                        "SELECT drop_empty_ticket_partitions(?)",
+                        Integer.class,
+                        Date.valueOf(cutoff))
+                  });
+      logger.infoKv(
+          TicketArchiver.class,
+          "Maintained ticket partitions",
+          "created",
+          changed[0],
+          "dropped",
+          changed[1]);
+    } catch (RuntimeException e) {
+      logger.warn(TicketArchiver.class, "Ticket partition maintenance failed: {}", e.getMessage());
+    }
+  }
+
+  private void run() {
+    maintainPartitions();
+    try {
+      LocalDateTime cutoff = LocalDateTime.now().minus(closedAfter);
+      int total = 0;
+      int archived;
+      do {
+        archived = archiveClosed(cutoff).size();
+        total += archived;
+      } while (archived == batchSize);
+      if (total > 0) {
+        logger.infoKv(TicketArchiver.class, "Archived closed tickets", "tickets", total);
+      }
+    } catch (RuntimeException e) {
+      logger.warn(TicketArchiver.class, "Ticket archiving failed: {}", e.getMessage());
+    }
+  }
+
+  private boolean isPostgres(JdbcTemplate jdbc) {
+    Boolean known = postgres;
+    if (known == null) {
+      known =
+          jdbc.execute(
+              (ConnectionCallback<Boolean>)
+                  connection ->
+                      "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+      postgres = known;
+    }
+    return known;
+  }
+
+  private JdbcTemplate jdbc() {
+    JdbcTemplate jdbc = jdbcTemplate;
+    if (jdbc == null) {
+      DataSource source = dataSource.getIfAvailable();
+      if (source == null) {
+        return null;
+      }
+      jdbc = new JdbcTemplate(source);
+      jdbcTemplate = jdbc;
+    }
+    return jdbc;
+  }
+
+  private record ChunkKey(String customerId, LocalDate monthStart) {}
+}
@@ -0,0 +1,82 @@
+package com.example.support.bulk;
+
+import com.example.support.logging.CustomLogger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Bulk load and dump of customers and tickets.
+ *
+ * <ul>
+ *   <li>{@code POST /api/bulk/{customers|tickets}/import} with an {@code application/x-ndjson} or
+ *       {@code text/csv} body (CSV needs a header row of field names)
+ *   <li>{@code GET /api/bulk/{customers|tickets}/export?format=ndjson|csv}
+ *   <li>{@code GET /api/bulk/imports} lists running imports with their counters
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/bulk")
+@CrossOrigin(origins = "*")
+public class BulkDataController {
+
+  @Autowired private BulkImporter importer;
+
+  @Autowired private BulkExporter exporter;
+
+  @Autowired private CustomLogger logger;
+
+  @PostMapping(
+      value = "/{entity}/import",
+      consumes = {BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE})
+  public Map<String, Object> importRecords(
+      @PathVariable String entity,
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body)
+      throws IOException {
+    BulkEntity target;
+    try {
+      target = BulkEntity.fromPath(entity);
+    } catch (IllegalArgumentException e) {
+      return Map.of("success", false, "error", e.getMessage());
+    }
+    logger.info(BulkDataController.class, "Bulk import of {} started", target.table());
+    return importer.importRecords(target, BulkFormat.from(contentType), body);
+  }
+
+  @GetMapping("/{entity}/export")
+  public ResponseEntity<StreamingResponseBody> export(
+      @PathVariable String entity, @RequestParam(defaultValue = "ndjson") String format) {
+    BulkEntity source;
+    BulkFormat bulkFormat;
+    try {
+      source = BulkEntity.fromPath(entity);
+      bulkFormat = BulkFormat.from(format);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+    StreamingResponseBody body = out -> exporter.export(source, bulkFormat, out);
+    return ResponseEntity.ok()
+        .contentType(bulkFormat.mediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\""
+                + source.table()
+                + (bulkFormat == BulkFormat.CSV ? ".csv" : ".ndjson")
+                + "\"")
+        .body(body);
+  }
+
+  @GetMapping("/imports")
+  public List<Map<String, Object>> runningImports() {
+    return importer.runningImports();
+  }
+}
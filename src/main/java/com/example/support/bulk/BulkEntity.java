@@ -0,0 +1,233 @@
+package com.example.support.bulk;
+
+import com.example.support.Money;
+import com.example.support.ValidationUtils;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The tables the bulk endpoints can load and dump. Records use the API's camelCase field names in
+ * both formats; {@link #validate(Map)} turns one into column values in table order.
+ */
+public enum BulkEntity {
+  CUSTOMERS(
+      "customers",
+      new String[] {"customerId", "name", "email", "tier", "balance", "accountCreated", "status"},
+      new String[] {"customer_id", "name", "email", "tier", "balance", "account_created", "status"},
+      new int[] {
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.NUMERIC,
+        Types.TIMESTAMP,
+        Types.VARCHAR
+      }) {
+    @Override
+    String[] validate(Map<String, String> record) {
+      String customerId = trimmed(record, "customerId");
+      if (!ValidationUtils.isValidCustomerId(customerId)) {
+        throw new IllegalArgumentException("Invalid customer ID");
+      }
+      String name = required(record, "name", 100);
+      String email = trimmed(record, "email");
+      if (!ValidationUtils.isValidEmail(email)) {
+        throw new IllegalArgumentException("Invalid email format");
+      }
+      String tier = trimmed(record, "tier");
+      if (!ValidationUtils.isValidTier(tier)) {
+        throw new IllegalArgumentException("Invalid tier. Must be: basic, premium, or enterprise");
+      }
+      long balance = money(record, "balance");
+      if (balance < 0) {
+        throw new IllegalArgumentException("Balance must not be negative");
+      }
+      return new String[] {
+        customerId,
+        name,
+        email,
+        tier.substring(0, 1).toUpperCase() + tier.substring(1).toLowerCase(),
+        Money.toDecimal(balance).toPlainString(),
+        timestamp(record, "accountCreated"),
+        record.getOrDefault("status", "").isBlank() ? "active" : required(record, "status", 50)
+      };
+    }
+  },
+
+  TICKETS(
+      "tickets",
+      new String[] {
+        "ticketId", "customerId", "subject", "description", "priority", "status", "created"
+      },
+      new String[] {
+        "ticket_id", "customer_id", "subject", "description", "priority", "status", "created"
+      },
+      new int[] {
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.VARCHAR,
+        Types.TIMESTAMP
+      }) {
+    @Override
+    String[] validate(Map<String, String> record) {
+      String ticketId = required(record, "ticketId", 50);
+      String customerId = trimmed(record, "customerId");
+      if (!ValidationUtils.isValidCustomerId(customerId)) {
+        throw new IllegalArgumentException("Invalid customer ID");
+      }
+      String subject = required(record, "subject", 255);
+      String description = required(record, "description", 1000);
+      String priority = trimmed(record, "priority");
+      if (!ValidationUtils.isValidPriority(priority)) {
+        throw new IllegalArgumentException(
+            "Invalid priority. Must be: low, medium, high, or urgent");
+      }
+      String status =
+          record.getOrDefault("status", "").isBlank() ? "open" : trimmed(record, "status");
+      if (!ValidationUtils.isValidStatus(status) || status.equalsIgnoreCase("all")) {
+        throw new IllegalArgumentException("Invalid status. Must be: open, closed, or pending");
+      }
+      return new String[] {
+        ticketId,
+        customerId,
+        subject,
+        description,
+        priority.toLowerCase(),
+        status.toLowerCase(),
+        timestamp(record, "created")
+      };
+    }
+
+    @Override
+    String[] importColumns() {
+      return append(columns(), "sla_due");
+    }
+
+    @Override
+    int[] importSqlTypes() {
+      int[] types = Arrays.copyOf(sqlTypes(), sqlTypes().length + 1);
+      types[types.length - 1] = Types.TIMESTAMP;
+      return types;
+    }
+  };
+
+  /** Positions of ticket values in the rows {@link #validate(Map)} returns. */
+  static final int TICKET_PRIORITY = 4;
+
+  static final int TICKET_STATUS = 5;
+  static final int TICKET_CREATED = 6;
+
+  private final String table;
+  private final String[] fields;
+  private final String[] columns;
+  private final int[] sqlTypes;
+
+  BulkEntity(String table, String[] fields, String[] columns, int[] sqlTypes) {
+    this.table = table;
+    this.fields = fields;
+    this.columns = columns;
+    this.sqlTypes = sqlTypes;
+  }
+
+  /**
+   * Validates and normalizes one record.
+   *
+   * @param record field name to raw value
+   * @return column values in table order, as text
+   * @throws IllegalArgumentException describing the first invalid field
+   */
+  abstract String[] validate(Map<String, String> record);
+
+  public static BulkEntity fromPath(String name) {
+    for (BulkEntity entity : values()) {
+      if (entity.table.equalsIgnoreCase(name)) {
+        return entity;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unknown entity: " + name + ". Must be: customers or tickets");
+  }
+
+  public String table() {
+    return table;
+  }
+
+  String[] fields() {
+    return fields;
+  }
+
+  String[] columns() {
+    return columns;
+  }
+
+  int[] sqlTypes() {
+    return sqlTypes;
+  }
+
+  /**
+   * Columns an import writes: the record's columns, then any the importer derives (a ticket's SLA
+   * deadline).
+   */
+  String[] importColumns() {
+    return columns;
+  }
+
+  /** Types of {@link #importColumns()}. */
+  int[] importSqlTypes() {
+    return sqlTypes;
+  }
+
+  private static String[] append(String[] values, String value) {
+    String[] appended = Arrays.copyOf(values, values.length + 1);
+    appended[values.length] = value;
+    return appended;
+  }
+
+  private static String trimmed(Map<String, String> record, String field) {
+    String value = record.get(field);
+    return value == null ? "" : value.trim();
+  }
+
+  private static String required(Map<String, String> record, String field, int maxLength) {
+    String value = ValidationUtils.sanitize(record.get(field));
+    if (value.isEmpty()) {
+      throw new IllegalArgumentException(field + " is required");
+    }
+    if (value.length() > maxLength) {
+      throw new IllegalArgumentException(field + " must be at most " + maxLength + " characters");
+    }
+    return value;
+  }
+
+  /** An amount in minor units, parsed exactly from its decimal text; 0 if blank. */
+  private static long money(Map<String, String> record, String field) {
+    String value = trimmed(record, field);
+    if (value.isEmpty()) {
+      return 0;
+    }
+    try {
+      return Money.fromDecimal(new BigDecimal(value));
+    } catch (NumberFormatException | ArithmeticException e) {
+      throw new IllegalArgumentException(field + " must be a number");
+    }
+  }
+
+  private static String timestamp(Map<String, String> record, String field) {
+    String value = trimmed(record, field);
+    if (value.isEmpty()) {
+      return LocalDateTime.now().toString();
+    }
+    try {
+      return LocalDateTime.parse(value).toString();
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException(field + " must be an ISO-8601 local date-time");
+    }
+  }
+}
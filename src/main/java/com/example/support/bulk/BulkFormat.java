@@ -0,0 +1,66 @@
+package com.example.support.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.springframework.http.MediaType;
+
+/** Wire formats for bulk import and export. */
+public enum BulkFormat {
+  NDJSON("application/x-ndjson") {
+    @Override
+    RecordReader reader(InputStream in, ObjectMapper mapper) {
+      return new NdjsonCodec.Reader(in, mapper);
+    }
+
+    @Override
+    RecordWriter writer(OutputStream out, String[] fields, ObjectMapper mapper) throws IOException {
+      return new NdjsonCodec.RecordsWriter(out, fields, mapper);
+    }
+  },
+
+  CSV("text/csv") {
+    @Override
+    RecordReader reader(InputStream in, ObjectMapper mapper) {
+      return new CsvCodec.Reader(in);
+    }
+
+    @Override
+    RecordWriter writer(OutputStream out, String[] fields, ObjectMapper mapper) throws IOException {
+      return new CsvCodec.RecordsWriter(out, fields);
+    }
+  };
+
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+  public static final String CSV_VALUE = "text/csv";
+
+  private final MediaType mediaType;
+
+  BulkFormat(String mediaType) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+  }
+
+  abstract RecordReader reader(InputStream in, ObjectMapper mapper);
+
+  abstract RecordWriter writer(OutputStream out, String[] fields, ObjectMapper mapper)
+      throws IOException;
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+
+  /** Resolves a request's content type, or an export's {@code format} parameter. */
+  public static BulkFormat from(String value) {
+    if (value != null) {
+      String normalized = value.toLowerCase();
+      if (normalized.contains("csv")) {
+        return CSV;
+      }
+      if (normalized.contains("ndjson") || normalized.contains("json")) {
+        return NDJSON;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported format: " + value + ". Use ndjson or csv");
+  }
+}
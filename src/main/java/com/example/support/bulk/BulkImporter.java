@@ -0,0 +1,436 @@
+package com.example.support.bulk;
+
+import com.example.support.analytics.AnalyticsMetric;
+import com.example.support.analytics.AnalyticsRollups;
+import com.example.support.logging.CustomLogger;
+import com.example.support.queue.TicketWorkQueue;
+import com.example.support.search.TicketSearch;
+import com.example.support.sla.SlaEngine;
+import com.example.support.versioning.CustomerVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams records from an NDJSON or CSV body into a table without holding more than one chunk.
+ *
+ * <p>Each record is validated with {@link com.example.support.ValidationUtils}; invalid records are
+ * counted and skipped (the first {@value #MAX_REPORTED_ERRORS} are reported). Valid rows go to
+ * Postgres through {@code COPY ... FROM STDIN}, or through JDBC batches on other databases, and are
+ * committed every {@value #CHUNK_ROWS} rows. If the database rejects a chunk (e.g. a duplicate key)
+ * it is rolled back and the import stops; earlier chunks stay committed.
+ *
+ * <p>Rows are written straight to the primary, bypassing JPA: the second-level cache holds only
+ * rows already read, and the in-process search index and work queue are rebuilt after a ticket
+ * import. Open tickets get an SLA deadline from their priority and creation time, as through the
+ * API, and the SLA timer wheel is reloaded after the import. Each chunk of tickets also commits its
+ * {@code tickets_created} analytics counts, one delta per priority.
+ */
+@Service
+public class BulkImporter {
+
+  static final int CHUNK_ROWS = 50_000;
+  private static final int BATCH_ROWS = 1_000;
+  private static final int COPY_BUFFER_CHARS = 65_536;
+  private static final int MAX_REPORTED_ERRORS = 100;
+  private static final long PROGRESS_INTERVAL = 100_000;
+
+  // Resolved per import: slice tests load this bean without a DataSource or ObjectMapper
+  @Autowired private ObjectProvider<DataSource> dataSource;
+
+  @Autowired private ObjectProvider<ObjectMapper> objectMapper;
+
+  @Autowired private ObjectProvider<TicketSearch> ticketSearch;
+
+  @Autowired private ObjectProvider<SlaEngine> slaEngine;
+
+  @Autowired private ObjectProvider<TicketWorkQueue> workQueue;
+
+  @Autowired private ObjectProvider<AnalyticsRollups> analytics;
+
+  @Autowired private CustomerVersions versions;
+
+  @Autowired private ObjectProvider<MeterRegistry> meterRegistry;
+
+  @Autowired private CustomLogger logger;
+
+  private final Map<String, ImportProgress> running = new ConcurrentHashMap<>();
+
+  /**
+   * Imports all records from the stream.
+   *
+   * @param entity the target table
+   * @param format the stream's format
+   * @param in the record stream; not closed
+   * @return counts, the first rejected records, and the elapsed time
+   */
+  public Map<String, Object> importRecords(BulkEntity entity, BulkFormat format, InputStream in)
+      throws IOException {
+    ImportProgress progress =
+        new ImportProgress(UUID.randomUUID().toString().substring(0, 8), entity, format);
+    running.put(progress.importId, progress);
+    long start = System.nanoTime();
+    List<Map<String, Object>> errors = new ArrayList<>();
+    String failure = null;
+    try (Connection connection = dataSource.getObject().getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try (RowSink sink = openSink(connection, entity)) {
+        RecordReader reader = format.reader(in, objectMapper.getIfAvailable(ObjectMapper::new));
+        failure = load(reader, entity, sink, connection, progress, errors);
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException e) {
+      failure = "Database error: " + e.getMessage();
+    } finally {
+      running.remove(progress.importId);
+    }
+
+    if (progress.imported.get() > 0) {
+      versions.bumpAll();
+    }
+    if (entity == BulkEntity.TICKETS && progress.imported.get() > 0) {
+      ticketSearch.ifAvailable(TicketSearch::rebuild);
+      slaEngine.ifAvailable(SlaEngine::rebuild);
+      workQueue.ifAvailable(TicketWorkQueue::rebuild);
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    rows(entity, "imported").increment(progress.imported.get());
+    rows(entity, "rejected").increment(progress.rejected.get());
+    logger.infoKv(
+        BulkImporter.class,
+        "Bulk import finished",
+        "importId",
+        progress.importId,
+        "entity",
+        entity.table(),
+        "imported",
+        progress.imported.get(),
+        "rejected",
+        progress.rejected.get(),
+        "elapsedMillis",
+        elapsedMillis);
+
+    Map<String, Object> result = new HashMap<>();
+    result.put("success", failure == null);
+    if (failure != null) {
+      result.put("error", failure);
+    }
+    result.put("importId", progress.importId);
+    result.put("processed", progress.processed.get());
+    result.put("imported", progress.imported.get());
+    result.put("rejected", progress.rejected.get());
+    result.put("errors", errors);
+    result.put("elapsedMillis", elapsedMillis);
+    return result;
+  }
+
+  /** Imports in progress, for progress polling. */
+  public List<Map<String, Object>> runningImports() {
+    return running.values().stream().map(ImportProgress::toMap).toList();
+  }
+
+  private String load(
+      RecordReader reader,
+      BulkEntity entity,
+      RowSink sink,
+      Connection connection,
+      ImportProgress progress,
+      List<Map<String, Object>> errors)
+      throws IOException {
+    long pending = 0;
+    // Tickets in the current chunk per priority, for its analytics delta
+    Map<String, Long> created = new HashMap<>();
+    while (true) {
+      long recordNumber = progress.processed.get() + 1;
+      String[] row;
+      try {
+        Map<String, String> record = reader.next();
+        if (record == null) {
+          break;
+        }
+        row = entity.validate(record);
+        if (entity == BulkEntity.TICKETS) {
+          row = withSlaDue(row);
+        }
+      } catch (IllegalArgumentException e) {
+        progress.processed.incrementAndGet();
+        progress.rejected.incrementAndGet();
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+          errors.add(Map.of("record", recordNumber, "error", e.getMessage()));
+        }
+        continue;
+      }
+      progress.processed.incrementAndGet();
+      try {
+        sink.add(row);
+        if (entity == BulkEntity.TICKETS) {
+          created.merge(row[BulkEntity.TICKET_PRIORITY], 1L, Long::sum);
+        }
+        if (++pending == CHUNK_ROWS) {
+          commitChunk(sink, connection, created);
+          progress.imported.addAndGet(pending);
+          pending = 0;
+        }
+      } catch (SQLException e) {
+        return rejectChunk(connection, sink, progress, pending, e);
+      }
+      if (recordNumber % PROGRESS_INTERVAL == 0) {
+        logger.infoKv(
+            BulkImporter.class,
+            "Bulk import progress",
+            "importId",
+            progress.importId,
+            "processed",
+            recordNumber,
+            "imported",
+            progress.imported.get());
+      }
+    }
+    try {
+      commitChunk(sink, connection, created);
+      progress.imported.addAndGet(pending);
+      return null;
+    } catch (SQLException e) {
+      return rejectChunk(connection, sink, progress, pending, e);
+    }
+  }
+
+  /** Ends the chunk's rows, then commits them with their analytics counts. */
+  private void commitChunk(RowSink sink, Connection connection, Map<String, Long> created)
+      throws SQLException {
+    sink.flush();
+    AnalyticsRollups rollups = analytics.getIfAvailable();
+    if (rollups != null && !created.isEmpty()) {
+      rollups.record(connection, AnalyticsMetric.TICKETS_CREATED, created);
+    }
+    connection.commit();
+    created.clear();
+  }
+
+  /** Appends an open ticket's SLA deadline; pending and closed tickets have none. */
+  private String[] withSlaDue(String[] row) {
+    String[] withDue = Arrays.copyOf(row, row.length + 1);
+    SlaEngine sla = slaEngine.getIfAvailable();
+    if (sla != null && "open".equals(row[BulkEntity.TICKET_STATUS])) {
+      withDue[row.length] =
+          sla.dueFrom(
+                  LocalDateTime.parse(row[BulkEntity.TICKET_CREATED]),
+                  row[BulkEntity.TICKET_PRIORITY])
+              .toString();
+    }
+    return withDue;
+  }
+
+  private String rejectChunk(
+      Connection connection, RowSink sink, ImportProgress progress, long pending, SQLException e) {
+    sink.abort();
+    try {
+      connection.rollback();
+    } catch (SQLException rollbackFailure) {
+      e.addSuppressed(rollbackFailure);
+    }
+    long first = progress.imported.get() + progress.rejected.get() + 1;
+    logger.warn(BulkImporter.class, "Bulk import chunk rejected: {}", e.getMessage());
+    return String.format(
+        "Database rejected the chunk starting near record %d (%d rows rolled back): %s",
+        first, pending, e.getMessage());
+  }
+
+  private RowSink openSink(Connection connection, BulkEntity entity) throws SQLException {
+    if (connection.isWrapperFor(PGConnection.class)) {
+      return new CopySink(connection.unwrap(PGConnection.class).getCopyAPI(), entity);
+    }
+    return new BatchSink(connection, entity);
+  }
+
+  private Counter rows(BulkEntity entity, String outcome) {
+    return Counter.builder("support.bulk.import.rows")
+        .description("Records processed by bulk imports")
+        .tag("entity", entity.table())
+        .tag("outcome", outcome)
+        .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+  }
+
+  /** Destination of validated rows; {@link #flush()} ends a chunk, which the importer commits. */
+  private interface RowSink extends AutoCloseable {
+
+    void add(String[] row) throws SQLException;
+
+    void flush() throws SQLException;
+
+    /** Drops whatever the current chunk has sent so far. */
+    void abort();
+
+    @Override
+    void close() throws SQLException;
+  }
+
+  /** Postgres {@code COPY FROM STDIN} in CSV format, one COPY per chunk. */
+  private static final class CopySink implements RowSink {
+
+    private final CopyManager copyManager;
+    private final String sql;
+    private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+    private CopyIn copy;
+
+    CopySink(CopyManager copyManager, BulkEntity entity) {
+      this.copyManager = copyManager;
+      this.sql =
+          "COPY "
+              + entity.table()
+              + " ("
+              + String.join(", ", entity.importColumns())
+              + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    @Override
+    public void add(String[] row) throws SQLException {
+      if (copy == null) {
+        copy = copyManager.copyIn(sql);
+      }
+      try {
+        for (int i = 0; i < row.length; i++) {
+          if (i > 0) {
+            buffer.append(',');
+          }
+          // An empty unquoted field is NULL
+          if (row[i] != null) {
+            CsvCodec.appendField(buffer, row[i]);
+          }
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      buffer.append('\n');
+      if (buffer.length() >= COPY_BUFFER_CHARS) {
+        send();
+      }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+      if (copy != null) {
+        send();
+        copy.endCopy();
+        copy = null;
+      }
+    }
+
+    @Override
+    public void abort() {
+      buffer.setLength(0);
+      if (copy != null && copy.isActive()) {
+        try {
+          copy.cancelCopy();
+        } catch (SQLException ignored) {
+          // The connection is rolled back next
+        }
+      }
+      copy = null;
+    }
+
+    private void send() throws SQLException {
+      byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+      copy.writeToCopy(bytes, 0, bytes.length);
+      buffer.setLength(0);
+    }
+
+    @Override
+    public void close() {
+      abort();
+    }
+  }
+
+  /** Parameterized INSERT batches, for H2 and other non-Postgres databases. */
+  private static final class BatchSink implements RowSink {
+
+    private final PreparedStatement statement;
+    private final int[] sqlTypes;
+    private int batched;
+
+    BatchSink(Connection connection, BulkEntity entity) throws SQLException {
+      this.sqlTypes = entity.importSqlTypes();
+      this.statement =
+          connection.prepareStatement(
+              "INSERT INTO "
+                  + entity.table()
+                  + " ("
+                  + String.join(", ", entity.importColumns())
+                  + ") VALUES ("
+                  + String.join(", ", Collections.nCopies(sqlTypes.length, "?"))
+                  + ")");
+    }
+
+    @Override
+    public void add(String[] row) throws SQLException {
+      for (int i = 0; i < row.length; i++) {
+        if (row[i] == null) {
+          statement.setNull(i + 1, sqlTypes[i]);
+          continue;
+        }
+        switch (sqlTypes[i]) {
+          case Types.NUMERIC -> statement.setBigDecimal(i + 1, new BigDecimal(row[i]));
+          case Types.TIMESTAMP -> statement.setTimestamp(
+              i + 1, Timestamp.valueOf(LocalDateTime.parse(row[i])));
+          default -> statement.setString(i + 1, row[i]);
+        }
+      }
+      statement.addBatch();
+      if (++batched == BATCH_ROWS) {
+        statement.executeBatch();
+        batched = 0;
+      }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+      if (batched > 0) {
+        statement.executeBatch();
+        batched = 0;
+      }
+    }
+
+    @Override
+    public void abort() {
+      batched = 0;
+      try {
+        statement.clearBatch();
+      } catch (SQLException ignored) {
+        // The connection is rolled back next
+      }
+    }
+
+    @Override
+    public void close() throws SQLException {
+      statement.close();
+    }
+  }
+}
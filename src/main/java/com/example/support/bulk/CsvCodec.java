@@ -0,0 +1,180 @@
+package com.example.support.bulk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** RFC 4180 CSV with a header row naming the fields. */
+final class CsvCodec {
+
+  private CsvCodec() {}
+
+  /** Streaming CSV reader over its own char buffer; the header row is required. */
+  static final class Reader implements RecordReader {
+
+    private final java.io.Reader in;
+    private final char[] buffer = new char[16384];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private String[] header;
+
+    Reader(InputStream in) {
+      this.in = new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+      if (header == null) {
+        List<String> names = readRow();
+        if (names == null) {
+          return null;
+        }
+        header = names.stream().map(String::trim).toArray(String[]::new);
+      }
+      List<String> row;
+      do {
+        row = readRow();
+        if (row == null) {
+          return null;
+        }
+      } while (row.size() == 1 && row.get(0).isEmpty());
+      if (row.size() != header.length) {
+        throw new IllegalArgumentException(
+            "Expected " + header.length + " fields but found " + row.size());
+      }
+      Map<String, String> record = new HashMap<>(header.length * 2);
+      for (int i = 0; i < header.length; i++) {
+        record.put(header[i], row.get(i));
+      }
+      return record;
+    }
+
+    private List<String> readRow() throws IOException {
+      List<String> row = new ArrayList<>();
+      field.setLength(0);
+      boolean quoted = false;
+      boolean any = false;
+      int c;
+      while ((c = read()) != -1) {
+        any = true;
+        if (quoted) {
+          if (c == '"') {
+            if (peek() == '"') {
+              read();
+              field.append('"');
+            } else {
+              quoted = false;
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          row.add(field.toString());
+          field.setLength(0);
+        } else if (c == '\n') {
+          break;
+        } else if (c != '\r') {
+          field.append((char) c);
+        }
+      }
+      if (!any) {
+        return null;
+      }
+      row.add(field.toString());
+      return row;
+    }
+
+    private int read() throws IOException {
+      if (position == limit && !fill()) {
+        return -1;
+      }
+      return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+      if (position == limit && !fill()) {
+        return -1;
+      }
+      return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+      limit = in.read(buffer);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /** Streaming CSV writer; writes the header row up front. */
+  static final class RecordsWriter implements RecordWriter {
+
+    private final Writer out;
+
+    RecordsWriter(OutputStream out, String[] fields) throws IOException {
+      this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      writeRow(fields);
+    }
+
+    @Override
+    public void write(Object[] values) throws IOException {
+      writeRow(values);
+    }
+
+    private void writeRow(Object[] values) throws IOException {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        appendField(out, values[i] == null ? "" : values[i].toString());
+      }
+      out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+  }
+
+  /** Appends one field, quoting it when it contains a delimiter, quote or line break. */
+  static void appendField(Appendable out, String value) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.append(value);
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        out.append('"');
+      }
+      out.append(c);
+    }
+    out.append('"');
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.support.bulk;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Live counters of one running import, readable from other threads. */
+final class ImportProgress {
+
+  final String importId;
+  final BulkEntity entity;
+  final BulkFormat format;
+  final LocalDateTime startedAt = LocalDateTime.now();
+  final AtomicLong processed = new AtomicLong();
+  final AtomicLong imported = new AtomicLong();
+  final AtomicLong rejected = new AtomicLong();
+
+  ImportProgress(String importId, BulkEntity entity, BulkFormat format) {
+    this.importId = importId;
+    this.entity = entity;
+    this.format = format;
+  }
+
+  Map<String, Object> toMap() {
+    return Map.of(
+        "importId", importId,
+        "entity", entity.table(),
+        "format", format.name().toLowerCase(),
+        "startedAt", startedAt.toString(),
+        "processed", processed.get(),
+        "imported", imported.get(),
+        "rejected", rejected.get());
+  }
+}
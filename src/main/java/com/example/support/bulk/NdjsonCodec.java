@@ -0,0 +1,103 @@
+package com.example.support.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/** Newline-delimited JSON: one flat object per line. */
+final class NdjsonCodec {
+
+  private NdjsonCodec() {}
+
+  /** Parses each line separately, so a malformed line rejects only that record. */
+  static final class Reader implements RecordReader {
+
+    private final BufferedReader in;
+    private final ObjectReader json;
+
+    Reader(InputStream in, ObjectMapper mapper) {
+      this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 65536);
+      this.json = mapper.readerFor(JsonNode.class);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+      String line;
+      do {
+        line = in.readLine();
+        if (line == null) {
+          return null;
+        }
+      } while (line.isBlank());
+      JsonNode node;
+      try {
+        node = json.readValue(line);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+      }
+      if (!node.isObject()) {
+        throw new IllegalArgumentException("Expected a JSON object");
+      }
+      Map<String, String> record = new HashMap<>();
+      Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (!field.getValue().isNull()) {
+          record.put(field.getKey(), field.getValue().asText());
+        }
+      }
+      return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /** Writes compact objects regardless of the application's indent-output setting. */
+  static final class RecordsWriter implements RecordWriter {
+
+    private final JsonGenerator generator;
+    private final String[] fields;
+
+    RecordsWriter(OutputStream out, String[] fields, ObjectMapper mapper) throws IOException {
+      this.generator = mapper.getFactory().createGenerator(out);
+      this.fields = fields;
+    }
+
+    @Override
+    public void write(Object[] values) throws IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < fields.length; i++) {
+        Object value = values[i];
+        if (value instanceof BigDecimal decimal) {
+          generator.writeNumberField(fields[i], decimal);
+        } else if (value instanceof Number number) {
+          generator.writeNumberField(fields[i], number.doubleValue());
+        } else if (value != null) {
+          generator.writeStringField(fields[i], value.toString());
+        }
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+      generator.flush();
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.support.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/** Reads records one at a time from an import stream. */
+interface RecordReader extends Closeable {
+
+  /**
+   * Reads the next record.
+   *
+   * @return field name to raw value, or null at end of input
+   * @throws IllegalArgumentException if this record is malformed; the next call continues after it
+   * @throws IOException if the stream itself fails
+   */
+  Map<String, String> next() throws IOException;
+}
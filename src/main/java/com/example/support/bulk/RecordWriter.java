@@ -0,0 +1,15 @@
+package com.example.support.bulk;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/** Writes records to an export stream. */
+interface RecordWriter extends Flushable {
+
+  /**
+   * Writes one record.
+   *
+   * @param values values in {@link BulkEntity#fields()} order; numbers and text as-is
+   */
+  void write(Object[] values) throws IOException;
+}
@@ -0,0 +1,91 @@
+package com.example.support.config;
+
+import com.example.support.Money;
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+import java.math.BigDecimal;
+import java.util.Locale;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+/**
+ * Custom GraphQL scalars.
+ *
+ * <p>{@code Money} is an exact decimal with two fractional digits, held as a {@link BigDecimal}. It
+ * is written as a JSON number and read from a number or string literal or variable without passing
+ * through a {@code double}; resolvers convert to and from minor units with {@link Money}.
+ */
+@Configuration
+public class GraphQlScalars {
+
+  public static final GraphQLScalarType MONEY =
+      GraphQLScalarType.newScalar()
+          .name("Money")
+          .description("An exact amount of money with two fractional digits")
+          .coercing(new MoneyCoercing())
+          .build();
+
+  @Bean
+  public RuntimeWiringConfigurer scalarWiring() {
+    return wiring -> wiring.scalar(MONEY);
+  }
+
+  private static final class MoneyCoercing implements Coercing<BigDecimal, BigDecimal> {
+
+    @Override
+    public BigDecimal serialize(Object value, GraphQLContext context, Locale locale) {
+      if (value instanceof BigDecimal decimal) {
+        return decimal.setScale(Money.SCALE);
+      }
+      // Tool results carry amounts as doubles converted from minor units
+      if (value instanceof Double || value instanceof Float) {
+        return Money.toDecimal(Money.fromDouble(((Number) value).doubleValue()));
+      }
+      throw new CoercingSerializeException("Not a money value: " + value);
+    }
+
+    @Override
+    public BigDecimal parseValue(Object input, GraphQLContext context, Locale locale) {
+      try {
+        if (input instanceof BigDecimal decimal) {
+          return decimal;
+        }
+        if (input instanceof Number || input instanceof String) {
+          return new BigDecimal(input.toString());
+        }
+      } catch (NumberFormatException e) {
+        // Reported below
+      }
+      throw new CoercingParseValueException("Not a money value: " + input);
+    }
+
+    @Override
+    public BigDecimal parseLiteral(
+        Value<?> input, CoercedVariables variables, GraphQLContext context, Locale locale) {
+      try {
+        if (input instanceof FloatValue value) {
+          return value.getValue();
+        }
+        if (input instanceof IntValue value) {
+          return new BigDecimal(value.getValue());
+        }
+        if (input instanceof StringValue value) {
+          return new BigDecimal(value.getValue());
+        }
+      } catch (NumberFormatException e) {
+        // Reported below
+      }
+      throw new CoercingParseLiteralException("Not a money value: " + input);
+    }
+  }
+}
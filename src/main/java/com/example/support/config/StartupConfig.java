@@ -0,0 +1,42 @@
+package com.example.support.config;
+
+import com.example.support.Configuration;
+import com.example.support.analytics.AnalyticsRollups;
+import com.example.support.archive.TicketArchiver;
+import com.example.support.datasource.ReplicaLagMonitor;
+import com.example.support.dedup.DuplicateTicketDetector;
+import com.example.support.idempotency.IdempotencyService;
+import com.example.support.invalidation.CustomerInvalidationBus;
+import com.example.support.queue.TicketWorkQueue;
+import com.example.support.search.TicketSearch;
+import com.example.support.sla.SlaEngine;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Beans that stay eager when the {@code startup} profile turns on {@code
+ * spring.main.lazy-initialization}: the configuration check and migrations, so a bad deploy still
+ * fails at boot, and everything that rebuilds in-memory state or runs a background job, which would
+ * otherwise wait for the first request that happens to reference it. The rest (the agent graph,
+ * controllers, GraphQL, OpenAPI) is created on first use.
+ */
+@org.springframework.context.annotation.Configuration
+public class StartupConfig {
+
+  @Bean
+  public static LazyInitializationExcludeFilter eagerSupportBeans() {
+    return LazyInitializationExcludeFilter.forBeanTypes(
+        Configuration.class,
+        FlywayMigrationInitializer.class,
+        TicketSearch.class,
+        TicketWorkQueue.class,
+        SlaEngine.class,
+        DuplicateTicketDetector.class,
+        AnalyticsRollups.class,
+        TicketArchiver.class,
+        IdempotencyService.class,
+        ReplicaLagMonitor.class,
+        CustomerInvalidationBus.class);
+  }
+}
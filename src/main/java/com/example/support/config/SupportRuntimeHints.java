@@ -0,0 +1,68 @@
+package com.example.support.config;
+
+import com.example.support.AgentConfiguration;
+import com.example.support.CustomerSupportAgent;
+import com.example.support.analytics.TimeSeriesPoint;
+import com.example.support.entity.Customer;
+import com.example.support.entity.Ticket;
+import com.example.support.queue.QueuedTicket;
+import com.example.support.sla.SlaDeadline;
+import java.lang.reflect.Method;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource metadata for a native image, beyond what Spring's AOT processing infers
+ * from the bean definitions.
+ *
+ * <ul>
+ *   <li>Tools: {@code FunctionTool} finds each tool by scanning {@link CustomerSupportAgent}'s
+ *       public methods and reads their parameter names and annotations.
+ *   <li>Entities and GraphQL types: Hibernate and graphql-java's property fetchers reach fields and
+ *       accessors reflectively; {@code SlaDeadline} and {@code QueuedTicket} are built by JPQL
+ *       constructor expressions.
+ *   <li>Resources: the GraphQL schema, the Flyway migrations and the ADK's {@code
+ *       application.conf}.
+ * </ul>
+ */
+public class SupportRuntimeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    hints
+        .reflection()
+        .registerType(CustomerSupportAgent.class, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+    for (Method method : CustomerSupportAgent.class.getMethods()) {
+      if (AgentConfiguration.TOOLS.contains(method.getName())) {
+        hints.reflection().registerMethod(method, ExecutableMode.INVOKE);
+      }
+    }
+
+    for (Class<?> entity : new Class<?>[] {Customer.class, Ticket.class}) {
+      hints
+          .reflection()
+          .registerType(
+              entity,
+              MemberCategory.DECLARED_FIELDS,
+              MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+              MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+    for (Class<?> view :
+        new Class<?>[] {SlaDeadline.class, QueuedTicket.class, TimeSeriesPoint.class}) {
+      hints
+          .reflection()
+          .registerType(
+              view,
+              MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+              MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+
+    hints
+        .resources()
+        .registerPattern("graphql/*.graphqls")
+        .registerPattern("db/migration/*.sql")
+        .registerPattern("application.conf");
+  }
+}
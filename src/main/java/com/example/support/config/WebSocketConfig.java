@@ -1,6 +1,10 @@
 package com.example.support.config;
 
+import com.example.support.ratelimit.RateLimiter;
+import com.example.support.ratelimit.StompRateLimitInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,6 +14,10 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+  @Autowired private RateLimiter rateLimiter;
+
+  private StompRateLimitInterceptor rateLimitInterceptor;
+
   @Override
   public void configureMessageBroker(MessageBrokerRegistry config) {
     config.enableSimpleBroker("/topic");
@@ -18,6 +26,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
   @Override
   public void registerStompEndpoints(StompEndpointRegistry registry) {
-    registry.addEndpoint("/ws").setAllowedOrigins("*");
+    registry.addEndpoint("/ws").setAllowedOrigins("*").addInterceptors(rateLimitInterceptor());
+  }
+
+  @Override
+  public void configureClientInboundChannel(ChannelRegistration registration) {
+    registration.interceptors(rateLimitInterceptor());
+  }
+
+  private StompRateLimitInterceptor rateLimitInterceptor() {
+    if (rateLimitInterceptor == null) {
+      rateLimitInterceptor = new StompRateLimitInterceptor(rateLimiter);
+    }
+    return rateLimitInterceptor;
   }
 }
@@ -1,19 +1,47 @@
 package com.example.support.controller;
 
 import com.example.support.CustomerSupportAgent;
+import com.example.support.Money;
+import com.example.support.ValidationUtils;
+import com.example.support.analytics.AnalyticsRollups;
+import com.example.support.analytics.Granularity;
+import com.example.support.analytics.TimeSeriesPoint;
+import com.example.support.archive.TicketArchiver;
 import com.example.support.entity.Customer;
 import com.example.support.entity.Ticket;
 import com.example.support.logging.CustomLogger;
+import com.example.support.queue.QueuedTicket;
+import com.example.support.queue.TicketWorkQueue;
 import com.example.support.repository.CustomerRepository;
 import com.example.support.repository.TicketRepository;
+import com.example.support.search.TicketSearch;
+import com.example.support.versioning.CustomerVersions;
+import graphql.GraphQLContext;
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.LocalContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
+import org.springframework.graphql.execution.ErrorType;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 
 @Controller
 public class SupportGraphQLController {
@@ -24,23 +52,74 @@ public class SupportGraphQLController {
 
   @Autowired private TicketRepository ticketRepository;
 
+  @Autowired private TicketSearch ticketSearch;
+
+  @Autowired private TicketWorkQueue workQueue;
+
+  @Autowired private AnalyticsRollups analyticsRollups;
+
+  @Autowired private TicketArchiver ticketArchiver;
+
+  @Autowired private CustomerVersions versions;
+
   @Autowired private CustomLogger logger;
 
+  private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+  private static final int MAX_SEARCH_PAGE_SIZE = 100;
+  private static final int DEFAULT_QUEUE_PEEK = 20;
+  private static final int MAX_QUEUE_PEEK = 100;
+
   @QueryMapping
-  public Customer customer(@Argument String customerId) {
-    logger.info(SupportGraphQLController.class, "GraphQL: Fetching customer " + customerId);
-    return customerRepository.findById(customerId).orElse(null);
+  @Transactional(readOnly = true)
+  public DataFetcherResult<Customer> customer(@Argument String customerId) {
+    logger.info(SupportGraphQLController.class, "GraphQL: Fetching customer {}", customerId);
+    // Taken before the read, so a concurrent write can only make it older than the data
+    String version = versions.version(customerId);
+    Customer customer = customerRepository.findById(customerId).orElse(null);
+    return DataFetcherResult.<Customer>newResult()
+        .data(customer)
+        .localContext(
+            version == null
+                ? GraphQLContext.getDefault()
+                : GraphQLContext.of(Map.of("version", version)))
+        .build();
+  }
+
+  @SchemaMapping(typeName = "Customer")
+  public BigDecimal balance(Customer customer) {
+    return Money.toDecimal(customer.getBalanceMinor());
+  }
+
+  @SchemaMapping(typeName = "Customer")
+  public String version(@LocalContextValue(required = false) String version) {
+    return version;
   }
 
   @QueryMapping
-  public List<Ticket> tickets(@Argument String customerId, @Argument String status) {
-    if (status == null || status.equalsIgnoreCase("all")) {
-      return ticketRepository.findByCustomerId(customerId);
+  public String customerVersion(@Argument String customerId) {
+    return versions.version(customerId);
+  }
+
+  @QueryMapping
+  @Transactional(readOnly = true)
+  public List<Ticket> tickets(
+      @Argument String customerId, @Argument String status, @Argument Boolean includeArchived) {
+    String statusFilter =
+        status == null || status.equalsIgnoreCase("all") ? null : status.toLowerCase();
+    List<Ticket> tickets =
+        statusFilter == null
+            ? ticketRepository.findByCustomerId(customerId)
+            : ticketRepository.findByCustomerIdAndStatus(customerId, statusFilter);
+    if (!Boolean.TRUE.equals(includeArchived)) {
+      return tickets;
     }
-    return ticketRepository.findByCustomerIdAndStatus(customerId, status.toLowerCase());
+    List<Ticket> all = new ArrayList<>(tickets);
+    all.addAll(ticketArchiver.archivedTickets(customerId, statusFilter));
+    return all;
   }
 
   @QueryMapping
+  @Transactional(readOnly = true)
   public Map<String, Object> analytics() {
     logger.info(SupportGraphQLController.class, "GraphQL: Fetching analytics");
     List<Ticket> allTickets = ticketRepository.findAll();
@@ -53,7 +132,7 @@ public class SupportGraphQLController {
         allCustomers.stream()
             .collect(Collectors.groupingBy(Customer::getTier, Collectors.counting()));
 
-    double totalBalance = allCustomers.stream().mapToDouble(Customer::getBalance).sum();
+    long totalBalance = allCustomers.stream().mapToLong(Customer::getBalanceMinor).sum();
 
     return Map.of(
         "ticketStatusDistribution",
@@ -65,13 +144,67 @@ public class SupportGraphQLController {
             .map(e -> Map.of("tier", e.getKey(), "count", e.getValue()))
             .collect(Collectors.toList()),
         "totalRevenue",
-        totalBalance // Simulated revenue
+        Money.toDecimal(totalBalance) // Simulated revenue
         );
   }
 
+  /** Reads only the rollup tables; see {@link AnalyticsRollups}. */
+  @QueryMapping
+  public List<TimeSeriesPoint> analyticsTimeSeries(
+      @Argument String from, @Argument String to, @Argument String granularity) {
+    return analyticsRollups.timeSeries(
+        parseTime(from),
+        parseTime(to),
+        Granularity.from(granularity == null ? "day" : granularity));
+  }
+
+  @SchemaMapping(typeName = "TimeSeriesPoint")
+  public BigDecimal amount(TimeSeriesPoint point) {
+    return Money.toDecimal(point.amountMinor());
+  }
+
+  @GraphQlExceptionHandler
+  public GraphQLError handleInvalidArgument(IllegalArgumentException e) {
+    return GraphQLError.newError().errorType(ErrorType.BAD_REQUEST).message(e.getMessage()).build();
+  }
+
+  /** Searches every customer's tickets, for dashboards; agents only search their customer's. */
+  @QueryMapping
+  @Transactional(readOnly = true)
+  public Window<Ticket> searchTickets(
+      @Argument String query, @Argument String status, ScrollSubrange subrange) {
+    long offset =
+        subrange
+            .position()
+            .filter(OffsetScrollPosition.class::isInstance)
+            .map(position -> ((OffsetScrollPosition) position).getOffset() + 1)
+            .orElse(0L);
+    int pageSize =
+        Math.min(subrange.count().orElse(DEFAULT_SEARCH_PAGE_SIZE), MAX_SEARCH_PAGE_SIZE);
+    String statusFilter =
+        status == null || status.equalsIgnoreCase("all") ? null : status.toLowerCase();
+
+    // Fetch one extra hit to learn whether there is a next page
+    List<Ticket> hits =
+        ticketSearch.search(query, null, statusFilter, Math.toIntExact(offset), pageSize + 1);
+    boolean hasNext = hits.size() > pageSize;
+    return Window.from(
+        hasNext ? hits.subList(0, pageSize) : hits,
+        index -> ScrollPosition.offset(offset + index),
+        hasNext);
+  }
+
+  @QueryMapping
+  public List<QueuedTicket> ticketQueue(@Argument Integer first) {
+    int limit = first == null ? DEFAULT_QUEUE_PEEK : Math.max(1, Math.min(first, MAX_QUEUE_PEEK));
+    return workQueue.peek(limit);
+  }
+
   @MutationMapping
-  public Map<String, Object> processPayment(@Argument String customerId, @Argument Double amount) {
-    Map<String, Object> result = agent.processPayment(customerId, amount, null);
+  public Map<String, Object> processPayment(
+      @Argument String customerId, @Argument BigDecimal amount) {
+    // Exact for any amount with at most 15 significant digits; the agent rounds it to cents
+    Map<String, Object> result = agent.processPayment(customerId, amount.doubleValue(), null);
     boolean success = (boolean) result.get("success");
     if (success) {
       Map<String, Object> data = (Map<String, Object>) result.get("data");
@@ -113,4 +246,50 @@ public class SupportGraphQLController {
       return Map.of("success", false, "message", result.get("error"));
     }
   }
+
+  @MutationMapping
+  public Map<String, Object> updateTicketStatus(
+      @Argument String customerId, @Argument String ticketId, @Argument String status) {
+    Map<String, Object> result = agent.updateTicketStatus(customerId, ticketId, status, null);
+    if ((boolean) result.get("success")) {
+      String id = (String) ((Map<String, Object>) result.get("data")).get("ticketId");
+      Map<String, Object> response = new HashMap<>();
+      response.put("success", true);
+      response.put("ticket", ticketRepository.findById(id).orElse(null));
+      response.put("message", result.get("message"));
+      return response;
+    } else {
+      return Map.of("success", false, "message", result.get("error"));
+    }
+  }
+
+  @MutationMapping
+  public Ticket claimTicket(@Argument String agentId) {
+    if (!ValidationUtils.isValidAgentId(agentId)) {
+      return null;
+    }
+    return workQueue.claim(agentId).orElse(null);
+  }
+
+  @MutationMapping
+  public Map<String, Object> releaseTicket(@Argument String agentId, @Argument String ticketId) {
+    if (!ValidationUtils.isValidAgentId(agentId)) {
+      return Map.of("success", false, "message", "Invalid agent ID");
+    }
+    if (!workQueue.release(ticketId, agentId)) {
+      return Map.of("success", false, "message", "Ticket is not claimed by this agent");
+    }
+    return Map.of("success", true, "message", "Ticket released");
+  }
+
+  /** Accepts an ISO date (midnight) or date-time. */
+  private static LocalDateTime parseTime(String value) {
+    try {
+      return value.length() == 10
+          ? LocalDate.parse(value).atStartOfDay()
+          : LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date: " + value);
+    }
+  }
 }
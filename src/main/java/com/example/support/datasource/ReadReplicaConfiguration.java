@@ -0,0 +1,88 @@
+package com.example.support.datasource;
+
+import com.example.support.logging.CustomLogger;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Read/write split, enabled by setting {@code support.datasource.replica.url}. Without it the
+ * application keeps Boot's single auto-configured pool.
+ *
+ * <p>Two Hikari pools are created: the primary from {@code spring.datasource.*} (sized with {@code
+ * spring.datasource.hikari.*}) and the replica from {@code support.datasource.replica.*} (sized
+ * with {@code support.datasource.replica.hikari.*}). Read-only transactions (the read tools,
+ * GraphQL queries and analytics) use the replica; writes and non-transactional work use the
+ * primary. JPA, Flyway and SQL init all see the routing proxy, and run on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "support.datasource.replica.url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadReplicaConfiguration {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  /** Defaults set here (read-only, manual commit) can be overridden by the bound properties. */
+  @Bean
+  @ConfigurationProperties("support.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+    HikariDataSource dataSource =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(properties.getUrl())
+            .username(properties.getUsername())
+            .password(properties.getPassword())
+            .driverClassName(properties.getDriverClassName())
+            .build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    dataSource.setAutoCommit(false);
+    return dataSource;
+  }
+
+  @Bean(initMethod = "start", destroyMethod = "stop")
+  public ReplicaLagMonitor replicaLagMonitor(
+      @Qualifier("replicaDataSource") DataSource replica,
+      ReplicaDataSourceProperties properties,
+      ObjectProvider<MeterRegistry> registry,
+      CustomLogger logger) {
+    return new ReplicaLagMonitor(
+        replica, properties, registry.getIfAvailable(SimpleMeterRegistry::new), logger);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      ReplicaLagMonitor lagMonitor) {
+    ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(lagMonitor);
+    routing.setTargetDataSources(
+        Map.of(
+            ReadReplicaRoutingDataSource.PRIMARY, primary,
+            ReadReplicaRoutingDataSource.REPLICA, replica));
+    routing.setDefaultTargetDataSource(primary);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
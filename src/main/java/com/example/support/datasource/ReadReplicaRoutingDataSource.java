@@ -0,0 +1,33 @@
+package com.example.support.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary. A read-only
+ * transaction stays on the primary while {@link ReplicaLagMonitor} reports the replica as unusable.
+ *
+ * <p>The routing key is read when a connection is requested, so this must sit behind a {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks
+ * for a connection before the read-only flag is bound to the thread.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  public static final String PRIMARY = "primary";
+  public static final String REPLICA = "replica";
+
+  private final ReplicaLagMonitor lagMonitor;
+
+  public ReadReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+    this.lagMonitor = lagMonitor;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && lagMonitor.isReplicaUsable()) {
+      return REPLICA;
+    }
+    return PRIMARY;
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.support.datasource;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection and lag settings for the read replica ({@code support.datasource.replica.*}). Pool
+ * settings are bound separately from {@code support.datasource.replica.hikari.*}.
+ */
+@ConfigurationProperties("support.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+  /** Postgres: seconds since the last replayed transaction, or 0 when not in recovery. */
+  public static final String POSTGRES_LAG_QUERY =
+      "SELECT CASE WHEN pg_is_in_recovery() "
+          + "THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) "
+          + "ELSE 0 END";
+
+  private String url;
+  private String username;
+  private String password;
+  private String driverClassName;
+
+  /** Reads fall back to the primary while the replica is further behind than this. */
+  private Duration maxLag = Duration.ofSeconds(10);
+
+  private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+  /** Query returning the replica's lag in seconds as a single number. */
+  private String lagQuery = POSTGRES_LAG_QUERY;
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public void setPassword(String password) {
+    this.password = password;
+  }
+
+  public String getDriverClassName() {
+    return driverClassName;
+  }
+
+  public void setDriverClassName(String driverClassName) {
+    this.driverClassName = driverClassName;
+  }
+
+  public Duration getMaxLag() {
+    return maxLag;
+  }
+
+  public void setMaxLag(Duration maxLag) {
+    this.maxLag = maxLag;
+  }
+
+  public Duration getLagCheckInterval() {
+    return lagCheckInterval;
+  }
+
+  public void setLagCheckInterval(Duration lagCheckInterval) {
+    this.lagCheckInterval = lagCheckInterval;
+  }
+
+  public String getLagQuery() {
+    return lagQuery;
+  }
+
+  public void setLagQuery(String lagQuery) {
+    this.lagQuery = lagQuery;
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.support.datasource;
+
+import com.example.support.logging.CustomLogger;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Polls the replica's replication lag on a daemon thread. The replica is considered usable only
+ * after a successful check that reported a lag within {@code maxLag}; a failed check (replica down,
+ * query error) takes it out of rotation until the next successful one.
+ *
+ * <p>Publishes {@code support.datasource.replica.lag} (seconds) and {@code
+ * support.datasource.replica.usable} (1 or 0).
+ */
+public class ReplicaLagMonitor {
+
+  private final JdbcTemplate replica;
+  private final String lagQuery;
+  private final double maxLagSeconds;
+  private final Duration interval;
+  private final CustomLogger logger;
+
+  private volatile boolean usable;
+  private volatile double lagSeconds = Double.NaN;
+  private ScheduledExecutorService scheduler;
+
+  public ReplicaLagMonitor(
+      DataSource replica,
+      ReplicaDataSourceProperties properties,
+      MeterRegistry registry,
+      CustomLogger logger) {
+    this.replica = new JdbcTemplate(replica);
+    this.lagQuery = properties.getLagQuery();
+    this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+    this.interval = properties.getLagCheckInterval();
+    this.logger = logger;
+    Gauge.builder("support.datasource.replica.lag", this, m -> m.lagSeconds)
+        .description("Replication lag of the read replica")
+        .baseUnit("seconds")
+        .register(registry);
+    Gauge.builder("support.datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+        .description("Whether read-only transactions are routed to the replica")
+        .register(registry);
+  }
+
+  public void start() {
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "replica-lag-monitor");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /** Runs one lag check and updates the routing decision. */
+  public void check() {
+    boolean wasUsable = usable;
+    try {
+      Double lag = replica.queryForObject(lagQuery, Double.class);
+      lagSeconds = lag != null ? lag : 0;
+      usable = lagSeconds <= maxLagSeconds;
+    } catch (RuntimeException e) {
+      lagSeconds = Double.NaN;
+      usable = false;
+      if (wasUsable) {
+        logger.warn(ReplicaLagMonitor.class, "Replica lag check failed: {}", e.getMessage());
+      }
+    }
+    if (wasUsable != usable) {
+      logger.infoKv(
+          ReplicaLagMonitor.class,
+          usable ? "Routing reads to replica" : "Routing reads to primary",
+          "lagSeconds",
+          lagSeconds,
+          "maxLagSeconds",
+          maxLagSeconds);
+    }
+  }
+
+  public boolean isReplicaUsable() {
+    return usable;
+  }
+
+  public double getLagSeconds() {
+    return lagSeconds;
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.support.dedup;
+
+import com.example.support.entity.Ticket;
+import com.example.support.logging.CustomLogger;
+import com.example.support.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Spots near-duplicate tickets at creation time: a customer filing the same issue again (reworded
+ * slightly, or resubmitted by the agent) gets their existing ticket back instead of a new one.
+ *
+ * <p>Keeps MinHash signatures of subject plus description for the most recent tickets in memory
+ * ({@code support.dedup.window}, at most {@code support.dedup.max-tickets}), loaded from the
+ * tickets table at startup a page at a time, oldest first. Matches are scoped to the same customer.
+ */
+@Component
+public class DuplicateTicketDetector {
+
+  private static final int LOAD_BATCH_SIZE = 10_000;
+
+  @Autowired private TicketRepository ticketRepository;
+
+  @Autowired private CustomLogger logger;
+
+  @Value("${support.dedup.enabled:true}")
+  private boolean enabled;
+
+  @Value("${support.dedup.similarity-threshold:0.8}")
+  private double similarityThreshold;
+
+  @Value("${support.dedup.window:14d}")
+  private Duration window;
+
+  @Value("${support.dedup.max-tickets:1000000}")
+  private int maxTickets;
+
+  private NearDuplicateIndex index;
+
+  @PostConstruct
+  void loadRecentTickets() {
+    index = new NearDuplicateIndex(maxTickets);
+    if (!enabled) {
+      return;
+    }
+    Limit page = Limit.of(LOAD_BATCH_SIZE);
+    LocalDateTime created = LocalDateTime.now().minus(window);
+    String after = "";
+    List<RecentTicket> tickets;
+    do {
+      tickets = ticketRepository.findRecentTickets(created, after, page);
+      for (RecentTicket ticket : tickets) {
+        index.add(
+            ticket.ticketId(),
+            ticket.customerId(),
+            toMillis(ticket.created()),
+            MinHash.signature(text(ticket.subject(), ticket.description())));
+        created = ticket.created();
+        after = ticket.ticketId();
+      }
+    } while (tickets.size() == page.max());
+    logger.info(DuplicateTicketDetector.class, "Loaded {} recent tickets", index.size());
+  }
+
+  /**
+   * Finds the customer's recent tickets that look like the given subject and description.
+   *
+   * @param customerId the customer ID
+   * @param subject the sanitized subject
+   * @param description the sanitized description
+   * @return candidate tickets, most similar first; the caller checks they are still open
+   */
+  public List<NearDuplicate> findDuplicates(String customerId, String subject, String description) {
+    if (!enabled) {
+      return List.of();
+    }
+    long notBefore = System.currentTimeMillis() - window.toMillis();
+    return index.find(
+        customerId, MinHash.signature(text(subject, description)), notBefore, similarityThreshold);
+  }
+
+  /**
+   * Adds a new ticket. Inside a transaction it is visible immediately and removed again if the
+   * transaction rolls back.
+   */
+  public void register(Ticket ticket) {
+    if (!enabled) {
+      return;
+    }
+    String ticketId = ticket.getTicketId();
+    int slot =
+        index.add(
+            ticketId,
+            ticket.getCustomerId(),
+            toMillis(ticket.getCreated()),
+            MinHash.signature(text(ticket.getSubject(), ticket.getDescription())));
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              if (status == STATUS_ROLLED_BACK) {
+                index.remove(slot, ticketId);
+              }
+            }
+          });
+    }
+  }
+
+  private static String text(String subject, String description) {
+    return subject + " " + description;
+  }
+
+  private static long toMillis(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
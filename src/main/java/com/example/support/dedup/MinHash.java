@@ -0,0 +1,104 @@
+package com.example.support.dedup;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over character 5-gram shingles. The fraction of positions at which two
+ * signatures agree estimates the Jaccard similarity of the two texts' shingle sets.
+ *
+ * <p>Each of the {@value #NUM_HASHES} hash functions is derived from two base hashes per shingle
+ * (Kirsch-Mitzenmacher), and only the top 16 bits of each minimum are kept: an accidental match
+ * costs 1/65536 per position, while the signature stays at 128 bytes.
+ */
+public final class MinHash {
+
+  public static final int NUM_HASHES = 64;
+
+  private static final int SHINGLE_LENGTH = 5;
+
+  private MinHash() {}
+
+  /**
+   * Computes the signature of a text. Case, punctuation and runs of whitespace are ignored.
+   *
+   * @param text the text
+   * @return a signature of {@value #NUM_HASHES} values
+   */
+  public static short[] signature(String text) {
+    String normalized = normalize(text);
+    long[] minima = new long[NUM_HASHES];
+    Arrays.fill(minima, Long.MAX_VALUE);
+    int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+    for (int start = 0; start < shingles; start++) {
+      long base = 0xcbf29ce484222325L;
+      int end = Math.min(normalized.length(), start + SHINGLE_LENGTH);
+      for (int i = start; i < end; i++) {
+        base = (base ^ normalized.charAt(i)) * 0x100000001b3L;
+      }
+      long a = mix(base);
+      long b = mix(base ^ 0x9e3779b97f4a7c15L) | 1;
+      for (int i = 0; i < NUM_HASHES; i++) {
+        long hash = mix(a + i * b);
+        if (hash < minima[i]) {
+          minima[i] = hash;
+        }
+      }
+    }
+    short[] signature = new short[NUM_HASHES];
+    for (int i = 0; i < NUM_HASHES; i++) {
+      signature[i] = (short) (minima[i] >>> 48);
+    }
+    return signature;
+  }
+
+  /**
+   * Estimates the Jaccard similarity of two signatures.
+   *
+   * @return the fraction of agreeing positions, from 0 to 1
+   */
+  public static double similarity(short[] a, short[] b) {
+    return similarity(a, 0, b, 0);
+  }
+
+  static double similarity(short[] a, int aOffset, short[] b, int bOffset) {
+    int matches = 0;
+    for (int i = 0; i < NUM_HASHES; i++) {
+      if (a[aOffset + i] == b[bOffset + i]) {
+        matches++;
+      }
+    }
+    return (double) matches / NUM_HASHES;
+  }
+
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    StringBuilder normalized = new StringBuilder(text.length());
+    boolean space = true;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        normalized.append(Character.toLowerCase(c));
+        space = false;
+      } else if (!space) {
+        normalized.append(' ');
+        space = true;
+      }
+    }
+    int length = normalized.length();
+    if (length > 0 && normalized.charAt(length - 1) == ' ') {
+      normalized.setLength(length - 1);
+    }
+    return normalized.toString();
+  }
+
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
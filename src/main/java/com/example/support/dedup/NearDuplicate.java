@@ -0,0 +1,9 @@
+package com.example.support.dedup;
+
+/**
+ * An existing ticket that looks like a new one.
+ *
+ * @param ticketId the existing ticket
+ * @param similarity estimated Jaccard similarity of the two texts, from 0 to 1
+ */
+public record NearDuplicate(String ticketId, double similarity) {}
@@ -0,0 +1,195 @@
+package com.example.support.dedup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing index over MinHash signatures, bounded to {@code capacity} tickets.
+ *
+ * <p>Signatures are split into {@value #BANDS} bands of 4 values; two tickets of the same customer
+ * become candidates when any band matches, which catches pairs above roughly 0.5 similarity with
+ * high probability. Candidates are then checked against the full signature.
+ *
+ * <p>Storage is a ring of slots in primitive arrays, grown on demand up to capacity; the oldest
+ * ticket is evicted when the ring wraps. Each slot owns its {@value #BANDS} postings at fixed
+ * positions, chained from an open hash table, so no per-ticket objects are allocated beyond the
+ * ticket ID.
+ */
+public final class NearDuplicateIndex {
+
+  static final int BANDS = 16;
+  static final int ROWS = MinHash.NUM_HASHES / BANDS;
+
+  private static final int INITIAL_SLOTS = 1024;
+  private static final int NONE = -1;
+
+  private final int capacity;
+
+  private String[] ticketIds;
+  private int[] customers;
+  private long[] created;
+  private short[] signatures;
+
+  private int[] postingKeys;
+  private int[] postingNext;
+  private int[] heads;
+  private int mask;
+
+  private int nextSlot;
+  private int size;
+
+  public NearDuplicateIndex(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.capacity = capacity;
+    allocate(Math.min(capacity, INITIAL_SLOTS));
+  }
+
+  /**
+   * Adds a ticket, evicting the oldest one when the index is full.
+   *
+   * @return the slot, for {@link #remove(int, String)}
+   */
+  public synchronized int add(
+      String ticketId, String customerId, long createdMillis, short[] signature) {
+    int slot = nextSlot;
+    nextSlot = (nextSlot + 1) % capacity;
+    if (slot >= ticketIds.length) {
+      grow();
+    }
+    if (ticketIds[slot] != null) {
+      unlink(slot);
+    } else {
+      size++;
+    }
+    int customer = customerId.hashCode();
+    ticketIds[slot] = ticketId;
+    customers[slot] = customer;
+    created[slot] = createdMillis;
+    System.arraycopy(signature, 0, signatures, slot * MinHash.NUM_HASHES, MinHash.NUM_HASHES);
+    link(slot, customer, signature);
+    return slot;
+  }
+
+  /** Removes a ticket if it still occupies the slot. */
+  public synchronized void remove(int slot, String ticketId) {
+    if (slot < ticketIds.length && ticketId.equals(ticketIds[slot])) {
+      unlink(slot);
+      ticketIds[slot] = null;
+      size--;
+    }
+  }
+
+  /**
+   * Finds the customer's tickets created at or after {@code notBeforeMillis} whose estimated
+   * similarity to the signature is at least {@code threshold}.
+   *
+   * @return matches, most similar first
+   */
+  public synchronized List<NearDuplicate> find(
+      String customerId, short[] signature, long notBeforeMillis, double threshold) {
+    int customer = customerId.hashCode();
+    Set<Integer> seen = new HashSet<>();
+    List<NearDuplicate> matches = new ArrayList<>();
+    for (int band = 0; band < BANDS; band++) {
+      int key = bandKey(customer, signature, band);
+      for (int entry = heads[key & mask]; entry != NONE; entry = postingNext[entry]) {
+        int slot = entry / BANDS;
+        if (postingKeys[entry] != key
+            || customers[slot] != customer
+            || created[slot] < notBeforeMillis
+            || !seen.add(slot)) {
+          continue;
+        }
+        double similarity = MinHash.similarity(signatures, slot * MinHash.NUM_HASHES, signature, 0);
+        if (similarity >= threshold) {
+          matches.add(new NearDuplicate(ticketIds[slot], similarity));
+        }
+      }
+    }
+    matches.sort(Comparator.comparingDouble(NearDuplicate::similarity).reversed());
+    return matches;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  private void link(int slot, int customer, short[] signature) {
+    for (int band = 0; band < BANDS; band++) {
+      int entry = slot * BANDS + band;
+      int key = bandKey(customer, signature, band);
+      postingKeys[entry] = key;
+      postingNext[entry] = heads[key & mask];
+      heads[key & mask] = entry;
+    }
+  }
+
+  private void unlink(int slot) {
+    for (int band = 0; band < BANDS; band++) {
+      int entry = slot * BANDS + band;
+      int bucket = postingKeys[entry] & mask;
+      if (heads[bucket] == entry) {
+        heads[bucket] = postingNext[entry];
+        continue;
+      }
+      for (int previous = heads[bucket]; previous != NONE; previous = postingNext[previous]) {
+        if (postingNext[previous] == entry) {
+          postingNext[previous] = postingNext[entry];
+          break;
+        }
+      }
+    }
+  }
+
+  private void grow() {
+    int slots = Math.min(capacity, ticketIds.length * 2);
+    String[] oldTicketIds = ticketIds;
+    int[] oldCustomers = customers;
+    long[] oldCreated = created;
+    short[] oldSignatures = signatures;
+    allocate(slots);
+    System.arraycopy(oldTicketIds, 0, ticketIds, 0, oldTicketIds.length);
+    System.arraycopy(oldCustomers, 0, customers, 0, oldCustomers.length);
+    System.arraycopy(oldCreated, 0, created, 0, oldCreated.length);
+    System.arraycopy(oldSignatures, 0, signatures, 0, oldSignatures.length);
+    short[] signature = new short[MinHash.NUM_HASHES];
+    for (int slot = 0; slot < oldTicketIds.length; slot++) {
+      if (ticketIds[slot] != null) {
+        System.arraycopy(signatures, slot * MinHash.NUM_HASHES, signature, 0, signature.length);
+        link(slot, customers[slot], signature);
+      }
+    }
+  }
+
+  private void allocate(int slots) {
+    ticketIds = new String[slots];
+    customers = new int[slots];
+    created = new long[slots];
+    signatures = new short[slots * MinHash.NUM_HASHES];
+    postingKeys = new int[slots * BANDS];
+    postingNext = new int[slots * BANDS];
+    heads = new int[Integer.highestOneBit(slots * BANDS - 1) << 1];
+    Arrays.fill(heads, NONE);
+    mask = heads.length - 1;
+  }
+
+  private static int bandKey(int customer, short[] signature, int band) {
+    int h = customer * 31 + band;
+    for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+      h = h * 31 + signature[row];
+    }
+    // murmur3 fmix32
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
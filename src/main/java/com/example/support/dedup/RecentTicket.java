@@ -0,0 +1,11 @@
+package com.example.support.dedup;
+
+import java.time.LocalDateTime;
+
+/** A ticket's text and keys as loaded into the near-duplicate index at startup. */
+public record RecentTicket(
+    String ticketId,
+    String customerId,
+    String subject,
+    String description,
+    LocalDateTime created) {}
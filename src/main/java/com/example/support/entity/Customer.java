@@ -2,15 +2,24 @@ package com.example.support.entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 public class Customer {
   @Id private String customerId;
   private String name;
   private String email;
   private String tier;
-  private Double balance;
+
+  /** In minor units; see {@link com.example.support.Money}. */
+  @Column(name = "balance", precision = 19, scale = 2)
+  @Convert(converter = MinorUnitsConverter.class)
+  private long balanceMinor;
+
   private LocalDateTime accountCreated;
   private String status;
 
@@ -21,14 +30,14 @@ public class Customer {
       String name,
       String email,
       String tier,
-      Double balance,
+      long balanceMinor,
       LocalDateTime accountCreated,
       String status) {
     this.customerId = customerId;
     this.name = name;
     this.email = email;
     this.tier = tier;
-    this.balance = balance;
+    this.balanceMinor = balanceMinor;
     this.accountCreated = accountCreated;
     this.status = status;
   }
@@ -66,12 +75,12 @@ public class Customer {
     this.tier = tier;
   }
 
-  public Double getBalance() {
-    return balance;
+  public long getBalanceMinor() {
+    return balanceMinor;
   }
 
-  public void setBalance(Double balance) {
-    this.balance = balance;
+  public void setBalanceMinor(long balanceMinor) {
+    this.balanceMinor = balanceMinor;
   }
 
   public LocalDateTime getAccountCreated() {
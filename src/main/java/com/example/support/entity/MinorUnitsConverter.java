@@ -0,0 +1,21 @@
+package com.example.support.entity;
+
+import com.example.support.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+
+/** Maps a {@code long} of minor units to a {@code NUMERIC(19,2)} column; see {@link Money}. */
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+  @Override
+  public BigDecimal convertToDatabaseColumn(Long minor) {
+    return minor == null ? null : Money.toDecimal(minor);
+  }
+
+  @Override
+  public Long convertToEntityAttribute(BigDecimal amount) {
+    return amount == null ? null : Money.fromDecimal(amount);
+  }
+}
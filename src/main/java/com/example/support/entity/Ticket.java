@@ -1,10 +1,12 @@
 package com.example.support.entity;
 
+import com.example.support.search.TicketSearchListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tickets")
+@EntityListeners(TicketSearchListener.class)
 public class Ticket {
   @Id private String ticketId;
   private String customerId;
@@ -17,6 +19,12 @@ public class Ticket {
   private String status;
   private LocalDateTime created;
 
+  /** When an open ticket breaches its response-time SLA and is escalated; null unless open. */
+  private LocalDateTime slaDue;
+
+  /** The human agent working the ticket, set by a work-queue claim; null while unassigned. */
+  private String assignee;
+
   public Ticket() {}
 
   public Ticket(
@@ -92,4 +100,20 @@ public class Ticket {
   public void setCreated(LocalDateTime created) {
     this.created = created;
   }
+
+  public LocalDateTime getSlaDue() {
+    return slaDue;
+  }
+
+  public void setSlaDue(LocalDateTime slaDue) {
+    this.slaDue = slaDue;
+  }
+
+  public String getAssignee() {
+    return assignee;
+  }
+
+  public void setAssignee(String assignee) {
+    this.assignee = assignee;
+  }
 }
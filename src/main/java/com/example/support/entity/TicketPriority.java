@@ -0,0 +1,42 @@
+package com.example.support.entity;
+
+/** Ticket priorities, least urgent first. Tickets store the lowercase {@link #value()}. */
+public enum TicketPriority {
+  LOW,
+  MEDIUM,
+  HIGH,
+  URGENT;
+
+  public String value() {
+    return name().toLowerCase();
+  }
+
+  /** The next priority up, or this one when already {@link #URGENT}. */
+  public TicketPriority escalated() {
+    return this == URGENT ? URGENT : values()[ordinal() + 1];
+  }
+
+  /**
+   * Parses a stored or user-supplied priority.
+   *
+   * @param value the priority, in any case
+   * @return the priority, or null if the value is not one
+   */
+  public static TicketPriority from(String value) {
+    if (value == null) {
+      return null;
+    }
+    switch (value.trim().toLowerCase()) {
+      case "low":
+        return LOW;
+      case "medium":
+        return MEDIUM;
+      case "high":
+        return HIGH;
+      case "urgent":
+        return URGENT;
+      default:
+        return null;
+    }
+  }
+}
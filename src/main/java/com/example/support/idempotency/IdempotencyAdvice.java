@@ -0,0 +1,17 @@
+package com.example.support.idempotency;
+
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/** Answers a rejected Idempotency-Key with its status and the usual error body. */
+@RestControllerAdvice
+public class IdempotencyAdvice {
+
+  @ExceptionHandler(IdempotencyException.class)
+  public ResponseEntity<Map<String, Object>> handleIdempotency(IdempotencyException e) {
+    return ResponseEntity.status(e.getStatus())
+        .body(Map.of("success", false, "error", e.getMessage()));
+  }
+}
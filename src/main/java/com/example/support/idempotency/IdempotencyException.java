@@ -0,0 +1,18 @@
+package com.example.support.idempotency;
+
+import org.springframework.http.HttpStatus;
+
+/** An Idempotency-Key that cannot be honoured: malformed, reused or still in progress. */
+public class IdempotencyException extends RuntimeException {
+
+  private final HttpStatus status;
+
+  public IdempotencyException(HttpStatus status, String message) {
+    super(message);
+    this.status = status;
+  }
+
+  public HttpStatus getStatus() {
+    return status;
+  }
+}
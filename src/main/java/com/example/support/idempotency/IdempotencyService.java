@@ -0,0 +1,315 @@
+package com.example.support.idempotency;
+
+import com.example.support.logging.CustomLogger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}, and answers retries with the first
+ * response.
+ *
+ * <p>Completed responses are held in a bounded in-memory cache for {@code support.idempotency.ttl},
+ * so a retry on the same node is answered without a query. Durability comes from {@code
+ * idempotency_keys}: the key row is inserted before the tool runs and committed in the same
+ * transaction as the tool's writes. A concurrent duplicate on another node blocks on the key's
+ * primary key until the first commits, then replays its response; if the first rolls back, the
+ * duplicate runs instead. Duplicates on this node wait for the running request rather than queueing
+ * on the database.
+ *
+ * <p>A key reused with a different request body is rejected with 422, as is a malformed key; a
+ * duplicate that waits longer than {@code support.idempotency.wait-timeout} gets 409.
+ */
+@Component
+public class IdempotencyService {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final Pattern VALID_KEY = Pattern.compile("^[\\x21-\\x7E]{1,255}$");
+  private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {};
+
+  // Resolved on first use: slice tests load this bean without a DataSource or ObjectMapper
+  @Autowired private ObjectProvider<DataSource> dataSource;
+
+  @Autowired private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  @Autowired private ObjectProvider<ObjectMapper> objectMapper;
+
+  @Autowired private CustomLogger logger;
+
+  @Value("${support.idempotency.ttl:24h}")
+  private Duration ttl;
+
+  @Value("${support.idempotency.cache-size:10000}")
+  private long cacheSize;
+
+  @Value("${support.idempotency.wait-timeout:30s}")
+  private Duration waitTimeout;
+
+  private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+  private Cache<String, StoredResponse> completed;
+  private volatile JdbcTemplate jdbcTemplate;
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  void start() {
+    completed = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build();
+    if (dataSource.getIfAvailable() == null) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "idempotency-purge");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::purgeExpired, 1, 1, TimeUnit.HOURS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Runs the call unless a request with this key already ran.
+   *
+   * @param operation the endpoint, which scopes the key
+   * @param key the client's Idempotency-Key
+   * @param request the request body, compared against the first request's
+   * @param call the tool invocation
+   * @return the call's result, or the stored result of the first request with this key
+   * @throws IdempotencyException if the key is malformed, was used for a different request, or its
+   *     first request is still running after the wait timeout
+   */
+  public IdempotentResponse execute(
+      String operation, String key, Map<String, ?> request, Supplier<Map<String, Object>> call) {
+    if (!VALID_KEY.matcher(key).matches()) {
+      throw new IdempotencyException(
+          HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key must be 1-255 printable characters");
+    }
+    String cacheKey = operation + ':' + key;
+    String fingerprint = fingerprint(operation, request);
+    while (true) {
+      StoredResponse stored = completed.getIfPresent(cacheKey);
+      if (stored != null) {
+        return replay(stored, fingerprint);
+      }
+      CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+      CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+      if (running != null) {
+        StoredResponse first = await(running);
+        if (first == null) {
+          // The first request failed without storing a response; this one may run
+          continue;
+        }
+        return replay(first, fingerprint);
+      }
+      try {
+        IdempotentResponse response = runOnce(operation, key, fingerprint, call, mine);
+        return response.replayed() ? replay(mine.join(), fingerprint) : response;
+      } catch (RuntimeException e) {
+        mine.complete(null);
+        throw e;
+      } finally {
+        inFlight.remove(cacheKey, mine);
+      }
+    }
+  }
+
+  /** Deletes stored responses older than the TTL, in its own write transaction. */
+  public int purgeExpired() {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return 0;
+    }
+    try {
+      TransactionTemplate writeTransaction =
+          new TransactionTemplate(transactionManager.getObject());
+      Integer purged =
+          writeTransaction.execute(
+              status ->
+                  jdbc.update(
+                      "DELETE FROM idempotency_keys WHERE created < ?",
+                      Timestamp.valueOf(LocalDateTime.now().minus(ttl))));
+      return purged != null ? purged : 0;
+    } catch (RuntimeException e) {
+      logger.warn(IdempotencyService.class, "Idempotency key purge failed: {}", e.getMessage());
+      return 0;
+    }
+  }
+
+  /** Drops the in-memory copies, leaving the table as the only record. */
+  void clearCache() {
+    completed.invalidateAll();
+  }
+
+  private IdempotentResponse runOnce(
+      String operation,
+      String key,
+      String fingerprint,
+      Supplier<Map<String, Object>> call,
+      CompletableFuture<StoredResponse> result) {
+    JdbcTemplate jdbc = jdbc();
+    String cacheKey = operation + ':' + key;
+    if (jdbc == null) {
+      Map<String, Object> body = call.get();
+      publish(cacheKey, new StoredResponse(fingerprint, body), result);
+      return new IdempotentResponse(body, false);
+    }
+    TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager.getObject());
+    try {
+      Map<String, Object> body =
+          writeTransaction.execute(
+              status -> {
+                jdbc.update(
+                    "INSERT INTO idempotency_keys"
+                        + " (operation, idempotency_key, request_hash, created)"
+                        + " VALUES (?, ?, ?, ?)",
+                    operation,
+                    key,
+                    fingerprint,
+                    Timestamp.valueOf(LocalDateTime.now()));
+                Map<String, Object> response = call.get();
+                jdbc.update(
+                    "UPDATE idempotency_keys SET response = ?"
+                        + " WHERE operation = ? AND idempotency_key = ?",
+                    toJson(response),
+                    operation,
+                    key);
+                return response;
+              });
+      publish(cacheKey, new StoredResponse(fingerprint, body), result);
+      return new IdempotentResponse(body, false);
+    } catch (DuplicateKeyException e) {
+      // Committed by an earlier request, possibly on another node
+      List<StoredResponse> rows =
+          jdbc.query(
+              "SELECT request_hash, response FROM idempotency_keys"
+                  + " WHERE operation = ? AND idempotency_key = ?",
+              (rs, rowNum) -> new StoredResponse(rs.getString(1), fromJson(rs.getString(2))),
+              operation,
+              key);
+      if (rows.isEmpty()) {
+        throw new IdempotencyException(
+            HttpStatus.CONFLICT, "A request with this Idempotency-Key is in progress");
+      }
+      publish(cacheKey, rows.get(0), result);
+      return new IdempotentResponse(rows.get(0).body(), true);
+    }
+  }
+
+  private void publish(
+      String cacheKey, StoredResponse stored, CompletableFuture<StoredResponse> result) {
+    completed.put(cacheKey, stored);
+    result.complete(stored);
+  }
+
+  private StoredResponse await(CompletableFuture<StoredResponse> running) {
+    try {
+      return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new IdempotencyException(
+          HttpStatus.CONFLICT, "A request with this Idempotency-Key is in progress");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IdempotencyException(
+          HttpStatus.CONFLICT, "A request with this Idempotency-Key is in progress");
+    } catch (ExecutionException e) {
+      return null;
+    }
+  }
+
+  private static IdempotentResponse replay(StoredResponse stored, String fingerprint) {
+    if (!stored.fingerprint().equals(fingerprint)) {
+      throw new IdempotencyException(
+          HttpStatus.UNPROCESSABLE_ENTITY,
+          "Idempotency-Key was already used with a different request");
+    }
+    return new IdempotentResponse(stored.body(), true);
+  }
+
+  /** SHA-256 of the operation and the request body with its fields in sorted order. */
+  private String fingerprint(String operation, Map<String, ?> request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(operation.getBytes(StandardCharsets.UTF_8));
+      digest.update(mapper().writeValueAsBytes(new TreeMap<>(request)));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private String toJson(Map<String, Object> response) {
+    try {
+      return mapper().writeValueAsString(response);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Map<String, Object> fromJson(String response) {
+    try {
+      return mapper().readValue(response, RESPONSE_TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private ObjectMapper mapper() {
+    return objectMapper.getIfAvailable(ObjectMapper::new);
+  }
+
+  private JdbcTemplate jdbc() {
+    JdbcTemplate jdbc = jdbcTemplate;
+    if (jdbc == null) {
+      DataSource source = dataSource.getIfAvailable();
+      if (source == null) {
+        return null;
+      }
+      jdbc = new JdbcTemplate(source);
+      jdbcTemplate = jdbc;
+    }
+    return jdbc;
+  }
+
+  private record StoredResponse(String fingerprint, Map<String, Object> body) {}
+}
@@ -0,0 +1,11 @@
+package com.example.support.idempotency;
+
+import java.util.Map;
+
+/**
+ * A tool result returned for an idempotent request.
+ *
+ * @param body the result map
+ * @param replayed whether it was stored by an earlier request with the same key
+ */
+public record IdempotentResponse(Map<String, Object> body, boolean replayed) {}
@@ -0,0 +1,38 @@
+package com.example.support.invalidation;
+
+import com.example.support.entity.Customer;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Set;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Evicts customers changed on other nodes from the Hibernate second-level cache. */
+@Component
+public class CustomerEntityCacheInvalidator implements CustomerInvalidationListener {
+
+  // Absent in slice tests without JPA
+  @Autowired private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+  @Override
+  public void invalidate(Set<String> customerIds) {
+    Cache cache = cache();
+    if (cache != null) {
+      customerIds.forEach(id -> cache.evict(Customer.class, id));
+    }
+  }
+
+  @Override
+  public void invalidateAll() {
+    Cache cache = cache();
+    if (cache != null) {
+      cache.evict(Customer.class);
+    }
+  }
+
+  private Cache cache() {
+    EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+    return factory == null ? null : factory.getCache();
+  }
+}
@@ -0,0 +1,305 @@
+package com.example.support.invalidation;
+
+import com.example.support.logging.CustomLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells the other nodes which customers changed, through Postgres {@code NOTIFY}, so their
+ * in-process caches ({@link CustomerInvalidationListener}s) do not serve stale accounts.
+ *
+ * <p>Changes are published once they commit ({@link com.example.support.versioning.CustomerVersions
+ * #bump} is the hook every writer already calls). A single daemon thread owns one dedicated
+ * connection outside the pool: every {@code support.invalidation.batch-interval} it sends the
+ * customer IDs queued since the last round as one notification per 8000-byte payload, waits for
+ * notifications from other nodes, and applies each round's IDs to the listeners deduplicated.
+ *
+ * <p>While connected, a change reaches the other nodes' caches within about two batch intervals.
+ * Staleness is bounded by {@code support.invalidation.max-staleness}: a silent connection is probed
+ * every half of it and dropped if the probe takes longer. While disconnected, every listener is
+ * flushed in full every half of it, and once more after {@code LISTEN} is re-established, since
+ * notifications sent in between are lost. IDs queued for publishing while disconnected are sent
+ * once reconnected.
+ *
+ * <p>Only runs against PostgreSQL; elsewhere (H2 in tests) publishing is a no-op.
+ */
+@Component
+public class CustomerInvalidationBus {
+
+  static final String ALL = "*";
+  // Postgres rejects notification payloads of 8000 bytes or more
+  static final int MAX_PAYLOAD_BYTES = 7900;
+
+  // Absent in slice tests without a DataSource
+  private final ObjectProvider<DataSourceProperties> dataSourceProperties;
+  private final ObjectProvider<CustomerInvalidationListener> listeners;
+  private final CustomLogger logger;
+
+  @Value("${support.invalidation.enabled:true}")
+  private boolean enabled;
+
+  @Value("${support.invalidation.channel:customer_changed}")
+  private String channel;
+
+  @Value("${support.invalidation.batch-interval:100ms}")
+  private Duration batchInterval;
+
+  @Value("${support.invalidation.max-staleness:2s}")
+  private Duration maxStaleness;
+
+  private final String node = UUID.randomUUID().toString();
+  private final Set<String> outbox = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean outboxAll = new AtomicBoolean();
+
+  // Owned by the bus thread
+  private final Set<String> inbox = new HashSet<>();
+  private boolean inboxAll;
+  private Connection connection;
+  private long lastRoundTrip;
+
+  private volatile boolean active;
+  private Thread thread;
+
+  public CustomerInvalidationBus(
+      ObjectProvider<DataSourceProperties> dataSourceProperties,
+      ObjectProvider<CustomerInvalidationListener> listeners,
+      CustomLogger logger) {
+    this.dataSourceProperties = dataSourceProperties;
+    this.listeners = listeners;
+    this.logger = logger;
+  }
+
+  @PostConstruct
+  void start() {
+    DataSourceProperties properties = dataSourceProperties.getIfAvailable();
+    if (!enabled
+        || properties == null
+        || properties.determineUrl() == null
+        || !properties.determineUrl().startsWith("jdbc:postgresql:")) {
+      return;
+    }
+    active = true;
+    thread = new Thread(this::run, "customer-invalidation");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    active = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  /** Queues a committed change to a customer for the other nodes. */
+  public void publish(String customerId) {
+    if (active) {
+      outbox.add(customerId);
+    }
+  }
+
+  /** Queues a change to every customer (a bulk import) for the other nodes. */
+  public void publishAll() {
+    if (active) {
+      outboxAll.set(true);
+    }
+  }
+
+  private void run() {
+    while (active) {
+      try {
+        if (connection == null) {
+          connect();
+        }
+        send();
+        receive();
+        apply();
+      } catch (SQLException e) {
+        if (connection != null) {
+          logger.warn(
+              CustomerInvalidationBus.class, "Invalidation channel lost: {}", e.getMessage());
+          disconnect();
+        }
+      }
+      if (connection == null) {
+        // Changes from other nodes go unseen until reconnected: keep caches younger than the bound
+        flushAll();
+        try {
+          Thread.sleep(maxStaleness.toMillis() / 2);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+    disconnect();
+  }
+
+  private void connect() throws SQLException {
+    DataSourceProperties properties = dataSourceProperties.getObject();
+    Connection opened =
+        DriverManager.getConnection(
+            properties.determineUrl(),
+            properties.determineUsername(),
+            properties.determinePassword());
+    try (Statement statement = opened.createStatement()) {
+      opened.setAutoCommit(true);
+      opened.setNetworkTimeout(Runnable::run, (int) maxStaleness.toMillis());
+      statement.execute("LISTEN " + channel);
+    } catch (SQLException e) {
+      opened.close();
+      throw e;
+    }
+    connection = opened;
+    lastRoundTrip = System.nanoTime();
+    // Anything published while we were not listening is lost
+    inboxAll = true;
+    logger.info(CustomerInvalidationBus.class, "Listening for invalidations on {}", channel);
+  }
+
+  private void send() throws SQLException {
+    boolean all = outboxAll.getAndSet(false);
+    Set<String> ids = new HashSet<>();
+    for (String id : outbox) {
+      outbox.remove(id);
+      ids.add(id);
+    }
+    if (!all && ids.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+      for (String payload : encode(node, ids, all)) {
+        notify.setString(1, channel);
+        notify.setString(2, payload);
+        notify.execute();
+      }
+    } catch (SQLException e) {
+      // Send again once reconnected
+      outbox.addAll(ids);
+      if (all) {
+        outboxAll.set(true);
+      }
+      throw e;
+    }
+    lastRoundTrip = System.nanoTime();
+  }
+
+  private void receive() throws SQLException {
+    PGNotification[] notifications =
+        connection.unwrap(PGConnection.class).getNotifications((int) batchInterval.toMillis());
+    if (notifications != null) {
+      for (PGNotification notification : notifications) {
+        receive(notification.getParameter());
+      }
+    }
+    if (System.nanoTime() - lastRoundTrip > maxStaleness.toNanos() / 2) {
+      // getNotifications does not notice a half-open connection
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SELECT 1");
+      }
+      lastRoundTrip = System.nanoTime();
+    }
+  }
+
+  /** Queues one notification's customers for the next {@link #apply}, unless it is ours. */
+  void receive(String payload) {
+    int separator = payload.indexOf('|');
+    if (separator < 0 || payload.startsWith(node + "|")) {
+      return;
+    }
+    String ids = payload.substring(separator + 1);
+    if (ids.equals(ALL)) {
+      inboxAll = true;
+      return;
+    }
+    for (String id : ids.split(",")) {
+      if (!id.isEmpty()) {
+        inbox.add(id);
+      }
+    }
+  }
+
+  /** Hands the queued invalidations to the listeners, each customer once. */
+  void apply() {
+    if (inboxAll) {
+      flushAll();
+    } else if (!inbox.isEmpty()) {
+      Set<String> ids = Set.copyOf(inbox);
+      listeners.orderedStream().forEach(listener -> listener.invalidate(ids));
+    }
+    inbox.clear();
+    inboxAll = false;
+  }
+
+  private void flushAll() {
+    listeners.orderedStream().forEach(CustomerInvalidationListener::invalidateAll);
+  }
+
+  private void disconnect() {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      // Already broken
+    }
+    connection = null;
+    inbox.clear();
+    inboxAll = false;
+    flushAll();
+  }
+
+  /**
+   * Splits a batch into notification payloads: {@code node|id,id,...}, or {@code node|*} for every
+   * customer.
+   */
+  static List<String> encode(String node, Set<String> ids, boolean all) {
+    String prefix = node + "|";
+    if (all) {
+      return List.of(prefix + ALL);
+    }
+    List<String> payloads = new ArrayList<>();
+    StringBuilder payload = new StringBuilder(prefix);
+    for (String id : ids) {
+      int length = id.getBytes(StandardCharsets.UTF_8).length;
+      if (payload.length() > prefix.length() && payload.length() + 1 + length > MAX_PAYLOAD_BYTES) {
+        payloads.add(payload.toString());
+        payload.setLength(prefix.length());
+      }
+      if (payload.length() > prefix.length()) {
+        payload.append(',');
+      }
+      payload.append(id);
+    }
+    if (payload.length() > prefix.length()) {
+      payloads.add(payload.toString());
+    }
+    return payloads;
+  }
+
+  /** This node's ID, which it skips in notifications it receives back. */
+  String node() {
+    return node;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.support.invalidation;
+
+import java.util.Set;
+
+/**
+ * An in-process cache of customer data, told by {@link CustomerInvalidationBus} when another node
+ * changed a customer. Called on the bus thread, so implementations must be quick and thread-safe.
+ */
+public interface CustomerInvalidationListener {
+
+  /** Drops what is held for these customers. */
+  void invalidate(Set<String> customerIds);
+
+  /** Drops everything, when changes may have been missed. */
+  void invalidateAll();
+}
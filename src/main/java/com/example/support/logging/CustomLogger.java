@@ -2,19 +2,46 @@ package com.example.support.logging;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Application logging facade. Loggers are resolved once per class, and the parameterized and
+ * key/value methods check the level before doing any formatting, so disabled statements cost a
+ * level check and nothing else.
+ */
 @Component
 public class CustomLogger {
 
+  private static final ClassValue<Logger> LOGGERS =
+      new ClassValue<>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+          return LoggerFactory.getLogger(type);
+        }
+      };
+
   public Logger getLogger(Class<?> clazz) {
-    return LoggerFactory.getLogger(clazz);
+    return LOGGERS.get(clazz);
   }
 
   public void info(Class<?> clazz, String message) {
     getLogger(clazz).info(message);
   }
 
+  public void info(Class<?> clazz, String format, Object arg) {
+    getLogger(clazz).info(format, arg);
+  }
+
+  public void info(Class<?> clazz, String format, Object arg1, Object arg2) {
+    getLogger(clazz).info(format, arg1, arg2);
+  }
+
+  public void info(Class<?> clazz, String format, Object... args) {
+    getLogger(clazz).info(format, args);
+  }
+
   public void error(Class<?> clazz, String message) {
     getLogger(clazz).error(message);
   }
@@ -23,11 +50,81 @@ public class CustomLogger {
     getLogger(clazz).error(message, t);
   }
 
+  public void error(Class<?> clazz, String format, Object... args) {
+    getLogger(clazz).error(format, args);
+  }
+
   public void warn(Class<?> clazz, String message) {
     getLogger(clazz).warn(message);
   }
 
+  public void warn(Class<?> clazz, String format, Object arg) {
+    getLogger(clazz).warn(format, arg);
+  }
+
+  public void warn(Class<?> clazz, String format, Object... args) {
+    getLogger(clazz).warn(format, args);
+  }
+
   public void debug(Class<?> clazz, String message) {
     getLogger(clazz).debug(message);
   }
+
+  public void debug(Class<?> clazz, String format, Object arg) {
+    getLogger(clazz).debug(format, arg);
+  }
+
+  public void debug(Class<?> clazz, String format, Object arg1, Object arg2) {
+    getLogger(clazz).debug(format, arg1, arg2);
+  }
+
+  public void debug(Class<?> clazz, String format, Object... args) {
+    getLogger(clazz).debug(format, args);
+  }
+
+  /**
+   * Logs a structured INFO event. Key/value pairs are attached to the event rather than formatted
+   * into the message, so they render as {@code key=value} in text logs and as fields in JSON.
+   *
+   * @param clazz the calling class
+   * @param message the event message
+   * @param keyValues alternating keys and values
+   */
+  public void infoKv(Class<?> clazz, String message, Object... keyValues) {
+    logKv(Level.INFO, clazz, message, keyValues);
+  }
+
+  /**
+   * Logs a structured WARN event.
+   *
+   * @param clazz the calling class
+   * @param message the event message
+   * @param keyValues alternating keys and values
+   */
+  public void warnKv(Class<?> clazz, String message, Object... keyValues) {
+    logKv(Level.WARN, clazz, message, keyValues);
+  }
+
+  /**
+   * Logs a structured DEBUG event.
+   *
+   * @param clazz the calling class
+   * @param message the event message
+   * @param keyValues alternating keys and values
+   */
+  public void debugKv(Class<?> clazz, String message, Object... keyValues) {
+    logKv(Level.DEBUG, clazz, message, keyValues);
+  }
+
+  private void logKv(Level level, Class<?> clazz, String message, Object... keyValues) {
+    Logger logger = getLogger(clazz);
+    if (!logger.isEnabledForLevel(level)) {
+      return;
+    }
+    LoggingEventBuilder event = logger.atLevel(level).setMessage(message);
+    for (int i = 0; i + 1 < keyValues.length; i += 2) {
+      event = event.addKeyValue(String.valueOf(keyValues[i]), keyValues[i + 1]);
+    }
+    event.log();
+  }
 }
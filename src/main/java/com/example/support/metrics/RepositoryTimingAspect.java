@@ -0,0 +1,58 @@
+package com.example.support.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every Spring Data repository call as {@code support.repository.duration} and charges the
+ * elapsed time to the enclosing tool call in {@link ToolMetrics}.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+  private final ToolMetrics toolMetrics;
+  private final Map<Class<?>, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+  public RepositoryTimingAspect(ToolMetrics toolMetrics) {
+    this.toolMetrics = toolMetrics;
+  }
+
+  @Around("bean(*Repository) && this(org.springframework.data.repository.Repository)")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      ToolMetrics.addDbTime(elapsed);
+      timer(joinPoint.getThis(), joinPoint.getSignature().getName())
+          .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private Timer timer(Object repository, String method) {
+    return timers
+        .computeIfAbsent(repository.getClass(), key -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            method,
+            key ->
+                Timer.builder("support.repository.duration")
+                    .description("Time spent in repository calls")
+                    .tag("repository", repositoryName(repository))
+                    .tag("method", method)
+                    .register(toolMetrics.getRegistry()));
+  }
+
+  private static String repositoryName(Object proxy) {
+    Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+    return interfaces.length > 0 ? interfaces[0].getSimpleName() : proxy.getClass().getSimpleName();
+  }
+}
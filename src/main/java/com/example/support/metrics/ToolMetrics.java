@@ -0,0 +1,138 @@
+package com.example.support.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer instrumentation for the agent tools.
+ *
+ * <p>Every tool call records {@code support.tool.duration} (tagged with the tool name and an
+ * outcome of {@code success}, {@code validation_failure} or {@code error}) and {@code
+ * support.tool.db.duration}, the share of that call spent in repository methods. A failed call that
+ * never reached a repository is counted as a validation failure. When the tool reports a {@code
+ * cached} flag, {@code support.tool.cache} is incremented with {@code result=hit|miss}.
+ */
+@Component
+public class ToolMetrics {
+
+  public static final String OUTCOME_SUCCESS = "success";
+  public static final String OUTCOME_VALIDATION_FAILURE = "validation_failure";
+  public static final String OUTCOME_ERROR = "error";
+
+  /** Per-thread repository time accumulator: {nanos, calls}. */
+  private static final ThreadLocal<long[]> DB_USAGE = new ThreadLocal<>();
+
+  private final MeterRegistry registry;
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+  public ToolMetrics(ObjectProvider<MeterRegistry> registry) {
+    this.registry = registry.getIfAvailable(SimpleMeterRegistry::new);
+  }
+
+  /**
+   * Runs a tool body and records its timers and counters.
+   *
+   * @param tool the tool name
+   * @param call the tool body
+   * @return the tool result
+   */
+  public Map<String, Object> record(String tool, Supplier<Map<String, Object>> call) {
+    long[] outer = DB_USAGE.get();
+    long[] usage = new long[2];
+    DB_USAGE.set(usage);
+    String outcome = OUTCOME_ERROR;
+    long start = System.nanoTime();
+    try {
+      Map<String, Object> result = call.get();
+      outcome = outcomeOf(result, usage[1]);
+      Object cached = result.get("cached");
+      if (cached instanceof Boolean) {
+        cacheCounter(tool, (Boolean) cached ? "hit" : "miss").increment();
+      }
+      return result;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      toolTimer(tool, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+      dbTimer(tool).record(usage[0], TimeUnit.NANOSECONDS);
+      if (outer != null) {
+        outer[0] += usage[0];
+        outer[1] += usage[1];
+        DB_USAGE.set(outer);
+      } else {
+        DB_USAGE.remove();
+      }
+    }
+  }
+
+  /**
+   * Adds repository time to the tool call running on the current thread, if any.
+   *
+   * @param nanos elapsed repository time
+   */
+  public static void addDbTime(long nanos) {
+    long[] usage = DB_USAGE.get();
+    if (usage != null) {
+      usage[0] += nanos;
+      usage[1]++;
+    }
+  }
+
+  /**
+   * Gets the registry the tool meters are published to.
+   *
+   * @return the meter registry
+   */
+  public MeterRegistry getRegistry() {
+    return registry;
+  }
+
+  private static String outcomeOf(Map<String, Object> result, long dbCalls) {
+    if (Boolean.TRUE.equals(result.get("success"))) {
+      return OUTCOME_SUCCESS;
+    }
+    return dbCalls == 0 ? OUTCOME_VALIDATION_FAILURE : OUTCOME_ERROR;
+  }
+
+  private Timer toolTimer(String tool, String outcome) {
+    return timers.computeIfAbsent(
+        tool + ':' + outcome,
+        key ->
+            Timer.builder("support.tool.duration")
+                .description("Total time spent in an agent tool")
+                .tag("tool", tool)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+  }
+
+  private Timer dbTimer(String tool) {
+    return timers.computeIfAbsent(
+        tool + ":db",
+        key ->
+            Timer.builder("support.tool.db.duration")
+                .description("Time an agent tool spent in repository calls")
+                .tag("tool", tool)
+                .publishPercentileHistogram()
+                .register(registry));
+  }
+
+  private Counter cacheCounter(String tool, String result) {
+    return counters.computeIfAbsent(
+        tool + ':' + result,
+        key ->
+            Counter.builder("support.tool.cache")
+                .description("Tool context cache lookups")
+                .tag("tool", tool)
+                .tag("result", result)
+                .register(registry));
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.support.model;
+
+import com.google.genai.types.GenerateContentConfig;
+import java.time.Duration;
+
+/** Model-side storage for prompt prefixes, which later requests reference by name. */
+public interface CachedContentStore {
+
+  /**
+   * Stores a prefix for a model.
+   *
+   * @param prefix the system instruction, tools and tool config to store; nothing else is set
+   * @param ttl how long the model side keeps it
+   * @return its handle
+   */
+  CachedPrefix create(String model, String displayName, GenerateContentConfig prefix, Duration ttl);
+}
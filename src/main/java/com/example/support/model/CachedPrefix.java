@@ -0,0 +1,11 @@
+package com.example.support.model;
+
+import java.time.Instant;
+
+/**
+ * A prompt prefix stored by a {@link CachedContentStore}.
+ *
+ * @param name what requests reference it by
+ * @param expiresAt when the model side drops it
+ */
+public record CachedPrefix(String name, Instant expiresAt) {}
@@ -0,0 +1,44 @@
+package com.example.support.model;
+
+import com.google.genai.Client;
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.CreateCachedContentConfig;
+import com.google.genai.types.GenerateContentConfig;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Stores prefixes as Gemini cached content. The client is created on first use, from the same
+ * environment as the agents' models ({@code GOOGLE_API_KEY}, or the Vertex AI project settings).
+ */
+public class GeminiCachedContentStore implements CachedContentStore {
+
+  private volatile Client client;
+
+  @Override
+  public CachedPrefix create(
+      String model, String displayName, GenerateContentConfig prefix, Duration ttl) {
+    CreateCachedContentConfig.Builder config =
+        CreateCachedContentConfig.builder().displayName(displayName).ttl(ttl);
+    prefix.systemInstruction().ifPresent(config::systemInstruction);
+    prefix.tools().ifPresent(config::tools);
+    prefix.toolConfig().ifPresent(config::toolConfig);
+    CachedContent cached = client().caches.create(model, config.build());
+    return new CachedPrefix(
+        cached.name().orElseThrow(() -> new IllegalStateException("Cached content has no name")),
+        cached.expireTime().orElseGet(() -> Instant.now().plus(ttl)));
+  }
+
+  private Client client() {
+    Client current = client;
+    if (current == null) {
+      synchronized (this) {
+        if (client == null) {
+          client = new Client();
+        }
+        current = client;
+      }
+    }
+    return current;
+  }
+}
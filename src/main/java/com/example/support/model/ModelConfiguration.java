@@ -0,0 +1,51 @@
+package com.example.support.model;
+
+import com.example.support.logging.CustomLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+/**
+ * Loads the {@link ModelScript} named by {@code support.agent.model-script}, which puts every agent
+ * on a {@link ScriptedModel} instead of Gemini. Without the property the agents call Gemini.
+ *
+ * <p>With {@code support.agent.prompt-cache.enabled}, also provides the {@link PromptPrefixCache}
+ * that stores each agent's prompt prefix as Gemini cached content.
+ */
+@Configuration
+public class ModelConfiguration {
+
+  @Bean
+  @ConditionalOnProperty("support.agent.model-script")
+  public ModelScript modelScript(@Value("${support.agent.model-script}") Resource script)
+      throws IOException {
+    try (InputStream json = script.getInputStream()) {
+      return ModelScript.read(json);
+    }
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "support.agent.prompt-cache.enabled", havingValue = "true")
+  public PromptPrefixCache promptPrefixCache(
+      @Value("${support.agent.prompt-cache.ttl:1h}") Duration ttl,
+      @Value("${support.agent.prompt-cache.refresh-margin:1m}") Duration refreshMargin,
+      @Value("${support.agent.prompt-cache.retry-after:5m}") Duration retryAfter,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      CustomLogger logger) {
+    return new PromptPrefixCache(
+        new GeminiCachedContentStore(),
+        ttl,
+        refreshMargin,
+        retryAfter,
+        meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+        logger);
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.support.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What {@link ScriptedModel} answers: for each agent, by name, the responses its model returns in
+ * order within one user turn, each a function call or a final text. For example:
+ *
+ * <pre>{@code
+ * {
+ *   "latencyMs": 300,
+ *   "agents": {
+ *     "customer-support-orchestrator": [
+ *       {"call": "transfer_to_agent", "args": {"agent_name": "billing-agent"}}
+ *     ],
+ *     "billing-agent": [
+ *       {"call": "processPayment", "args": {"customerId": "CUST001", "amount": 25.0}},
+ *       {"text": "Your payment went through.", "latencyMs": 800}
+ *     ]
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param latencyMs delay before every response, unless the step sets its own
+ * @param agents each agent's steps
+ */
+public record ModelScript(long latencyMs, Map<String, List<Step>> agents) {
+
+  /**
+   * One model response.
+   *
+   * @param call the function to call, or null for a final text
+   * @param args the call's arguments
+   * @param text the final text, when there is no call
+   * @param latencyMs delay before this response, or null for the script's
+   */
+  public record Step(String call, Map<String, Object> args, String text, Long latencyMs) {
+
+    public Step {
+      args = args == null ? Map.of() : args;
+    }
+  }
+
+  public ModelScript {
+    agents = agents == null ? Map.of() : agents;
+  }
+
+  public static ModelScript read(InputStream json) throws IOException {
+    return new ObjectMapper().readValue(json, ModelScript.class);
+  }
+
+  /** An agent's steps, empty if the script does not mention it. */
+  public List<Step> steps(String agentName) {
+    return agents.getOrDefault(agentName, List.of());
+  }
+
+  /** How long to wait before returning a step. */
+  public long latencyMs(Step step) {
+    return step.latencyMs() != null ? step.latencyMs() : latencyMs;
+  }
+}
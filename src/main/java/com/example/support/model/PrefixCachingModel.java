@@ -0,0 +1,198 @@
+package com.example.support.model;
+
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.errors.ClientException;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentConfig;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One agent's model behind a {@link PromptPrefixCache}: requests go out with the agent's prompt
+ * prefix replaced by a reference to its cached copy, which is stored on first use and replaced when
+ * it nears expiry or the prefix changes. If the model side reports the cached copy missing, the
+ * request is retried once with a fresh one.
+ *
+ * <p>Storing is a model round trip, so it runs outside the lock and only once per prefix at a time:
+ * concurrent turns keep using the current copy while it is refreshed, and otherwise wait on the
+ * same store rather than starting their own.
+ */
+class PrefixCachingModel extends BaseLlm {
+
+  private final BaseLlm delegate;
+  private final String agentName;
+  private final PromptPrefixCache cache;
+
+  // Guarded by this
+  private CachedPrefix current;
+  private String currentHash;
+  private CompletableFuture<Optional<CachedPrefix>> storing;
+  private String storingHash;
+  private String refusedHash;
+  private long retryAt;
+
+  PrefixCachingModel(BaseLlm delegate, String agentName, PromptPrefixCache cache) {
+    super(delegate.model());
+    this.delegate = delegate;
+    this.agentName = agentName;
+    this.cache = cache;
+  }
+
+  @Override
+  public Flowable<LlmResponse> generateContent(LlmRequest request, boolean stream) {
+    GenerateContentConfig config = request.config().orElse(null);
+    if (config == null || (config.systemInstruction().isEmpty() && config.tools().isEmpty())) {
+      return send(request, false, stream);
+    }
+    GenerateContentConfig prefix = PromptPrefixCache.prefixOf(config);
+    String hash = PromptPrefixCache.hash(model(), prefix);
+    return Flowable.defer(() -> sendWith(request, config, hash, prefix, stream, true));
+  }
+
+  private Flowable<LlmResponse> sendWith(
+      LlmRequest request,
+      GenerateContentConfig config,
+      String hash,
+      GenerateContentConfig prefix,
+      boolean stream,
+      boolean retry) {
+    return Flowable.fromCompletionStage(prefix(hash, prefix))
+        .concatMap(
+            cached -> {
+              if (cached.isEmpty()) {
+                return send(request, false, stream);
+              }
+              Flowable<LlmResponse> sent =
+                  send(referencing(request, config, cached.get()), true, stream);
+              return !retry
+                  ? sent
+                  : sent.onErrorResumeNext(
+                      error -> {
+                        if (!isMissingCache(error)) {
+                          return Flowable.error(error);
+                        }
+                        discard(cached.get());
+                        return sendWith(request, config, hash, prefix, stream, false);
+                      });
+            });
+  }
+
+  @Override
+  public BaseLlmConnection connect(LlmRequest request) {
+    // Live sessions send the prefix once per connection anyway
+    return delegate.connect(request);
+  }
+
+  /**
+   * The cached copy of this prefix, or empty to send it inline. Completes at once unless this call
+   * or a concurrent one has to store the prefix first.
+   */
+  private CompletableFuture<Optional<CachedPrefix>> prefix(
+      String hash, GenerateContentConfig prefix) {
+    CompletableFuture<Optional<CachedPrefix>> flight;
+    String reason;
+    synchronized (this) {
+      long now = cache.now();
+      boolean live =
+          current != null && hash.equals(currentHash) && now < current.expiresAt().toEpochMilli();
+      if (live && now < current.expiresAt().toEpochMilli() - cache.refreshMargin().toMillis()) {
+        return CompletableFuture.completedFuture(Optional.of(current));
+      }
+      if (hash.equals(storingHash)) {
+        return live ? CompletableFuture.completedFuture(Optional.of(current)) : storing;
+      }
+      if (hash.equals(refusedHash) && now < retryAt) {
+        return CompletableFuture.completedFuture(live ? Optional.of(current) : Optional.empty());
+      }
+      reason = current == null ? "new" : hash.equals(currentHash) ? "expiring" : "changed";
+      flight = new CompletableFuture<>();
+      storing = flight;
+      storingHash = hash;
+    }
+
+    Optional<CachedPrefix> stored;
+    try {
+      CachedPrefix created = cache.store().create(model(), agentName, prefix, cache.ttl());
+      synchronized (this) {
+        current = created;
+        currentHash = hash;
+        refusedHash = null;
+      }
+      cache.recordStored(agentName, reason);
+      stored = Optional.of(created);
+    } catch (RuntimeException e) {
+      cache.warnRefused(agentName, e);
+      synchronized (this) {
+        long now = cache.now();
+        refusedHash = hash;
+        retryAt = now + cache.retryAfter().toMillis();
+        // A failed refresh leaves the current copy in use until it expires
+        boolean live =
+            current != null && hash.equals(currentHash) && now < current.expiresAt().toEpochMilli();
+        stored = live ? Optional.of(current) : Optional.empty();
+      }
+    }
+    synchronized (this) {
+      if (storing == flight) {
+        storing = null;
+        storingHash = null;
+      }
+    }
+    flight.complete(stored);
+    return flight;
+  }
+
+  private synchronized void discard(CachedPrefix missing) {
+    if (missing.equals(current)) {
+      current = null;
+      currentHash = null;
+    }
+  }
+
+  private static LlmRequest referencing(
+      LlmRequest request, GenerateContentConfig config, CachedPrefix cached) {
+    // The model side rejects a cached prefix alongside an inline one
+    GenerateContentConfig stripped =
+        config.toBuilder()
+            .clearSystemInstruction()
+            .clearTools()
+            .clearToolConfig()
+            .cachedContent(cached.name())
+            .build();
+    return request.toBuilder().config(stripped).build();
+  }
+
+  private Flowable<LlmResponse> send(LlmRequest request, boolean cached, boolean stream) {
+    cache.recordRequest(agentName, cached, size(request));
+    return delegate
+        .generateContent(request, stream)
+        .doOnNext(response -> cache.recordUsage(agentName, response));
+  }
+
+  /** Characters of JSON in the request's contents and config, as a local measure of its size. */
+  static long size(LlmRequest request) {
+    long chars = request.config().map(config -> (long) config.toJson().length()).orElse(0L);
+    for (Content content : request.contents()) {
+      chars += content.toJson().length();
+    }
+    return chars;
+  }
+
+  /**
+   * Whether the model side no longer holds the referenced cached content: Gemini answers 403
+   * PERMISSION_DENIED for a cache that expired or was deleted, and 404 NOT_FOUND for one that never
+   * existed. The client's exception may arrive wrapped.
+   */
+  static boolean isMissingCache(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ClientException clientError) {
+        return clientError.code() == 403 || clientError.code() == 404;
+      }
+    }
+    return false;
+  }
+}
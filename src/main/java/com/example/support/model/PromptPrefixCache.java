@@ -0,0 +1,233 @@
+package com.example.support.model;
+
+import com.example.support.logging.CustomLogger;
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.Tool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches each agent's static prompt prefix (system instruction, tool declarations and tool config)
+ * on the model side, so requests reference it by name instead of resending it every call. {@link
+ * #wrap} puts a {@link PrefixCachingModel} in front of an agent's model.
+ *
+ * <p>Prefixes live for {@code ttl} and are replaced {@code refresh-margin} before they expire, or
+ * as soon as the prefix's SHA-256 changes (an instruction or tool was edited). A prefix the model
+ * side refuses to store, such as one below its minimum size, is sent inline and tried again after
+ * {@code retry-after}.
+ *
+ * <p>Metrics, per agent: input tokens by whether they came from the cache ({@code
+ * support.model.input.tokens}, from the model's usage metadata) and the cached share of them, the
+ * size of each request as sent ({@code support.model.request.size}, in characters of JSON, measured
+ * locally), and prefixes stored ({@code support.model.prefix.stored}, by reason).
+ */
+public class PromptPrefixCache {
+
+  private final CachedContentStore store;
+  private final Duration ttl;
+  private final Duration refreshMargin;
+  private final Duration retryAfter;
+  private final MeterRegistry registry;
+  private final CustomLogger logger;
+  private final LongSupplier millisClock;
+
+  private final Map<String, AgentMeters> meters = new ConcurrentHashMap<>();
+
+  public PromptPrefixCache(
+      CachedContentStore store,
+      Duration ttl,
+      Duration refreshMargin,
+      Duration retryAfter,
+      MeterRegistry registry,
+      CustomLogger logger) {
+    this(store, ttl, refreshMargin, retryAfter, registry, logger, System::currentTimeMillis);
+  }
+
+  /**
+   * @param millisClock wall-clock time source, {@code System::currentTimeMillis} outside tests
+   */
+  PromptPrefixCache(
+      CachedContentStore store,
+      Duration ttl,
+      Duration refreshMargin,
+      Duration retryAfter,
+      MeterRegistry registry,
+      CustomLogger logger,
+      LongSupplier millisClock) {
+    this.store = store;
+    this.ttl = ttl;
+    this.refreshMargin = refreshMargin;
+    this.retryAfter = retryAfter;
+    this.registry = registry;
+    this.logger = logger;
+    this.millisClock = millisClock;
+  }
+
+  /** An agent's model, sending its prompt prefix through this cache. */
+  public BaseLlm wrap(BaseLlm model, String agentName) {
+    return new PrefixCachingModel(model, agentName, this);
+  }
+
+  CachedContentStore store() {
+    return store;
+  }
+
+  Duration ttl() {
+    return ttl;
+  }
+
+  Duration refreshMargin() {
+    return refreshMargin;
+  }
+
+  Duration retryAfter() {
+    return retryAfter;
+  }
+
+  long now() {
+    return millisClock.getAsLong();
+  }
+
+  /** The part of a request's config that is the same on every call of an agent. */
+  static GenerateContentConfig prefixOf(GenerateContentConfig config) {
+    GenerateContentConfig.Builder prefix = GenerateContentConfig.builder();
+    config.systemInstruction().ifPresent(prefix::systemInstruction);
+    config.tools().ifPresent(prefix::tools);
+    config.toolConfig().ifPresent(prefix::toolConfig);
+    return prefix.build();
+  }
+
+  /** SHA-256 of a model and prefix, hex: equal hashes can share one cached prefix. */
+  static String hash(String model, GenerateContentConfig prefix) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(model.getBytes(StandardCharsets.UTF_8));
+      prefix.systemInstruction().ifPresent(instruction -> update(digest, instruction.toJson()));
+      for (Tool tool : prefix.tools().orElse(List.of())) {
+        update(digest, tool.toJson());
+      }
+      prefix.toolConfig().ifPresent(toolConfig -> update(digest, toolConfig.toJson()));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 unavailable", e);
+    }
+  }
+
+  private static void update(MessageDigest digest, String json) {
+    // Separated, so moving text between parts changes the hash
+    digest.update((byte) 0);
+    digest.update(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  void warnRefused(String agentName, RuntimeException e) {
+    logger.warn(
+        PromptPrefixCache.class,
+        "Prompt prefix of {} not cached, sent inline until retried: {}",
+        agentName,
+        e.getMessage());
+  }
+
+  void recordStored(String agentName, String reason) {
+    meters(agentName).stored(reason).increment();
+  }
+
+  void recordRequest(String agentName, boolean cached, long chars) {
+    meters(agentName).requestSize(cached).record(chars);
+  }
+
+  /** Counts a response's input tokens, if the model reported them. */
+  void recordUsage(String agentName, LlmResponse response) {
+    if (response.partial().orElse(false)) {
+      return;
+    }
+    response
+        .usageMetadata()
+        .ifPresent(
+            usage -> {
+              int prompt = usage.promptTokenCount().orElse(0);
+              int cached = usage.cachedContentTokenCount().orElse(0);
+              AgentMeters agent = meters(agentName);
+              agent.cachedTokens.increment(cached);
+              agent.uncachedTokens.increment(Math.max(0, prompt - cached));
+            });
+  }
+
+  /** Cached input tokens so far as a share of all input tokens, 0 before any. */
+  double cachedShare(String agentName) {
+    return meters(agentName).cachedShare();
+  }
+
+  private AgentMeters meters(String agentName) {
+    return meters.computeIfAbsent(agentName, agent -> new AgentMeters(agent, registry));
+  }
+
+  private static final class AgentMeters {
+
+    private final String agent;
+    private final MeterRegistry registry;
+    private final Counter cachedTokens;
+    private final Counter uncachedTokens;
+    private final Map<String, Counter> stored = new ConcurrentHashMap<>();
+    private final Map<Boolean, DistributionSummary> requestSizes = new ConcurrentHashMap<>();
+
+    AgentMeters(String agent, MeterRegistry registry) {
+      this.agent = agent;
+      this.registry = registry;
+      this.cachedTokens = tokens("cached");
+      this.uncachedTokens = tokens("uncached");
+      Gauge.builder("support.model.input.cached.share", this, AgentMeters::cachedShare)
+          .description("Share of input tokens read from a cached prompt prefix")
+          .tag("agent", agent)
+          .register(registry);
+    }
+
+    private Counter tokens(String source) {
+      return Counter.builder("support.model.input.tokens")
+          .description("Input tokens reported by the model")
+          .tag("agent", agent)
+          .tag("source", source)
+          .register(registry);
+    }
+
+    double cachedShare() {
+      double total = cachedTokens.count() + uncachedTokens.count();
+      return total == 0 ? 0 : cachedTokens.count() / total;
+    }
+
+    Counter stored(String reason) {
+      return stored.computeIfAbsent(
+          reason,
+          key ->
+              Counter.builder("support.model.prefix.stored")
+                  .description("Prompt prefixes stored on the model side")
+                  .tag("agent", agent)
+                  .tag("reason", reason)
+                  .register(registry));
+    }
+
+    DistributionSummary requestSize(boolean cached) {
+      return requestSizes.computeIfAbsent(
+          cached,
+          key ->
+              DistributionSummary.builder("support.model.request.size")
+                  .description("Characters of JSON sent to the model per request")
+                  .baseUnit("chars")
+                  .tag("agent", agent)
+                  .tag("prefix", cached ? "cached" : "inline")
+                  .register(registry));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.support.model;
+
+import com.example.support.model.ModelScript.Step;
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A model for one agent that replays its steps of a {@link ModelScript} instead of calling Gemini,
+ * so agent turns run offline and deterministically, and time only our orchestration, tools and
+ * database plus the injected latency.
+ *
+ * <p>The step is chosen from the request alone, so one script serves any number of concurrent
+ * sessions: it is the number of function results the agent has received since the user's latest
+ * message. Other agents' events do not count, since ADK hands them over as {@code For context:}
+ * text. Past the end of its steps, an agent answers with a text naming the missing step, which ends
+ * the turn.
+ */
+public class ScriptedModel extends BaseLlm {
+
+  // How ADK presents other agents' events to a model
+  private static final String FOREIGN_EVENT_PREFIX = "For context:";
+
+  private final ModelScript script;
+  private final String agentName;
+
+  public ScriptedModel(ModelScript script, String agentName) {
+    super("scripted/" + agentName);
+    this.script = script;
+    this.agentName = agentName;
+  }
+
+  @Override
+  public Flowable<LlmResponse> generateContent(LlmRequest request, boolean stream) {
+    List<Step> steps = script.steps(agentName);
+    int index = completedSteps(request.contents());
+    if (index >= steps.size()) {
+      return Flowable.just(
+          response(Part.fromText("Script has no step " + index + " for " + agentName)));
+    }
+    Step step = steps.get(index);
+    Part part =
+        step.call() != null
+            ? Part.fromFunctionCall(step.call(), step.args())
+            : Part.fromText(step.text());
+    Flowable<LlmResponse> response = Flowable.just(response(part));
+    long latency = script.latencyMs(step);
+    return latency > 0 ? response.delay(latency, TimeUnit.MILLISECONDS) : response;
+  }
+
+  @Override
+  public BaseLlmConnection connect(LlmRequest request) {
+    throw new UnsupportedOperationException("Scripted models do not support live connections");
+  }
+
+  /** Function results in the conversation since the user's latest message. */
+  static int completedSteps(List<Content> contents) {
+    int steps = 0;
+    for (int i = contents.size() - 1; i >= 0; i--) {
+      List<Part> parts = contents.get(i).parts().orElse(List.of());
+      if (parts.stream().anyMatch(part -> part.functionResponse().isPresent())) {
+        steps++;
+      } else if (contents.get(i).role().orElse("").equals("user") && !isForeign(parts)) {
+        break;
+      }
+    }
+    return steps;
+  }
+
+  private static boolean isForeign(List<Part> parts) {
+    return !parts.isEmpty()
+        && parts.get(0).text().map(text -> text.startsWith(FOREIGN_EVENT_PREFIX)).orElse(false);
+  }
+
+  private static LlmResponse response(Part part) {
+    return LlmResponse.builder()
+        .content(Content.builder().role("model").parts(part).build())
+        .build();
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.support.queue;
+
+import com.example.support.entity.TicketPriority;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Lock-free ordered set of waiting tickets: highest priority first (urgent, high, medium, low),
+ * then the customer's tier (Enterprise, Premium, Basic), then oldest first.
+ *
+ * <p>Entries sit in a {@link ConcurrentSkipListSet}. {@link #poll()} removes the head with a single
+ * atomic {@code pollFirst}, so concurrent callers never receive the same ticket; a ticket ID index
+ * makes {@link #remove} and re-ordering O(log n) without scanning.
+ */
+public class PriorityTicketQueue {
+
+  private static final Comparator<Entry> ORDER =
+      Comparator.comparingInt(Entry::priorityRank)
+          .reversed()
+          .thenComparing(Comparator.comparingInt(Entry::tierRank).reversed())
+          .thenComparing(entry -> entry.ticket().created())
+          .thenComparing(entry -> entry.ticket().ticketId());
+
+  private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+  private final Map<String, Entry> byTicketId = new ConcurrentHashMap<>();
+
+  /** Adds a ticket, or moves it to its new place if it is already queued. */
+  public void offer(QueuedTicket ticket) {
+    Entry entry = new Entry(ticket, priorityRank(ticket.priority()), tierRank(ticket.tier()));
+    Entry previous = byTicketId.put(ticket.ticketId(), entry);
+    if (previous != null) {
+      entries.remove(previous);
+    }
+    entries.add(entry);
+  }
+
+  /** Removes and returns the first ticket, or null when the queue is empty. */
+  public QueuedTicket poll() {
+    Entry entry = entries.pollFirst();
+    if (entry == null) {
+      return null;
+    }
+    byTicketId.remove(entry.ticket().ticketId(), entry);
+    return entry.ticket();
+  }
+
+  /**
+   * Removes a ticket.
+   *
+   * @return the queued ticket, or null if it was not queued (or another caller took it first)
+   */
+  public QueuedTicket remove(String ticketId) {
+    Entry entry = byTicketId.remove(ticketId);
+    return entry != null && entries.remove(entry) ? entry.ticket() : null;
+  }
+
+  /** Moves a queued ticket to a new priority; does nothing if it is not queued. */
+  public void reprioritize(String ticketId, String priority) {
+    QueuedTicket removed = remove(ticketId);
+    if (removed != null) {
+      offer(
+          new QueuedTicket(
+              removed.ticketId(),
+              removed.customerId(),
+              priority,
+              removed.tier(),
+              removed.created()));
+    }
+  }
+
+  /** The first {@code limit} tickets in queue order, without removing them. */
+  public List<QueuedTicket> peek(int limit) {
+    List<QueuedTicket> head = new ArrayList<>(Math.min(limit, 64));
+    Iterator<Entry> iterator = entries.iterator();
+    while (head.size() < limit && iterator.hasNext()) {
+      head.add(iterator.next().ticket());
+    }
+    return head;
+  }
+
+  public boolean contains(String ticketId) {
+    return byTicketId.containsKey(ticketId);
+  }
+
+  /** The number of queued tickets; counted from the index, as the skip list's size is O(n). */
+  public int size() {
+    return byTicketId.size();
+  }
+
+  public void clear() {
+    entries.clear();
+    byTicketId.clear();
+  }
+
+  static int priorityRank(String priority) {
+    TicketPriority level = TicketPriority.from(priority);
+    return level == null ? 0 : level.ordinal();
+  }
+
+  static int tierRank(String tier) {
+    if (tier == null) {
+      return 0;
+    }
+    switch (tier.trim().toLowerCase()) {
+      case "enterprise":
+        return 2;
+      case "premium":
+        return 1;
+      default:
+        return 0;
+    }
+  }
+
+  private record Entry(QueuedTicket ticket, int priorityRank, int tierRank) {}
+}
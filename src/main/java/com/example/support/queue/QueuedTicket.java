@@ -0,0 +1,7 @@
+package com.example.support.queue;
+
+import java.time.LocalDateTime;
+
+/** An open, unassigned ticket waiting in the work queue, with the fields that order it. */
+public record QueuedTicket(
+    String ticketId, String customerId, String priority, String tier, LocalDateTime created) {}
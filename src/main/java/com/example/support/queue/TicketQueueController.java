@@ -0,0 +1,89 @@
+package com.example.support.queue;
+
+import com.example.support.ValidationUtils;
+import com.example.support.entity.Ticket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Ticket work queue for human agents.
+ *
+ * <ul>
+ *   <li>{@code POST /api/queue/claim} with {@code {"agentId": ...}} assigns the next ticket
+ *   <li>{@code POST /api/queue/release} with {@code {"agentId": ..., "ticketId": ...}} puts a
+ *       claimed ticket back
+ *   <li>{@code GET /api/queue/peek?limit=20} lists the next tickets without claiming them
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/queue")
+@CrossOrigin(origins = "*")
+public class TicketQueueController {
+
+  private static final int MAX_PEEK_LIMIT = 100;
+
+  @Autowired private TicketWorkQueue workQueue;
+
+  @PostMapping("/claim")
+  public Map<String, Object> claim(@RequestBody Map<String, String> request) {
+    Map<String, Object> result = new HashMap<>();
+    String agentId = request.get("agentId");
+    if (!ValidationUtils.isValidAgentId(agentId)) {
+      result.put("success", false);
+      result.put("error", "Invalid agent ID");
+      return result;
+    }
+
+    Optional<Ticket> claimed = workQueue.claim(agentId);
+    if (claimed.isEmpty()) {
+      result.put("success", false);
+      result.put("error", "No tickets waiting");
+      return result;
+    }
+    result.put("success", true);
+    result.put("data", claimed.get());
+    result.put("message", "Ticket claimed");
+    return result;
+  }
+
+  @PostMapping("/release")
+  public Map<String, Object> release(@RequestBody Map<String, String> request) {
+    Map<String, Object> result = new HashMap<>();
+    String agentId = request.get("agentId");
+    String ticketId = request.get("ticketId");
+    if (!ValidationUtils.isValidAgentId(agentId)) {
+      result.put("success", false);
+      result.put("error", "Invalid agent ID");
+      return result;
+    }
+    if (ticketId == null || ticketId.isBlank()) {
+      result.put("success", false);
+      result.put("error", "Ticket ID is required");
+      return result;
+    }
+
+    if (!workQueue.release(ticketId, agentId)) {
+      result.put("success", false);
+      result.put("error", "Ticket is not claimed by this agent");
+      return result;
+    }
+    result.put("success", true);
+    result.put("message", "Ticket released");
+    return result;
+  }
+
+  @GetMapping("/peek")
+  public Map<String, Object> peek(@RequestParam(defaultValue = "20") int limit) {
+    List<QueuedTicket> head = workQueue.peek(Math.max(1, Math.min(limit, MAX_PEEK_LIMIT)));
+    Map<String, Object> result = new HashMap<>();
+    result.put("success", true);
+    result.put("data", head);
+    result.put("count", head.size());
+    result.put("waiting", workQueue.size());
+    return result;
+  }
+}
@@ -0,0 +1,174 @@
+package com.example.support.queue;
+
+import com.example.support.entity.Customer;
+import com.example.support.entity.Ticket;
+import com.example.support.logging.CustomLogger;
+import com.example.support.repository.CustomerRepository;
+import com.example.support.repository.TicketRepository;
+import com.example.support.versioning.CustomerVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Work queue human agents pull tickets from. Holds every open, unassigned ticket in a {@link
+ * PriorityTicketQueue}, loaded from the tickets table at startup and kept current as tickets are
+ * created, change status, are escalated, claimed and released.
+ *
+ * <p>A claim takes the head of the queue in memory, then records the assignment with a conditional
+ * update ({@code assignee IS NULL}), so a ticket is never assigned twice even across nodes: an
+ * entry that lost the race (claimed on another node, or closed meanwhile) is dropped and the next
+ * one is tried.
+ */
+@Component
+public class TicketWorkQueue {
+
+  private static final int REBUILD_BATCH_SIZE = 10_000;
+
+  private final TicketRepository ticketRepository;
+  private final CustomerRepository customerRepository;
+  private final CustomerVersions versions;
+  private final CustomLogger logger;
+  private final PriorityTicketQueue queue = new PriorityTicketQueue();
+  private final Counter claims;
+  private final Counter staleEntries;
+
+  public TicketWorkQueue(
+      TicketRepository ticketRepository,
+      CustomerRepository customerRepository,
+      CustomerVersions versions,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      CustomLogger logger) {
+    this.ticketRepository = ticketRepository;
+    this.customerRepository = customerRepository;
+    this.versions = versions;
+    this.logger = logger;
+    MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    Gauge.builder("support.queue.depth", queue, PriorityTicketQueue::size)
+        .description("Open tickets waiting for a human agent")
+        .register(registry);
+    claims =
+        Counter.builder("support.queue.claims")
+            .description("Tickets assigned to human agents from the work queue")
+            .register(registry);
+    staleEntries =
+        Counter.builder("support.queue.stale")
+            .description("Queue entries dropped because the ticket was no longer claimable")
+            .register(registry);
+  }
+
+  /** Reloads the queue from the open, unassigned tickets, a page of ticket IDs at a time. */
+  @PostConstruct
+  public void rebuild() {
+    queue.clear();
+    Limit page = Limit.of(REBUILD_BATCH_SIZE);
+    String after = "";
+    List<QueuedTicket> tickets;
+    do {
+      tickets = ticketRepository.findQueuedTickets(after, page);
+      for (QueuedTicket ticket : tickets) {
+        queue.offer(ticket);
+        after = ticket.ticketId();
+      }
+    } while (tickets.size() == page.max());
+    logger.info(TicketWorkQueue.class, "Loaded {} queued tickets", queue.size());
+  }
+
+  /**
+   * Assigns the most pressing waiting ticket to a human agent.
+   *
+   * @param agentId the human agent's ID
+   * @return the claimed ticket, or empty when nothing is waiting
+   */
+  public Optional<Ticket> claim(String agentId) {
+    QueuedTicket next;
+    while ((next = queue.poll()) != null) {
+      int claimed;
+      try {
+        claimed = ticketRepository.claim(next.ticketId(), agentId);
+      } catch (RuntimeException e) {
+        queue.offer(next);
+        throw e;
+      }
+      if (claimed == 1) {
+        claims.increment();
+        versions.bump(next.customerId());
+        logger.infoKv(
+            TicketWorkQueue.class,
+            "Claimed ticket",
+            "ticketId",
+            next.ticketId(),
+            "agentId",
+            agentId);
+        return ticketRepository.findById(next.ticketId());
+      }
+      staleEntries.increment();
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Hands a claimed ticket back to the queue.
+   *
+   * @param ticketId the ticket ID
+   * @param agentId the human agent holding it
+   * @return false if the ticket is not held by that agent
+   */
+  public boolean release(String ticketId, String agentId) {
+    if (ticketRepository.release(ticketId, agentId) == 0) {
+      return false;
+    }
+    ticketRepository
+        .findById(ticketId)
+        .ifPresent(
+            ticket -> {
+              versions.bump(ticket.getCustomerId());
+              enqueue(ticket);
+            });
+    logger.infoKv(
+        TicketWorkQueue.class, "Released ticket", "ticketId", ticketId, "agentId", agentId);
+    return true;
+  }
+
+  /** The first {@code limit} waiting tickets in the order they would be claimed. */
+  public List<QueuedTicket> peek(int limit) {
+    return queue.peek(limit);
+  }
+
+  /** Queues a ticket if it is open and unassigned, and drops it from the queue otherwise. */
+  public void enqueue(Ticket ticket) {
+    if (!"open".equals(ticket.getStatus()) || ticket.getAssignee() != null) {
+      queue.remove(ticket.getTicketId());
+      return;
+    }
+    String tier =
+        customerRepository.findById(ticket.getCustomerId()).map(Customer::getTier).orElse(null);
+    queue.offer(
+        new QueuedTicket(
+            ticket.getTicketId(),
+            ticket.getCustomerId(),
+            ticket.getPriority(),
+            tier,
+            ticket.getCreated()));
+  }
+
+  /** Moves a queued ticket after its priority changed. */
+  public void reprioritize(String ticketId, String priority) {
+    queue.reprioritize(ticketId, priority);
+  }
+
+  public boolean isQueued(String ticketId) {
+    return queue.contains(ticketId);
+  }
+
+  public int size() {
+    return queue.size();
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.support.ratelimit;
+
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import java.lang.reflect.Type;
+import java.util.Map;
+import org.springframework.core.MethodParameter;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Charges the customer named in a REST request's JSON body, and turns {@link
+ * RateLimitExceededException} into a 429 with {@code Retry-After} (REST) or a {@code
+ * TOO_MANY_REQUESTS} error carrying {@code retryAfterSeconds} (GraphQL).
+ */
+@RestControllerAdvice
+public class RateLimitAdvice extends RequestBodyAdviceAdapter {
+
+  private static final ErrorClassification TOO_MANY_REQUESTS =
+      ErrorClassification.errorClassification("TOO_MANY_REQUESTS");
+
+  private final RateLimiter rateLimiter;
+
+  public RateLimitAdvice(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter methodParameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return Map.class.isAssignableFrom(methodParameter.getParameterType());
+  }
+
+  @Override
+  public Object afterBodyRead(
+      Object body,
+      HttpInputMessage inputMessage,
+      MethodParameter parameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    if (body instanceof Map<?, ?> request && request.get("customerId") instanceof String customer) {
+      // The client IP was charged before the body was read
+      rateLimiter.acquire(RateLimiter.budgetFor(parameter.getMethod().getName()), customer, null);
+    }
+    return body;
+  }
+
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<Map<String, Object>> handleRateLimit(RateLimitExceededException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+        .body(Map.of("success", false, "error", e.getMessage()));
+  }
+
+  @GraphQlExceptionHandler
+  public GraphQLError handleGraphQlRateLimit(RateLimitExceededException e) {
+    return GraphQLError.newError()
+        .errorType(TOO_MANY_REQUESTS)
+        .message(e.getMessage())
+        .extensions(Map.of("retryAfterSeconds", e.getRetryAfterSeconds()))
+        .build();
+  }
+}
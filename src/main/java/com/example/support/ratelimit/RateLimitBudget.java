@@ -0,0 +1,21 @@
+package com.example.support.ratelimit;
+
+/** Independent request budgets: exhausting one leaves the others untouched. */
+public enum RateLimitBudget {
+  /** Money-moving tools: processPayment and processRefund. */
+  MUTATION("mutation"),
+  /** Every other REST and GraphQL call. */
+  READ("read"),
+  /** Chat turns sent over the STOMP endpoint, each of which may cost a model call. */
+  CHAT("chat");
+
+  private final String value;
+
+  RateLimitBudget(String value) {
+    this.value = value;
+  }
+
+  public String value() {
+    return value;
+  }
+}
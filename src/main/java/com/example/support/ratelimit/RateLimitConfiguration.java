@@ -0,0 +1,23 @@
+package com.example.support.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Applies the rate limits to the REST API and the GraphQL endpoint; health checks are exempt. */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+
+  @Autowired private RateLimiter rateLimiter;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new RateLimitInterceptor(rateLimiter))
+        .addPathPatterns("/api/**", "/graphql")
+        .excludePathPatterns("/api/health");
+  }
+}
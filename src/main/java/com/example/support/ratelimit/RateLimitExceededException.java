@@ -0,0 +1,22 @@
+package com.example.support.ratelimit;
+
+/** A request over its budget; answered with 429 and {@code Retry-After}. */
+public class RateLimitExceededException extends RuntimeException {
+
+  private final RateLimitBudget budget;
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(RateLimitBudget budget, long retryAfterNanos) {
+    super("Rate limit exceeded");
+    this.budget = budget;
+    this.retryAfterSeconds = RateLimiter.retryAfterSeconds(retryAfterNanos);
+  }
+
+  public RateLimitBudget getBudget() {
+    return budget;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.support.ratelimit;
+
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import java.util.Map;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Charges the customer named by a top-level GraphQL field's {@code customerId} argument, whether it
+ * is passed inline or as a variable. The HTTP request was already charged to its client IP's read
+ * budget by {@link RateLimitInterceptor}, which cannot see the fields; mutation fields also draw on
+ * the client IP's mutation budget here, once per field. Nested fields are not charged.
+ */
+@Component
+public class RateLimitInstrumentation extends SimplePerformantInstrumentation
+    implements WebGraphQlInterceptor {
+
+  /** Request attribute and GraphQL context key of the address the request was charged to. */
+  static final String CLIENT_IP = RateLimitInstrumentation.class.getName() + ".clientIp";
+
+  private final RateLimiter rateLimiter;
+
+  public RateLimitInstrumentation(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+    // Set by RateLimitInterceptor, so both charges use the same key
+    if (request.getAttributes().get(CLIENT_IP) instanceof String clientIp) {
+      request.configureExecutionInput(
+          (input, builder) -> builder.graphQLContext(Map.of(CLIENT_IP, clientIp)).build());
+    }
+    return chain.next(request);
+  }
+
+  @Override
+  public DataFetcher<?> instrumentDataFetcher(
+      DataFetcher<?> dataFetcher,
+      InstrumentationFieldFetchParameters parameters,
+      InstrumentationState state) {
+    if (parameters.getExecutionStepInfo().getPath().getLevel() != 1) {
+      return dataFetcher;
+    }
+    RateLimitBudget budget =
+        RateLimiter.budgetFor(parameters.getExecutionStepInfo().getFieldDefinition().getName());
+    return environment -> {
+      String customerId =
+          environment.getArgument("customerId") instanceof String argument ? argument : null;
+      String clientIp =
+          budget == RateLimitBudget.MUTATION
+              ? environment.getGraphQlContext().get(CLIENT_IP)
+              : null;
+      rateLimiter.acquire(budget, customerId, clientIp);
+      return dataFetcher.get(environment);
+    };
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.support.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Charges each REST and GraphQL request to its client IP, and to the customer in the path when
+ * there is one, before the handler runs. Customers named in a JSON body are charged by {@link
+ * RateLimitAdvice} once the body has been read, so nothing is parsed twice. The charged address is
+ * left in a request attribute for {@link RateLimitInstrumentation}, which charges GraphQL mutation
+ * fields to it.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  private static final byte[] REJECTED_BODY =
+      "{\"success\":false,\"error\":\"Rate limit exceeded\"}".getBytes(StandardCharsets.UTF_8);
+
+  private final RateLimiter rateLimiter;
+
+  public RateLimitInterceptor(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws Exception {
+    RateLimitBudget budget =
+        handler instanceof HandlerMethod method
+            ? RateLimiter.budgetFor(method.getMethod().getName())
+            : RateLimitBudget.READ;
+    @SuppressWarnings("unchecked")
+    Map<String, String> pathVariables =
+        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    String customerId = pathVariables != null ? pathVariables.get("customerId") : null;
+    String clientIp = request.getRemoteAddr();
+    request.setAttribute(RateLimitInstrumentation.CLIENT_IP, clientIp);
+
+    long wait = rateLimiter.tryAcquire(budget, customerId, clientIp);
+    if (wait == 0) {
+      return true;
+    }
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(wait)));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.getOutputStream().write(REJECTED_BODY);
+    return false;
+  }
+}
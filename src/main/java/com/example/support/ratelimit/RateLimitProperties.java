@@ -0,0 +1,108 @@
+package com.example.support.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Request budgets per customer and per client IP ({@code support.ratelimit.*}). */
+@ConfigurationProperties("support.ratelimit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+
+  /** Customers and client IPs tracked at once, per budget. */
+  private long maxKeys = 100_000;
+
+  private Map<RateLimitBudget, Budget> budgets = defaultBudgets();
+
+  private static Map<RateLimitBudget, Budget> defaultBudgets() {
+    Map<RateLimitBudget, Budget> budgets = new EnumMap<>(RateLimitBudget.class);
+    budgets.put(RateLimitBudget.MUTATION, new Budget(1, 5, 10, 20));
+    budgets.put(RateLimitBudget.READ, new Budget(10, 30, 50, 100));
+    budgets.put(RateLimitBudget.CHAT, new Budget(0.5, 5, 5, 20));
+    return budgets;
+  }
+
+  /** The limits for a budget, falling back to the defaults when not configured. */
+  public Budget budget(RateLimitBudget budget) {
+    Budget configured = budgets.get(budget);
+    return configured != null ? configured : defaultBudgets().get(budget);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getMaxKeys() {
+    return maxKeys;
+  }
+
+  public void setMaxKeys(long maxKeys) {
+    this.maxKeys = maxKeys;
+  }
+
+  public Map<RateLimitBudget, Budget> getBudgets() {
+    return budgets;
+  }
+
+  public void setBudgets(Map<RateLimitBudget, Budget> budgets) {
+    this.budgets = budgets;
+  }
+
+  /**
+   * Sustained rate (per second) and burst for one budget. A client IP usually fronts several
+   * customers, so it gets its own, larger limits.
+   */
+  public static class Budget {
+
+    private double customerRate;
+    private int customerBurst;
+    private double clientRate;
+    private int clientBurst;
+
+    public Budget() {}
+
+    public Budget(double customerRate, int customerBurst, double clientRate, int clientBurst) {
+      this.customerRate = customerRate;
+      this.customerBurst = customerBurst;
+      this.clientRate = clientRate;
+      this.clientBurst = clientBurst;
+    }
+
+    public double getCustomerRate() {
+      return customerRate;
+    }
+
+    public void setCustomerRate(double customerRate) {
+      this.customerRate = customerRate;
+    }
+
+    public int getCustomerBurst() {
+      return customerBurst;
+    }
+
+    public void setCustomerBurst(int customerBurst) {
+      this.customerBurst = customerBurst;
+    }
+
+    public double getClientRate() {
+      return clientRate;
+    }
+
+    public void setClientRate(double clientRate) {
+      this.clientRate = clientRate;
+    }
+
+    public int getClientBurst() {
+      return clientBurst;
+    }
+
+    public void setClientBurst(int clientBurst) {
+      this.clientBurst = clientBurst;
+    }
+  }
+}
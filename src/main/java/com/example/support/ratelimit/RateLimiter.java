@@ -0,0 +1,113 @@
+package com.example.support.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-customer and per-client-IP token buckets for each {@link RateLimitBudget}. A request is
+ * charged against every key it carries and rejected by the first bucket that is empty.
+ *
+ * <p>Rejections are counted in {@code support.ratelimit.rejected}, tagged with the budget and
+ * whether the customer or the client IP ran out.
+ */
+@Component
+public class RateLimiter {
+
+  private final boolean enabled;
+  private final Map<RateLimitBudget, TokenBucketLimiter> customers =
+      new EnumMap<>(RateLimitBudget.class);
+  private final Map<RateLimitBudget, TokenBucketLimiter> clients =
+      new EnumMap<>(RateLimitBudget.class);
+  private final Map<RateLimitBudget, Counter> customerRejections =
+      new EnumMap<>(RateLimitBudget.class);
+  private final Map<RateLimitBudget, Counter> clientRejections =
+      new EnumMap<>(RateLimitBudget.class);
+
+  @Autowired
+  public RateLimiter(RateLimitProperties properties, ObjectProvider<MeterRegistry> registry) {
+    this(properties, registry.getIfAvailable(SimpleMeterRegistry::new), System::nanoTime);
+  }
+
+  RateLimiter(RateLimitProperties properties, MeterRegistry registry, LongSupplier nanoClock) {
+    this.enabled = properties.isEnabled();
+    for (RateLimitBudget budget : RateLimitBudget.values()) {
+      RateLimitProperties.Budget limits = properties.budget(budget);
+      customers.put(
+          budget,
+          new TokenBucketLimiter(
+              limits.getCustomerRate(),
+              limits.getCustomerBurst(),
+              properties.getMaxKeys(),
+              nanoClock));
+      clients.put(
+          budget,
+          new TokenBucketLimiter(
+              limits.getClientRate(), limits.getClientBurst(), properties.getMaxKeys(), nanoClock));
+      customerRejections.put(budget, rejections(registry, budget, "customer"));
+      clientRejections.put(budget, rejections(registry, budget, "client"));
+    }
+  }
+
+  /**
+   * Charges one request to the client IP's and the customer's buckets.
+   *
+   * @param customerId the customer the request acts for, or null when unknown
+   * @param clientIp the caller's address, or null when already charged
+   * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+   */
+  public long tryAcquire(RateLimitBudget budget, String customerId, String clientIp) {
+    if (!enabled) {
+      return 0;
+    }
+    if (clientIp != null) {
+      long wait = clients.get(budget).tryAcquire(clientIp);
+      if (wait > 0) {
+        clientRejections.get(budget).increment();
+        return wait;
+      }
+    }
+    if (customerId != null) {
+      long wait = customers.get(budget).tryAcquire(customerId);
+      if (wait > 0) {
+        customerRejections.get(budget).increment();
+        return wait;
+      }
+    }
+    return 0;
+  }
+
+  /** As {@link #tryAcquire}, throwing when the request is over budget. */
+  public void acquire(RateLimitBudget budget, String customerId, String clientIp) {
+    long wait = tryAcquire(budget, customerId, clientIp);
+    if (wait > 0) {
+      throw new RateLimitExceededException(budget, wait);
+    }
+  }
+
+  /** The budget of a call to the named tool or GraphQL field. */
+  public static RateLimitBudget budgetFor(String operation) {
+    return "processPayment".equals(operation) || "processRefund".equals(operation)
+        ? RateLimitBudget.MUTATION
+        : RateLimitBudget.READ;
+  }
+
+  /** Whole seconds for a {@code Retry-After} header, rounded up and at least one. */
+  public static long retryAfterSeconds(long retryAfterNanos) {
+    return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+  }
+
+  private static Counter rejections(MeterRegistry registry, RateLimitBudget budget, String key) {
+    return Counter.builder("support.ratelimit.rejected")
+        .description("Requests refused for exceeding their rate limit")
+        .tag("budget", budget.value())
+        .tag("key", key)
+        .register(registry);
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.support.ratelimit;
+
+import java.util.Map;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+/**
+ * Charges every STOMP {@code SEND} frame (a chat turn) to the {@link RateLimitBudget#CHAT} budget
+ * of the connection's client IP, recorded at the handshake, and of the customer named in its {@code
+ * customerId} header. A frame over budget is refused and the client receives an ERROR frame.
+ */
+public class StompRateLimitInterceptor implements ChannelInterceptor, HandshakeInterceptor {
+
+  private static final String CLIENT_IP = StompRateLimitInterceptor.class.getName() + ".clientIp";
+
+  private final RateLimiter rateLimiter;
+
+  public StompRateLimitInterceptor(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public boolean beforeHandshake(
+      ServerHttpRequest request,
+      ServerHttpResponse response,
+      WebSocketHandler wsHandler,
+      Map<String, Object> attributes) {
+    if (request.getRemoteAddress() != null) {
+      attributes.put(CLIENT_IP, request.getRemoteAddress().getAddress().getHostAddress());
+    }
+    return true;
+  }
+
+  @Override
+  public void afterHandshake(
+      ServerHttpRequest request,
+      ServerHttpResponse response,
+      WebSocketHandler wsHandler,
+      Exception exception) {}
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor =
+        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null || accessor.getCommand() != StompCommand.SEND) {
+      return message;
+    }
+    Map<String, Object> session = accessor.getSessionAttributes();
+    String clientIp = session != null ? (String) session.get(CLIENT_IP) : null;
+    rateLimiter.acquire(
+        RateLimitBudget.CHAT, accessor.getFirstNativeHeader("customerId"), clientIp);
+    return message;
+  }
+}
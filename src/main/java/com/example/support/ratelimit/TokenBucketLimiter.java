@@ -0,0 +1,80 @@
+package com.example.support.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, one {@link AtomicLong} of state each.
+ *
+ * <p>Each bucket is stored as its theoretical arrival time (the generic cell rate algorithm): the
+ * instant at which the bucket will be full again. A request is admitted when moving that instant
+ * one emission interval ahead keeps it within {@code burst} intervals of now, and the move is a
+ * single compare-and-set, so admission never blocks.
+ *
+ * <p>Buckets live in a size-bounded Caffeine cache and expire once they have been idle long enough
+ * to refill completely, so evicting an idle key loses nothing. Under a flood of distinct keys the
+ * cache's admission policy keeps the frequently seen ones.
+ */
+public class TokenBucketLimiter {
+
+  private static final Function<String, AtomicLong> NEW_BUCKET =
+      key -> new AtomicLong(Long.MIN_VALUE);
+
+  private final long emissionIntervalNanos;
+  private final long capacityNanos;
+  private final LongSupplier nanoClock;
+  private final Cache<String, AtomicLong> buckets;
+
+  /**
+   * @param ratePerSecond sustained requests per second per key
+   * @param burst requests a key may make at once after being idle
+   * @param maxKeys keys held at once
+   * @param nanoClock monotonic time source, {@code System::nanoTime} outside tests
+   */
+  public TokenBucketLimiter(double ratePerSecond, int burst, long maxKeys, LongSupplier nanoClock) {
+    if (ratePerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Rate and burst must be positive");
+    }
+    this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+    this.capacityNanos = emissionIntervalNanos * burst;
+    this.nanoClock = nanoClock;
+    this.buckets =
+        Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(Duration.ofNanos(capacityNanos))
+            .ticker(nanoClock::getAsLong)
+            .executor(Runnable::run)
+            .build();
+  }
+
+  /**
+   * Takes a token from the key's bucket.
+   *
+   * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+   */
+  public long tryAcquire(String key) {
+    AtomicLong bucket = buckets.get(key, NEW_BUCKET);
+    long now = nanoClock.getAsLong();
+    while (true) {
+      long arrival = bucket.get();
+      long next = Math.max(arrival, now) + emissionIntervalNanos;
+      long excess = next - now - capacityNanos;
+      if (excess > 0) {
+        return excess;
+      }
+      if (bucket.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Keys currently holding a bucket; approximate while evictions are pending. */
+  public long size() {
+    buckets.cleanUp();
+    return buckets.estimatedSize();
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.support.refund;
+
+/**
+ * A refund eligibility token and what it grants.
+ *
+ * @param token the signed token, as handed to the client
+ * @param customerId the customer it was issued for
+ * @param maxAmountMinor the most that may be refunded with it, in minor units
+ * @param expiresAt expiry, in epoch seconds
+ * @param nonce the random value that makes it single use
+ */
+public record RefundToken(
+    String token, String customerId, long maxAmountMinor, long expiresAt, long nonce) {}
@@ -0,0 +1,288 @@
+package com.example.support.refund;
+
+import com.example.support.logging.CustomLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Signed, short-lived refund eligibility tokens, so any node can process a refund validated on
+ * another without shared session state or a second eligibility check.
+ *
+ * <p>A token is {@code payload.signature}, both base64url: the payload names the customer, the most
+ * that may be refunded, the expiry (epoch seconds) and a random nonce, and the signature is its
+ * HMAC-SHA256 under {@code support.refund.token-secret}. Every node must share the secret; without
+ * one a random key is generated at startup with a warning, and tokens only verify on the node that
+ * issued them.
+ *
+ * <p>Tokens are single use. A spent nonce is inserted into {@code refund_token_nonces} in the
+ * refund's transaction, so a token replayed on any node finds the row, or blocks on its primary key
+ * until the first refund commits or rolls back. Rows are purged once their token has expired. Spent
+ * nonces are also held in memory in two generations of {@code support.refund.token-ttl} each, so a
+ * replay on the same node is rejected without a query.
+ */
+@Component
+public class RefundTokens {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final SecretKeySpec key;
+  private final Duration ttl;
+  private final LongSupplier millisClock;
+  private final SecureRandom random = new SecureRandom();
+
+  // Resolved on first use: unit tests construct this without a DataSource
+  @Autowired private ObjectProvider<DataSource> dataSource;
+
+  @Autowired private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  @Autowired private CustomLogger logger;
+
+  private final boolean generatedKey;
+  private Set<Long> spent = new HashSet<>();
+  private Set<Long> previouslySpent = new HashSet<>();
+  private long rotateAt;
+  private volatile JdbcTemplate jdbcTemplate;
+  private ScheduledExecutorService scheduler;
+
+  @Autowired
+  public RefundTokens(
+      @Value("${support.refund.token-secret:}") String secret,
+      @Value("${support.refund.token-ttl:15m}") Duration ttl) {
+    this(secret, ttl, System::currentTimeMillis);
+  }
+
+  /**
+   * @param secret base64 HMAC key shared by every node, or empty for a random per-node key
+   * @param ttl how long a token stays valid
+   * @param millisClock wall-clock time source, {@code System::currentTimeMillis} outside tests
+   */
+  RefundTokens(String secret, Duration ttl, LongSupplier millisClock) {
+    byte[] keyBytes;
+    generatedKey = secret == null || secret.isBlank();
+    if (generatedKey) {
+      keyBytes = new byte[32];
+      random.nextBytes(keyBytes);
+    } else {
+      keyBytes = Base64.getDecoder().decode(secret.trim());
+    }
+    this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    this.ttl = ttl;
+    this.millisClock = millisClock;
+    this.rotateAt = millisClock.getAsLong() + ttl.toMillis();
+  }
+
+  @PostConstruct
+  void start() {
+    if (generatedKey) {
+      logger.warn(
+          RefundTokens.class,
+          "support.refund.token-secret is not set; refund tokens only verify on this node");
+    }
+    if (dataSource.getIfAvailable() == null) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "refund-nonce-purge");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(
+        this::purgeExpired, ttl.toMillis(), ttl.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /** The session state key a customer's token is kept under between the two refund tools. */
+  public static String contextKey(String customerId) {
+    return "refund_token_" + customerId;
+  }
+
+  /**
+   * Issues a token allowing one refund of up to {@code maxAmountMinor} to the customer.
+   *
+   * @return the token and its expiry
+   */
+  public RefundToken issue(String customerId, long maxAmountMinor) {
+    long expiresAt = millisClock.getAsLong() / 1000 + ttl.toSeconds();
+    long nonce = random.nextLong();
+    String payload = customerId + "|" + maxAmountMinor + "|" + expiresAt + "|" + nonce;
+    byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+    String token =
+        ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    return new RefundToken(token, customerId, maxAmountMinor, expiresAt, nonce);
+  }
+
+  /**
+   * Checks a token's signature and expiry without spending it.
+   *
+   * @return the token's grant, or null if the token is malformed, forged, expired or for another
+   *     customer
+   */
+  public RefundToken verify(String token, String customerId) {
+    if (token == null) {
+      return null;
+    }
+    int dot = token.indexOf('.');
+    if (dot < 0) {
+      return null;
+    }
+    byte[] payloadBytes;
+    byte[] signature;
+    try {
+      payloadBytes = DECODER.decode(token.substring(0, dot));
+      signature = DECODER.decode(token.substring(dot + 1));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    // Constant time, so the signature cannot be guessed byte by byte
+    if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+      return null;
+    }
+
+    String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|");
+    if (fields.length != 4 || !fields[0].equals(customerId)) {
+      return null;
+    }
+    long expiresAt = Long.parseLong(fields[2]);
+    if (millisClock.getAsLong() / 1000 >= expiresAt) {
+      return null;
+    }
+    return new RefundToken(
+        token, customerId, Long.parseLong(fields[1]), expiresAt, Long.parseLong(fields[3]));
+  }
+
+  /**
+   * Spends a verified token. Call it in the refund's transaction: the nonce row commits or rolls
+   * back with the refund.
+   *
+   * @return false if it was already spent on any node
+   */
+  public boolean spend(RefundToken grant) {
+    synchronized (this) {
+      rotate();
+      if (previouslySpent.contains(grant.nonce()) || !spent.add(grant.nonce())) {
+        return false;
+      }
+    }
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return true;
+    }
+    try {
+      // No duplicate key error, which would abort the refund's transaction on PostgreSQL
+      return jdbc.update(
+              "INSERT INTO refund_token_nonces (nonce, expires_at) VALUES (?, ?)"
+                  + " ON CONFLICT DO NOTHING",
+              grant.nonce(),
+              new Timestamp(grant.expiresAt() * 1000))
+          == 1;
+    } catch (RuntimeException e) {
+      unspend(grant);
+      throw e;
+    }
+  }
+
+  /** Makes a spent token usable again, for a refund that did not commit. */
+  public synchronized void unspend(RefundToken grant) {
+    spent.remove(grant.nonce());
+    previouslySpent.remove(grant.nonce());
+  }
+
+  /** Deletes the nonces of expired tokens, in its own write transaction. */
+  public int purgeExpired() {
+    JdbcTemplate jdbc = jdbc();
+    if (jdbc == null) {
+      return 0;
+    }
+    try {
+      TransactionTemplate writeTransaction =
+          new TransactionTemplate(transactionManager.getObject());
+      Integer purged =
+          writeTransaction.execute(
+              status ->
+                  jdbc.update(
+                      "DELETE FROM refund_token_nonces WHERE expires_at <= ?",
+                      new Timestamp(millisClock.getAsLong())));
+      return purged != null ? purged : 0;
+    } catch (RuntimeException e) {
+      logger.warn(RefundTokens.class, "Refund nonce purge failed: {}", e.getMessage());
+      return 0;
+    }
+  }
+
+  /** Drops the in-memory spent nonces, leaving the table as the only record. */
+  synchronized void clearSpent() {
+    spent.clear();
+    previouslySpent.clear();
+  }
+
+  private void rotate() {
+    long now = millisClock.getAsLong();
+    if (now < rotateAt) {
+      return;
+    }
+    // A nonce spent in the older generation is at least one TTL old, so its token has expired
+    previouslySpent = now < rotateAt + ttl.toMillis() ? spent : new HashSet<>();
+    spent = new HashSet<>();
+    rotateAt = now + ttl.toMillis();
+  }
+
+  private JdbcTemplate jdbc() {
+    if (dataSource == null) {
+      return null;
+    }
+    JdbcTemplate jdbc = jdbcTemplate;
+    if (jdbc == null) {
+      DataSource source = dataSource.getIfAvailable();
+      if (source == null) {
+        return null;
+      }
+      jdbc = new JdbcTemplate(source);
+      jdbcTemplate = jdbc;
+    }
+    return jdbc;
+  }
+
+  private byte[] sign(byte[] payload) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(payload);
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+    }
+  }
+}
@@ -1,8 +1,23 @@
 package com.example.support.repository;
 
 import com.example.support.entity.Customer;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, String> {}
+public interface CustomerRepository extends JpaRepository<Customer, String> {
+
+  /**
+   * Reads the customer from the database, never the entity cache, and locks the row until the
+   * transaction ends. Writers load through this so a balance is never computed from a cached copy
+   * that another node has since changed.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM Customer c WHERE c.customerId = :customerId")
+  Optional<Customer> findByIdForUpdate(@Param("customerId") String customerId);
+}
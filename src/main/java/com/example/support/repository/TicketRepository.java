@@ -1,13 +1,108 @@
 package com.example.support.repository;
 
+import com.example.support.dedup.RecentTicket;
 import com.example.support.entity.Ticket;
+import com.example.support.queue.QueuedTicket;
+import com.example.support.sla.SlaDeadline;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, String> {
   List<Ticket> findByCustomerId(String customerId);
 
   List<Ticket> findByCustomerIdAndStatus(String customerId, String status);
+
+  /** Postgres only: ranked match against the {@code search_vector} GIN index. */
+  @Query(
+      value =
+          "SELECT t.* FROM tickets t, websearch_to_tsquery('english', :query) q"
+              + " WHERE t.search_vector @@ q"
+              + " AND (CAST(:customerId AS VARCHAR) IS NULL OR t.customer_id = :customerId)"
+              + " AND (CAST(:status AS VARCHAR) IS NULL OR t.status = :status)"
+              + " ORDER BY ts_rank_cd(t.search_vector, q) DESC, t.created DESC, t.ticket_id"
+              + " OFFSET :offset LIMIT :limit",
+      nativeQuery = true)
+  List<Ticket> searchRanked(
+      @Param("query") String query,
+      @Param("customerId") String customerId,
+      @Param("status") String status,
+      @Param("offset") int offset,
+      @Param("limit") int limit);
+
+  /** Open tickets' SLA deadlines in ticket ID order, after the given ID (keyset pagination). */
+  @Query(
+      "SELECT new com.example.support.sla.SlaDeadline(t.ticketId, t.slaDue) FROM Ticket t"
+          + " WHERE t.status = 'open' AND t.slaDue IS NOT NULL AND t.ticketId > :after"
+          + " ORDER BY t.ticketId")
+  List<SlaDeadline> findSlaDeadlines(@Param("after") String after, Limit limit);
+
+  /**
+   * Moves an open ticket to a new priority and deadline, provided its deadline is still {@code
+   * due}; a ticket closed or rescheduled in the meantime is left alone.
+   *
+   * @return 1 if the ticket was escalated, 0 otherwise
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE Ticket t SET t.priority = :priority, t.slaDue = :nextDue"
+          + " WHERE t.ticketId = :ticketId AND t.status = 'open' AND t.slaDue = :due")
+  int escalateSla(
+      @Param("ticketId") String ticketId,
+      @Param("due") LocalDateTime due,
+      @Param("priority") String priority,
+      @Param("nextDue") LocalDateTime nextDue);
+
+  /**
+   * Tickets created after {@code (created, after)} in creation then ticket ID order (keyset
+   * pagination); start from the oldest creation time wanted and an empty ID.
+   */
+  @Query(
+      "SELECT new com.example.support.dedup.RecentTicket("
+          + "t.ticketId, t.customerId, t.subject, t.description, t.created)"
+          + " FROM Ticket t WHERE t.created > :created"
+          + " OR (t.created = :created AND t.ticketId > :after)"
+          + " ORDER BY t.created, t.ticketId")
+  List<RecentTicket> findRecentTickets(
+      @Param("created") LocalDateTime created, @Param("after") String after, Limit limit);
+
+  /** Open, unassigned tickets with their customer's tier, in ticket ID order after the given ID. */
+  @Query(
+      "SELECT new com.example.support.queue.QueuedTicket("
+          + "t.ticketId, t.customerId, t.priority, c.tier, t.created)"
+          + " FROM Ticket t JOIN Customer c ON c.customerId = t.customerId"
+          + " WHERE t.status = 'open' AND t.assignee IS NULL AND t.ticketId > :after"
+          + " ORDER BY t.ticketId")
+  List<QueuedTicket> findQueuedTickets(@Param("after") String after, Limit limit);
+
+  /**
+   * Assigns an open ticket to a human agent unless it is already assigned.
+   *
+   * @return 1 if the ticket was claimed, 0 otherwise
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE Ticket t SET t.assignee = :assignee"
+          + " WHERE t.ticketId = :ticketId AND t.status = 'open' AND t.assignee IS NULL")
+  int claim(@Param("ticketId") String ticketId, @Param("assignee") String assignee);
+
+  /**
+   * Unassigns a ticket held by the given human agent.
+   *
+   * @return 1 if the ticket was released, 0 otherwise
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE Ticket t SET t.assignee = NULL WHERE t.ticketId = :ticketId AND t.assignee = :assignee")
+  int release(@Param("ticketId") String ticketId, @Param("assignee") String assignee);
 }
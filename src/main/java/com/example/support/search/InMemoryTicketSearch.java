@@ -0,0 +1,211 @@
+package com.example.support.search;
+
+import com.example.support.entity.Ticket;
+import com.example.support.repository.TicketRepository;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process inverted index for databases without Postgres text search (H2 in tests and local
+ * runs). Built from the tickets table at startup and kept current by {@link TicketSearchListener}.
+ *
+ * <p>Terms are lowercased alphanumeric tokens without stemming. A hit's score sums, over the query
+ * terms, the term's weighted frequency (subject x2) times its inverse document frequency. Hits are
+ * read back from the repository, so rows deleted behind the index's back are simply skipped.
+ */
+public class InMemoryTicketSearch implements TicketSearch {
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "my",
+          "of", "on", "or", "the", "to", "was", "with");
+
+  private static final int SUBJECT_WEIGHT = 2;
+  private static final int DESCRIPTION_WEIGHT = 1;
+
+  private final TicketRepository ticketRepository;
+  private final Map<String, Document> documents = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+  public InMemoryTicketSearch(TicketRepository ticketRepository) {
+    this.ticketRepository = ticketRepository;
+  }
+
+  /** Indexes every ticket in the repository. */
+  @Override
+  public void rebuild() {
+    for (Ticket ticket : ticketRepository.findAll()) {
+      put(ticket);
+    }
+  }
+
+  @Override
+  public List<Ticket> search(
+      String query, String customerId, String status, int offset, int limit) {
+    List<String> terms = tokenize(query).stream().distinct().toList();
+    if (terms.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    // Intersect starting from the rarest term
+    List<Set<String>> termPostings = new ArrayList<>(terms.size());
+    for (String term : terms) {
+      Set<String> ids = postings.get(term);
+      if (ids == null || ids.isEmpty()) {
+        return List.of();
+      }
+      termPostings.add(ids);
+    }
+    termPostings.sort(Comparator.comparingInt(Set::size));
+
+    int documentCount = Math.max(1, documents.size());
+    List<ScoredDocument> hits = new ArrayList<>();
+    for (String ticketId : termPostings.get(0)) {
+      Document document = documents.get(ticketId);
+      if (document == null
+          || (customerId != null && !customerId.equals(document.customerId()))
+          || (status != null && !status.equals(document.status()))) {
+        continue;
+      }
+      double score = 0;
+      for (String term : terms) {
+        Integer weight = document.termWeights().get(term);
+        if (weight == null) {
+          score = -1;
+          break;
+        }
+        Set<String> ids = postings.get(term);
+        int frequency = ids == null ? 1 : Math.max(1, ids.size());
+        score += weight * Math.log(1.0 + (double) documentCount / frequency);
+      }
+      if (score >= 0) {
+        hits.add(new ScoredDocument(document, score));
+      }
+    }
+    hits.sort(
+        Comparator.comparingDouble(ScoredDocument::score)
+            .reversed()
+            .thenComparing(h -> h.document().created(), Comparator.reverseOrder())
+            .thenComparing(h -> h.document().ticketId()));
+    if (offset >= hits.size()) {
+      return List.of();
+    }
+    List<String> pageIds =
+        hits.subList(offset, Math.min(hits.size(), offset + limit)).stream()
+            .map(h -> h.document().ticketId())
+            .toList();
+
+    Map<String, Ticket> rows = new HashMap<>();
+    for (Ticket ticket : ticketRepository.findAllById(pageIds)) {
+      rows.put(ticket.getTicketId(), ticket);
+    }
+    return pageIds.stream().map(rows::get).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Indexes the ticket. Inside a transaction the change is visible immediately and the previous
+   * entry is restored if the transaction rolls back.
+   */
+  @Override
+  public void ticketSaved(Ticket ticket) {
+    Document previous = put(ticket);
+    onRollback(ticket.getTicketId(), previous);
+  }
+
+  @Override
+  public void ticketRemoved(String ticketId) {
+    Document previous = remove(ticketId);
+    onRollback(ticketId, previous);
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    List<String> tokens = new ArrayList<>();
+    for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  private synchronized Document put(Ticket ticket) {
+    Map<String, Integer> weights = new HashMap<>();
+    for (String term : tokenize(ticket.getSubject())) {
+      weights.merge(term, SUBJECT_WEIGHT, Integer::sum);
+    }
+    for (String term : tokenize(ticket.getDescription())) {
+      weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+    }
+    return restore(
+        ticket.getTicketId(),
+        new Document(
+            ticket.getTicketId(),
+            ticket.getCustomerId(),
+            ticket.getStatus(),
+            ticket.getCreated(),
+            weights));
+  }
+
+  private synchronized Document remove(String ticketId) {
+    return restore(ticketId, null);
+  }
+
+  /** Replaces the ticket's entry (null removes it) and returns the previous one. */
+  private synchronized Document restore(String ticketId, Document document) {
+    Document previous =
+        document == null ? documents.remove(ticketId) : documents.put(ticketId, document);
+    if (previous != null) {
+      for (String term : previous.termWeights().keySet()) {
+        Set<String> ids = postings.get(term);
+        if (ids != null) {
+          ids.remove(ticketId);
+          if (ids.isEmpty()) {
+            postings.remove(term);
+          }
+        }
+      }
+    }
+    if (document != null) {
+      for (String term : document.termWeights().keySet()) {
+        postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(ticketId);
+      }
+    }
+    return previous;
+  }
+
+  private void onRollback(String ticketId, Document previous) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+              restore(ticketId, previous);
+            }
+          }
+        });
+  }
+
+  private record Document(
+      String ticketId,
+      String customerId,
+      String status,
+      LocalDateTime created,
+      Map<String, Integer> termWeights) {}
+
+  private record ScoredDocument(Document document, double score) {}
+}
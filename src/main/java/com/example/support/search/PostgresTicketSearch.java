@@ -0,0 +1,24 @@
+package com.example.support.search;
+
+import com.example.support.entity.Ticket;
+import com.example.support.repository.TicketRepository;
+import java.util.List;
+
+/**
+ * Search backed by the {@code tickets.search_vector} GIN index (V2 migration). The vector is a
+ * generated column, so writes need no application-side maintenance.
+ */
+public class PostgresTicketSearch implements TicketSearch {
+
+  private final TicketRepository ticketRepository;
+
+  public PostgresTicketSearch(TicketRepository ticketRepository) {
+    this.ticketRepository = ticketRepository;
+  }
+
+  @Override
+  public List<Ticket> search(
+      String query, String customerId, String status, int offset, int limit) {
+    return ticketRepository.searchRanked(query, customerId, status, offset, limit);
+  }
+}
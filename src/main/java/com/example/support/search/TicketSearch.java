@@ -0,0 +1,32 @@
+package com.example.support.search;
+
+import com.example.support.entity.Ticket;
+import java.util.List;
+
+/**
+ * Ranked full-text search over ticket subjects and descriptions. Subject matches rank above
+ * description matches; every query term must match.
+ */
+public interface TicketSearch {
+
+  /**
+   * Searches tickets.
+   *
+   * @param query free-text query
+   * @param customerId only this customer's tickets, or null for every customer's
+   * @param status status filter, or null for any status
+   * @param offset number of ranked hits to skip
+   * @param limit maximum number of hits to return
+   * @return matching tickets, best match first
+   */
+  List<Ticket> search(String query, String customerId, String status, int offset, int limit);
+
+  /** Called when a ticket is inserted or updated. Engines backed by a database index ignore it. */
+  default void ticketSaved(Ticket ticket) {}
+
+  /** Called when a ticket is deleted. */
+  default void ticketRemoved(String ticketId) {}
+
+  /** Called after tickets were written without JPA (bulk import). */
+  default void rebuild() {}
+}
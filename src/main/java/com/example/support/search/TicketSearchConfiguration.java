@@ -0,0 +1,29 @@
+package com.example.support.search;
+
+import com.example.support.repository.TicketRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the search engine with {@code support.search.engine}: {@code postgres} (default) uses the
+ * tsvector index, {@code memory} an in-process inverted index for H2.
+ */
+@Configuration
+public class TicketSearchConfiguration {
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "support.search.engine",
+      havingValue = "postgres",
+      matchIfMissing = true)
+  public PostgresTicketSearch postgresTicketSearch(TicketRepository ticketRepository) {
+    return new PostgresTicketSearch(ticketRepository);
+  }
+
+  @Bean(initMethod = "rebuild")
+  @ConditionalOnProperty(name = "support.search.engine", havingValue = "memory")
+  public InMemoryTicketSearch inMemoryTicketSearch(TicketRepository ticketRepository) {
+    return new InMemoryTicketSearch(ticketRepository);
+  }
+}
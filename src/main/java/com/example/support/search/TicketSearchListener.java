@@ -0,0 +1,34 @@
+package com.example.support.search;
+
+import com.example.support.entity.Ticket;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener forwarding ticket writes to the active {@link TicketSearch}. Hibernate creates it
+ * through Spring's bean container; the search bean is looked up lazily because it depends on the
+ * repositories, which depend on the entity manager factory that instantiates this listener.
+ */
+public class TicketSearchListener {
+
+  @Autowired private ObjectProvider<TicketSearch> ticketSearch;
+
+  // New tickets are indexed at persist() rather than at flush so they are searchable at once
+  @PrePersist
+  @PostUpdate
+  public void saved(Ticket ticket) {
+    if (ticketSearch != null) {
+      ticketSearch.ifAvailable(search -> search.ticketSaved(ticket));
+    }
+  }
+
+  @PostRemove
+  public void removed(Ticket ticket) {
+    if (ticketSearch != null) {
+      ticketSearch.ifAvailable(search -> search.ticketRemoved(ticket.getTicketId()));
+    }
+  }
+}
@@ -1,6 +1,14 @@
 package com.example.support.service;
 
+import com.example.support.Money;
+import com.example.support.tracing.SupportTracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
@@ -10,19 +18,78 @@ public class NotificationService {
 
   @Autowired private SimpMessagingTemplate messagingTemplate;
 
+  @Autowired private ObjectProvider<MeterRegistry> meterRegistry;
+
+  @Autowired private SupportTracing tracing;
+
+  private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+
   public void notifyTicketCreated(String customerId, String ticketId) {
-    messagingTemplate.convertAndSend(
+    send(
         "/topic/tickets",
         Map.of("type", "TICKET_CREATED", "customerId", customerId, "ticketId", ticketId));
   }
 
-  public void notifyPaymentProcessed(String customerId, double amount) {
-    messagingTemplate.convertAndSend(
+  public void notifyTicketStatusChanged(String customerId, String ticketId, String status) {
+    send(
+        "/topic/tickets",
+        Map.of(
+            "type",
+            "TICKET_STATUS_CHANGED",
+            "customerId",
+            customerId,
+            "ticketId",
+            ticketId,
+            "status",
+            status));
+  }
+
+  public void notifyTicketEscalated(
+      String customerId, String ticketId, String priority, boolean breached) {
+    send(
+        "/topic/tickets",
+        Map.of(
+            "type",
+            breached ? "TICKET_SLA_BREACHED" : "TICKET_ESCALATED",
+            "customerId",
+            customerId,
+            "ticketId",
+            ticketId,
+            "priority",
+            priority));
+  }
+
+  public void notifyPaymentProcessed(String customerId, long amountMinor) {
+    send(
         "/topic/payments",
-        Map.of("type", "PAYMENT_PROCESSED", "customerId", customerId, "amount", amount));
+        Map.of(
+            "type",
+            "PAYMENT_PROCESSED",
+            "customerId",
+            customerId,
+            "amount",
+            Money.toDecimal(amountMinor)));
   }
 
   public void notifyAnalyticsUpdated() {
-    messagingTemplate.convertAndSend("/topic/analytics", Map.of("type", "ANALYTICS_UPDATED"));
+    send("/topic/analytics", Map.of("type", "ANALYTICS_UPDATED"));
+  }
+
+  private void send(String destination, Map<String, Object> payload) {
+    Map<String, Object> stamped = new HashMap<>(payload);
+    // Epoch millis, so subscribers can measure delivery lag
+    stamped.put("sentAt", System.currentTimeMillis());
+    Timer timer = sendTimers.computeIfAbsent(destination, this::sendTimer);
+    tracing.inSpan(
+        "notify " + destination,
+        () -> timer.record(() -> messagingTemplate.convertAndSend(destination, stamped)));
+  }
+
+  private Timer sendTimer(String destination) {
+    return Timer.builder("support.notification.duration")
+        .description("Time spent publishing a STOMP notification")
+        .tag("destination", destination)
+        .publishPercentileHistogram()
+        .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
   }
 }
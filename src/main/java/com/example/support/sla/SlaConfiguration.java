@@ -0,0 +1,38 @@
+package com.example.support.sla;
+
+import com.example.support.logging.CustomLogger;
+import com.example.support.queue.TicketWorkQueue;
+import com.example.support.repository.TicketRepository;
+import com.example.support.service.NotificationService;
+import com.example.support.versioning.CustomerVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** SLA engine wiring; disable escalation with {@code support.sla.enabled=false}. */
+@Configuration
+@EnableConfigurationProperties(SlaProperties.class)
+public class SlaConfiguration {
+
+  @Bean(initMethod = "start", destroyMethod = "stop")
+  public SlaEngine slaEngine(
+      TicketRepository ticketRepository,
+      SlaProperties properties,
+      ObjectProvider<NotificationService> notificationService,
+      ObjectProvider<TicketWorkQueue> workQueue,
+      ObjectProvider<CustomerVersions> versions,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      CustomLogger logger) {
+    return new SlaEngine(
+        ticketRepository,
+        properties,
+        notificationService.getIfAvailable(),
+        workQueue.getIfAvailable(),
+        versions.getIfAvailable(),
+        meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+        logger);
+  }
+}
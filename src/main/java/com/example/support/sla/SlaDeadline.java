@@ -0,0 +1,6 @@
+package com.example.support.sla;
+
+import java.time.LocalDateTime;
+
+/** An open ticket's SLA deadline, as read back when the timer wheel is rebuilt. */
+public record SlaDeadline(String ticketId, LocalDateTime slaDue) {}
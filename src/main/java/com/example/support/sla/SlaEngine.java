@@ -0,0 +1,230 @@
+package com.example.support.sla;
+
+import com.example.support.entity.Ticket;
+import com.example.support.entity.TicketPriority;
+import com.example.support.logging.CustomLogger;
+import com.example.support.queue.TicketWorkQueue;
+import com.example.support.repository.TicketRepository;
+import com.example.support.service.NotificationService;
+import com.example.support.versioning.CustomerVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Enforces response-time SLAs on open tickets. Every open ticket carries a deadline ({@code
+ * tickets.sla_due}) set from its priority when it is created or reopened; pending and closed
+ * tickets have none, so the clock stops while the ticket waits on the customer.
+ *
+ * <p>Deadlines live in a {@link TimerWheel} rather than being polled for: a daemon thread advances
+ * the wheel once per tick, and each expired ticket costs one primary-key read and one conditional
+ * update. A ticket that breaches is escalated one priority level with a fresh deadline for the new
+ * level; an urgent ticket stays urgent and is re-armed, so it keeps alerting until someone acts.
+ * Each escalation is published on {@code /topic/tickets}.
+ *
+ * <p>The wheel is in-memory and rebuilt at startup from the open tickets' deadlines.
+ */
+public class SlaEngine {
+
+  /** How long to wait before retrying an escalation that failed, e.g. with the database down. */
+  private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+  private final TicketRepository ticketRepository;
+  private final SlaProperties properties;
+  private final NotificationService notificationService;
+  private final TicketWorkQueue workQueue;
+  private final CustomerVersions versions;
+  private final MeterRegistry registry;
+  private final CustomLogger logger;
+  private final TimerWheel wheel;
+
+  private ScheduledExecutorService scheduler;
+
+  public SlaEngine(
+      TicketRepository ticketRepository,
+      SlaProperties properties,
+      NotificationService notificationService,
+      TicketWorkQueue workQueue,
+      CustomerVersions versions,
+      MeterRegistry registry,
+      CustomLogger logger) {
+    this.ticketRepository = ticketRepository;
+    this.properties = properties;
+    this.notificationService = notificationService;
+    this.workQueue = workQueue;
+    this.versions = versions;
+    this.registry = registry;
+    this.logger = logger;
+    this.wheel = new TimerWheel(properties.getTick().toMillis(), System.currentTimeMillis());
+    Gauge.builder("support.sla.tracked", wheel, TimerWheel::size)
+        .description("Open tickets with a pending SLA deadline")
+        .register(registry);
+  }
+
+  /** Rebuilds the wheel from the tickets table and starts the ticking thread. */
+  public void start() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    rebuild();
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "sla-timer-wheel");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long tickMillis = properties.getTick().toMillis();
+    scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Loads every open ticket's deadline, a page of ticket IDs at a time. Also run after a bulk
+   * ticket import, which writes deadlines without going through {@link #track}.
+   */
+  public void rebuild() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    long started = System.nanoTime();
+    Limit page = Limit.of(properties.getRebuildBatchSize());
+    String after = "";
+    int loaded = 0;
+    List<SlaDeadline> deadlines;
+    do {
+      deadlines = ticketRepository.findSlaDeadlines(after, page);
+      for (SlaDeadline deadline : deadlines) {
+        wheel.schedule(deadline.ticketId(), toMillis(deadline.slaDue()));
+        after = deadline.ticketId();
+      }
+      loaded += deadlines.size();
+    } while (deadlines.size() == page.max());
+    logger.infoKv(
+        SlaEngine.class,
+        "Rebuilt SLA timer wheel",
+        "tickets",
+        loaded,
+        "millis",
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /**
+   * The deadline for a ticket that becomes open.
+   *
+   * @param now when the ticket was opened
+   * @param priority the ticket's priority
+   * @return the time it is escalated unless it leaves the open status first, to the second so it
+   *     survives the database's timestamp precision unchanged
+   */
+  public LocalDateTime dueFrom(LocalDateTime now, String priority) {
+    TicketPriority level =
+        Optional.ofNullable(TicketPriority.from(priority)).orElse(TicketPriority.LOW);
+    return now.plus(properties.responseTime(level)).truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  /** Starts or moves a ticket's deadline, or stops tracking it when the ticket has none. */
+  public void track(String ticketId, LocalDateTime slaDue) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    if (slaDue == null) {
+      wheel.cancel(ticketId);
+    } else {
+      wheel.schedule(ticketId, toMillis(slaDue));
+    }
+  }
+
+  /** Returns the tracked deadline in epoch milliseconds (rounded up to a tick), or -1. */
+  public long trackedDeadline(String ticketId) {
+    return wheel.deadline(ticketId);
+  }
+
+  public int trackedCount() {
+    return wheel.size();
+  }
+
+  /** Advances the wheel to now and escalates the tickets that expired. */
+  public void tick() {
+    for (String ticketId : wheel.advance(System.currentTimeMillis())) {
+      try {
+        escalate(ticketId);
+      } catch (RuntimeException e) {
+        logger.warn(SlaEngine.class, "SLA escalation of {} failed: {}", ticketId, e.getMessage());
+        wheel.schedule(ticketId, System.currentTimeMillis() + RETRY_DELAY.toMillis());
+      }
+    }
+  }
+
+  private void escalate(String ticketId) {
+    Optional<Ticket> found = ticketRepository.findById(ticketId);
+    if (found.isEmpty()) {
+      return;
+    }
+    Ticket ticket = found.get();
+    LocalDateTime due = ticket.getSlaDue();
+    if (!"open".equals(ticket.getStatus()) || due == null) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    if (due.isAfter(now)) {
+      // Rescheduled since this timer was set
+      wheel.schedule(ticketId, toMillis(due));
+      return;
+    }
+
+    TicketPriority current =
+        Optional.ofNullable(TicketPriority.from(ticket.getPriority())).orElse(TicketPriority.LOW);
+    TicketPriority next = current.escalated();
+    LocalDateTime nextDue = now.plus(properties.responseTime(next)).truncatedTo(ChronoUnit.SECONDS);
+    if (ticketRepository.escalateSla(ticketId, due, next.value(), nextDue) == 0) {
+      return;
+    }
+    wheel.schedule(ticketId, toMillis(nextDue));
+    if (workQueue != null) {
+      workQueue.reprioritize(ticketId, next.value());
+    }
+    if (versions != null) {
+      versions.bump(ticket.getCustomerId());
+    }
+
+    boolean breached = current == TicketPriority.URGENT;
+    Counter.builder("support.sla.escalations")
+        .description("Open tickets that missed their response-time SLA")
+        .tag("from", current.value())
+        .register(registry)
+        .increment();
+    logger.infoKv(
+        SlaEngine.class,
+        breached ? "Urgent ticket breached SLA" : "Escalated ticket",
+        "ticketId",
+        ticketId,
+        "from",
+        current.value(),
+        "to",
+        next.value());
+    if (notificationService != null) {
+      notificationService.notifyTicketEscalated(
+          ticket.getCustomerId(), ticketId, next.value(), breached);
+    }
+  }
+
+  private static long toMillis(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
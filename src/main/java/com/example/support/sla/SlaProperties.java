@@ -0,0 +1,70 @@
+package com.example.support.sla;
+
+import com.example.support.entity.TicketPriority;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Response-time targets by priority and scheduler settings ({@code support.sla.*}). */
+@ConfigurationProperties("support.sla")
+public class SlaProperties {
+
+  private boolean enabled = true;
+
+  /** Resolution of the timer wheel; deadlines fire up to one tick late. */
+  private Duration tick = Duration.ofSeconds(1);
+
+  /** Time an open ticket may wait at each priority before it is escalated. */
+  private Map<TicketPriority, Duration> responseTime = defaultResponseTimes();
+
+  /** Rows per query when the wheel is rebuilt from the tickets table. */
+  private int rebuildBatchSize = 10_000;
+
+  private static Map<TicketPriority, Duration> defaultResponseTimes() {
+    Map<TicketPriority, Duration> times = new EnumMap<>(TicketPriority.class);
+    times.put(TicketPriority.URGENT, Duration.ofHours(1));
+    times.put(TicketPriority.HIGH, Duration.ofHours(4));
+    times.put(TicketPriority.MEDIUM, Duration.ofHours(24));
+    times.put(TicketPriority.LOW, Duration.ofHours(72));
+    return times;
+  }
+
+  /** The response time for a priority, falling back to the low-priority target. */
+  public Duration responseTime(TicketPriority priority) {
+    Duration time = responseTime.get(priority);
+    return time != null ? time : responseTime.getOrDefault(TicketPriority.LOW, Duration.ofDays(3));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Duration getTick() {
+    return tick;
+  }
+
+  public void setTick(Duration tick) {
+    this.tick = tick;
+  }
+
+  public Map<TicketPriority, Duration> getResponseTime() {
+    return responseTime;
+  }
+
+  public void setResponseTime(Map<TicketPriority, Duration> responseTime) {
+    this.responseTime = responseTime;
+  }
+
+  public int getRebuildBatchSize() {
+    return rebuildBatchSize;
+  }
+
+  public void setRebuildBatchSize(int rebuildBatchSize) {
+    this.rebuildBatchSize = rebuildBatchSize;
+  }
+}
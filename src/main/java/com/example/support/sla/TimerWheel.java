@@ -0,0 +1,232 @@
+package com.example.support.sla;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by ticket ID. Scheduling, rescheduling and cancelling are O(1);
+ * advancing the clock costs O(1) per elapsed tick plus O(1) per expiring timer, amortized over the
+ * few cascades a timer goes through on its way down the levels.
+ *
+ * <p>There are {@value #LEVELS} levels of {@value #SLOTS} slots. Level 0 slots are one tick wide,
+ * and each level's slots are {@value #SLOTS} times wider than the one below, so with one-second
+ * ticks the wheel spans about 34 years. When the level-0 cursor wraps, the next slot of level 1 is
+ * emptied back into the wheel at finer resolution, and so on upwards. Deadlines beyond the span are
+ * parked in the farthest slot and re-filed when they surface.
+ *
+ * <p>Stretches with nothing due are skipped: while the lowest levels are empty the clock jumps
+ * straight to the next slot boundary of the first level holding timers.
+ *
+ * <p>Each key holds at most one timer. All methods are synchronized; expired keys are returned to
+ * the caller rather than run under the lock.
+ */
+public class TimerWheel {
+
+  private static final int SLOT_BITS = 6;
+  static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  static final int LEVELS = 5;
+  private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  private final long tickMillis;
+  private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+  private final int[] levelCounts = new int[LEVELS];
+  private final Map<String, Timer> timers = new HashMap<>();
+
+  /** The next tick to expire; every timer due before it has been returned. */
+  private long currentTick;
+
+  /**
+   * @param tickMillis the width of a level-0 slot; deadlines are rounded up to it
+   * @param nowMillis the current time
+   */
+  public TimerWheel(long tickMillis, long nowMillis) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive");
+    }
+    this.tickMillis = tickMillis;
+    this.currentTick = nowMillis / tickMillis;
+  }
+
+  /**
+   * Sets the key's deadline, replacing any earlier one. A deadline already in the past expires on
+   * the next {@link #advance}.
+   */
+  public synchronized void schedule(String key, long deadlineMillis) {
+    Timer timer = timers.get(key);
+    if (timer == null) {
+      timer = new Timer(key);
+      timers.put(key, timer);
+    } else {
+      unlink(timer);
+    }
+    timer.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    file(timer);
+  }
+
+  /**
+   * Removes the key's timer.
+   *
+   * @return whether the key had one
+   */
+  public synchronized boolean cancel(String key) {
+    Timer timer = timers.remove(key);
+    if (timer == null) {
+      return false;
+    }
+    unlink(timer);
+    return true;
+  }
+
+  /** Returns the key's deadline rounded up to a tick, or -1 when it has none. */
+  public synchronized long deadline(String key) {
+    Timer timer = timers.get(key);
+    return timer == null ? -1 : timer.deadlineTick * tickMillis;
+  }
+
+  /**
+   * Moves the clock forward and removes the timers that expired.
+   *
+   * @param nowMillis the current time
+   * @return the expired keys, earliest deadline first
+   */
+  public synchronized List<String> advance(long nowMillis) {
+    long targetTick = nowMillis / tickMillis;
+    List<String> expired = new ArrayList<>();
+    while (currentTick <= targetTick) {
+      int index = (int) (currentTick & SLOT_MASK);
+      if (index == 0) {
+        cascade(1);
+      }
+      Timer timer = detachSlot(0, index);
+      while (timer != null) {
+        Timer next = timer.next;
+        timer.next = null;
+        if (timer.deadlineTick > currentTick) {
+          // Parked beyond the wheel's span; file it again from here
+          file(timer);
+        } else {
+          timers.remove(timer.key);
+          expired.add(timer.key);
+        }
+        timer = next;
+      }
+      currentTick = nextEventTick(targetTick);
+    }
+    return expired;
+  }
+
+  /**
+   * The next tick that can expire or cascade a timer: the next tick while level 0 holds timers,
+   * otherwise the next slot boundary of the lowest non-empty level, capped one past the target.
+   */
+  private long nextEventTick(long targetTick) {
+    long next = currentTick + 1;
+    if (levelCounts[0] > 0) {
+      return next;
+    }
+    int level = 1;
+    while (level < LEVELS && levelCounts[level] == 0) {
+      level++;
+    }
+    if (level == LEVELS) {
+      return Math.max(next, targetTick + 1);
+    }
+    long span = 1L << (SLOT_BITS * level);
+    long boundary = (next + span - 1) & -span;
+    return Math.max(next, Math.min(boundary, targetTick + 1));
+  }
+
+  public synchronized int size() {
+    return timers.size();
+  }
+
+  /** Empties the current slot of a level into the levels below, cascading upwards on wrap. */
+  private void cascade(int level) {
+    if (level >= LEVELS) {
+      return;
+    }
+    int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    if (index == 0) {
+      cascade(level + 1);
+    }
+    Timer timer = detachSlot(level, index);
+    while (timer != null) {
+      Timer next = timer.next;
+      timer.next = null;
+      file(timer);
+      timer = next;
+    }
+  }
+
+  private void file(Timer timer) {
+    long delay = timer.deadlineTick - currentTick;
+    long tick = timer.deadlineTick;
+    if (delay < 0) {
+      tick = currentTick;
+      delay = 0;
+    } else if (delay > MAX_DELAY_TICKS) {
+      tick = currentTick + MAX_DELAY_TICKS;
+      delay = MAX_DELAY_TICKS;
+    }
+    int level = 0;
+    while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    Timer head = slots[level][index];
+    timer.next = head;
+    if (head != null) {
+      head.previous = timer;
+    }
+    slots[level][index] = timer;
+    timer.level = level;
+    timer.index = index;
+    levelCounts[level]++;
+  }
+
+  /** Empties a slot, returning its timers as a list linked through {@code next}. */
+  private Timer detachSlot(int level, int index) {
+    Timer head = slots[level][index];
+    slots[level][index] = null;
+    for (Timer timer = head; timer != null; timer = timer.next) {
+      timer.previous = null;
+      timer.level = -1;
+      levelCounts[level]--;
+    }
+    return head;
+  }
+
+  private void unlink(Timer timer) {
+    if (timer.level < 0) {
+      return;
+    }
+    if (timer.previous != null) {
+      timer.previous.next = timer.next;
+    } else {
+      slots[timer.level][timer.index] = timer.next;
+    }
+    if (timer.next != null) {
+      timer.next.previous = timer.previous;
+    }
+    levelCounts[timer.level]--;
+    timer.previous = null;
+    timer.next = null;
+    timer.level = -1;
+  }
+
+  private static final class Timer {
+    final String key;
+    long deadlineTick;
+    int level = -1;
+    int index;
+    Timer previous;
+    Timer next;
+
+    Timer(String key) {
+      this.key = key;
+    }
+  }
+}
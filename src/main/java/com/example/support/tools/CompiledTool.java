@@ -0,0 +1,260 @@
+package com.example.support.tools;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.adk.tools.BaseTool;
+import com.google.adk.tools.FunctionTool;
+import com.google.adk.tools.ToolContext;
+import com.google.genai.types.FunctionDeclaration;
+import com.google.genai.types.Schema;
+import io.reactivex.rxjava3.core.Single;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A tool method compiled once into a {@link MethodHandle} invoker, with its declaration built and
+ * serialized up front. Drop-in replacement for {@link FunctionTool}, which looks parameters up
+ * reflectively and converts arguments through Jackson on every call.
+ *
+ * <p>The trailing {@code Map<String, Object> context} parameter of a tool is bound to the session
+ * state rather than declared to the model, so per-conversation caches and the refund validation
+ * flag survive between calls. The remaining parameters are strings and numbers.
+ */
+public final class CompiledTool extends BaseTool {
+
+  static final String CONTEXT_PARAMETER = "context";
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private enum ArgumentType {
+    STRING,
+    NUMBER,
+    CONTEXT
+  }
+
+  private final MethodHandle invoker;
+  private final String[] parameterNames;
+  private final ArgumentType[] argumentTypes;
+  private final Optional<FunctionDeclaration> declaration;
+  private final String declarationJson;
+
+  private CompiledTool(
+      String name,
+      String description,
+      MethodHandle invoker,
+      String[] parameterNames,
+      ArgumentType[] argumentTypes,
+      FunctionDeclaration declaration) {
+    super(name, description);
+    this.invoker = invoker;
+    this.parameterNames = parameterNames;
+    this.argumentTypes = argumentTypes;
+    this.declaration = Optional.of(declaration);
+    this.declarationJson = declaration.toJson();
+  }
+
+  /**
+   * Compiles a tool method.
+   *
+   * @param target the object the tool runs on
+   * @param method a public method returning {@code Map<String, Object>}, taking strings, {@code
+   *     Double}s and optionally a trailing {@code Map<String, Object> context}
+   * @throws IllegalArgumentException if the method has another shape
+   */
+  static CompiledTool compile(Object target, Method method) {
+    Parameter[] parameters = method.getParameters();
+    String[] names = new String[parameters.length];
+    ArgumentType[] types = new ArgumentType[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      names[i] = parameters[i].getName();
+      types[i] = argumentType(method, parameters[i]);
+    }
+
+    MethodHandle invoker;
+    try {
+      invoker =
+          MethodHandles.publicLookup()
+              .unreflect(method)
+              .bindTo(target)
+              .asSpreader(Object[].class, parameters.length)
+              .asType(MethodType.methodType(Map.class, Object[].class));
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Tool method is not public: " + method, e);
+    }
+
+    // Same schema FunctionTool would declare, minus the context parameter
+    FunctionDeclaration declared = FunctionTool.create(target, method).declaration().orElseThrow();
+    FunctionDeclaration declaration = declared;
+    Schema parameterSchema = declared.parameters().orElse(null);
+    if (parameterSchema != null) {
+      Map<String, Schema> properties =
+          new LinkedHashMap<>(parameterSchema.properties().orElse(Map.of()));
+      properties.remove(CONTEXT_PARAMETER);
+      List<String> required =
+          parameterSchema.required().orElse(List.of()).stream()
+              .filter(parameter -> !parameter.equals(CONTEXT_PARAMETER))
+              .toList();
+      declaration =
+          declared.toBuilder()
+              .parameters(
+                  parameterSchema.toBuilder().properties(properties).required(required).build())
+              .build();
+    }
+    return new CompiledTool(
+        method.getName(), declared.description().orElse(""), invoker, names, types, declaration);
+  }
+
+  private static ArgumentType argumentType(Method method, Parameter parameter) {
+    Class<?> type = parameter.getType();
+    if (type == String.class) {
+      return ArgumentType.STRING;
+    }
+    if (type == Double.class) {
+      return ArgumentType.NUMBER;
+    }
+    if (type == Map.class && parameter.getName().equals(CONTEXT_PARAMETER)) {
+      return ArgumentType.CONTEXT;
+    }
+    throw new IllegalArgumentException(
+        "Unsupported parameter " + parameter.getName() + " of tool " + method.getName());
+  }
+
+  @Override
+  public Optional<FunctionDeclaration> declaration() {
+    return declaration;
+  }
+
+  /** The declaration as sent to the model, serialized once. */
+  public String declarationJson() {
+    return declarationJson;
+  }
+
+  @Override
+  public Single<Map<String, Object>> runAsync(Map<String, Object> args, ToolContext toolContext) {
+    return Single.fromCallable(() -> invoke(args, toolContext.state()));
+  }
+
+  /**
+   * Calls the tool with arguments already decoded by the model client.
+   *
+   * @param args argument values by parameter name; missing ones are passed as null
+   * @param context the value for the context parameter
+   */
+  public Map<String, Object> invoke(Map<String, Object> args, Map<String, Object> context) {
+    Object[] arguments = new Object[parameterNames.length];
+    for (int i = 0; i < arguments.length; i++) {
+      Object value =
+          argumentTypes[i] == ArgumentType.CONTEXT ? context : args.get(parameterNames[i]);
+      switch (argumentTypes[i]) {
+        case STRING -> {
+          if (value != null && !(value instanceof String)) {
+            value = value.toString();
+          }
+        }
+        case NUMBER -> {
+          if (value instanceof Number number) {
+            value = number instanceof Double ? number : number.doubleValue();
+          } else if (value != null) {
+            return invalidArgument(parameterNames[i]);
+          }
+        }
+        case CONTEXT -> {}
+      }
+      arguments[i] = value;
+    }
+    return call(arguments);
+  }
+
+  /**
+   * Calls the tool with the arguments object of a model function call, decoded straight into the
+   * argument array.
+   *
+   * @param argsJson a JSON object of argument values by parameter name
+   * @param context the value for the context parameter
+   */
+  public Map<String, Object> invokeJson(String argsJson, Map<String, Object> context) {
+    Object[] arguments = new Object[parameterNames.length];
+    try (JsonParser parser = JSON.createParser(argsJson)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return error("Function call arguments must be a JSON object");
+      }
+      String field;
+      while ((field = parser.nextFieldName()) != null) {
+        JsonToken token = parser.nextToken();
+        int index = parameterIndex(field);
+        if (index < 0) {
+          parser.skipChildren();
+          continue;
+        }
+        if (token == JsonToken.VALUE_NULL) {
+          continue;
+        }
+        switch (argumentTypes[index]) {
+          case STRING -> {
+            if (!token.isScalarValue()) {
+              return invalidArgument(field);
+            }
+            arguments[index] = parser.getText();
+          }
+          case NUMBER -> {
+            if (!token.isNumeric()) {
+              return invalidArgument(field);
+            }
+            arguments[index] = parser.getDoubleValue();
+          }
+          case CONTEXT -> parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      return error("Malformed function call arguments: " + e.getMessage());
+    }
+    for (int i = 0; i < arguments.length; i++) {
+      if (argumentTypes[i] == ArgumentType.CONTEXT) {
+        arguments[i] = context;
+      }
+    }
+    return call(arguments);
+  }
+
+  private int parameterIndex(String name) {
+    // A handful of parameters: a scan beats hashing
+    for (int i = 0; i < parameterNames.length; i++) {
+      if (parameterNames[i].equals(name) && argumentTypes[i] != ArgumentType.CONTEXT) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> call(Object[] arguments) {
+    try {
+      return (Map<String, Object>) invoker.invokeExact(arguments);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Tool " + name() + " failed", e);
+    }
+  }
+
+  private static Map<String, Object> invalidArgument(String parameter) {
+    return error("Invalid value for " + parameter);
+  }
+
+  private static Map<String, Object> error(String message) {
+    Map<String, Object> result = new HashMap<>();
+    result.put("success", false);
+    result.put("error", message);
+    return result;
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.support.tools;
+
+import com.example.support.AgentConfiguration;
+import com.example.support.CustomerSupportAgent;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import org.springframework.stereotype.Component;
+
+/**
+ * The agent tools ({@link AgentConfiguration#TOOLS}), compiled once at startup. Methods are
+ * resolved on {@link CustomerSupportAgent} itself, so a subclass or mock target still dispatches to
+ * its own overrides.
+ */
+@Component
+public class ToolRegistry {
+
+  private final Map<String, CompiledTool> tools;
+  private final String declarationsJson;
+
+  public ToolRegistry(CustomerSupportAgent agent) {
+    Map<String, CompiledTool> compiled = new LinkedHashMap<>();
+    for (String name : AgentConfiguration.TOOLS) {
+      compiled.put(name, CompiledTool.compile(agent, toolMethod(name)));
+    }
+    this.tools = Collections.unmodifiableMap(compiled);
+
+    StringJoiner declarations = new StringJoiner(",", "[", "]");
+    compiled.values().forEach(tool -> declarations.add(tool.declarationJson()));
+    this.declarationsJson = declarations.toString();
+  }
+
+  private static Method toolMethod(String name) {
+    List<Method> candidates = new ArrayList<>();
+    for (Method method : CustomerSupportAgent.class.getMethods()) {
+      if (method.getName().equals(name)
+          && method.getDeclaringClass() == CustomerSupportAgent.class
+          && !Modifier.isStatic(method.getModifiers())) {
+        candidates.add(method);
+      }
+    }
+    if (candidates.size() != 1) {
+      throw new IllegalStateException(
+          "Expected one public method named " + name + ", found " + candidates.size());
+    }
+    return candidates.get(0);
+  }
+
+  /**
+   * @throws IllegalArgumentException if there is no such tool
+   */
+  public CompiledTool tool(String name) {
+    CompiledTool tool = tools.get(name);
+    if (tool == null) {
+      throw new IllegalArgumentException("Unknown tool: " + name);
+    }
+    return tool;
+  }
+
+  public Collection<CompiledTool> tools() {
+    return tools.values();
+  }
+
+  /** All declarations as one JSON array, in {@link AgentConfiguration#TOOLS} order. */
+  public String declarationsJson() {
+    return declarationsJson;
+  }
+
+  /**
+   * Runs a model function call.
+   *
+   * @param name the function name
+   * @param argsJson the call's arguments object
+   * @param context the session state for the tool's context parameter
+   */
+  public Map<String, Object> invoke(String name, String argsJson, Map<String, Object> context) {
+    return tool(name).invokeJson(argsJson, context);
+  }
+}
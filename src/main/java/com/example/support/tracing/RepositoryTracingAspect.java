@@ -0,0 +1,60 @@
+package com.example.support.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/** Wraps every Spring Data repository call in a {@code db <Repository>.<method>} span. */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RepositoryTracingAspect {
+
+  /** Span names per repository proxy class and method, built once. */
+  private static final ClassValue<Map<String, String>> SPAN_NAMES =
+      new ClassValue<>() {
+        @Override
+        protected Map<String, String> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final SupportTracing tracing;
+
+  public RepositoryTracingAspect(SupportTracing tracing) {
+    this.tracing = tracing;
+  }
+
+  @Around("bean(*Repository) && this(org.springframework.data.repository.Repository)")
+  public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+    Object repository = joinPoint.getThis();
+    Span span =
+        tracing.start(
+            SPAN_NAMES
+                .get(repository.getClass())
+                .computeIfAbsent(
+                    joinPoint.getSignature().getName(),
+                    method -> "db " + repositoryName(repository) + '.' + method));
+    try (Tracer.SpanInScope scope = tracing.getTracer().withSpan(span)) {
+      return joinPoint.proceed();
+    } catch (Throwable t) {
+      span.error(t);
+      throw t;
+    } finally {
+      span.end();
+    }
+  }
+
+  private static String repositoryName(Object proxy) {
+    Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+    return interfaces.length > 0 ? interfaces[0].getSimpleName() : proxy.getClass().getSimpleName();
+  }
+}
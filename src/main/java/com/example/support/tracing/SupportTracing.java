@@ -0,0 +1,70 @@
+package com.example.support.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thin wrapper over the Micrometer {@link Tracer} for application spans (tools, repositories,
+ * notifications). Falls back to a no-op tracer when tracing is not configured, and unsampled spans
+ * are non-recording, so wrapping a call costs little when the trace is not kept.
+ */
+@Component
+public class SupportTracing {
+
+  private final Tracer tracer;
+
+  public SupportTracing(ObjectProvider<Tracer> tracer) {
+    this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+  }
+
+  /**
+   * Runs a body inside a child span of the current span.
+   *
+   * @param name the span name; keep it low-cardinality
+   * @param body the work to trace
+   * @return the body's result
+   */
+  public <T> T inSpan(String name, Supplier<T> body) {
+    Span span = start(name);
+    try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+      return body.get();
+    } catch (RuntimeException | Error e) {
+      span.error(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * Runs a body inside a child span of the current span.
+   *
+   * @param name the span name; keep it low-cardinality
+   * @param body the work to trace
+   */
+  public void inSpan(String name, Runnable body) {
+    inSpan(
+        name,
+        () -> {
+          body.run();
+          return null;
+        });
+  }
+
+  /**
+   * Starts a child span of the current span. The caller must put it in scope and end it.
+   *
+   * @param name the span name
+   * @return the started span
+   */
+  public Span start(String name) {
+    return tracer.nextSpan().name(name).start();
+  }
+
+  public Tracer getTracer() {
+    return tracer;
+  }
+}
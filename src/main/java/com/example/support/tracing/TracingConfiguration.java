@@ -0,0 +1,49 @@
+package com.example.support.tracing;
+
+import com.example.support.logging.CustomLogger;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Trace export wiring. Spans are exported over OTLP when {@code management.otlp.tracing.endpoint}
+ * is set (a local collector), and/or written as OTLP JSON lines to {@code logs/traces.json} when
+ * {@code support.tracing.export=file}.
+ */
+@Configuration
+public class TracingConfiguration {
+
+  /** File exporter; logback routes its logger to the TRACES appender. */
+  @Bean
+  @ConditionalOnProperty(name = "support.tracing.export", havingValue = "file")
+  public static SpanExporter fileSpanExporter() {
+    return OtlpJsonLoggingSpanExporter.create();
+  }
+
+  /**
+   * Publishes the Spring-managed SDK as the global instance once the context is up, so spans the
+   * ADK emits for agent and model calls join the same trace as our HTTP, tool and repository spans.
+   */
+  @Bean
+  public SmartInitializingSingleton globalOpenTelemetryRegistrar(
+      ObjectProvider<OpenTelemetry> openTelemetry, CustomLogger logger) {
+    return () -> {
+      OpenTelemetry sdk = openTelemetry.getIfAvailable();
+      if (sdk == null) {
+        return;
+      }
+      try {
+        GlobalOpenTelemetry.set(sdk);
+      } catch (IllegalStateException e) {
+        logger.debug(
+            TracingConfiguration.class, "GlobalOpenTelemetry already set: {}", e.getMessage());
+      }
+    };
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.support.versioning;
+
+import com.example.support.datasource.ReplicaDataSourceProperties;
+import com.example.support.invalidation.CustomerInvalidationBus;
+import com.example.support.invalidation.CustomerInvalidationListener;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory version stamps for each customer's account and tickets, so polling clients can be told
+ * "not modified" without a database read.
+ *
+ * <p>Every write that changes what {@code /api/customer/{id}} or {@code /api/tickets/{id}} return
+ * bumps the customer's version once it commits. Readers take the version <em>before</em> loading
+ * the data, so a write racing a read can only make the stamp older than the data, which costs one
+ * extra fetch, never a stale 304. Writes that touch many customers at once (bulk imports) bump
+ * every version.
+ *
+ * <p>Versions start from an epoch chosen at startup, so a restart invalidates every stamp it
+ * issued. They are per node; changes are passed to the other nodes through the {@link
+ * CustomerInvalidationBus}, which bumps their versions in turn. When reads go to a lagging replica,
+ * no stamp is issued for a customer changed within the replica's {@code max-lag}, since the replica
+ * may not show the change yet.
+ */
+@Component
+public class CustomerVersions implements CustomerInvalidationListener {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong generation = new AtomicLong();
+  private final ConcurrentHashMap<String, Version> versions = new ConcurrentHashMap<>();
+
+  // Present only when a read replica is configured
+  @Autowired private ObjectProvider<ReplicaDataSourceProperties> replica;
+
+  @Autowired private ObjectProvider<CustomerInvalidationBus> invalidationBus;
+
+  private volatile long settleNanos = -1;
+
+  /**
+   * Marks a customer's account or tickets as changed, here and on the other nodes. Call after the
+   * change commits.
+   */
+  public void bump(String customerId) {
+    bumpLocally(customerId);
+    invalidationBus.ifAvailable(bus -> bus.publish(customerId));
+  }
+
+  /** Marks every customer as changed, here and on the other nodes. */
+  public void bumpAll() {
+    generation.incrementAndGet();
+    invalidationBus.ifAvailable(CustomerInvalidationBus::publishAll);
+  }
+
+  /** A change on another node. */
+  @Override
+  public void invalidate(Set<String> customerIds) {
+    customerIds.forEach(this::bumpLocally);
+  }
+
+  @Override
+  public void invalidateAll() {
+    generation.incrementAndGet();
+  }
+
+  private void bumpLocally(String customerId) {
+    long now = System.nanoTime();
+    versions.compute(
+        customerId, (id, current) -> new Version(current == null ? 1 : current.number() + 1, now));
+  }
+
+  /**
+   * The customer's current version stamp, or null if it changed too recently to be relied on.
+   * Stamps are opaque and only compared for equality.
+   */
+  public String version(String customerId) {
+    long generation = this.generation.get();
+    Version version = versions.get(customerId);
+    if (version == null) {
+      return epoch + "." + generation + ".0";
+    }
+    if (System.nanoTime() - version.bumpedAt() < settleNanos()) {
+      return null;
+    }
+    return epoch + "." + generation + "." + version.number();
+  }
+
+  /** The version as a weak HTTP entity tag, or null when {@link #version} is. */
+  public String etag(String customerId) {
+    String version = version(customerId);
+    return version == null ? null : "W/\"" + version + "\"";
+  }
+
+  private long settleNanos() {
+    long nanos = settleNanos;
+    if (nanos < 0) {
+      ReplicaDataSourceProperties properties = replica.getIfAvailable();
+      nanos = properties == null ? 0 : properties.getMaxLag().toNanos();
+      settleNanos = nanos;
+    }
+    return nanos;
+  }
+
+  private record Version(long number, long bumpedAt) {}
+}
@@ -0,0 +1,9 @@
+-- Full-text search over ticket subject (weight A) and description (weight B)
+ALTER TABLE tickets
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(subject, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_tickets_search_vector ON tickets USING GIN (search_vector);
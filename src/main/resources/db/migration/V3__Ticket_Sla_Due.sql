@@ -0,0 +1,16 @@
+-- Response-time SLA deadline of open tickets, tracked in memory by the SLA engine
+ALTER TABLE tickets ADD COLUMN sla_due TIMESTAMP;
+
+-- Existing open tickets get the default targets measured from creation
+UPDATE tickets
+SET sla_due = created + CASE priority
+    WHEN 'urgent' THEN INTERVAL '1 hour'
+    WHEN 'high' THEN INTERVAL '4 hours'
+    WHEN 'medium' THEN INTERVAL '24 hours'
+    ELSE INTERVAL '72 hours'
+END
+WHERE status = 'open';
+
+-- Keyset scan used to rebuild the timer wheel at startup
+CREATE INDEX idx_tickets_open_sla_due ON tickets (ticket_id) INCLUDE (sla_due)
+    WHERE status = 'open' AND sla_due IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Human agent working the ticket, set when it is claimed from the work queue
+ALTER TABLE tickets ADD COLUMN assignee VARCHAR(100);
+
+-- Keyset scan used to rebuild the work queue at startup
+CREATE INDEX idx_tickets_open_unassigned ON tickets (ticket_id)
+    WHERE status = 'open' AND assignee IS NULL;
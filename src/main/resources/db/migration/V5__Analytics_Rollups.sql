@@ -0,0 +1,31 @@
+-- Per-write analytics increments, folded into analytics_rollups by a background job
+CREATE TABLE analytics_deltas (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred TIMESTAMP NOT NULL,
+    metric VARCHAR(32) NOT NULL,
+    dimension VARCHAR(32) NOT NULL DEFAULT '',
+    count BIGINT NOT NULL,
+    amount DOUBLE PRECISION NOT NULL DEFAULT 0
+);
+
+-- Hourly and daily totals per metric and dimension (priority, status)
+CREATE TABLE analytics_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    metric VARCHAR(32) NOT NULL,
+    dimension VARCHAR(32) NOT NULL DEFAULT '',
+    count BIGINT NOT NULL,
+    amount DOUBLE PRECISION NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, metric, dimension)
+);
+
+-- Seed ticket creation history from the existing tickets
+INSERT INTO analytics_rollups (granularity, bucket_start, metric, dimension, count, amount)
+SELECT 'hour', date_trunc('hour', created), 'tickets_created', priority, COUNT(*), 0
+FROM tickets
+GROUP BY date_trunc('hour', created), priority;
+
+INSERT INTO analytics_rollups (granularity, bucket_start, metric, dimension, count, amount)
+SELECT 'day', date_trunc('day', created), 'tickets_created', priority, COUNT(*), 0
+FROM tickets
+GROUP BY date_trunc('day', created), priority;
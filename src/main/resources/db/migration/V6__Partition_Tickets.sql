@@ -0,0 +1,137 @@
+-- Range-partition tickets by created month so status scans, analytics and index maintenance only
+-- touch the months that hold live tickets; closed tickets past the retention window are moved to
+-- ticket_archive by the application (TicketArchiver), which also keeps partitions created ahead.
+--
+-- A partitioned table's primary key must include the partition key, so it becomes
+-- (ticket_id, created); ticket IDs are generated unique by the application.
+
+ALTER TABLE tickets RENAME TO tickets_unpartitioned;
+ALTER INDEX tickets_pkey RENAME TO tickets_unpartitioned_pkey;
+DROP INDEX idx_tickets_search_vector;
+DROP INDEX idx_tickets_open_sla_due;
+DROP INDEX idx_tickets_open_unassigned;
+
+CREATE TABLE tickets (
+    ticket_id VARCHAR(50) NOT NULL,
+    customer_id VARCHAR(50) NOT NULL REFERENCES customers(customer_id),
+    subject VARCHAR(255) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    sla_due TIMESTAMP,
+    assignee VARCHAR(100),
+    search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('english', coalesce(subject, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce(description, '')), 'B')
+        ) STORED,
+    PRIMARY KEY (ticket_id, created)
+) PARTITION BY RANGE (created);
+
+-- Catches rows outside every monthly partition, e.g. bulk-imported history
+CREATE TABLE tickets_default PARTITION OF tickets DEFAULT;
+
+-- Creates the partition for the month starting at month_start unless it exists, first moving any
+-- of its rows out of the default partition (Postgres refuses the new partition otherwise).
+CREATE FUNCTION create_ticket_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::DATE;
+    next_month DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'tickets_' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    CREATE TEMP TABLE ticket_partition_rows AS
+        SELECT ticket_id, customer_id, subject, description, priority, status, created, sla_due, assignee
+        FROM tickets_default
+        WHERE created >= first_day AND created < next_month;
+    DELETE FROM tickets_default WHERE created >= first_day AND created < next_month;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF tickets FOR VALUES FROM (%L) TO (%L)',
+        partition_name, first_day, next_month);
+
+    INSERT INTO tickets (ticket_id, customer_id, subject, description, priority, status, created, sla_due, assignee)
+        SELECT ticket_id, customer_id, subject, description, priority, status, created, sla_due, assignee
+        FROM ticket_partition_rows;
+    DROP TABLE ticket_partition_rows;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Ensures partitions exist from the current month through months_ahead months out.
+CREATE FUNCTION create_ticket_partitions(months_ahead INTEGER) RETURNS INTEGER AS $$
+DECLARE
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        IF create_ticket_partition((date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE) THEN
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Drops monthly partitions that ended on or before the given date and hold no rows.
+CREATE FUNCTION drop_empty_ticket_partitions(cutoff DATE) RETURNS INTEGER AS $$
+DECLARE
+    part RECORD;
+    has_rows BOOLEAN;
+    dropped INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'tickets'::regclass AND c.relname ~ '^tickets_[0-9]{4}_[0-9]{2}$'
+    LOOP
+        IF to_date(substring(part.relname FROM 9), 'YYYY_MM') + INTERVAL '1 month' <= cutoff THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', part.relname) INTO has_rows;
+            IF NOT has_rows THEN
+                EXECUTE format('DROP TABLE %I', part.relname);
+                dropped := dropped + 1;
+            END IF;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month of existing data, plus the next three
+SELECT create_ticket_partition(months.first_day::DATE)
+FROM generate_series(
+    date_trunc('month', (SELECT coalesce(min(created), CURRENT_TIMESTAMP) FROM tickets_unpartitioned)),
+    date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months',
+    INTERVAL '1 month') AS months(first_day);
+
+INSERT INTO tickets (ticket_id, customer_id, subject, description, priority, status, created, sla_due, assignee)
+    SELECT ticket_id, customer_id, subject, description, priority, status, created, sla_due, assignee
+    FROM tickets_unpartitioned;
+DROP TABLE tickets_unpartitioned;
+
+-- Indexes from V2-V4, now created on every partition
+CREATE INDEX idx_tickets_search_vector ON tickets USING GIN (search_vector);
+CREATE INDEX idx_tickets_open_sla_due ON tickets (ticket_id) INCLUDE (sla_due)
+    WHERE status = 'open' AND sla_due IS NOT NULL;
+CREATE INDEX idx_tickets_open_unassigned ON tickets (ticket_id)
+    WHERE status = 'open' AND assignee IS NULL;
+
+-- Archiver scan: oldest closed tickets first
+CREATE INDEX idx_tickets_closed_created ON tickets (created) WHERE status = 'closed';
+
+-- Closed tickets past retention, one gzipped NDJSON chunk per customer and created month
+CREATE TABLE ticket_archive (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id VARCHAR(50) NOT NULL,
+    month_start DATE NOT NULL,
+    ticket_count INTEGER NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL
+);
+
+-- Already compressed: store out of line without TOAST compressing it again
+ALTER TABLE ticket_archive ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+CREATE INDEX idx_ticket_archive_customer ON ticket_archive (customer_id, month_start);
@@ -0,0 +1,14 @@
+-- Responses of money-moving and ticket-creating requests, keyed by the client's Idempotency-Key.
+-- The row commits in the same transaction as the tool's writes, so a retry either replays the
+-- stored response or finds no row and runs the tool again; never both.
+CREATE TABLE idempotency_keys (
+    operation VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response TEXT,
+    created TIMESTAMP NOT NULL,
+    PRIMARY KEY (operation, idempotency_key)
+);
+
+-- Purge of keys past their retention
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created);
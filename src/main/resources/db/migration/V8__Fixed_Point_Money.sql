@@ -0,0 +1,12 @@
+-- Exact money: balances and analytics amounts as NUMERIC with two fractional digits
+ALTER TABLE customers
+    ALTER COLUMN balance TYPE NUMERIC(19, 2) USING round(balance::numeric, 2),
+    ALTER COLUMN balance SET DEFAULT 0;
+
+ALTER TABLE analytics_deltas
+    ALTER COLUMN amount TYPE NUMERIC(19, 2) USING round(amount::numeric, 2),
+    ALTER COLUMN amount SET DEFAULT 0;
+
+ALTER TABLE analytics_rollups
+    ALTER COLUMN amount TYPE NUMERIC(19, 2) USING round(amount::numeric, 2),
+    ALTER COLUMN amount SET DEFAULT 0;
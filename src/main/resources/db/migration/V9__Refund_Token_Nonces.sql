@@ -0,0 +1,10 @@
+-- Nonces of spent refund tokens. The row commits in the same transaction as the refund, so a token
+-- is spent once across every node; a replay blocks on the primary key until the first refund
+-- commits or rolls back.
+CREATE TABLE refund_token_nonces (
+    nonce BIGINT PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Purge of nonces whose tokens have expired
+CREATE INDEX idx_refund_token_nonces_expires_at ON refund_token_nonces (expires_at);
@@ -0,0 +1,54 @@
+package com.example.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Balances changed behind this node's entity cache, as by a payment on another node, are not
+ * overwritten by the next payment or refund here. Not {@code @Transactional}: the customer must be
+ * cached by a committed read.
+ */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:balancedb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class CustomerBalanceTest {
+
+  @Autowired private CustomerSupportAgent agent;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void paymentAddsToTheCommittedBalanceNotTheCachedOne() {
+    // Caches CUST001 at 1250.00
+    assertEquals(true, agent.getCustomerAccount("CUST001", null).get("success"));
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status ->
+                jdbcTemplate.update(
+                    "UPDATE customers SET balance = balance + 100 WHERE customer_id = 'CUST001'"));
+
+    Map<String, Object> result = agent.processPayment("CUST001", 10.0, null);
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> data = (Map<String, Object>) result.get("data");
+    assertEquals(1360.0, data.get("newBalance"));
+    assertEquals(
+        0,
+        new BigDecimal("1360.00")
+            .compareTo(
+                jdbcTemplate.queryForObject(
+                    "SELECT balance FROM customers WHERE customer_id = 'CUST001'",
+                    BigDecimal.class)));
+  }
+}
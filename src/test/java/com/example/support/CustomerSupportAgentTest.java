@@ -2,6 +2,9 @@ package com.example.support;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.example.support.entity.Customer;
+import com.example.support.repository.CustomerRepository;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 class CustomerSupportAgentTest {
 
   @Autowired private CustomerSupportAgent agent;
+  @Autowired private CustomerRepository customerRepository;
   private Map<String, Object> context;
 
   @BeforeEach
@@ -473,6 +477,231 @@ class CustomerSupportAgentTest {
     assertTrue(result.get("error").toString().contains("Amount must be between"));
   }
 
+  // ==================== Tool 8: searchTickets Tests ====================
+
+  @Test
+  @Order(36)
+  @DisplayName("Test 36: Search tickets - finds new ticket by subject")
+  void testSearchTicketsBySubject() {
+    Map<String, Object> created =
+        agent.createTicket(
+            "CUST001", "Printer offline", "The office printer drops off wifi", "low", context);
+    assertTrue((Boolean) created.get("success"));
+
+    Map<String, Object> result = agent.searchTickets("CUST001", "printer wifi", "all", context);
+
+    assertTrue((Boolean) result.get("success"));
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> tickets = (List<Map<String, Object>>) result.get("data");
+    assertFalse(tickets.isEmpty());
+    assertEquals("Printer offline", tickets.get(0).get("subject"));
+  }
+
+  @Test
+  @Order(37)
+  @DisplayName("Test 37: Search tickets - status filter")
+  void testSearchTicketsStatusFilter() {
+    agent.createTicket("CUST002", "Invoice mismatch", "Invoice total is wrong", "medium", context);
+
+    Map<String, Object> open = agent.searchTickets("CUST002", "invoice", "open", context);
+    Map<String, Object> closed = agent.searchTickets("CUST002", "invoice", "closed", context);
+
+    assertTrue((Integer) open.get("count") >= 1);
+    assertEquals(0, closed.get("count"));
+  }
+
+  @Test
+  @Order(38)
+  @DisplayName("Test 38: Search tickets - empty query")
+  void testSearchTicketsEmptyQuery() {
+    Map<String, Object> result = agent.searchTickets("CUST001", "  ", "all", context);
+
+    assertFalse((Boolean) result.get("success"));
+    assertEquals("Search query is required", result.get("error"));
+  }
+
+  @Test
+  @Order(39)
+  @DisplayName("Test 39: Search tickets - invalid status")
+  void testSearchTicketsInvalidStatus() {
+    Map<String, Object> result = agent.searchTickets("CUST001", "printer", "resolved", context);
+
+    assertFalse((Boolean) result.get("success"));
+    assertEquals("Invalid status. Must be: open, closed, pending, or all", result.get("error"));
+  }
+
+  @Test
+  @Order(46)
+  @DisplayName("Test 46: Search tickets - only the customer's own tickets")
+  void testSearchTicketsOnlyReturnsTheCustomersTickets() {
+    agent.createTicket(
+        "CUST002", "Quasar dashboard blank", "Quasar widgets render empty", "low", context);
+
+    Map<String, Object> own = agent.searchTickets("CUST002", "quasar", "all", context);
+    Map<String, Object> other = agent.searchTickets("CUST001", "quasar", "all", context);
+    Map<String, Object> invalid = agent.searchTickets("nobody", "quasar", "all", context);
+
+    assertEquals(1, own.get("count"));
+    assertEquals(0, other.get("count"));
+    assertFalse((Boolean) invalid.get("success"));
+    assertEquals("Invalid customer ID", invalid.get("error"));
+  }
+
+  // ==================== Near-duplicate Ticket Tests ====================
+
+  @Test
+  @Order(40)
+  @DisplayName("Test 40: Create ticket - near-duplicate returns existing ticket")
+  void testCreateTicketNearDuplicate() {
+    Map<String, Object> first =
+        agent.createTicket(
+            "CUST003",
+            "Export to CSV fails",
+            "Exporting the monthly report to CSV fails with a timeout error every time",
+            "medium",
+            context);
+    Map<String, Object> second =
+        agent.createTicket(
+            "CUST003",
+            "Export to CSV fails",
+            "Exporting the monthly report to CSV fails with a timeout error every time.",
+            "high",
+            context);
+
+    assertNull(first.get("duplicate"));
+    assertTrue((Boolean) second.get("success"));
+    assertTrue((Boolean) second.get("duplicate"));
+    assertEquals("A similar open ticket already exists", second.get("message"));
+    assertEquals(
+        ((Map<?, ?>) first.get("data")).get("ticketId"),
+        ((Map<?, ?>) second.get("data")).get("ticketId"));
+  }
+
+  @Test
+  @Order(41)
+  @DisplayName("Test 41: Create ticket - different issue or customer is not a duplicate")
+  void testCreateTicketNotDuplicate() {
+    agent.createTicket(
+        "CUST003", "Export to CSV fails", "Exporting the report to CSV times out", "low", context);
+
+    Map<String, Object> otherIssue =
+        agent.createTicket(
+            "CUST003", "Wrong invoice", "Invoice shows the Premium price", "low", context);
+    Map<String, Object> otherCustomer =
+        agent.createTicket(
+            "CUST001",
+            "Export to CSV fails",
+            "Exporting the report to CSV times out",
+            "low",
+            context);
+
+    assertNull(otherIssue.get("duplicate"));
+    assertNull(otherCustomer.get("duplicate"));
+  }
+
+  @Test
+  @Order(47)
+  @DisplayName("Test 47: Create ticket - customer IDs with equal hashes are not duplicates")
+  void testCreateTicketHashCollisionIsNotDuplicate() {
+    assertEquals("CUST104020".hashCode(), "CUST5320506".hashCode());
+    for (String customerId : List.of("CUST104020", "CUST5320506")) {
+      customerRepository.save(
+          new Customer(
+              customerId,
+              "Hash Twin",
+              customerId.toLowerCase() + "@example.com",
+              "Basic",
+              0,
+              LocalDateTime.now(),
+              "active"));
+    }
+    String subject = "Export to PDF fails";
+    String description = "Exporting the quarterly report to PDF fails with a blank page";
+
+    Map<String, Object> first =
+        agent.createTicket("CUST104020", subject, description, "low", context);
+    Map<String, Object> second =
+        agent.createTicket("CUST5320506", subject, description, "low", context);
+
+    assertTrue((Boolean) second.get("success"));
+    assertNull(second.get("duplicate"));
+    assertNotEquals(
+        ((Map<?, ?>) first.get("data")).get("ticketId"),
+        ((Map<?, ?>) second.get("data")).get("ticketId"));
+  }
+
+  @Test
+  @Order(48)
+  @DisplayName("Test 48: Process payment - amount just above the maximum is rejected")
+  void testProcessPaymentJustAboveMaximum() {
+    Map<String, Object> result = agent.processPayment("CUST001", 100000.004, context);
+
+    assertFalse((Boolean) result.get("success"));
+    assertEquals("Amount must be between 0 and 100000", result.get("error"));
+  }
+
+  // ==================== Tool 9: updateTicketStatus Tests ====================
+
+  @Test
+  @Order(42)
+  @DisplayName("Test 42: Update ticket status - close clears SLA deadline")
+  void testUpdateTicketStatusClose() {
+    String ticketId = createTicketId("CUST001", "Printer offline", "urgent");
+
+    Map<String, Object> result = agent.updateTicketStatus("CUST001", ticketId, "closed", context);
+
+    assertTrue((Boolean) result.get("success"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> data = (Map<String, Object>) result.get("data");
+    assertEquals("closed", data.get("status"));
+    assertEquals("open", data.get("previousStatus"));
+    assertNull(data.get("slaDue"));
+  }
+
+  @Test
+  @Order(43)
+  @DisplayName("Test 43: Update ticket status - reopen starts a new SLA deadline")
+  void testUpdateTicketStatusReopen() {
+    String ticketId = createTicketId("CUST001", "Sync stuck", "high");
+    agent.updateTicketStatus("CUST001", ticketId, "pending", context);
+
+    Map<String, Object> result = agent.updateTicketStatus("CUST001", ticketId, "OPEN", context);
+
+    assertTrue((Boolean) result.get("success"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> data = (Map<String, Object>) result.get("data");
+    assertEquals("open", data.get("status"));
+    LocalDateTime slaDue = LocalDateTime.parse((String) data.get("slaDue"));
+    assertTrue(slaDue.isAfter(LocalDateTime.now().plusHours(3)));
+  }
+
+  @Test
+  @Order(44)
+  @DisplayName("Test 44: Update ticket status - same status and invalid status are rejected")
+  void testUpdateTicketStatusInvalid() {
+    String ticketId = createTicketId("CUST001", "Slow dashboard", "low");
+
+    Map<String, Object> same = agent.updateTicketStatus("CUST001", ticketId, "open", context);
+    Map<String, Object> all = agent.updateTicketStatus("CUST001", ticketId, "all", context);
+
+    assertFalse((Boolean) same.get("success"));
+    assertEquals("Ticket is already open", same.get("error"));
+    assertFalse((Boolean) all.get("success"));
+    assertEquals("Invalid status. Must be: open, pending, or closed", all.get("error"));
+  }
+
+  @Test
+  @Order(45)
+  @DisplayName("Test 45: Update ticket status - another customer's ticket is not found")
+  void testUpdateTicketStatusOtherCustomer() {
+    String ticketId = createTicketId("CUST001", "Missing invoice", "medium");
+
+    Map<String, Object> result = agent.updateTicketStatus("CUST002", ticketId, "closed", context);
+
+    assertFalse((Boolean) result.get("success"));
+    assertEquals("Ticket not found", result.get("error"));
+  }
+
   // ==================== Integration Tests ====================
 
   @Test
@@ -512,4 +741,10 @@ class CustomerSupportAgentTest {
     Map<String, Object> data = (Map<String, Object>) account.get("data");
     assertEquals(4000.0, data.get("balance"));
   }
+
+  private String createTicketId(String customerId, String subject, String priority) {
+    Map<String, Object> created =
+        agent.createTicket(customerId, subject, subject + " since this morning", priority, context);
+    return (String) ((Map<?, ?>) created.get("data")).get("ticketId");
+  }
 }
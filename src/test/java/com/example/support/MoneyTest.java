@@ -0,0 +1,35 @@
+package com.example.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  void doublesConvertByTheirDecimalForm() {
+    // 1.005 * 100 is 100.49999999999999 in binary, which Math.round took down to 100
+    assertEquals(101, Money.fromDouble(1.005));
+    assertEquals(30, Money.fromDouble(0.1 + 0.2));
+    assertEquals(-250, Money.fromDouble(-2.5));
+  }
+
+  @Test
+  void minorUnitsSumExactly() {
+    long total = 0;
+    for (int i = 0; i < 1_000; i++) {
+      total += Money.fromDouble(0.1);
+    }
+    assertEquals(new BigDecimal("100.00"), Money.toDecimal(total));
+    assertEquals(100.0, Money.toDouble(total));
+  }
+
+  @Test
+  void decimalsRoundHalfUpAndRejectOverflow() {
+    assertEquals(1235, Money.fromDecimal(new BigDecimal("12.345")));
+    assertEquals(new BigDecimal("0.07"), Money.toDecimal(7));
+    assertThrows(ArithmeticException.class, () -> Money.fromDecimal(new BigDecimal("1E30")));
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.support.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Retention runs on the background thread, outside any test transaction, so this class is not
+ * {@code @Transactional}: the purge must commit on its own.
+ */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:retentiondb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class AnalyticsRetentionTest {
+
+  @Autowired private AnalyticsRollups rollups;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void expiredHourlyRollupsArePurgedForGood() {
+    Timestamp expired = Timestamp.valueOf(LocalDateTime.now().minusYears(3).withMinute(0));
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              jdbcTemplate.update(
+                  "INSERT INTO analytics_rollups (granularity, bucket_start, metric, count)"
+                      + " VALUES (?, ?, 'retention_check', 1)",
+                  Granularity.HOUR.value(),
+                  expired);
+              jdbcTemplate.update(
+                  "INSERT INTO analytics_rollups (granularity, bucket_start, metric, count)"
+                      + " VALUES (?, ?, 'retention_check', 1)",
+                  Granularity.DAY.value(),
+                  expired);
+            });
+
+    assertTrue(rollups.purgeExpiredHourly() >= 1);
+
+    assertEquals(0, rows(Granularity.HOUR));
+    // Daily rows are kept
+    assertEquals(1, rows(Granularity.DAY));
+  }
+
+  private long rows(Granularity granularity) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM analytics_rollups WHERE metric = 'retention_check'"
+            + " AND granularity = ?",
+        Long.class,
+        granularity.value());
+  }
+}
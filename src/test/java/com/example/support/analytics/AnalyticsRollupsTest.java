@@ -0,0 +1,103 @@
+package com.example.support.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.support.CustomerSupportAgent;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class AnalyticsRollupsTest {
+
+  @Autowired private AnalyticsRollups rollups;
+
+  @Autowired private CustomerSupportAgent agent;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void pendingDeltasAndCompactedRollupsGiveTheSameTotals() {
+    rollups.record(AnalyticsMetric.TICKETS_CREATED, "high", 0);
+    rollups.record(AnalyticsMetric.TICKETS_CREATED, "high", 0);
+    rollups.record(AnalyticsMetric.TICKETS_CREATED, "low", 0);
+    rollups.record(AnalyticsMetric.PAYMENTS, null, 2550);
+    rollups.record(AnalyticsMetric.PAYMENTS, null, 1000);
+
+    List<TimeSeriesPoint> beforeCompaction = today(Granularity.HOUR);
+    assertTrue(rollups.compact() >= 5);
+    List<TimeSeriesPoint> afterCompaction = today(Granularity.HOUR);
+
+    assertEquals(beforeCompaction, afterCompaction);
+    assertEquals(
+        0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM analytics_deltas", Long.class));
+    assertEquals(2, total(afterCompaction, "tickets_created", "high").count());
+    assertEquals(3550, total(afterCompaction, "payments", "").amountMinor());
+  }
+
+  @Test
+  void dailyBucketsSumTheDay() {
+    rollups.record(AnalyticsMetric.REFUNDS, null, 500);
+    rollups.compact();
+    rollups.record(AnalyticsMetric.REFUNDS, null, 700);
+
+    List<TimeSeriesPoint> points = today(Granularity.DAY);
+
+    TimeSeriesPoint refunds = total(points, "refunds", "");
+    assertEquals(LocalDateTime.now().toLocalDate().atStartOfDay(), refunds.bucket());
+    assertEquals(2, refunds.count());
+    assertEquals(1200, refunds.amountMinor());
+  }
+
+  @Test
+  void toolWritesAreCounted() {
+    Map<String, Object> context = new HashMap<>();
+    agent.processPayment("CUST002", 40.0, context);
+    agent.createTicket("CUST002", "Rollup check", "Counted in the rollups", "urgent", context);
+
+    List<TimeSeriesPoint> points = today(Granularity.DAY);
+
+    assertEquals(4000, total(points, "payments", "").amountMinor());
+    assertEquals(1, total(points, "tickets_created", "urgent").count());
+  }
+
+  @Test
+  void rejectsEmptyAndOverlongRanges() {
+    LocalDateTime now = LocalDateTime.now();
+
+    assertThrows(
+        IllegalArgumentException.class, () -> rollups.timeSeries(now, now, Granularity.DAY));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> rollups.timeSeries(now.minusDays(120), now, Granularity.HOUR));
+  }
+
+  private List<TimeSeriesPoint> today(Granularity granularity) {
+    LocalDateTime midnight = LocalDateTime.now().toLocalDate().atStartOfDay();
+    return rollups.timeSeries(midnight, midnight.plusDays(1), granularity);
+  }
+
+  private static TimeSeriesPoint total(
+      List<TimeSeriesPoint> points, String metric, String dimension) {
+    long count = 0;
+    long amountMinor = 0;
+    LocalDateTime bucket = null;
+    for (TimeSeriesPoint point : points) {
+      if (point.metric().equals(metric) && point.dimension().equals(dimension)) {
+        count += point.count();
+        amountMinor += point.amountMinor();
+        bucket = point.bucket();
+      }
+    }
+    return new TimeSeriesPoint(bucket, metric, dimension, count, amountMinor);
+  }
+}
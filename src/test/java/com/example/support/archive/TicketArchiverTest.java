@@ -0,0 +1,125 @@
+package com.example.support.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.support.CustomerSupportAgent;
+import com.example.support.entity.Ticket;
+import com.example.support.metrics.ToolMetrics;
+import com.example.support.repository.TicketRepository;
+import com.example.support.search.TicketSearch;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class TicketArchiverTest {
+
+  private static final LocalDateTime OLD = LocalDateTime.now().minusDays(200).withNano(0);
+
+  @Autowired private TicketArchiver archiver;
+
+  @Autowired private TicketRepository ticketRepository;
+
+  @Autowired private TicketSearch ticketSearch;
+
+  @Autowired private CustomerSupportAgent agent;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private ToolMetrics toolMetrics;
+
+  @Test
+  void archivesOnlyOldClosedTickets() {
+    saveTicket("TKT-ARC-1", "closed", OLD);
+    saveTicket("TKT-ARC-2", "open", OLD);
+    saveTicket("TKT-ARC-3", "closed", LocalDateTime.now().withNano(0));
+
+    List<String> archived = archiver.archiveClosed(LocalDateTime.now().minusDays(180));
+
+    assertEquals(List.of("TKT-ARC-1"), archived);
+    assertEquals(List.of("TKT-ARC-2", "TKT-ARC-3"), liveTicketIds());
+    assertTrue(archiver.archiveClosed(LocalDateTime.now().minusDays(180)).isEmpty());
+  }
+
+  @Test
+  void archivedTicketsRoundTripAndLeaveTheSearchIndex() {
+    Ticket ticket = saveTicket("TKT-ARC-4", "closed", OLD);
+    ticket.setAssignee("agent.smith");
+    ticketRepository.saveAndFlush(ticket);
+    assertEquals(1, ticketSearch.search("zeppelin", null, null, 0, 10).size());
+
+    archiver.archiveClosed(LocalDateTime.now().minusDays(180));
+
+    List<Ticket> archived = archiver.archivedTickets("CUST003", null);
+    assertEquals(1, archived.size());
+    Ticket restored = archived.get(0);
+    assertEquals("TKT-ARC-4", restored.getTicketId());
+    assertEquals("Archived zeppelin ticket", restored.getSubject());
+    assertEquals("closed", restored.getStatus());
+    assertEquals(OLD, restored.getCreated());
+    assertEquals("agent.smith", restored.getAssignee());
+    assertTrue(archiver.archivedTickets("CUST003", "open").isEmpty());
+    assertTrue(ticketSearch.search("zeppelin", null, null, 0, 10).isEmpty());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void ticketsIncludeArchivedOnlyWhenAsked() {
+    saveTicket("TKT-ARC-5", "closed", OLD);
+    archiver.archiveClosed(LocalDateTime.now().minusDays(180));
+    long liveCalls = calls("getTickets");
+    long allCalls = calls("getTicketsIncludingArchived");
+
+    Map<String, Object> live = agent.getTickets("CUST003", "closed", null);
+    Map<String, Object> all = agent.getTicketsIncludingArchived("CUST003", "closed", null);
+
+    // The archive read is timed apart from the agents' getTickets tool
+    assertEquals(liveCalls + 1, calls("getTickets"));
+    assertEquals(allCalls + 1, calls("getTicketsIncludingArchived"));
+
+    assertEquals(0, live.get("count"));
+    assertEquals(1, all.get("count"));
+    assertEquals(1, all.get("archivedCount"));
+    List<Map<String, Object>> data = (List<Map<String, Object>>) all.get("data");
+    assertEquals("TKT-ARC-5", data.get(0).get("ticketId"));
+  }
+
+  private long calls(String tool) {
+    return toolMetrics
+        .getRegistry()
+        .find("support.tool.duration")
+        .tag("tool", tool)
+        .timers()
+        .stream()
+        .mapToLong(Timer::count)
+        .sum();
+  }
+
+  private Ticket saveTicket(String ticketId, String status, LocalDateTime created) {
+    return ticketRepository.saveAndFlush(
+        new Ticket(
+            ticketId,
+            "CUST003",
+            "Archived zeppelin ticket",
+            "Old ticket for the archiver",
+            "low",
+            status,
+            created.truncatedTo(ChronoUnit.SECONDS)));
+  }
+
+  private List<String> liveTicketIds() {
+    return jdbcTemplate.queryForList(
+        "SELECT ticket_id FROM tickets WHERE ticket_id LIKE 'TKT-ARC-%' ORDER BY ticket_id",
+        String.class);
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.support.benchmark;
+
+import com.example.support.AgentConfiguration;
+import com.example.support.App;
+import com.example.support.CustomerSupportAgent;
+import com.example.support.model.ModelScript;
+import com.example.support.model.PromptPrefixCache;
+import com.example.support.tools.ToolRegistry;
+import com.google.adk.events.Event;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * One whole agent turn on scripted models with no injected latency: the orchestrator routes to the
+ * billing agent, which reads the account and takes a payment. Against calling the two tools
+ * directly, the difference is ADK's orchestration (sessions, events, request building and tool
+ * dispatch). Runs against the H2 test profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentTurnBenchmark {
+
+  private static final Content MESSAGE = Content.fromParts(Part.fromText("Please pay $25"));
+
+  private ConfigurableApplicationContext context;
+  private CustomerSupportAgent agent;
+  private InMemoryRunner runner;
+
+  @Setup
+  public void setUp() throws IOException {
+    context =
+        new SpringApplicationBuilder(App.class)
+            .profiles("test")
+            .properties(
+                "server.port=0",
+                "support.ratelimit.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.com.example.support=WARN")
+            .run();
+    agent = context.getBean(CustomerSupportAgent.class);
+
+    ModelScript script;
+    try (InputStream json =
+        AgentTurnBenchmark.class.getResourceAsStream("/model-scripts/billing-payment.json")) {
+      script = ModelScript.read(json);
+    }
+    StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("script", script));
+    runner =
+        new InMemoryRunner(
+            new AgentConfiguration(
+                    context.getBean(ToolRegistry.class),
+                    beans.getBeanProvider(ModelScript.class),
+                    beans.getBeanProvider(PromptPrefixCache.class))
+                .rootCustomerSupportAgent());
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Event agentTurn() {
+    Session session = runner.sessionService().createSession(runner.appName(), "user").blockingGet();
+    return runner.runAsync("user", session.id(), MESSAGE).blockingLast();
+  }
+
+  @Benchmark
+  public Map<String, Object> directToolCalls() {
+    agent.getCustomerAccount("CUST001", null);
+    return agent.processPayment("CUST001", 25.0, null);
+  }
+}
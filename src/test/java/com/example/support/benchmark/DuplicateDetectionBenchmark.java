@@ -0,0 +1,101 @@
+package com.example.support.benchmark;
+
+import com.example.support.dedup.MinHash;
+import com.example.support.dedup.NearDuplicate;
+import com.example.support.dedup.NearDuplicateIndex;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Near-duplicate detection cost at createTicket, and index footprint.
+ *
+ * <p>Setup fills the index with synthetic tickets (25 words each from a 5,000-word vocabulary,
+ * spread over 100,000 customers) and prints the retained heap per ticket. The benchmarks measure
+ * signing a ticket text, a lookup against the full index, and an insert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class DuplicateDetectionBenchmark {
+
+  private static final int CUSTOMERS = 100_000;
+  private static final int WORDS_PER_TICKET = 25;
+
+  @Param({"1000000"})
+  public int tickets;
+
+  private final Random random = new Random(42);
+
+  private String[] vocabulary;
+  private NearDuplicateIndex index;
+  private String[] texts;
+  private short[][] signatures;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    vocabulary = new String[5000];
+    for (int i = 0; i < vocabulary.length; i++) {
+      vocabulary[i] = Integer.toString(i * 7919, 36);
+    }
+    texts = new String[1024];
+    signatures = new short[texts.length][];
+    for (int i = 0; i < texts.length; i++) {
+      texts[i] = randomText();
+      signatures[i] = MinHash.signature(texts[i]);
+    }
+
+    long before = usedHeap();
+    index = new NearDuplicateIndex(tickets);
+    for (int i = 0; i < tickets; i++) {
+      index.add(
+          "TKT-20260101000000-" + i,
+          "CUST" + (i % CUSTOMERS),
+          i,
+          i < texts.length ? signatures[i] : MinHash.signature(randomText()));
+    }
+    long after = usedHeap();
+    System.out.printf(
+        "%nNearDuplicateIndex: %d tickets, %.1f MB retained, %d bytes/ticket%n",
+        index.size(), (after - before) / 1048576.0, (after - before) / index.size());
+  }
+
+  @Benchmark
+  public short[] signature() {
+    return MinHash.signature(texts[next++ & (texts.length - 1)]);
+  }
+
+  @Benchmark
+  public List<NearDuplicate> findDuplicates() {
+    int i = next++ & (texts.length - 1);
+    return index.find("CUST" + (i % CUSTOMERS), signatures[i], 0, 0.8);
+  }
+
+  /** Steady state: the index is full, so every insert also evicts the oldest ticket. */
+  @Benchmark
+  public int add() {
+    int i = next++;
+    return index.add("TKT-BENCH-" + i, "CUST-BENCH-" + i, i, signatures[i & (texts.length - 1)]);
+  }
+
+  private String randomText() {
+    StringBuilder text = new StringBuilder();
+    for (int w = 0; w < WORDS_PER_TICKET; w++) {
+      text.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+    }
+    return text.toString();
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
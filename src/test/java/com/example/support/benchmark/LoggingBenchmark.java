@@ -0,0 +1,113 @@
+package com.example.support.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.support.CustomerSupportAgent;
+import com.example.support.logging.CustomLogger;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request-path logging overhead, before and after the CustomLogger changes.
+ *
+ * <p>"before" resolves the logger on every call, concatenates the message eagerly and writes
+ * through a synchronous appender. "after" uses the cached logger, parameterized messages and the
+ * async appender. Output goes to a discarding stream so only the logging path itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+  private static final String PATTERN =
+      "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg %kvp%n";
+
+  @Param({"INFO", "WARN"})
+  public String level;
+
+  private final CustomLogger customLogger = new CustomLogger();
+  private final String customerId = "CUST001";
+  private final double amount = 250.75;
+
+  private AsyncAppender asyncAppender;
+
+  @Setup
+  public void setUp() {
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    context.reset();
+
+    Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.toLevel(level));
+    root.setAdditive(false);
+
+    OutputStreamAppender<ILoggingEvent> sync = discardingAppender(context, "SYNC");
+    OutputStreamAppender<ILoggingEvent> target = discardingAppender(context, "TARGET");
+
+    asyncAppender = new AsyncAppender();
+    asyncAppender.setContext(context);
+    asyncAppender.setName("ASYNC");
+    asyncAppender.setQueueSize(8192);
+    asyncAppender.setDiscardingThreshold(8192 / 5);
+    asyncAppender.addAppender(target);
+    asyncAppender.start();
+
+    Logger before = context.getLogger("before." + CustomerSupportAgent.class.getName());
+    before.setAdditive(false);
+    before.addAppender(sync);
+
+    Logger after = context.getLogger(CustomerSupportAgent.class);
+    after.setAdditive(false);
+    after.addAppender(asyncAppender);
+  }
+
+  @TearDown
+  public void tearDown() {
+    asyncAppender.stop();
+  }
+
+  @Benchmark
+  public void before() {
+    LoggerFactory.getLogger("before." + CustomerSupportAgent.class.getName())
+        .info("Fetching customer account: " + customerId);
+    LoggerFactory.getLogger("before." + CustomerSupportAgent.class.getName())
+        .info("Processed payment for customer: " + customerId + ", amount: " + amount);
+  }
+
+  @Benchmark
+  public void after() {
+    customLogger.info(CustomerSupportAgent.class, "Fetching customer account: {}", customerId);
+    customLogger.infoKv(
+        CustomerSupportAgent.class,
+        "Processed payment",
+        "customerId",
+        customerId,
+        "amount",
+        amount);
+  }
+
+  private static OutputStreamAppender<ILoggingEvent> discardingAppender(
+      LoggerContext context, String name) {
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern(PATTERN);
+    encoder.start();
+
+    OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+    appender.setContext(context);
+    appender.setName(name);
+    appender.setEncoder(encoder);
+    appender.setOutputStream(OutputStream.nullOutputStream());
+    appender.start();
+    return appender;
+  }
+}
@@ -0,0 +1,98 @@
+package com.example.support.benchmark;
+
+import com.example.support.App;
+import com.example.support.CustomerSupportAgent;
+import com.example.support.entity.Ticket;
+import com.example.support.repository.TicketRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Read-tool latency and bulk ticket insert throughput with the Hibernate performance settings on
+ * ("tuned") and off ("baseline": no second-level cache, no JDBC batching). Runs against the H2 test
+ * profile, so absolute numbers understate network round trips saved against Postgres.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+  private static final int BATCH = 200;
+
+  @Param({"baseline", "tuned"})
+  public String profile;
+
+  private final AtomicLong ids = new AtomicLong();
+
+  private ConfigurableApplicationContext context;
+  private CustomerSupportAgent agent;
+  private TicketRepository ticketRepository;
+  private TransactionTemplate transaction;
+
+  @Setup
+  public void setUp() {
+    SpringApplicationBuilder builder =
+        new SpringApplicationBuilder(App.class)
+            .profiles("test")
+            .properties(
+                "server.port=0",
+                "logging.level.root=WARN",
+                "logging.level.com.example.support=WARN");
+    if ("baseline".equals(profile)) {
+      builder.properties(
+          "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+          "spring.jpa.properties.hibernate.jdbc.batch_size=0",
+          "spring.jpa.properties.hibernate.order_inserts=false");
+    }
+    context = builder.run();
+    agent = context.getBean(CustomerSupportAgent.class);
+    ticketRepository = context.getBean(TicketRepository.class);
+    transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Map<String, Object> getCustomerAccount() {
+    return agent.getCustomerAccount("CUST001", null);
+  }
+
+  @Benchmark
+  public Map<String, Object> validateRefundEligibility() {
+    return agent.validateRefundEligibility("CUST003", null);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public List<Ticket> insertTickets() {
+    List<Ticket> tickets = new ArrayList<>(BATCH);
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < BATCH; i++) {
+      tickets.add(
+          new Ticket(
+              "BENCH-" + ids.incrementAndGet(),
+              "CUST002",
+              "Benchmark ticket",
+              "Inserted by PersistenceBenchmark",
+              "low",
+              "open",
+              now));
+    }
+    return transaction.execute(status -> ticketRepository.saveAll(tickets));
+  }
+}
@@ -0,0 +1,157 @@
+package com.example.support.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding cost and size of a large {@code getTickets} response: 1,000 tickets shaped like the
+ * agent's ticket maps, plus the same tickets as records to show what Blackbird does for beans.
+ * Mappers carry the application's {@code spring.jackson.*} settings. Payload sizes, raw and
+ * gzipped, are printed once at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+  private static final int TICKETS = 1_000;
+
+  private static final String[] PRIORITIES = {"low", "medium", "high", "urgent"};
+  private static final String[] STATUSES = {"open", "pending", "closed"};
+
+  public record TicketView(
+      String ticketId,
+      String customerId,
+      String subject,
+      String description,
+      String priority,
+      String status,
+      LocalDateTime created,
+      LocalDateTime slaDue) {}
+
+  private Map<String, Object> response;
+  private List<TicketView> records;
+
+  private ObjectMapper indented;
+  private ObjectMapper compact;
+  private ObjectMapper blackbird;
+  private ObjectMapper smile;
+  private ObjectMapper cbor;
+
+  @Setup
+  public void setUp() throws IOException {
+    indented = builder().indentOutput(true).build();
+    compact = builder().build();
+    blackbird = builder().modulesToInstall(new BlackbirdModule()).build();
+    smile = builder().factory(new SmileFactory()).build();
+    cbor = builder().factory(new CBORFactory()).build();
+
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+    List<Map<String, Object>> tickets = new ArrayList<>(TICKETS);
+    records = new ArrayList<>(TICKETS);
+    for (int i = 0; i < TICKETS; i++) {
+      TicketView ticket =
+          new TicketView(
+              String.format("TICKET-%08d", i),
+              "CUST001",
+              "Payment issue #" + i,
+              "Charged twice for the monthly subscription, please refund the duplicate charge",
+              PRIORITIES[i % PRIORITIES.length],
+              STATUSES[i % STATUSES.length],
+              start.plusMinutes(i),
+              i % 3 == 0 ? start.plusMinutes(i).plusHours(24) : null);
+      records.add(ticket);
+      Map<String, Object> map = new HashMap<>();
+      map.put("ticketId", ticket.ticketId());
+      map.put("customerId", ticket.customerId());
+      map.put("subject", ticket.subject());
+      map.put("description", ticket.description());
+      map.put("priority", ticket.priority());
+      map.put("status", ticket.status());
+      map.put("created", ticket.created().toString());
+      if (ticket.slaDue() != null) {
+        map.put("slaDue", ticket.slaDue().toString());
+      }
+      tickets.add(map);
+    }
+    response = new HashMap<>();
+    response.put("success", true);
+    response.put("data", tickets);
+    response.put("count", tickets.size());
+
+    report("json (indented)", indented.writeValueAsBytes(response));
+    report("json (compact)", compact.writeValueAsBytes(response));
+    report("smile", smile.writeValueAsBytes(response));
+    report("cbor", cbor.writeValueAsBytes(response));
+  }
+
+  @Benchmark
+  public byte[] jsonIndented() throws IOException {
+    return indented.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] jsonCompact() throws IOException {
+    return compact.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] smile() throws IOException {
+    return smile.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] cbor() throws IOException {
+    return cbor.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] recordsReflective() throws IOException {
+    return compact.writeValueAsBytes(records);
+  }
+
+  @Benchmark
+  public byte[] recordsBlackbird() throws IOException {
+    return blackbird.writeValueAsBytes(records);
+  }
+
+  private static Jackson2ObjectMapperBuilder builder() {
+    return new Jackson2ObjectMapperBuilder()
+        .serializationInclusion(JsonInclude.Include.NON_NULL)
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  private static void report(String format, byte[] payload) {
+    System.out.printf(
+        "%-16s %,9d bytes, %,8d gzipped%n", format, payload.length, gzippedSize(payload));
+  }
+
+  private static int gzippedSize(byte[] payload) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(payload);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.size();
+  }
+}
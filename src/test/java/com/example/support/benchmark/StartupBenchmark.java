@@ -0,0 +1,142 @@
+package com.example.support.benchmark;
+
+import com.example.support.App;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cold start: time from launching a fresh JVM to the first 200 from {@code /api/health}, so JVM
+ * boot and class loading are included. Settings:
+ *
+ * <ul>
+ *   <li>{@code default} and {@code startup}: the test classpath on the H2 test profile, without and
+ *       with the {@code startup} profile's lazy initialization.
+ *   <li>{@code jar} and {@code aot-cds}: the jar extracted by {@code mvn -Pstartup package} on the
+ *       {@code startup} profile, without and with {@code -Dspring.aot.enabled=true} and {@code
+ *       -XX:SharedArchiveFile}. They connect to the database like a normal start (set DB_HOST
+ *       etc.), and fail their setup until the package build has produced the jar and archive.
+ * </ul>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  private static final Path STARTUP_DIR = Path.of("target", "startup");
+
+  private static final Path CDS_ARCHIVE = STARTUP_DIR.resolve("application.jsa");
+
+  @Param({"default", "startup", "jar", "aot-cds"})
+  public String setting;
+
+  private List<String> command;
+
+  private Process process;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    switch (setting) {
+      case "default", "startup" -> {
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(App.class.getName());
+        command.add(
+            "--spring.profiles.active=" + ("default".equals(setting) ? "test" : "test,startup"));
+      }
+      case "jar", "aot-cds" -> {
+        if ("aot-cds".equals(setting)) {
+          if (!Files.isRegularFile(CDS_ARCHIVE)) {
+            throw new IllegalStateException(
+                "No CDS archive at " + CDS_ARCHIVE + "; run mvn -Pstartup package first");
+          }
+          command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE);
+          command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(extractedJar().toString());
+        command.add("--spring.profiles.active=startup");
+      }
+      default -> throw new IllegalArgumentException("Unknown setting " + setting);
+    }
+    command.add("--logging.level.root=WARN");
+    command.add("--logging.level.com.example.support=WARN");
+  }
+
+  @Benchmark
+  public int timeToHealthy() throws IOException, InterruptedException {
+    int port = freePort();
+    List<String> launch = new ArrayList<>(command);
+    launch.add("--server.port=" + port);
+    process = new ProcessBuilder(launch).inheritIO().start();
+
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest health =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/health"))
+            .timeout(Duration.ofSeconds(30))
+            .build();
+    while (true) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException(
+            setting + " exited with " + process.exitValue() + " before answering /api/health");
+      }
+      try {
+        int status = client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 200) {
+          return status;
+        }
+      } catch (IOException notListeningYet) {
+        // The server socket is not open yet
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws InterruptedException {
+    if (process != null) {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private static Path extractedJar() throws IOException {
+    if (!Files.isDirectory(STARTUP_DIR)) {
+      throw new IllegalStateException(
+          "No extracted jar in " + STARTUP_DIR + "; run mvn -Pstartup package first");
+    }
+    try (Stream<Path> files = Files.list(STARTUP_DIR)) {
+      return files
+          .filter(file -> file.getFileName().toString().endsWith(".jar"))
+          .findFirst()
+          .orElseThrow(
+              () ->
+                  new IllegalStateException(
+                      "No extracted jar in " + STARTUP_DIR + "; run mvn -Pstartup package first"));
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.example.support.bulk;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.support.CustomerSupportAgent;
+import com.example.support.analytics.AnalyticsRollups;
+import com.example.support.analytics.Granularity;
+import com.example.support.analytics.TimeSeriesPoint;
+import com.example.support.queue.TicketWorkQueue;
+import com.example.support.repository.TicketRepository;
+import com.example.support.sla.SlaEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:bulkdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BulkDataControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private CustomerSupportAgent agent;
+
+  @Autowired private TicketRepository ticketRepository;
+
+  @Autowired private SlaEngine slaEngine;
+
+  @Autowired private TicketWorkQueue workQueue;
+
+  @Autowired private AnalyticsRollups analytics;
+
+  @Test
+  @Order(1)
+  void importsCustomersFromCsvAndReportsRejectedRecords() throws Exception {
+    String csv =
+        "customerId,name,email,tier,balance,accountCreated,status\n"
+            + "CUST9001,\"Doe, Jane\",jane@example.com,premium,10.5,2026-01-02T03:04:05,active\n"
+            + "CUST9002,Max Mustermann,max@example.com,Basic,,,\n"
+            + "CUST9003,No Email,not-an-email,basic,0,,active\n";
+
+    mockMvc
+        .perform(post("/api/bulk/customers/import").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success").value(true))
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.errors[0].record").value(3))
+        .andExpect(jsonPath("$.errors[0].error").value("Invalid email format"));
+
+    Map<String, Object> account = agent.getCustomerAccount("CUST9001", null);
+    assertTrue((Boolean) account.get("success"));
+    assertEquals("Premium", ((Map<?, ?>) account.get("data")).get("tier"));
+  }
+
+  @Test
+  @Order(2)
+  void importsTicketsFromNdjsonAndMakesThemSearchable() throws Exception {
+    String ndjson =
+        "{\"ticketId\":\"IMP-1\",\"customerId\":\"CUST9001\",\"subject\":\"Scanner jams\","
+            + "\"description\":\"Paper scanner jams on every page\",\"priority\":\"high\"}\n"
+            + "{not json}\n"
+            + "{\"ticketId\":\"IMP-2\",\"customerId\":\"CUST9002\",\"subject\":\"Refund\","
+            + "\"description\":\"Refund request\",\"priority\":\"low\",\"status\":\"closed\","
+            + "\"created\":\"2026-02-01T10:00:00\"}\n";
+
+    mockMvc
+        .perform(
+            post("/api/bulk/tickets/import").contentType("application/x-ndjson").content(ndjson))
+        .andExpect(jsonPath("$.success").value(true))
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.errors[0].record").value(2));
+
+    Map<String, Object> search = agent.searchTickets("CUST9001", "scanner jams", "all", null);
+    assertEquals(1, search.get("count"));
+
+    // The open ticket is under its SLA like one created through the API; the closed one is not
+    LocalDateTime slaDue = ticketRepository.findById("IMP-1").orElseThrow().getSlaDue();
+    assertNotNull(slaDue);
+    assertTrue(slaEngine.trackedDeadline("IMP-1") >= toMillis(slaDue));
+    assertNull(ticketRepository.findById("IMP-2").orElseThrow().getSlaDue());
+    assertEquals(-1, slaEngine.trackedDeadline("IMP-2"));
+
+    // ... and waits in the work queue
+    assertTrue(workQueue.isQueued("IMP-1"));
+    assertFalse(workQueue.isQueued("IMP-2"));
+
+    // ... and both are counted in the analytics time series
+    assertEquals(1, ticketsCreated("high"));
+    assertEquals(1, ticketsCreated("low"));
+  }
+
+  @Test
+  @Order(3)
+  void stopsAtChunkRejectedByDatabase() throws Exception {
+    String csv =
+        "ticketId,customerId,subject,description,priority\n"
+            + "IMP-3,CUST9001,Subject,Description,low\n"
+            + "IMP-1,CUST9001,Duplicate key,Description,low\n";
+
+    mockMvc
+        .perform(post("/api/bulk/tickets/import").contentType("text/csv").content(csv))
+        .andExpect(jsonPath("$.success").value(false))
+        .andExpect(jsonPath("$.imported").value(0));
+
+    Map<String, Object> tickets = agent.getTickets("CUST9001", "all", null);
+    assertEquals(1, tickets.get("count"));
+    // The rejected chunk's analytics counts were rolled back with it
+    assertEquals(1, ticketsCreated("low"));
+  }
+
+  @Test
+  @Order(4)
+  void exportsCsvWithQuoting() throws Exception {
+    MvcResult pending =
+        mockMvc
+            .perform(get("/api/bulk/customers/export").param("format", "csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    String csv =
+        mockMvc
+            .perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    List<String> lines = csv.lines().toList();
+    assertEquals("customerId,name,email,tier,balance,accountCreated,status", lines.get(0));
+    assertTrue(
+        lines.contains(
+            "CUST9001,\"Doe, Jane\",jane@example.com,Premium,10.5,2026-01-02T03:04:05,active"));
+  }
+
+  @Test
+  @Order(5)
+  void exportsNdjsonThatImportsBack() throws Exception {
+    MvcResult pending =
+        mockMvc
+            .perform(get("/api/bulk/tickets/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    String ndjson =
+        mockMvc.perform(asyncDispatch(pending)).andReturn().getResponse().getContentAsString();
+
+    List<JsonNode> rows =
+        ndjson.lines().map(line -> assertDoesNotThrow(() -> objectMapper.readTree(line))).toList();
+    JsonNode imported =
+        rows.stream()
+            .filter(r -> r.get("ticketId").asText().equals("IMP-2"))
+            .findFirst()
+            .orElseThrow();
+    assertEquals("closed", imported.get("status").asText());
+    assertEquals("2026-02-01T10:00", imported.get("created").asText());
+    assertFalse(ndjson.contains("\n\n"));
+  }
+
+  @Test
+  @Order(6)
+  void rejectsUnknownEntity() throws Exception {
+    mockMvc
+        .perform(post("/api/bulk/payments/import").contentType("text/csv").content("a\n1\n"))
+        .andExpect(jsonPath("$.success").value(false));
+    mockMvc
+        .perform(get("/api/bulk/imports"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$").isArray());
+    assertThrows(IllegalArgumentException.class, () -> BulkFormat.from("xml"));
+    assertEquals(BulkFormat.CSV, BulkFormat.from("text/csv;charset=UTF-8"));
+    mockMvc.perform(get("/api/bulk/payments/export")).andExpect(status().isBadRequest());
+  }
+
+  private long ticketsCreated(String priority) {
+    LocalDateTime now = LocalDateTime.now();
+    return analytics.timeSeries(now.minusDays(1), now.plusHours(1), Granularity.HOUR).stream()
+        .filter(point -> point.metric().equals("tickets_created"))
+        .filter(point -> point.dimension().equals(priority))
+        .mapToLong(TimeSeriesPoint::count)
+        .sum();
+  }
+
+  private static long toMillis(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
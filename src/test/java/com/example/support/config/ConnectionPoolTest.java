@@ -0,0 +1,49 @@
+package com.example.support.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Raw JDBC writes commit whether or not they run in a transaction: pooled connections auto-commit,
+ * so a write outside one is never rolled back when its connection returns to the pool.
+ */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:pooldb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class ConnectionPoolTest {
+
+  private static final String INSERT =
+      "INSERT INTO analytics_rollups (granularity, bucket_start, metric, count)"
+          + " VALUES ('day', CURRENT_TIMESTAMP, ?, 1)";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void writesOutsideATransactionCommit() {
+    jdbcTemplate.update(INSERT, "pool_bare");
+
+    assertEquals(1, rows("pool_bare"));
+  }
+
+  @Test
+  void writesInATransactionCommit() {
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(status -> jdbcTemplate.update(INSERT, "pool_transaction"));
+
+    assertEquals(1, rows("pool_transaction"));
+  }
+
+  private long rows(String metric) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM analytics_rollups WHERE metric = ?", Long.class, metric);
+  }
+}
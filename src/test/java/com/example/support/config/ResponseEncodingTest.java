@@ -0,0 +1,66 @@
+package com.example.support.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** JSON by default, Smile and CBOR on request, all carrying the same document. */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:encodingdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResponseEncodingTest {
+
+  private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void jsonIsCompactByDefault() throws Exception {
+    String json =
+        mockMvc
+            .perform(get("/api/customer/CUST001"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    assertFalse(json.contains("\n"), json);
+  }
+
+  @Test
+  void smileAndCborCarryTheSameDocument() throws Exception {
+    JsonNode json = new ObjectMapper().readTree(fetch(MediaType.APPLICATION_JSON));
+    JsonNode smile = new ObjectMapper(new SmileFactory()).readTree(fetch(SMILE));
+    JsonNode cbor = new ObjectMapper(new CBORFactory()).readTree(fetch(MediaType.APPLICATION_CBOR));
+
+    assertEquals(true, json.get("success").asBoolean());
+    assertEquals(json, smile);
+    assertEquals(json, cbor);
+  }
+
+  private byte[] fetch(MediaType type) throws Exception {
+    return mockMvc
+        .perform(get("/api/customer/CUST001").accept(type))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(type))
+        .andReturn()
+        .getResponse()
+        .getContentAsByteArray();
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.support.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.support.AgentConfiguration;
+import com.example.support.CustomerSupportAgent;
+import com.example.support.entity.Customer;
+import com.example.support.entity.Ticket;
+import com.example.support.queue.QueuedTicket;
+import com.example.support.sla.SlaDeadline;
+import com.google.adk.tools.FunctionTool;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * The native-image hints cover every tool, entity and resource the app reaches reflectively. Runs
+ * on the JVM and, under {@code -PnativeTest}, inside the native image, where building the tools
+ * proves the hints suffice.
+ */
+class SupportRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  SupportRuntimeHintsTest() {
+    new SupportRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void everyToolIsInvocable() {
+    for (String tool : AgentConfiguration.TOOLS) {
+      assertTrue(
+          RuntimeHintsPredicates.reflection()
+              .onMethod(CustomerSupportAgent.class, tool)
+              .invoke()
+              .test(hints),
+          tool);
+    }
+  }
+
+  @Test
+  void everyToolResolvesByName() {
+    CustomerSupportAgent agent = new CustomerSupportAgent();
+    for (String tool : AgentConfiguration.TOOLS) {
+      FunctionTool function = FunctionTool.create(agent, tool);
+      assertEquals(tool, function.declaration().orElseThrow().name().orElseThrow());
+    }
+  }
+
+  @Test
+  void entitiesAndProjectionsAreReflective() {
+    for (Class<?> entity : new Class<?>[] {Customer.class, Ticket.class}) {
+      assertTrue(
+          RuntimeHintsPredicates.reflection()
+              .onType(entity)
+              .withMemberCategories(
+                  MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+              .test(hints),
+          entity.getName());
+    }
+    for (Class<?> view : new Class<?>[] {SlaDeadline.class, QueuedTicket.class}) {
+      assertTrue(
+          RuntimeHintsPredicates.reflection()
+              .onType(view)
+              .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+              .test(hints),
+          view.getName());
+    }
+  }
+
+  @Test
+  void schemaAndMigrationsAreIncluded() throws Exception {
+    PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    Resource[] migrations = resolver.getResources("classpath:db/migration/*.sql");
+    assertTrue(migrations.length > 0);
+    for (Resource migration : migrations) {
+      String path = "db/migration/" + migration.getFilename();
+      assertTrue(RuntimeHintsPredicates.resource().forResource(path).test(hints), path);
+    }
+    assertTrue(
+        RuntimeHintsPredicates.resource().forResource("graphql/schema.graphqls").test(hints));
+  }
+}
@@ -1,20 +1,32 @@
 package com.example.support.controller;
 
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import com.example.support.CustomerSupportAgent;
+import com.example.support.analytics.AnalyticsRollups;
+import com.example.support.analytics.Granularity;
+import com.example.support.analytics.TimeSeriesPoint;
 import com.example.support.entity.Customer;
+import com.example.support.entity.Ticket;
 import com.example.support.logging.CustomLogger;
+import com.example.support.queue.QueuedTicket;
+import com.example.support.queue.TicketWorkQueue;
 import com.example.support.repository.CustomerRepository;
 import com.example.support.repository.TicketRepository;
+import com.example.support.search.TicketSearch;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
 
 @GraphQlTest(SupportGraphQLController.class)
+@ActiveProfiles("test")
 public class SupportGraphQLControllerTest {
 
   @Autowired private GraphQlTester graphQlTester;
@@ -22,6 +34,9 @@ public class SupportGraphQLControllerTest {
   @MockBean private CustomerSupportAgent agent;
   @MockBean private CustomerRepository customerRepository;
   @MockBean private TicketRepository ticketRepository;
+  @MockBean private TicketSearch ticketSearch;
+  @MockBean private TicketWorkQueue workQueue;
+  @MockBean private AnalyticsRollups analyticsRollups;
   @MockBean private CustomLogger customLogger;
 
   @Test
@@ -29,10 +44,11 @@ public class SupportGraphQLControllerTest {
     Customer mockCustomer = new Customer();
     mockCustomer.setCustomerId("CUST001");
     mockCustomer.setName("John Doe");
+    mockCustomer.setBalanceMinor(125_050);
 
     when(customerRepository.findById("CUST001")).thenReturn(Optional.of(mockCustomer));
 
-    String query = "{ customer(customerId: \"CUST001\") { name } }";
+    String query = "{ customer(customerId: \"CUST001\") { name balance } }";
 
     graphQlTester
         .document(query)
@@ -41,6 +57,90 @@ public class SupportGraphQLControllerTest {
         .verify()
         .path("customer.name")
         .entity(String.class)
-        .isEqualTo("John Doe");
+        .isEqualTo("John Doe")
+        .path("customer.balance")
+        .entity(Double.class)
+        .isEqualTo(1250.5);
+  }
+
+  @Test
+  public void testSearchTicketsQueryPages() {
+    Ticket first =
+        new Ticket("TKT-1", "CUST001", "Login fails", "d", "low", "open", LocalDateTime.now());
+    Ticket second =
+        new Ticket("TKT-2", "CUST001", "Login slow", "d", "low", "open", LocalDateTime.now());
+    when(ticketSearch.search(eq("login"), eq(null), eq(null), eq(0), eq(2)))
+        .thenReturn(List.of(first, second));
+
+    String query =
+        "{ searchTickets(query: \"login\", first: 1) "
+            + "{ edges { node { ticketId } } pageInfo { hasNextPage endCursor } } }";
+
+    graphQlTester
+        .document(query)
+        .execute()
+        .errors()
+        .verify()
+        .path("searchTickets.edges[0].node.ticketId")
+        .entity(String.class)
+        .isEqualTo("TKT-1")
+        .path("searchTickets.pageInfo.hasNextPage")
+        .entity(Boolean.class)
+        .isEqualTo(true);
+  }
+
+  @Test
+  public void testTicketQueueQueryPeeks() {
+    when(workQueue.peek(2))
+        .thenReturn(
+            List.of(
+                new QueuedTicket("TKT-9", "CUST003", "urgent", "Enterprise", LocalDateTime.now()),
+                new QueuedTicket("TKT-4", "CUST002", "urgent", "Basic", LocalDateTime.now())));
+
+    graphQlTester
+        .document("{ ticketQueue(first: 2) { ticketId priority tier } }")
+        .execute()
+        .errors()
+        .verify()
+        .path("ticketQueue[0].ticketId")
+        .entity(String.class)
+        .isEqualTo("TKT-9")
+        .path("ticketQueue[1].tier")
+        .entity(String.class)
+        .isEqualTo("Basic");
+  }
+
+  @Test
+  public void testAnalyticsTimeSeriesQuery() {
+    LocalDateTime from = LocalDateTime.of(2025, 3, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 3, 2, 0, 0);
+    when(analyticsRollups.timeSeries(from, to, Granularity.HOUR))
+        .thenReturn(
+            List.of(
+                new TimeSeriesPoint(from.plusHours(9), "payments", "", 3, 12_000),
+                new TimeSeriesPoint(from.plusHours(9), "tickets_created", "high", 2, 0)));
+
+    graphQlTester
+        .document(
+            "{ analyticsTimeSeries(from: \"2025-03-01\", to: \"2025-03-02\", granularity: \"hour\")"
+                + " { bucket metric dimension count amount } }")
+        .execute()
+        .errors()
+        .verify()
+        .path("analyticsTimeSeries[0].amount")
+        .entity(Double.class)
+        .isEqualTo(120.0)
+        .path("analyticsTimeSeries[1].dimension")
+        .entity(String.class)
+        .isEqualTo("high");
+
+    graphQlTester
+        .document(
+            "{ analyticsTimeSeries(from: \"2025-03-01\", to: \"2025-03-02\", granularity: \"week\")"
+                + " { bucket } }")
+        .execute()
+        .errors()
+        .expect(error -> error.getMessage().equals("Invalid granularity. Must be: hour or day"))
+        .verify();
   }
 }
@@ -0,0 +1,131 @@
+package com.example.support.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.support.CustomerSupportAgent;
+import com.example.support.controller.SupportGraphQLController;
+import com.example.support.entity.Ticket;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routing against two H2 databases. The replica holds one ticket the primary does not, so a read
+ * that returns it was served by the replica.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "support.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "support.datasource.replica.username=sa",
+      "support.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+      "support.datasource.replica.max-lag=5s",
+      "support.datasource.replica.lag-check-interval=1h"
+    })
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+  @Autowired private CustomerSupportAgent agent;
+
+  @Autowired private SupportGraphQLController graphQLController;
+
+  @Autowired private ReplicaLagMonitor lagMonitor;
+
+  @Autowired
+  @Qualifier("primaryDataSource")
+  private DataSource primary;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private DataSource replica;
+
+  private JdbcTemplate replicaJdbc;
+  private TransactionTemplate replicaTransaction;
+
+  @BeforeEach
+  void setUpReplica() {
+    replicaJdbc = new JdbcTemplate(replica);
+    replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replica));
+    replicaTransaction.executeWithoutResult(
+        status -> {
+          replicaJdbc.execute("DROP ALL OBJECTS");
+          new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replica);
+          replicaJdbc.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+          replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+          replicaJdbc.update(
+              "INSERT INTO tickets"
+                  + " (ticket_id, customer_id, subject, description, priority, status, created)"
+                  + " VALUES ('TKT-REPLICA', 'CUST001', 'Only on replica', "
+                  + "'Seeded on the replica', 'low', 'open', CURRENT_TIMESTAMP)");
+        });
+    lagMonitor.check();
+  }
+
+  @Test
+  void readToolsUseReplica() {
+    assertTrue(lagMonitor.isReplicaUsable());
+    assertTrue(ticketIds(agent.getTickets("CUST001", "all", null)).contains("TKT-REPLICA"));
+  }
+
+  @Test
+  void graphQLQueriesUseReplica() {
+    List<Ticket> tickets = graphQLController.tickets("CUST001", null, null);
+    assertTrue(tickets.stream().anyMatch(t -> t.getTicketId().equals("TKT-REPLICA")));
+  }
+
+  @Test
+  void writesUsePrimary() {
+    Map<String, Object> result =
+        agent.createTicket("CUST002", "Routing check", "Written through the agent", "low", null);
+    assertTrue((Boolean) result.get("success"));
+    String ticketId = (String) ((Map<?, ?>) result.get("data")).get("ticketId");
+
+    Integer onPrimary =
+        new JdbcTemplate(primary)
+            .queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE ticket_id = ?", Integer.class, ticketId);
+    Integer onReplica =
+        replicaJdbc.queryForObject(
+            "SELECT COUNT(*) FROM tickets WHERE ticket_id = ?", Integer.class, ticketId);
+    assertEquals(1, onPrimary);
+    assertEquals(0, onReplica);
+  }
+
+  @Test
+  void laggingReplicaFallsBackToPrimary() {
+    replicaTransaction.executeWithoutResult(
+        status -> replicaJdbc.update("UPDATE replica_lag SET seconds = 30"));
+    lagMonitor.check();
+
+    assertFalse(lagMonitor.isReplicaUsable());
+    assertEquals(30.0, lagMonitor.getLagSeconds());
+    assertFalse(ticketIds(agent.getTickets("CUST001", "all", null)).contains("TKT-REPLICA"));
+  }
+
+  @Test
+  void unreachableReplicaFallsBackToPrimary() {
+    replicaTransaction.executeWithoutResult(
+        status -> replicaJdbc.execute("DROP TABLE replica_lag"));
+    lagMonitor.check();
+
+    assertFalse(lagMonitor.isReplicaUsable());
+    assertFalse(ticketIds(agent.getTickets("CUST001", "all", null)).contains("TKT-REPLICA"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> ticketIds(Map<String, Object> result) {
+    return ((List<Map<String, Object>>) result.get("data"))
+        .stream().map(t -> (String) t.get("ticketId")).toList();
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.support.dedup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NearDuplicateIndexTest {
+
+  private static final String LOGIN =
+      "Cannot log in. The login page says my password is wrong even after I reset it twice today";
+  private static final String LOGIN_REWORDED =
+      "cannot log in - the login page says my password is wrong, even after I reset it twice!";
+  private static final String INVOICE =
+      "Invoice for March shows the Premium price but I am on the Basic plan since February";
+
+  @Test
+  void similarityTracksTextOverlap() {
+    assertEquals(1.0, MinHash.similarity(MinHash.signature(LOGIN), MinHash.signature(LOGIN)));
+    assertTrue(
+        MinHash.similarity(MinHash.signature(LOGIN), MinHash.signature(LOGIN_REWORDED)) > 0.8);
+    assertTrue(MinHash.similarity(MinHash.signature(LOGIN), MinHash.signature(INVOICE)) < 0.2);
+  }
+
+  @Test
+  void findsNearDuplicateOfSameCustomerOnly() {
+    NearDuplicateIndex index = new NearDuplicateIndex(100);
+    index.add("TKT-1", "CUST001", 1000, MinHash.signature(LOGIN));
+    index.add("TKT-2", "CUST001", 1000, MinHash.signature(INVOICE));
+    index.add("TKT-3", "CUST002", 1000, MinHash.signature(LOGIN));
+
+    List<NearDuplicate> matches = index.find("CUST001", MinHash.signature(LOGIN_REWORDED), 0, 0.8);
+
+    assertEquals(1, matches.size());
+    assertEquals("TKT-1", matches.get(0).ticketId());
+  }
+
+  @Test
+  void ignoresTicketsOutsideWindow() {
+    NearDuplicateIndex index = new NearDuplicateIndex(100);
+    index.add("TKT-1", "CUST001", 1000, MinHash.signature(LOGIN));
+
+    assertTrue(index.find("CUST001", MinHash.signature(LOGIN), 2000, 0.8).isEmpty());
+  }
+
+  @Test
+  void evictsOldestWhenFullAndGrowsFromInitialSize() {
+    NearDuplicateIndex index = new NearDuplicateIndex(3000);
+    index.add("TKT-FIRST", "CUST001", 1000, MinHash.signature(LOGIN));
+    for (int i = 0; i < 2999; i++) {
+      index.add("TKT-" + i, "CUST002", 1000, MinHash.signature(INVOICE + " " + i));
+    }
+    assertEquals(3000, index.size());
+    assertEquals(1, index.find("CUST001", MinHash.signature(LOGIN), 0, 0.8).size());
+
+    index.add("TKT-LAST", "CUST002", 1000, MinHash.signature(INVOICE));
+    assertEquals(3000, index.size());
+    assertTrue(index.find("CUST001", MinHash.signature(LOGIN), 0, 0.8).isEmpty());
+    assertFalse(index.find("CUST002", MinHash.signature(INVOICE + " 17"), 0, 0.8).isEmpty());
+  }
+
+  @Test
+  void removeDropsTicket() {
+    NearDuplicateIndex index = new NearDuplicateIndex(100);
+    int slot = index.add("TKT-1", "CUST001", 1000, MinHash.signature(LOGIN));
+
+    index.remove(slot, "TKT-1");
+
+    assertEquals(0, index.size());
+    assertTrue(index.find("CUST001", MinHash.signature(LOGIN), 0, 0.8).isEmpty());
+  }
+}
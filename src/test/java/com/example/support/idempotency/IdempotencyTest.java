@@ -0,0 +1,193 @@
+package com.example.support.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.support.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    properties =
+        "spring.datasource.url=jdbc:h2:mem:idempotencydb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private IdempotencyService idempotency;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void retriedPaymentIsChargedOnceAndReplayed() throws Exception {
+    long before = customerRepository.findById("CUST001").orElseThrow().getBalanceMinor();
+    String body = "{\"customerId\":\"CUST001\",\"amount\":25.0}";
+
+    JsonNode first = json(post("/api/payment", "pay-1", body).andExpect(status().isOk()));
+    JsonNode retry =
+        json(
+            post("/api/payment", "pay-1", body)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true")));
+    // Replayed from the table once the in-memory copy is gone
+    idempotency.clearCache();
+    JsonNode durable = json(post("/api/payment", "pay-1", body).andExpect(status().isOk()));
+
+    String transactionId = first.at("/data/transactionId").asText();
+    assertFalse(transactionId.isEmpty());
+    assertEquals(transactionId, retry.at("/data/transactionId").asText());
+    assertEquals(transactionId, durable.at("/data/transactionId").asText());
+    assertEquals(
+        before + 2500, customerRepository.findById("CUST001").orElseThrow().getBalanceMinor());
+  }
+
+  @Test
+  void keyReusedForDifferentRequestIsRejected() throws Exception {
+    post("/api/refund/process", "refund-1", "{\"customerId\":\"CUST003\",\"amount\":1.0}")
+        .andExpect(status().isOk());
+
+    post("/api/refund/process", "refund-1", "{\"customerId\":\"CUST003\",\"amount\":2.0}")
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.success").value(false));
+  }
+
+  @Test
+  void retriedTicketCreationReturnsTheSameTicket() throws Exception {
+    String body =
+        "{\"customerId\":\"CUST002\",\"subject\":\"Idempotent ticket\","
+            + "\"description\":\"Created once however often it is retried\",\"priority\":\"low\"}";
+
+    JsonNode first = json(post("/api/ticket", "ticket-1", body));
+    JsonNode retry = json(post("/api/ticket", "ticket-1", body));
+    JsonNode fresh =
+        json(
+            post(
+                "/api/ticket",
+                null,
+                "{\"customerId\":\"CUST002\",\"subject\":\"Printer offline\","
+                    + "\"description\":\"The office printer dropped off the network\","
+                    + "\"priority\":\"low\"}"));
+
+    assertEquals(first.at("/data/ticketId").asText(), retry.at("/data/ticketId").asText());
+    assertNotEquals(first.at("/data/ticketId").asText(), fresh.at("/data/ticketId").asText());
+  }
+
+  @Test
+  void concurrentDuplicatesRunTheCallOnce() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<IdempotentResponse>> responses = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        responses.add(
+            pool.submit(
+                () ->
+                    idempotency.execute(
+                        "test",
+                        "concurrent-1",
+                        Map.of("n", 1),
+                        () -> {
+                          calls.incrementAndGet();
+                          started.countDown();
+                          sleep(200);
+                          Map<String, Object> result = new HashMap<>();
+                          result.put("success", true);
+                          return result;
+                        })));
+      }
+      int replayed = 0;
+      for (Future<IdempotentResponse> response : responses) {
+        IdempotentResponse result = response.get();
+        assertEquals(true, result.body().get("success"));
+        replayed += result.replayed() ? 1 : 0;
+      }
+      assertEquals(1, calls.get());
+      assertEquals(7, replayed);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void expiredKeysArePurgedForGood() {
+    Timestamp expired = Timestamp.valueOf(LocalDateTime.now().minusDays(3));
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status ->
+                jdbcTemplate.update(
+                    "INSERT INTO idempotency_keys"
+                        + " (operation, idempotency_key, request_hash, response, created)"
+                        + " VALUES ('payment', 'expired-key', 'hash', '{}', ?)",
+                    expired));
+
+    assertTrue(idempotency.purgeExpired() >= 1);
+
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = 'expired-key'",
+            Long.class));
+  }
+
+  @Test
+  void malformedKeyIsRejected() throws Exception {
+    post("/api/payment", "has space", "{\"customerId\":\"CUST001\",\"amount\":1.0}")
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  private ResultActions post(String path, String key, String body) throws Exception {
+    MockHttpServletRequestBuilder request =
+        MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON).content(body);
+    if (key != null) {
+      request.header(IdempotencyService.HEADER, key);
+    }
+    return mockMvc.perform(request);
+  }
+
+  private JsonNode json(ResultActions result) throws Exception {
+    return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
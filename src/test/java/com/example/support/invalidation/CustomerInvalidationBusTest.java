@@ -0,0 +1,99 @@
+package com.example.support.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.support.logging.CustomLogger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+class CustomerInvalidationBusTest {
+
+  static class RecordingListener implements CustomerInvalidationListener {
+    final List<Set<String>> batches = new ArrayList<>();
+    int flushes;
+
+    @Override
+    public void invalidate(Set<String> customerIds) {
+      batches.add(customerIds);
+    }
+
+    @Override
+    public void invalidateAll() {
+      flushes++;
+    }
+  }
+
+  private final RecordingListener listener = new RecordingListener();
+  private final CustomerInvalidationBus bus;
+
+  CustomerInvalidationBusTest() {
+    StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    beans.addBean("listener", listener);
+    bus =
+        new CustomerInvalidationBus(
+            beans.getBeanProvider(DataSourceProperties.class),
+            beans.getBeanProvider(CustomerInvalidationListener.class),
+            new CustomLogger());
+  }
+
+  @Test
+  void notificationsAreAppliedOncePerRoundDeduplicated() {
+    bus.receive("node-a|CUST001,CUST002");
+    bus.receive("node-b|CUST002,CUST003");
+    bus.apply();
+    bus.apply();
+
+    assertEquals(List.of(Set.of("CUST001", "CUST002", "CUST003")), listener.batches);
+    assertEquals(0, listener.flushes);
+  }
+
+  @Test
+  void ownNotificationsAreSkippedAndBulkChangesFlush() {
+    bus.receive(bus.node() + "|CUST001");
+    bus.apply();
+    assertTrue(listener.batches.isEmpty());
+
+    bus.receive("node-a|CUST001");
+    bus.receive("node-b|" + CustomerInvalidationBus.ALL);
+    bus.apply();
+    assertTrue(listener.batches.isEmpty());
+    assertEquals(1, listener.flushes);
+  }
+
+  @Test
+  void batchesAreSplitUnderThePayloadLimit() {
+    Set<String> ids = new LinkedHashSet<>();
+    for (int i = 0; i < 2000; i++) {
+      ids.add(String.format("CUST%06d", i));
+    }
+
+    List<String> payloads = CustomerInvalidationBus.encode("node-a", ids, false);
+    assertTrue(payloads.size() > 1);
+    Set<String> decoded = new LinkedHashSet<>();
+    for (String payload : payloads) {
+      assertTrue(
+          payload.getBytes(StandardCharsets.UTF_8).length
+              <= CustomerInvalidationBus.MAX_PAYLOAD_BYTES);
+      assertTrue(payload.startsWith("node-a|"));
+      decoded.addAll(List.of(payload.substring("node-a|".length()).split(",")));
+    }
+    assertEquals(ids, decoded);
+    assertEquals(List.of("node-a|*"), CustomerInvalidationBus.encode("node-a", ids, true));
+  }
+
+  @Test
+  void publishingIsANoOpWithoutPostgres() {
+    // No DataSource: never started, nothing queued
+    bus.publish("CUST001");
+    bus.publishAll();
+    bus.apply();
+    assertTrue(listener.batches.isEmpty());
+  }
+}
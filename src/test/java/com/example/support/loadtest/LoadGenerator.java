@@ -0,0 +1,153 @@
+package com.example.support.loadtest;
+
+import com.example.support.loadtest.LoadReport.Outcome;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link Scenario} against a running app: a pool of workers sends the REST and GraphQL mix
+ * while STOMP subscribers listen, then the report is printed and written as JSON.
+ *
+ * <p>One platform thread per concurrent request (the app targets Java 17, so no virtual threads);
+ * each blocks on its response. With a fixed {@code rate}, every worker has its own schedule and a
+ * request's latency counts from when it was due rather than when it was sent, so a stalled server
+ * shows up as queueing in the percentiles instead of as a lower send rate.
+ *
+ * <p>Usage: {@code LoadGenerator <scenario.properties> [results directory]}.
+ */
+public final class LoadGenerator {
+
+  private final Scenario scenario;
+  private final HttpClient http;
+  private final Operation[] operations;
+  private final int[] cumulativeWeights;
+
+  LoadGenerator(Scenario scenario) {
+    this.scenario = scenario;
+    this.http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    this.operations = scenario.mix().keySet().toArray(Operation[]::new);
+    this.cumulativeWeights = new int[operations.length];
+    int sum = 0;
+    for (int i = 0; i < operations.length; i++) {
+      sum += scenario.mix().get(operations[i]);
+      cumulativeWeights[i] = sum;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1) {
+      System.err.println("Usage: LoadGenerator <scenario.properties> [results directory]");
+      System.exit(2);
+    }
+    Scenario scenario = Scenario.load(Path.of(args[0]));
+    LoadReport report = new LoadGenerator(scenario).run();
+    System.out.print(report.format());
+    if (args.length > 1) {
+      System.out.println("Results written to " + report.write(Path.of(args[1])));
+    }
+  }
+
+  /** Runs the warmup and the measured period, and returns what was measured. */
+  LoadReport run() throws Exception {
+    long start = System.nanoTime();
+    LoadReport report = new LoadReport(scenario, start + scenario.warmup().toNanos());
+    long end = start + scenario.warmup().toNanos() + scenario.duration().toNanos();
+    // Each worker sends every interval; 0 sends as soon as the last response arrived
+    long interval =
+        scenario.rate() > 0 ? (long) (scenario.concurrency() * 1e9 / scenario.rate()) : 0;
+
+    try (StompSubscribers ignored = StompSubscribers.connect(scenario, report)) {
+      AtomicInteger threads = new AtomicInteger();
+      ExecutorService workers =
+          Executors.newFixedThreadPool(
+              scenario.concurrency(),
+              task -> {
+                Thread thread = new Thread(task, "load-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      for (int i = 0; i < scenario.concurrency(); i++) {
+        // Stagger the schedules so a fixed rate is spread evenly
+        long first = start + interval * i / scenario.concurrency();
+        workers.execute(() -> work(first, interval, end, report));
+      }
+      workers.shutdown();
+      if (!workers.awaitTermination(
+          scenario.warmup().plus(scenario.duration()).toSeconds() + 60, TimeUnit.SECONDS)) {
+        workers.shutdownNow();
+      }
+      // Notifications for the last writes are still on their way
+      Thread.sleep(500);
+    }
+    return report;
+  }
+
+  private void work(long first, long interval, long end, LoadReport report) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    List<String> customers = scenario.customers();
+    long due = first;
+    while (!Thread.currentThread().isInterrupted()) {
+      long now = System.nanoTime();
+      if (interval == 0) {
+        due = now;
+      } else if (due > now) {
+        LockSupport.parkNanos(due - now);
+      }
+      if (due >= end) {
+        return;
+      }
+      Operation operation = pick(random);
+      String customerId = customers.get(random.nextInt(customers.size()));
+      Outcome outcome = send(operation, operation.request(scenario.baseUrl(), customerId));
+      report.recordResponse(operation, due, System.nanoTime() - due, outcome);
+      due += interval;
+    }
+  }
+
+  private Operation pick(ThreadLocalRandom random) {
+    int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (ticket < cumulativeWeights[i]) {
+        return operations[i];
+      }
+    }
+    return operations[operations.length - 1];
+  }
+
+  private Outcome send(Operation operation, HttpRequest request) {
+    try {
+      HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() == 429) {
+        return Outcome.THROTTLED;
+      }
+      if (response.statusCode() >= 400) {
+        return Outcome.ERROR;
+      }
+      // Tool failures and GraphQL errors still answer 200
+      String body = response.body();
+      boolean failed =
+          operation.isGraphQl() ? body.contains("\"errors\"") : body.contains("\"success\":false");
+      return failed ? Outcome.ERROR : Outcome.OK;
+    } catch (IOException e) {
+      return Outcome.ERROR;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Outcome.ERROR;
+    }
+  }
+}
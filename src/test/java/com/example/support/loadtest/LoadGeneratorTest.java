@@ -0,0 +1,60 @@
+package com.example.support.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/** A short run of the harness against the app on a random port. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:loadtestdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "support.ratelimit.enabled=false"
+    })
+@ActiveProfiles("test")
+class LoadGeneratorTest {
+
+  @LocalServerPort private int port;
+
+  @Test
+  void bundledScenarioCoversEveryOperation() throws Exception {
+    Scenario scenario = Scenario.load(Path.of("src/test/resources/loadtest/mixed.properties"));
+
+    assertEquals(Operation.values().length, scenario.mix().size());
+    assertTrue(scenario.subscribers() > 0);
+  }
+
+  @Test
+  void mixedRunMeasuresRequestsAndDeliveries(@TempDir Path results) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("name", "smoke");
+    properties.setProperty("base-url", "http://localhost:" + port);
+    properties.setProperty("duration", "2s");
+    properties.setProperty("warmup", "500ms");
+    properties.setProperty("concurrency", "4");
+    properties.setProperty("subscribers", "2");
+    properties.setProperty("topics", "/topic/tickets,/topic/payments");
+    for (Operation operation : Operation.values()) {
+      properties.setProperty("mix." + operation.key(), "1");
+    }
+
+    LoadReport report = new LoadGenerator(Scenario.from(properties)).run();
+
+    for (Operation operation : Operation.values()) {
+      assertTrue(report.successes(operation) > 0, operation.key());
+      assertEquals(0, report.errors(operation), operation.key());
+      assertEquals(0, report.throttled(operation), operation.key());
+    }
+    assertTrue(report.delivered() > 0);
+    assertTrue(report.format().contains("graphql-analytics"));
+    assertTrue(Files.size(report.write(results)) > 0);
+  }
+}
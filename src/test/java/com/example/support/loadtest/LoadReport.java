@@ -0,0 +1,219 @@
+package com.example.support.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * What a run measured: per operation, the latency of successful requests (microseconds) and the
+ * count of failed and throttled ones; per topic, STOMP messages delivered and their lag from
+ * publish to receipt (milliseconds). Only what happens inside the measurement window counts.
+ */
+final class LoadReport {
+
+  enum Outcome {
+    OK,
+    ERROR,
+    THROTTLED
+  }
+
+  private static final int DIGITS = 3;
+
+  private final Scenario scenario;
+  private final long fromNanos;
+  private final long toNanos;
+
+  private final Map<Operation, Histogram> latency = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> throttled = new EnumMap<>(Operation.class);
+  private final Histogram lag = new ConcurrentHistogram(DIGITS);
+  private final Map<String, LongAdder> delivered = new ConcurrentHashMap<>();
+
+  LoadReport(Scenario scenario, long fromNanos) {
+    this.scenario = scenario;
+    this.fromNanos = fromNanos;
+    this.toNanos = fromNanos + scenario.duration().toNanos();
+    for (Operation operation : scenario.mix().keySet()) {
+      latency.put(operation, new ConcurrentHistogram(DIGITS));
+      errors.put(operation, new LongAdder());
+      throttled.put(operation, new LongAdder());
+    }
+  }
+
+  /** Whether something at this {@link System#nanoTime} falls in the measurement window. */
+  boolean measures(long nanos) {
+    return nanos >= fromNanos && nanos < toNanos;
+  }
+
+  /** Records a request that was due at {@code dueNanos}, if that is inside the window. */
+  void recordResponse(Operation operation, long dueNanos, long latencyNanos, Outcome outcome) {
+    if (!measures(dueNanos)) {
+      return;
+    }
+    switch (outcome) {
+      case OK -> latency.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+      case ERROR -> errors.get(operation).increment();
+      case THROTTLED -> throttled.get(operation).increment();
+    }
+  }
+
+  /** Records a STOMP message received now, published {@code lagMillis} ago. */
+  void recordDelivery(String topic, long lagMillis) {
+    if (!measures(System.nanoTime())) {
+      return;
+    }
+    delivered.computeIfAbsent(topic, t -> new LongAdder()).increment();
+    // Clocks of a remote app may be slightly ahead
+    lag.recordValue(Math.max(0, lagMillis));
+  }
+
+  long successes(Operation operation) {
+    return latency.get(operation).getTotalCount();
+  }
+
+  long errors(Operation operation) {
+    return errors.get(operation).sum();
+  }
+
+  long throttled(Operation operation) {
+    return throttled.get(operation).sum();
+  }
+
+  long delivered() {
+    return lag.getTotalCount();
+  }
+
+  String format() {
+    double seconds = scenario.duration().toNanos() / 1e9;
+    StringBuilder out = new StringBuilder();
+    out.append(
+        String.format(
+            "Scenario %s: %ss at concurrency %d (%s), %d STOMP subscribers%n",
+            scenario.name(),
+            scenario.duration().toSeconds(),
+            scenario.concurrency(),
+            scenario.rate() > 0 ? scenario.rate() + " req/s" : "closed loop",
+            scenario.subscribers()));
+    String row = "%-18s %9s %9s %8s %9s %9s %9s %9s %9s%n";
+    out.append(
+        String.format(
+            row,
+            "operation",
+            "ok",
+            "req/s",
+            "errors",
+            "throttled",
+            "p50 ms",
+            "p99 ms",
+            "p999 ms",
+            "max ms"));
+    Histogram total = new Histogram(DIGITS);
+    long totalErrors = 0;
+    long totalThrottled = 0;
+    for (Operation operation : latency.keySet()) {
+      Histogram histogram = latency.get(operation);
+      total.add(histogram);
+      totalErrors += errors(operation);
+      totalThrottled += throttled(operation);
+      appendRow(
+          out, row, operation.key(), histogram, errors(operation), throttled(operation), seconds);
+    }
+    appendRow(out, row, "total", total, totalErrors, totalThrottled, seconds);
+    out.append(
+        String.format(
+            "STOMP delivery: %d messages %s, lag p50 %d ms, p99 %d ms, p999 %d ms, max %d ms%n",
+            lag.getTotalCount(),
+            delivered.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().sum())
+                .sorted()
+                .toList(),
+            lag.getValueAtPercentile(50),
+            lag.getValueAtPercentile(99),
+            lag.getValueAtPercentile(99.9),
+            lag.getMaxValue()));
+    return out.toString();
+  }
+
+  private static void appendRow(
+      StringBuilder out,
+      String row,
+      String label,
+      Histogram histogram,
+      long errors,
+      long throttled,
+      double seconds) {
+    out.append(
+        String.format(
+            row,
+            label,
+            histogram.getTotalCount(),
+            String.format("%.1f", histogram.getTotalCount() / seconds),
+            errors,
+            throttled,
+            millis(histogram.getValueAtPercentile(50)),
+            millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue())));
+  }
+
+  private static String millis(long micros) {
+    return String.format("%.2f", micros / 1_000.0);
+  }
+
+  /**
+   * Writes the results as JSON, to compare runs.
+   *
+   * @return the file written
+   */
+  Path write(Path directory) throws IOException {
+    Map<String, Object> operations = new LinkedHashMap<>();
+    for (Operation operation : latency.keySet()) {
+      Histogram histogram = latency.get(operation);
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("ok", histogram.getTotalCount());
+      result.put("errors", errors(operation));
+      result.put("throttled", throttled(operation));
+      result.put("throughput", histogram.getTotalCount() / (scenario.duration().toNanos() / 1e9));
+      result.put("p50Micros", histogram.getValueAtPercentile(50));
+      result.put("p99Micros", histogram.getValueAtPercentile(99));
+      result.put("p999Micros", histogram.getValueAtPercentile(99.9));
+      result.put("maxMicros", histogram.getMaxValue());
+      operations.put(operation.key(), result);
+    }
+    Map<String, Object> stomp = new LinkedHashMap<>();
+    delivered.forEach((topic, count) -> stomp.put(topic, count.sum()));
+    stomp.put("lagP50Millis", lag.getValueAtPercentile(50));
+    stomp.put("lagP99Millis", lag.getValueAtPercentile(99));
+    stomp.put("lagP999Millis", lag.getValueAtPercentile(99.9));
+    stomp.put("lagMaxMillis", lag.getMaxValue());
+
+    Map<String, Object> results = new LinkedHashMap<>();
+    results.put("scenario", scenario.name());
+    results.put("durationSeconds", scenario.duration().toSeconds());
+    results.put("concurrency", scenario.concurrency());
+    results.put("rate", scenario.rate());
+    results.put("subscribers", scenario.subscribers());
+    results.put("operations", operations);
+    results.put("stomp", stomp);
+
+    Files.createDirectories(directory);
+    Path file =
+        directory.resolve(
+            scenario.name()
+                + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + ".json");
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+    return file;
+  }
+}
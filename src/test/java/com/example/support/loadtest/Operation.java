@@ -0,0 +1,138 @@
+package com.example.support.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** One kind of request in a scenario's mix, named as in its {@code mix.*} keys. */
+enum Operation {
+  GET_CUSTOMER("get-customer") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      return get(baseUrl + "/api/customer/" + customerId);
+    }
+  },
+  GET_TICKETS("get-tickets") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      return get(baseUrl + "/api/tickets/" + customerId + "?status=open");
+    }
+  },
+  CREATE_TICKET("create-ticket") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      // Random wording, so the near-duplicate check files most of them as new tickets
+      return post(
+          baseUrl + "/api/ticket",
+          "{\"customerId\":\""
+              + customerId
+              + "\",\"subject\":\""
+              + words(random, 4)
+              + "\",\"description\":\""
+              + words(random, 16)
+              + " (ref "
+              + UUID.randomUUID()
+              + ")\",\"priority\":\""
+              + PRIORITIES[random.nextInt(PRIORITIES.length)]
+              + "\"}");
+    }
+  },
+  PAYMENT("payment") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      long cents = ThreadLocalRandom.current().nextLong(100, 10_000);
+      return post(
+          baseUrl + "/api/payment",
+          "{\"customerId\":\"" + customerId + "\",\"amount\":" + cents / 100.0 + "}");
+    }
+  },
+  GRAPHQL_CUSTOMER("graphql-customer") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      return graphql(
+          baseUrl,
+          "{ customer(customerId: \\\""
+              + customerId
+              + "\\\") { name tier balance status version } }");
+    }
+  },
+  GRAPHQL_TICKETS("graphql-tickets") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      return graphql(
+          baseUrl,
+          "{ tickets(customerId: \\\"" + customerId + "\\\") { ticketId priority status } }");
+    }
+  },
+  GRAPHQL_ANALYTICS("graphql-analytics") {
+    @Override
+    HttpRequest request(String baseUrl, String customerId) {
+      return graphql(
+          baseUrl,
+          "{ analytics { totalRevenue ticketStatusDistribution { status count }"
+              + " customerTierBreakdown { tier count } } }");
+    }
+  };
+
+  private static final String[] PRIORITIES = {"low", "medium", "high", "urgent"};
+  private static final String[] WORDS = {
+    "login", "password", "invoice", "refund", "charge", "card", "account", "email", "export",
+    "report", "slow", "error", "timeout", "upgrade", "plan", "billing", "address", "order",
+    "missing", "duplicate", "locked", "reset", "mobile", "app", "crash", "sync", "payment",
+    "declined", "statement", "tax", "shipping", "delay", "access", "permission", "team", "invite"
+  };
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final String key;
+
+  Operation(String key) {
+    this.key = key;
+  }
+
+  String key() {
+    return key;
+  }
+
+  boolean isGraphQl() {
+    return name().startsWith("GRAPHQL_");
+  }
+
+  /** A fresh request of this kind for one customer. */
+  abstract HttpRequest request(String baseUrl, String customerId);
+
+  static Operation fromKey(String key) {
+    for (Operation operation : values()) {
+      if (operation.key.equals(key)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("Unknown operation: " + key);
+  }
+
+  private static String words(ThreadLocalRandom random, int count) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return text.toString();
+  }
+
+  private static HttpRequest get(String url) {
+    return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).GET().build();
+  }
+
+  private static HttpRequest post(String url, String json) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .timeout(TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private static HttpRequest graphql(String baseUrl, String query) {
+    return post(baseUrl + "/graphql", "{\"query\":\"" + query + "\"}");
+  }
+}
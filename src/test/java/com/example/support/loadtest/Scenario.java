@@ -0,0 +1,91 @@
+package com.example.support.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * A load test run, read from a properties file (see {@code src/test/resources/loadtest}). System
+ * properties prefixed with {@code loadtest.} override the file, e.g. {@code
+ * -Dloadtest.base-url=http://staging:8000}.
+ *
+ * @param name label for the report
+ * @param baseUrl the app's root URL
+ * @param duration how long to measure, after the warmup
+ * @param warmup how long to send load before measuring
+ * @param concurrency requests in flight at once
+ * @param rate total requests per second, or 0 to send as fast as responses return
+ * @param customers customers the requests are spread over
+ * @param subscribers STOMP connections, each subscribed to every topic
+ * @param topics destinations the subscribers listen on
+ * @param mix relative weight of each operation
+ */
+record Scenario(
+    String name,
+    String baseUrl,
+    Duration duration,
+    Duration warmup,
+    int concurrency,
+    double rate,
+    List<String> customers,
+    int subscribers,
+    List<String> topics,
+    Map<Operation, Integer> mix) {
+
+  static Scenario load(Path file) throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    }
+    System.getProperties().stringPropertyNames().stream()
+        .filter(key -> key.startsWith("loadtest."))
+        .forEach(
+            key ->
+                properties.setProperty(
+                    key.substring("loadtest.".length()), System.getProperty(key)));
+    return from(properties);
+  }
+
+  static Scenario from(Properties properties) {
+    Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    for (String key : properties.stringPropertyNames()) {
+      if (key.startsWith("mix.")) {
+        int weight = Integer.parseInt(properties.getProperty(key).trim());
+        if (weight > 0) {
+          mix.put(Operation.fromKey(key.substring("mix.".length())), weight);
+        }
+      }
+    }
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("A scenario needs at least one mix.* weight");
+    }
+    Scenario scenario =
+        new Scenario(
+            properties.getProperty("name", "scenario"),
+            properties.getProperty("base-url", "http://localhost:8000"),
+            DurationStyle.detectAndParse(properties.getProperty("duration", "60s")),
+            DurationStyle.detectAndParse(properties.getProperty("warmup", "10s")),
+            Integer.parseInt(properties.getProperty("concurrency", "32")),
+            Double.parseDouble(properties.getProperty("rate", "0")),
+            list(properties.getProperty("customers", "CUST001,CUST002,CUST003")),
+            Integer.parseInt(properties.getProperty("subscribers", "0")),
+            list(properties.getProperty("topics", "")),
+            mix);
+    if (scenario.concurrency < 1 || scenario.customers.isEmpty()) {
+      throw new IllegalArgumentException("A scenario needs concurrency and customers");
+    }
+    return scenario;
+  }
+
+  private static List<String> list(String value) {
+    return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+  }
+}
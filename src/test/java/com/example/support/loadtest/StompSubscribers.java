@@ -0,0 +1,77 @@
+package com.example.support.loadtest;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * STOMP connections to {@code /ws}, each subscribed to every topic of the scenario, measuring how
+ * long notifications take to arrive from their {@code sentAt} stamp.
+ */
+final class StompSubscribers implements AutoCloseable {
+
+  private final WebSocketStompClient client;
+  private final List<StompSession> sessions = new ArrayList<>();
+
+  private StompSubscribers(WebSocketStompClient client) {
+    this.client = client;
+  }
+
+  static StompSubscribers connect(Scenario scenario, LoadReport report)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+    client.setMessageConverter(new MappingJackson2MessageConverter());
+    StompSubscribers subscribers = new StompSubscribers(client);
+    String url = scenario.baseUrl().replaceFirst("^http", "ws") + "/ws";
+    try {
+      for (int i = 0; i < scenario.subscribers(); i++) {
+        StompSession session =
+            client.connectAsync(url, new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+        subscribers.sessions.add(session);
+        for (String topic : scenario.topics()) {
+          session.subscribe(topic, new LagRecorder(topic, report));
+        }
+      }
+    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      subscribers.close();
+      throw e;
+    }
+    return subscribers;
+  }
+
+  @Override
+  public void close() {
+    for (StompSession session : sessions) {
+      if (session.isConnected()) {
+        session.disconnect();
+      }
+    }
+    client.stop();
+  }
+
+  private record LagRecorder(String topic, LoadReport report) implements StompFrameHandler {
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+      return Map.class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+      if (payload instanceof Map<?, ?> message && message.get("sentAt") instanceof Number sentAt) {
+        report.recordDelivery(topic, System.currentTimeMillis() - sentAt.longValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.support.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+public class ToolMetricsTest {
+
+  private MeterRegistry registry;
+  private ToolMetrics toolMetrics;
+
+  @BeforeEach
+  public void setUp() {
+    registry = new SimpleMeterRegistry();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("meterRegistry", registry);
+    toolMetrics = new ToolMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+  }
+
+  @Test
+  public void testSuccessAndCacheHit() {
+    toolMetrics.record("getCustomerAccount", () -> Map.of("success", true, "cached", true));
+
+    assertThat(count("getCustomerAccount", ToolMetrics.OUTCOME_SUCCESS)).isEqualTo(1);
+    assertThat(
+            registry
+                .get("support.tool.cache")
+                .tag("tool", "getCustomerAccount")
+                .tag("result", "hit")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  public void testFailureWithoutDbCallIsValidationFailure() {
+    toolMetrics.record("processPayment", () -> Map.of("success", false, "error", "Invalid"));
+
+    assertThat(count("processPayment", ToolMetrics.OUTCOME_VALIDATION_FAILURE)).isEqualTo(1);
+  }
+
+  @Test
+  public void testFailureAfterDbCallIsError() {
+    toolMetrics.record(
+        "processPayment",
+        () -> {
+          ToolMetrics.addDbTime(1_000_000L);
+          return Map.of("success", false, "error", "Customer not found");
+        });
+
+    assertThat(count("processPayment", ToolMetrics.OUTCOME_ERROR)).isEqualTo(1);
+    assertThat(
+            registry
+                .get("support.tool.db.duration")
+                .tag("tool", "processPayment")
+                .timer()
+                .totalTime(TimeUnit.NANOSECONDS))
+        .isEqualTo(1_000_000.0);
+  }
+
+  @Test
+  public void testExceptionIsError() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            toolMetrics.record(
+                "createTicket",
+                () -> {
+                  throw new IllegalStateException("boom");
+                }));
+
+    assertThat(count("createTicket", ToolMetrics.OUTCOME_ERROR)).isEqualTo(1);
+  }
+
+  private long count(String tool, String outcome) {
+    return registry
+        .get("support.tool.duration")
+        .tag("tool", tool)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,390 @@
+package com.example.support.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.support.logging.CustomLogger;
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.errors.ClientException;
+import com.google.genai.types.Content;
+import com.google.genai.types.FunctionDeclaration;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.google.genai.types.Part;
+import com.google.genai.types.Tool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Prompt prefixes cached on a stub model side, with the requests that reach the model recorded. */
+class PrefixCachingModelTest {
+
+  private static final String INSTRUCTION =
+      "You are a billing specialist. Handle queries about payments, balances, and invoices. "
+          .repeat(20);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+  private StubStore store;
+  private RecordingModel delegate;
+  private MeterRegistry registry;
+  private PromptPrefixCache cache;
+  private BaseLlm model;
+
+  @BeforeEach
+  void setUp() {
+    store = new StubStore();
+    delegate = new RecordingModel();
+    registry = new SimpleMeterRegistry();
+    cache =
+        new PromptPrefixCache(
+            store,
+            Duration.ofHours(1),
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(5),
+            registry,
+            new CustomLogger(),
+            clock::get);
+    model = cache.wrap(delegate, "billing-agent");
+  }
+
+  @Test
+  void prefixIsStoredOnceAndReferencedByName() {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    model.generateContent(request(INSTRUCTION, "And my balance?"), false).blockingLast();
+
+    assertEquals(1, store.created.size());
+    for (LlmRequest sent : delegate.requests) {
+      GenerateContentConfig config = sent.config().orElseThrow();
+      assertEquals("cachedContents/1", config.cachedContent().orElseThrow());
+      assertTrue(config.systemInstruction().isEmpty());
+      assertTrue(config.tools().isEmpty());
+    }
+    assertEquals(1.0, stored("new"));
+  }
+
+  @Test
+  void requestsShrinkByThePrefix() {
+    LlmRequest request = request(INSTRUCTION, "Pay $25");
+
+    model.generateContent(request, false).blockingLast();
+
+    long sent = PrefixCachingModel.size(delegate.requests.get(0));
+    assertTrue(sent < PrefixCachingModel.size(request) - INSTRUCTION.length());
+    assertEquals(
+        sent,
+        (long) registry.get("support.model.request.size").tag("prefix", "cached").summary().max());
+  }
+
+  @Test
+  void cachedShareComesFromTheModelsUsage() {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+
+    // The stub reports 800 of 1000 input tokens read from the cache
+    assertEquals(0.8, cache.cachedShare("billing-agent"), 1e-9);
+    assertEquals(
+        0.8,
+        registry
+            .get("support.model.input.cached.share")
+            .tag("agent", "billing-agent")
+            .gauge()
+            .value(),
+        1e-9);
+  }
+
+  @Test
+  void prefixIsReplacedBeforeItExpires() {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    clock.addAndGet(Duration.ofMinutes(58).toMillis());
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    assertEquals(1, store.created.size());
+
+    clock.addAndGet(Duration.ofMinutes(1).toMillis());
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+
+    assertEquals(2, store.created.size());
+    assertEquals("cachedContents/2", delegate.last().cachedContent().orElseThrow());
+    assertEquals(1.0, stored("expiring"));
+  }
+
+  @Test
+  void changedInstructionIsStoredAgain() {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    model.generateContent(request(INSTRUCTION + "Be brief.", "Pay $25"), false).blockingLast();
+
+    assertEquals(2, store.created.size());
+    assertTrue(
+        store.created.get(1).systemInstruction().orElseThrow().toJson().contains("Be brief."));
+    assertEquals(1.0, stored("changed"));
+  }
+
+  @Test
+  void hashCoversInstructionAndTools() {
+    GenerateContentConfig prefix = PromptPrefixCache.prefixOf(config(INSTRUCTION));
+
+    assertEquals(
+        PromptPrefixCache.hash("gemini-2.0-flash", prefix),
+        PromptPrefixCache.hash(
+            "gemini-2.0-flash", PromptPrefixCache.prefixOf(config(INSTRUCTION))));
+    assertNotEquals(
+        PromptPrefixCache.hash("gemini-2.0-flash", prefix),
+        PromptPrefixCache.hash("gemini-2.0-flash", prefix.toBuilder().clearTools().build()));
+    assertNotEquals(
+        PromptPrefixCache.hash("gemini-2.0-flash", prefix),
+        PromptPrefixCache.hash("gemini-2.5-flash", prefix));
+  }
+
+  @Test
+  void refusedPrefixIsSentInlineUntilRetried() {
+    store.refuse = true;
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+
+    assertEquals(1, store.attempts);
+    assertTrue(delegate.last().cachedContent().isEmpty());
+    assertTrue(delegate.last().systemInstruction().isPresent());
+
+    store.refuse = false;
+    clock.addAndGet(Duration.ofMinutes(5).toMillis());
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+
+    assertEquals(2, store.attempts);
+    assertTrue(delegate.last().cachedContent().isPresent());
+  }
+
+  @Test
+  void missingCachedContentIsStoredAgainAndRetried() {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    delegate.missing = "cachedContents/1";
+
+    LlmResponse response =
+        model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+
+    assertTrue(response.content().isPresent());
+    assertEquals(2, store.created.size());
+    assertEquals("cachedContents/2", delegate.last().cachedContent().orElseThrow());
+  }
+
+  @Test
+  void otherModelErrorsAreNotRetried() {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    delegate.failure =
+        new ClientException(
+            400, "INVALID_ARGUMENT", "CachedContent cannot be used with this model");
+
+    assertThrows(
+        ClientException.class,
+        () -> model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast());
+
+    assertEquals(1, store.created.size());
+    assertEquals(2, delegate.requests.size());
+  }
+
+  @Test
+  void refreshDoesNotHoldUpConcurrentTurns() throws Exception {
+    model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast();
+    clock.addAndGet(Duration.ofMinutes(59).toMillis());
+    store.release = new CountDownLatch(1);
+    ExecutorService refresher = Executors.newSingleThreadExecutor();
+    try {
+      Future<LlmResponse> refreshing =
+          refresher.submit(
+              () -> model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast());
+      assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+
+      // Another turn goes out on the current copy while the refresh is in flight
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(5),
+          () ->
+              model.generateContent(request(INSTRUCTION, "And my balance?"), false).blockingLast());
+      assertEquals("cachedContents/1", delegate.last().cachedContent().orElseThrow());
+
+      store.release.countDown();
+      refreshing.get(5, TimeUnit.SECONDS);
+      assertEquals(2, store.attempts);
+      assertEquals("cachedContents/2", delegate.last().cachedContent().orElseThrow());
+    } finally {
+      store.release.countDown();
+      refresher.shutdownNow();
+    }
+  }
+
+  @Test
+  void concurrentFirstTurnsStoreThePrefixOnce() throws Exception {
+    store.release = new CountDownLatch(1);
+    ExecutorService turns = Executors.newFixedThreadPool(2);
+    try {
+      Future<LlmResponse> first =
+          turns.submit(
+              () -> model.generateContent(request(INSTRUCTION, "Pay $25"), false).blockingLast());
+      assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+      Future<LlmResponse> second =
+          turns.submit(
+              () ->
+                  model
+                      .generateContent(request(INSTRUCTION, "And my balance?"), false)
+                      .blockingLast());
+
+      store.release.countDown();
+      first.get(5, TimeUnit.SECONDS);
+      second.get(5, TimeUnit.SECONDS);
+
+      assertEquals(1, store.attempts);
+      assertEquals(2, delegate.requests.size());
+      for (LlmRequest sent : delegate.requests) {
+        assertEquals("cachedContents/1", sent.config().orElseThrow().cachedContent().orElseThrow());
+      }
+    } finally {
+      store.release.countDown();
+      turns.shutdownNow();
+    }
+  }
+
+  @Test
+  void requestsWithoutAPrefixPassThrough() {
+    LlmRequest request =
+        LlmRequest.builder().contents(List.of(Content.fromParts(Part.fromText("Hi")))).build();
+
+    model.generateContent(request, false).blockingLast();
+
+    assertEquals(0, store.attempts);
+    assertFalse(delegate.requests.get(0).config().flatMap(c -> c.cachedContent()).isPresent());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private double stored(String reason) {
+    return registry
+        .get("support.model.prefix.stored")
+        .tag("agent", "billing-agent")
+        .tag("reason", reason)
+        .counter()
+        .count();
+  }
+
+  private static LlmRequest request(String instruction, String message) {
+    return LlmRequest.builder()
+        .model("gemini-2.0-flash")
+        .contents(List.of(Content.builder().role("user").parts(Part.fromText(message)).build()))
+        .config(config(instruction))
+        .build();
+  }
+
+  private static GenerateContentConfig config(String instruction) {
+    return GenerateContentConfig.builder()
+        .systemInstruction(Content.fromParts(Part.fromText(instruction)))
+        .tools(
+            Tool.builder()
+                .functionDeclarations(
+                    FunctionDeclaration.builder()
+                        .name("processPayment")
+                        .description("Processes a payment on a customer's account")
+                        .build())
+                .build())
+        .temperature(0.2f)
+        .build();
+  }
+
+  /** Hands out sequential names, or refuses like a prefix below the minimum cacheable size. */
+  private final class StubStore implements CachedContentStore {
+
+    final List<GenerateContentConfig> created = new ArrayList<>();
+    final CountDownLatch entered = new CountDownLatch(1);
+    volatile CountDownLatch release;
+    int attempts;
+    boolean refuse;
+
+    @Override
+    public CachedPrefix create(
+        String model, String displayName, GenerateContentConfig prefix, Duration ttl) {
+      entered.countDown();
+      CountDownLatch gate = release;
+      if (gate != null) {
+        await(gate);
+      }
+      return stored(prefix, ttl);
+    }
+
+    private synchronized CachedPrefix stored(GenerateContentConfig prefix, Duration ttl) {
+      attempts++;
+      if (refuse) {
+        throw new IllegalArgumentException("Cached content is too small");
+      }
+      created.add(prefix);
+      return new CachedPrefix(
+          "cachedContents/" + created.size(), Instant.ofEpochMilli(clock.get()).plus(ttl));
+    }
+  }
+
+  /** Records what reaches the model and reports 1000 input tokens, 800 cached when referenced. */
+  private static final class RecordingModel extends BaseLlm {
+
+    final List<LlmRequest> requests = new CopyOnWriteArrayList<>();
+    String missing;
+    RuntimeException failure;
+
+    RecordingModel() {
+      super("gemini-2.0-flash");
+    }
+
+    GenerateContentConfig last() {
+      return requests.get(requests.size() - 1).config().orElseThrow();
+    }
+
+    @Override
+    public Flowable<LlmResponse> generateContent(LlmRequest request, boolean stream) {
+      requests.add(request);
+      String cachedContent = request.config().flatMap(c -> c.cachedContent()).orElse(null);
+      if (cachedContent != null && cachedContent.equals(missing)) {
+        // As the client reports an expired cache, wrapped by the async call
+        return Flowable.error(
+            new CompletionException(
+                new ClientException(
+                    403, "PERMISSION_DENIED", "CachedContent not found (or permission denied)")));
+      }
+      if (failure != null) {
+        return Flowable.error(failure);
+      }
+      return Flowable.just(
+          LlmResponse.builder()
+              .content(Content.builder().role("model").parts(Part.fromText("Done")).build())
+              .usageMetadata(
+                  GenerateContentResponseUsageMetadata.builder()
+                      .promptTokenCount(1000)
+                      .cachedContentTokenCount(cachedContent != null ? 800 : 0)
+                      .build())
+              .build());
+    }
+
+    @Override
+    public BaseLlmConnection connect(LlmRequest request) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
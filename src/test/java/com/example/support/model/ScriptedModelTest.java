@@ -0,0 +1,186 @@
+package com.example.support.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.support.AgentConfiguration;
+import com.example.support.entity.Customer;
+import com.example.support.logging.CustomLogger;
+import com.example.support.repository.CustomerRepository;
+import com.example.support.tools.ToolRegistry;
+import com.google.adk.agents.BaseAgent;
+import com.google.adk.events.Event;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import com.google.genai.types.FunctionResponse;
+import com.google.genai.types.Part;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Whole agent turns, from routing through tools to the database, on scripted models. */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:agentdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class ScriptedModelTest {
+
+  @Autowired private ToolRegistry tools;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @Test
+  void orchestratorRoutesToBillingWhichPays() throws IOException {
+    long before = balance("CUST001");
+
+    List<Event> events = turn(script("billing-payment.json"), "Please pay $25 on CUST001");
+
+    assertEquals(
+        List.of("customer-support-orchestrator", "billing-agent"),
+        events.stream().map(Event::author).distinct().toList());
+    assertEquals(true, toolResult(events, "processPayment").get("success"));
+    assertEquals(before + 2500, balance("CUST001"));
+    Event last = events.get(events.size() - 1);
+    assertTrue(last.finalResponse());
+    assertEquals("Your payment of $25.00 went through.", last.stringifyContent());
+  }
+
+  @Test
+  void refundWorkflowCarriesTheTokenBetweenSteps() throws IOException {
+    long before = balance("CUST003");
+
+    List<Event> events = turn(script("refund.json"), "I'd like $20 back on CUST003");
+
+    assertEquals(true, toolResult(events, "validateRefundEligibility").get("success"));
+    assertEquals(true, toolResult(events, "processRefund").get("success"));
+    assertEquals(before - 2000, balance("CUST003"));
+  }
+
+  @Test
+  void latencyIsInjectedPerResponse() throws IOException {
+    ModelScript script = script("billing-payment.json");
+    ModelScript slow = new ModelScript(50, script.agents());
+
+    long start = System.nanoTime();
+    turn(slow, "Please pay $25 on CUST001");
+
+    // Four model responses: transfer, two tool calls and the final text
+    assertTrue(System.nanoTime() - start >= 200_000_000L);
+  }
+
+  @Test
+  void stepsCountOnlyTheAgentsOwnResultsSinceTheUserSpoke() {
+    Content user = Content.builder().role("user").parts(Part.fromText("Pay $25")).build();
+    Content foreign =
+        Content.builder()
+            .role("user")
+            .parts(Part.fromText("For context:"), Part.fromText("[orchestrator] said: hi"))
+            .build();
+    Content call =
+        Content.builder()
+            .role("model")
+            .parts(Part.fromFunctionCall("getCustomerAccount", Map.of()))
+            .build();
+    Content result =
+        Content.builder()
+            .role("user")
+            .parts(Part.fromFunctionResponse("getCustomerAccount", Map.of()))
+            .build();
+
+    assertEquals(0, ScriptedModel.completedSteps(List.of(user, foreign)));
+    assertEquals(1, ScriptedModel.completedSteps(List.of(user, foreign, call, result)));
+    assertEquals(0, ScriptedModel.completedSteps(List.of(user, call, result, user)));
+  }
+
+  @Test
+  void promptPrefixesAreStoredOncePerAgentAcrossTurns() throws IOException {
+    List<String> stored = new ArrayList<>();
+    CachedContentStore store =
+        (model, agent, prefix, ttl) -> {
+          stored.add(agent);
+          return new CachedPrefix("cachedContents/" + agent, Instant.now().plus(ttl));
+        };
+    MeterRegistry registry = new SimpleMeterRegistry();
+    PromptPrefixCache cache =
+        new PromptPrefixCache(
+            store,
+            Duration.ofHours(1),
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(5),
+            registry,
+            new CustomLogger());
+    BaseAgent root = root(script("billing-payment.json"), cache);
+
+    turn(root, "Please pay $25 on CUST001");
+    turn(root, "Please pay $25 on CUST001");
+
+    assertEquals(List.of("customer-support-orchestrator", "billing-agent"), stored);
+    // Every model call referenced its agent's cached prefix: four per turn
+    assertEquals(
+        8,
+        registry.get("support.model.request.size").tag("prefix", "cached").summaries().stream()
+            .mapToLong(DistributionSummary::count)
+            .sum());
+    assertTrue(
+        registry.find("support.model.request.size").tag("prefix", "inline").meters().isEmpty());
+  }
+
+  private List<Event> turn(ModelScript script, String message) {
+    return turn(root(script, null), message);
+  }
+
+  private BaseAgent root(ModelScript script, PromptPrefixCache cache) {
+    StaticListableBeanFactory beans =
+        new StaticListableBeanFactory(
+            cache != null
+                ? Map.of("script", script, "promptPrefixCache", cache)
+                : Map.of("script", script));
+    return new AgentConfiguration(
+            tools,
+            beans.getBeanProvider(ModelScript.class),
+            beans.getBeanProvider(PromptPrefixCache.class))
+        .rootCustomerSupportAgent();
+  }
+
+  private static List<Event> turn(BaseAgent root, String message) {
+    InMemoryRunner runner = new InMemoryRunner(root);
+    Session session = runner.sessionService().createSession(runner.appName(), "user").blockingGet();
+    List<Event> events = new ArrayList<>();
+    runner
+        .runAsync("user", session.id(), Content.fromParts(Part.fromText(message)))
+        .blockingForEach(events::add);
+    return events;
+  }
+
+  private static Map<String, Object> toolResult(List<Event> events, String tool) {
+    return events.stream()
+        .flatMap(event -> event.functionResponses().stream())
+        .filter(response -> response.name().orElse("").equals(tool))
+        .map(FunctionResponse::response)
+        .flatMap(java.util.Optional::stream)
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No result from " + tool));
+  }
+
+  private static ModelScript script(String name) throws IOException {
+    try (InputStream json = ScriptedModelTest.class.getResourceAsStream("/model-scripts/" + name)) {
+      return ModelScript.read(json);
+    }
+  }
+
+  private long balance(String customerId) {
+    return customerRepository.findById(customerId).map(Customer::getBalanceMinor).orElseThrow();
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.support.queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PriorityTicketQueueTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 15, 12, 0);
+
+  @Test
+  void ordersByPriorityThenTierThenAge() {
+    PriorityTicketQueue queue = new PriorityTicketQueue();
+    queue.offer(ticket("TKT-LOW", "low", "Enterprise", NOW.minusDays(3)));
+    queue.offer(ticket("TKT-URGENT-BASIC-OLD", "urgent", "Basic", NOW.minusHours(2)));
+    queue.offer(ticket("TKT-URGENT-ENTERPRISE", "urgent", "Enterprise", NOW));
+    queue.offer(ticket("TKT-URGENT-BASIC-NEW", "urgent", "Basic", NOW));
+    queue.offer(ticket("TKT-HIGH", "high", "Premium", NOW.minusDays(1)));
+
+    assertEquals(
+        List.of(
+            "TKT-URGENT-ENTERPRISE",
+            "TKT-URGENT-BASIC-OLD",
+            "TKT-URGENT-BASIC-NEW",
+            "TKT-HIGH",
+            "TKT-LOW"),
+        queue.peek(10).stream().map(QueuedTicket::ticketId).toList());
+    assertEquals("TKT-URGENT-ENTERPRISE", queue.poll().ticketId());
+    assertEquals(4, queue.size());
+  }
+
+  @Test
+  void removeAndReprioritizeUseTheTicketId() {
+    PriorityTicketQueue queue = new PriorityTicketQueue();
+    queue.offer(ticket("TKT-1", "medium", "Basic", NOW.minusHours(1)));
+    queue.offer(ticket("TKT-2", "medium", "Basic", NOW));
+    queue.offer(ticket("TKT-3", "low", "Basic", NOW));
+
+    queue.reprioritize("TKT-3", "high");
+    assertNotNull(queue.remove("TKT-1"));
+    assertNull(queue.remove("TKT-1"));
+
+    assertEquals("TKT-3", queue.poll().ticketId());
+    assertEquals("TKT-2", queue.poll().ticketId());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  void reofferMovesTicketInsteadOfDuplicatingIt() {
+    PriorityTicketQueue queue = new PriorityTicketQueue();
+    queue.offer(ticket("TKT-1", "low", "Basic", NOW));
+    queue.offer(ticket("TKT-1", "urgent", "Basic", NOW));
+
+    assertEquals(1, queue.size());
+    assertEquals("urgent", queue.poll().priority());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  void concurrentPollsNeverReturnTheSameTicket() throws Exception {
+    PriorityTicketQueue queue = new PriorityTicketQueue();
+    int tickets = 20_000;
+    String[] priorities = {"low", "medium", "high", "urgent"};
+    for (int i = 0; i < tickets; i++) {
+      queue.offer(ticket("TKT-" + i, priorities[i % 4], "Basic", NOW.minusSeconds(i)));
+    }
+
+    int agents = 16;
+    Set<String> claimed = ConcurrentHashMap.newKeySet();
+    AtomicInteger duplicates = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(agents);
+    for (int a = 0; a < agents; a++) {
+      pool.execute(
+          () -> {
+            try {
+              start.await();
+            } catch (InterruptedException e) {
+              return;
+            }
+            QueuedTicket next;
+            while ((next = queue.poll()) != null) {
+              if (!claimed.add(next.ticketId())) {
+                duplicates.incrementAndGet();
+              }
+            }
+          });
+    }
+    start.countDown();
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertEquals(0, duplicates.get());
+    assertEquals(tickets, claimed.size());
+    assertEquals(0, queue.size());
+  }
+
+  private static QueuedTicket ticket(
+      String ticketId, String priority, String tier, LocalDateTime created) {
+    return new QueuedTicket(ticketId, "CUST001", priority, tier, created);
+  }
+}
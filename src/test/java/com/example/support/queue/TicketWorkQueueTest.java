@@ -0,0 +1,106 @@
+package com.example.support.queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.support.entity.Ticket;
+import com.example.support.logging.CustomLogger;
+import com.example.support.repository.CustomerRepository;
+import com.example.support.repository.TicketRepository;
+import com.example.support.versioning.CustomerVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Uses its own queue over the test transaction's tickets, rebuilt after they are saved. */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class TicketWorkQueueTest {
+
+  @Autowired private TicketRepository ticketRepository;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @Autowired private CustomerVersions versions;
+
+  @Autowired private ObjectProvider<MeterRegistry> meterRegistry;
+
+  @Autowired private CustomLogger logger;
+
+  private TicketWorkQueue workQueue;
+
+  @BeforeEach
+  void setUp() {
+    LocalDateTime now = LocalDateTime.now();
+    ticketRepository.save(ticket("TKT-Q-1", "CUST002", "high", now.minusHours(3)));
+    ticketRepository.save(ticket("TKT-Q-2", "CUST003", "high", now.minusHours(1)));
+    ticketRepository.save(ticket("TKT-Q-3", "CUST001", "urgent", now));
+    Ticket assigned = ticket("TKT-Q-4", "CUST003", "urgent", now.minusDays(1));
+    assigned.setAssignee("alice");
+    ticketRepository.save(assigned);
+    ticketRepository.flush();
+    workQueue =
+        new TicketWorkQueue(ticketRepository, customerRepository, versions, meterRegistry, logger);
+    workQueue.rebuild();
+  }
+
+  @Test
+  void rebuildSkipsAssignedTicketsAndOrdersByPriorityThenTier() {
+    assertFalse(workQueue.isQueued("TKT-Q-4"));
+    // CUST003 is Enterprise, CUST002 Basic
+    assertEquals(
+        List.of("TKT-Q-3", "TKT-Q-2", "TKT-Q-1"),
+        workQueue.peek(3).stream().map(QueuedTicket::ticketId).toList());
+  }
+
+  @Test
+  void claimAssignsTicketOnce() {
+    Optional<Ticket> first = workQueue.claim("bob");
+    Optional<Ticket> second = workQueue.claim("carol");
+
+    assertEquals("TKT-Q-3", first.orElseThrow().getTicketId());
+    assertEquals("bob", first.get().getAssignee());
+    assertEquals("TKT-Q-2", second.orElseThrow().getTicketId());
+    assertEquals("carol", ticketRepository.findById("TKT-Q-2").orElseThrow().getAssignee());
+  }
+
+  @Test
+  void claimSkipsTicketsClosedBehindTheQueue() {
+    Ticket urgent = ticketRepository.findById("TKT-Q-3").orElseThrow();
+    urgent.setStatus("closed");
+    ticketRepository.saveAndFlush(urgent);
+
+    assertEquals("TKT-Q-2", workQueue.claim("bob").orElseThrow().getTicketId());
+  }
+
+  @Test
+  void releaseReturnsTicketToQueueOnlyForItsAssignee() {
+    String ticketId = workQueue.claim("bob").orElseThrow().getTicketId();
+
+    assertFalse(workQueue.release(ticketId, "carol"));
+    assertFalse(workQueue.isQueued(ticketId));
+    assertTrue(workQueue.release(ticketId, "bob"));
+    assertTrue(workQueue.isQueued(ticketId));
+    assertNull(ticketRepository.findById(ticketId).orElseThrow().getAssignee());
+  }
+
+  private static Ticket ticket(
+      String ticketId, String customerId, String priority, LocalDateTime created) {
+    return new Ticket(
+        ticketId,
+        customerId,
+        "Queue check",
+        "Ticket used by TicketWorkQueueTest",
+        priority,
+        "open",
+        created);
+  }
+}
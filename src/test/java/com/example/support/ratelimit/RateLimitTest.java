@@ -0,0 +1,114 @@
+package com.example.support.ratelimit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Money-moving calls limited to a burst of 2 per customer and 4 per client IP. Buckets outlive each
+ * test, so GraphQL tests call from their own addresses.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:ratelimitdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "support.ratelimit.budgets.mutation.customer-rate=0.01",
+      "support.ratelimit.budgets.mutation.customer-burst=2",
+      "support.ratelimit.budgets.mutation.client-rate=0.01",
+      "support.ratelimit.budgets.mutation.client-burst=4",
+    })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void paymentsAreLimitedPerCustomerThenPerClient() throws Exception {
+    pay("CUST001").andExpect(status().isOk());
+    pay("CUST001").andExpect(status().isOk());
+    pay("CUST001")
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().exists("Retry-After"))
+        .andExpect(jsonPath("$.success").value(false))
+        .andExpect(jsonPath("$.error").value("Rate limit exceeded"));
+
+    // Another customer has its own bucket, but the client IP has spent 3 of its 4 tokens
+    pay("CUST002").andExpect(status().isOk());
+    pay("CUST002").andExpect(status().isTooManyRequests());
+
+    // Reads draw on a separate budget
+    mockMvc
+        .perform(get("/api/customer/CUST001"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success").value(true));
+  }
+
+  @Test
+  void graphQlMutationsAreLimitedPerCustomer() throws Exception {
+    String mutation =
+        "{\"query\":\"mutation { processPayment(customerId: \\\"CUST003\\\", amount: 1.0)"
+            + " { success } }\"}";
+    for (int i = 0; i < 2; i++) {
+      graphQl("10.0.0.2", mutation)
+          .andExpect(jsonPath("$.errors").doesNotExist())
+          .andExpect(jsonPath("$.data.processPayment.success").value(true));
+    }
+
+    graphQl("10.0.0.2", mutation)
+        .andExpect(jsonPath("$.errors[0].message").value("Rate limit exceeded"))
+        .andExpect(jsonPath("$.errors[0].extensions.classification").value("TOO_MANY_REQUESTS"))
+        .andExpect(jsonPath("$.errors[0].extensions.retryAfterSeconds").isNumber());
+  }
+
+  @Test
+  void graphQlMutationsAreLimitedPerClientAcrossCustomers() throws Exception {
+    // Unknown customers: each has a fresh bucket, and the limit applies before the lookup
+    for (int i = 1; i <= 4; i++) {
+      graphQl("10.0.0.3", payment("CUST80" + i)).andExpect(jsonPath("$.errors").doesNotExist());
+    }
+
+    graphQl("10.0.0.3", payment("CUST805"))
+        .andExpect(jsonPath("$.errors[0].message").value("Rate limit exceeded"));
+    // Queries draw on the read budget
+    graphQl("10.0.0.3", "{\"query\":\"{ customerVersion(customerId: \\\"CUST001\\\") }\"}")
+        .andExpect(jsonPath("$.errors").doesNotExist());
+  }
+
+  private static String payment(String customerId) {
+    return "{\"query\":\"mutation { processPayment(customerId: \\\""
+        + customerId
+        + "\\\", amount: 1.0) { success } }\"}";
+  }
+
+  private ResultActions graphQl(String clientIp, String body) throws Exception {
+    return mockMvc
+        .perform(
+            post("/graphql")
+                .with(
+                    request -> {
+                      request.setRemoteAddr(clientIp);
+                      return request;
+                    })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isOk());
+  }
+
+  private ResultActions pay(String customerId) throws Exception {
+    return mockMvc.perform(
+        post("/api/payment")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"customerId\":\"" + customerId + "\",\"amount\":10.0}"));
+  }
+}
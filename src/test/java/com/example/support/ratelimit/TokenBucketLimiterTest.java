@@ -0,0 +1,64 @@
+package com.example.support.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+  @Test
+  void admitsBurstThenRefillsAtTheRate() {
+    TokenBucketLimiter limiter = new TokenBucketLimiter(2, 3, 100, clock::get);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, limiter.tryAcquire("CUST001"));
+    }
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("CUST001"));
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+    assertEquals(0, limiter.tryAcquire("CUST001"));
+    assertTrue(limiter.tryAcquire("CUST001") > 0);
+  }
+
+  @Test
+  void rejectedRequestsDoNotConsumeTokens() {
+    TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 100, clock::get);
+
+    assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+  }
+
+  @Test
+  void keysHaveIndependentBuckets() {
+    TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 100, clock::get);
+
+    assertEquals(0, limiter.tryAcquire("CUST001"));
+    assertTrue(limiter.tryAcquire("CUST001") > 0);
+    assertEquals(0, limiter.tryAcquire("CUST002"));
+  }
+
+  @Test
+  void evictsKeysOnceIdleLongEnoughToRefill() {
+    TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 100, clock::get);
+    for (int i = 0; i < 50; i++) {
+      limiter.tryAcquire("CUST" + i);
+    }
+    assertEquals(50, limiter.size());
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(501));
+
+    assertEquals(0, limiter.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, limiter.tryAcquire("CUST0"));
+    }
+  }
+}
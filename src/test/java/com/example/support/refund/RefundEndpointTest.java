@@ -0,0 +1,117 @@
+package com.example.support.refund;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+/**
+ * The REST refund flow, carried by the token alone. Not {@code @Transactional}: spent nonces must
+ * commit to be seen by another node.
+ */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:refunddb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RefundEndpointTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private RefundTokens refundTokens;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void validatedTokenRefundsOnceOnAnyNode() throws Exception {
+    JsonNode validation =
+        objectMapper.readTree(
+            post("/api/refund/validate", "{\"customerId\":\"CUST003\"}")
+                .andExpect(jsonPath("$.data.eligible").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    String token = validation.at("/data/refundToken").asText();
+
+    String refund =
+        "{\"customerId\":\"CUST003\",\"amount\":20.0,\"refundToken\":\"" + token + "\"}";
+    post("/api/refund/process", refund).andExpect(jsonPath("$.success").value(true));
+
+    // A node that has not seen the token spent has only the table to go on
+    refundTokens.clearSpent();
+    post("/api/refund/process", refund)
+        .andExpect(jsonPath("$.success").value(false))
+        .andExpect(
+            jsonPath("$.error").value("Refund eligibility has already been used; validate again"));
+  }
+
+  @Test
+  void expiredNoncesArePurged() {
+    jdbcTemplate.update(
+        "INSERT INTO refund_token_nonces (nonce, expires_at) VALUES (?, ?)",
+        42L,
+        Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+
+    assertTrue(refundTokens.purgeExpired() >= 1);
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM refund_token_nonces WHERE nonce = 42", Long.class));
+  }
+
+  @Test
+  void refundNeedsAValidToken() throws Exception {
+    post("/api/refund/process", "{\"customerId\":\"CUST003\",\"amount\":20.0}")
+        .andExpect(jsonPath("$.error").value("Refund eligibility must be validated first"));
+    post(
+            "/api/refund/process",
+            "{\"customerId\":\"CUST003\",\"amount\":20.0,\"refundToken\":\"abc.def\"}")
+        .andExpect(
+            jsonPath("$.error")
+                .value("Refund eligibility has expired or is invalid; validate again"));
+  }
+
+  @Test
+  void refundIsCappedAtTheBalanceWhenValidated() throws Exception {
+    // CUST002 has nothing to refund when validated, and pays in afterwards
+    String token =
+        objectMapper
+            .readTree(
+                post("/api/refund/validate", "{\"customerId\":\"CUST002\"}")
+                    .andExpect(jsonPath("$.data.maxAmount").value(0.0))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString())
+            .at("/data/refundToken")
+            .asText();
+    post("/api/payment", "{\"customerId\":\"CUST002\",\"amount\":50.0}")
+        .andExpect(jsonPath("$.success").value(true));
+
+    post(
+            "/api/refund/process",
+            "{\"customerId\":\"CUST002\",\"amount\":10.0,\"refundToken\":\"" + token + "\"}")
+        .andExpect(jsonPath("$.success").value(false))
+        .andExpect(
+            jsonPath("$.error").value("Refund amount exceeds the validated maximum of 0.00"));
+  }
+
+  private ResultActions post(String path, String body) throws Exception {
+    return mockMvc.perform(
+        MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON).content(body));
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.support.refund;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RefundTokensTest {
+
+  private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+  private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+  private final RefundTokens tokens = new RefundTokens(SECRET, Duration.ofMinutes(15), now::get);
+
+  @Test
+  void tokenIssuedOnOneNodeVerifiesOnAnother() {
+    RefundToken issued = tokens.issue("CUST003", 500_000L);
+    RefundTokens otherNode = new RefundTokens(SECRET, Duration.ofMinutes(15), now::get);
+
+    RefundToken grant = otherNode.verify(issued.token(), "CUST003");
+    assertNotNull(grant);
+    assertEquals(500_000L, grant.maxAmountMinor());
+    assertEquals(issued.nonce(), grant.nonce());
+  }
+
+  @Test
+  void forgedExpiredAndMisdirectedTokensAreRejected() {
+    String token = tokens.issue("CUST003", 1_000L).token();
+    int dot = token.indexOf('.');
+    String raised =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("CUST003|100000000|9999999999|1".getBytes());
+
+    assertNull(tokens.verify(raised + token.substring(dot), "CUST003"));
+    assertNull(tokens.verify(token, "CUST001"));
+    assertNull(tokens.verify("not-a-token", "CUST003"));
+    assertNull(new RefundTokens("", Duration.ofMinutes(15), now::get).verify(token, "CUST003"));
+
+    now.addAndGet(Duration.ofMinutes(15).toMillis());
+    assertNull(tokens.verify(token, "CUST003"));
+  }
+
+  @Test
+  void tokenIsSpentOnceUntilItExpires() {
+    RefundToken grant = tokens.verify(tokens.issue("CUST003", 1_000L).token(), "CUST003");
+
+    assertTrue(tokens.spend(grant));
+    assertFalse(tokens.spend(grant));
+
+    // Rotated into the older generation, still remembered
+    now.addAndGet(Duration.ofMinutes(16).toMillis());
+    assertFalse(tokens.spend(grant));
+
+    tokens.unspend(grant);
+    assertTrue(tokens.spend(grant));
+  }
+}
@@ -24,7 +24,7 @@ public class CustomerRepositoryTest {
             "Test User",
             "test@example.com",
             "Basic",
-            100.0,
+            10_000L,
             LocalDateTime.now(),
             "active");
     repository.save(customer);
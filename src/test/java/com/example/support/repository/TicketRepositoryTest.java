@@ -2,6 +2,7 @@ package com.example.support.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.example.support.dedup.RecentTicket;
 import com.example.support.entity.Customer;
 import com.example.support.entity.Ticket;
 import java.time.LocalDateTime;
@@ -9,6 +10,7 @@ import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -21,8 +23,7 @@ public class TicketRepositoryTest {
   @Test
   public void testFindByCustomerId() {
     Customer customer =
-        new Customer(
-            "CUST_T", "Test", "test@test.com", "Basic", 0.0, LocalDateTime.now(), "active");
+        new Customer("CUST_T", "Test", "test@test.com", "Basic", 0L, LocalDateTime.now(), "active");
     customerRepository.save(customer);
 
     Ticket ticket =
@@ -34,4 +35,25 @@ public class TicketRepositoryTest {
     assertThat(tickets).hasSize(1);
     assertThat(tickets.get(0).getSubject()).isEqualTo("Test Subject");
   }
+
+  @Test
+  public void testFindRecentTicketsPagesThroughEqualCreationTimes() {
+    customerRepository.save(
+        new Customer("CUST_R", "Test", "r@test.com", "Basic", 0L, LocalDateTime.now(), "active"));
+    LocalDateTime since = LocalDateTime.now().plusYears(1).withNano(0);
+    LocalDateTime tie = since.plusMinutes(1);
+    repository.save(new Ticket("TICK-R3", "CUST_R", "S", "D", "low", "open", tie));
+    repository.save(new Ticket("TICK-R2", "CUST_R", "S", "D", "low", "open", tie));
+    repository.save(new Ticket("TICK-R1", "CUST_R", "S", "D", "low", "open", tie.plusMinutes(1)));
+    repository.save(
+        new Ticket("TICK-R0", "CUST_R", "S", "D", "low", "open", since.minusMinutes(1)));
+
+    List<RecentTicket> first = repository.findRecentTickets(since, "", Limit.of(2));
+    RecentTicket last = first.get(1);
+    List<RecentTicket> second =
+        repository.findRecentTickets(last.created(), last.ticketId(), Limit.of(2));
+
+    assertThat(first).extracting(RecentTicket::ticketId).containsExactly("TICK-R2", "TICK-R3");
+    assertThat(second).extracting(RecentTicket::ticketId).containsExactly("TICK-R1");
+  }
 }
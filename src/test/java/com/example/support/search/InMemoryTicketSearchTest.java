@@ -0,0 +1,106 @@
+package com.example.support.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.support.entity.Ticket;
+import com.example.support.repository.TicketRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryTicketSearchTest {
+
+  private final Map<String, Ticket> rows = new HashMap<>();
+  private InMemoryTicketSearch search;
+
+  @BeforeEach
+  void setUp() {
+    TicketRepository repository = mock(TicketRepository.class);
+    when(repository.findAll()).thenAnswer(invocation -> List.copyOf(rows.values()));
+    when(repository.findAllById(anyIterable()))
+        .thenAnswer(
+            invocation -> {
+              Iterable<String> ids = invocation.getArgument(0);
+              List<Ticket> found = new ArrayList<>();
+              ids.forEach(id -> found.add(rows.get(id)));
+              found.removeIf(Objects::isNull);
+              return found;
+            });
+    search = new InMemoryTicketSearch(repository);
+
+    save("TKT-1", "Login fails", "Password reset email never arrives", "open");
+    save("TKT-2", "Billing question", "Cannot login to the billing portal", "open");
+    save("TKT-3", "Login page slow", "The login page takes a minute", "closed");
+    search.rebuild();
+  }
+
+  @Test
+  void subjectMatchesRankFirst() {
+    List<String> ids = ids(search.search("login", null, null, 0, 10));
+
+    assertEquals(3, ids.size());
+    assertEquals("TKT-2", ids.get(2));
+  }
+
+  @Test
+  void allTermsMustMatch() {
+    assertEquals(List.of("TKT-1"), ids(search.search("login password", null, null, 0, 10)));
+    assertTrue(search.search("login refund", null, null, 0, 10).isEmpty());
+  }
+
+  @Test
+  void filtersByStatusAndPages() {
+    assertEquals(List.of("TKT-3"), ids(search.search("login", null, "closed", 0, 10)));
+
+    List<String> all = ids(search.search("login", null, null, 0, 10));
+    assertEquals(all.subList(1, 2), ids(search.search("login", null, null, 1, 1)));
+  }
+
+  @Test
+  void filtersByCustomer() {
+    rows.put(
+        "TKT-4", new Ticket("TKT-4", "CUST002", "Login locked", "Locked out", "low", "open", null));
+    search.ticketSaved(rows.get("TKT-4"));
+
+    assertEquals(List.of("TKT-4"), ids(search.search("login", "CUST002", null, 0, 10)));
+    assertEquals(3, search.search("login", "CUST001", null, 0, 10).size());
+  }
+
+  @Test
+  void reindexesUpdatesAndRemovals() {
+    Ticket ticket = save("TKT-1", "Login fails", "Password reset works now", "closed");
+    search.ticketSaved(ticket);
+    assertTrue(search.search("password", null, "open", 0, 10).isEmpty());
+    assertEquals(List.of("TKT-1"), ids(search.search("password", null, "closed", 0, 10)));
+
+    search.ticketRemoved("TKT-1");
+    assertTrue(search.search("password", null, null, 0, 10).isEmpty());
+    assertEquals(2, search.size());
+  }
+
+  @Test
+  void tokenizerDropsStopWordsAndPunctuation() {
+    assertEquals(
+        List.of("can", "log", "into", "portal"),
+        InMemoryTicketSearch.tokenize("Can't log into the portal!"));
+  }
+
+  private Ticket save(String id, String subject, String description, String status) {
+    Ticket ticket =
+        new Ticket(id, "CUST001", subject, description, "low", status, LocalDateTime.now());
+    rows.put(id, ticket);
+    return ticket;
+  }
+
+  private static List<String> ids(List<Ticket> tickets) {
+    return tickets.stream().map(Ticket::getTicketId).toList();
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.support.sla;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.support.entity.Ticket;
+import com.example.support.logging.CustomLogger;
+import com.example.support.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Drives an unstarted engine by hand, so no background tick races the test. */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class SlaEngineTest {
+
+  @Autowired private TicketRepository ticketRepository;
+
+  @Autowired private CustomLogger logger;
+
+  private SlaEngine slaEngine;
+
+  @BeforeEach
+  void setUp() {
+    slaEngine =
+        new SlaEngine(
+            ticketRepository,
+            new SlaProperties(),
+            null,
+            null,
+            null,
+            new SimpleMeterRegistry(),
+            logger);
+  }
+
+  @Test
+  void escalatesBreachedTicketOneLevel() {
+    Ticket ticket = saveTicket("TKT-SLA-1", "medium", "open", LocalDateTime.now().minusMinutes(5));
+    slaEngine.track(ticket.getTicketId(), ticket.getSlaDue());
+
+    slaEngine.tick();
+
+    Ticket escalated = ticketRepository.findById("TKT-SLA-1").orElseThrow();
+    assertEquals("high", escalated.getPriority());
+    assertTrue(escalated.getSlaDue().isAfter(LocalDateTime.now().plusHours(3)));
+    assertTrue(slaEngine.trackedDeadline("TKT-SLA-1") > System.currentTimeMillis());
+  }
+
+  @Test
+  void urgentTicketStaysUrgentAndIsRearmed() {
+    Ticket ticket = saveTicket("TKT-SLA-2", "urgent", "open", LocalDateTime.now().minusMinutes(5));
+    slaEngine.track(ticket.getTicketId(), ticket.getSlaDue());
+
+    slaEngine.tick();
+
+    Ticket rearmed = ticketRepository.findById("TKT-SLA-2").orElseThrow();
+    assertEquals("urgent", rearmed.getPriority());
+    assertTrue(rearmed.getSlaDue().isAfter(LocalDateTime.now().plusMinutes(59)));
+  }
+
+  @Test
+  void ignoresTicketsNoLongerOpen() {
+    LocalDateTime due = LocalDateTime.now().minusMinutes(5);
+    saveTicket("TKT-SLA-3", "low", "closed", due);
+    slaEngine.track("TKT-SLA-3", due);
+
+    slaEngine.tick();
+
+    assertEquals("low", ticketRepository.findById("TKT-SLA-3").orElseThrow().getPriority());
+    assertEquals(-1, slaEngine.trackedDeadline("TKT-SLA-3"));
+  }
+
+  @Test
+  void rebuildLoadsOpenTicketDeadlines() {
+    LocalDateTime due = LocalDateTime.now().plusHours(2);
+    saveTicket("TKT-SLA-4", "high", "open", due);
+    saveTicket("TKT-SLA-5", "high", "pending", null);
+    ticketRepository.flush();
+
+    slaEngine.rebuild();
+
+    assertTrue(slaEngine.trackedDeadline("TKT-SLA-4") > 0);
+    assertEquals(-1, slaEngine.trackedDeadline("TKT-SLA-5"));
+  }
+
+  private Ticket saveTicket(String ticketId, String priority, String status, LocalDateTime due) {
+    Ticket ticket =
+        new Ticket(
+            ticketId,
+            "CUST001",
+            "SLA check",
+            "Ticket used by SlaEngineTest",
+            priority,
+            status,
+            LocalDateTime.now().minusHours(6));
+    ticket.setSlaDue(due == null ? null : due.truncatedTo(ChronoUnit.SECONDS));
+    return ticketRepository.save(ticket);
+  }
+}
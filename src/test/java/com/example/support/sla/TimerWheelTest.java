@@ -0,0 +1,83 @@
+package com.example.support.sla;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+  private static final long TICK = 1000;
+  private static final long START = 1_700_000_000_000L;
+
+  @Test
+  void expiresTimersInDeadlineOrder() {
+    TimerWheel wheel = new TimerWheel(TICK, START);
+    wheel.schedule("TKT-3", START + 3 * TICK);
+    wheel.schedule("TKT-1", START + TICK);
+    wheel.schedule("TKT-2", START + 2 * TICK);
+
+    assertEquals(List.of(), wheel.advance(START + TICK - 1));
+    assertEquals(List.of("TKT-1", "TKT-2"), wheel.advance(START + 2 * TICK));
+    assertEquals(List.of("TKT-3"), wheel.advance(START + 10 * TICK));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void cancelAndRescheduleReplaceTheTimer() {
+    TimerWheel wheel = new TimerWheel(TICK, START);
+    wheel.schedule("TKT-1", START + 5 * TICK);
+    wheel.schedule("TKT-2", START + 5 * TICK);
+    wheel.schedule("TKT-1", START + 3600 * TICK);
+
+    assertTrue(wheel.cancel("TKT-2"));
+    assertFalse(wheel.cancel("TKT-2"));
+    assertEquals(List.of(), wheel.advance(START + 3599 * TICK));
+    assertEquals(List.of("TKT-1"), wheel.advance(START + 3600 * TICK));
+  }
+
+  @Test
+  void pastDeadlinesExpireOnNextAdvance() {
+    TimerWheel wheel = new TimerWheel(TICK, START);
+    wheel.schedule("TKT-1", START - 60 * TICK);
+
+    assertEquals(List.of("TKT-1"), wheel.advance(START));
+  }
+
+  @Test
+  void deadlinesBeyondTheSpanAreParkedUntilDue() {
+    TimerWheel wheel = new TimerWheel(3_600_000, 0);
+    long farFuture = 3_600_000L * (1L << 31);
+    wheel.schedule("TKT-1", farFuture);
+
+    assertEquals(List.of(), wheel.advance(farFuture - 3_600_000));
+    assertEquals(List.of("TKT-1"), wheel.advance(farFuture));
+  }
+
+  @Test
+  void cascadingFiresEveryTimerExactlyOnceAtItsTick() {
+    Random random = new Random(42);
+    TimerWheel wheel = new TimerWheel(TICK, START);
+    long[] deadlines = new long[20_000];
+    for (int i = 0; i < deadlines.length; i++) {
+      // Up to ~12 days out, spanning four levels
+      deadlines[i] = START + (long) (random.nextDouble() * 1_000_000) * TICK;
+      wheel.schedule("TKT-" + i, deadlines[i]);
+    }
+
+    List<String> fired = new ArrayList<>();
+    long now = START;
+    while (wheel.size() > 0) {
+      now += (1 + random.nextInt(5000)) * TICK;
+      for (String key : wheel.advance(now)) {
+        long deadline = deadlines[Integer.parseInt(key.substring(4))];
+        assertTrue(deadline <= now, key + " fired early");
+        fired.add(key);
+      }
+    }
+    assertEquals(deadlines.length, fired.size());
+    assertEquals(deadlines.length, fired.stream().distinct().count());
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.support.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.support.AgentConfiguration;
+import com.example.support.CustomerSupportAgent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.genai.types.Schema;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ToolRegistryTest {
+
+  /** Echoes the decoded arguments instead of touching the database. */
+  static class EchoAgent extends CustomerSupportAgent {
+    @Override
+    public Map<String, Object> processPayment(
+        String customerId, Double amount, Map<String, Object> context) {
+      Map<String, Object> result = new HashMap<>();
+      result.put("customerId", customerId);
+      result.put("amount", amount);
+      result.put("context", context);
+      return result;
+    }
+
+    @Override
+    public Map<String, Object> updateAccountSettings(
+        String customerId, String email, String tier, Map<String, Object> context) {
+      Map<String, Object> result = new HashMap<>();
+      result.put("customerId", customerId);
+      result.put("email", email);
+      result.put("tier", tier);
+      return result;
+    }
+  }
+
+  private final ToolRegistry registry = new ToolRegistry(new EchoAgent());
+
+  @Test
+  void declaresEveryToolWithoutTheContextParameter() throws Exception {
+    JsonNode declarations = new ObjectMapper().readTree(registry.declarationsJson());
+    assertEquals(AgentConfiguration.TOOLS.size(), declarations.size());
+
+    Schema parameters =
+        registry.tool("processPayment").declaration().orElseThrow().parameters().orElseThrow();
+    assertEquals(Set.of("customerId", "amount"), parameters.properties().orElseThrow().keySet());
+    assertFalse(parameters.required().orElseThrow().contains("context"));
+    assertEquals("processPayment", declarations.get(1).get("name").asText());
+  }
+
+  @Test
+  void decodesFunctionCallJsonIntoTypedArguments() {
+    Map<String, Object> state = new HashMap<>();
+    Map<String, Object> result =
+        registry.invoke(
+            "processPayment",
+            "{\"amount\": 25, \"customerId\": \"CUST001\", \"note\": {\"ignored\": [1, 2]}}",
+            state);
+
+    assertEquals("CUST001", result.get("customerId"));
+    assertEquals(25.0, result.get("amount"));
+    assertSame(state, result.get("context"));
+  }
+
+  @Test
+  void missingAndNullArgumentsArePassedAsNull() {
+    Map<String, Object> result =
+        registry.invoke(
+            "updateAccountSettings", "{\"customerId\": \"CUST002\", \"email\": null}", Map.of());
+
+    assertEquals("CUST002", result.get("customerId"));
+    assertNull(result.get("email"));
+    assertNull(result.get("tier"));
+  }
+
+  @Test
+  void mapArgumentsFromTheModelClientAreCoerced() {
+    Map<String, Object> args = new HashMap<>();
+    args.put("customerId", "CUST003");
+    args.put("amount", 12);
+    Map<String, Object> result = registry.tool("processPayment").invoke(args, Map.of());
+
+    assertEquals(12.0, result.get("amount"));
+  }
+
+  @Test
+  void rejectsBadArgumentsAsToolErrors() {
+    Map<String, Object> wrongType =
+        registry.invoke(
+            "processPayment", "{\"customerId\": \"CUST001\", \"amount\": \"ten\"}", null);
+    assertEquals(false, wrongType.get("success"));
+    assertEquals("Invalid value for amount", wrongType.get("error"));
+
+    Map<String, Object> malformed = registry.invoke("processPayment", "{\"customerId\":", null);
+    assertEquals(false, malformed.get("success"));
+    assertTrue(((String) malformed.get("error")).startsWith("Malformed"));
+
+    assertThrows(IllegalArgumentException.class, () -> registry.tool("dropTables"));
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.support.tracing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.support.CustomerSupportAgent;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Spans of one tool call, exported to memory: the tool span and its repository and STOMP children.
+ * Calls start from the root context, since ADK runners in other test classes can leave a context
+ * current on the test thread.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:tracingdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+      "management.tracing.sampling.probability=1.0"
+    })
+@AutoConfigureObservability(metrics = false)
+@ActiveProfiles("test")
+class SupportTracingTest {
+
+  @Autowired private CustomerSupportAgent agent;
+
+  @Autowired private SupportTracing tracing;
+
+  @Autowired private SdkTracerProvider tracerProvider;
+
+  @Autowired private InMemorySpanExporter exporter;
+
+  @BeforeEach
+  void clearSpans() {
+    tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+    exporter.spans.clear();
+  }
+
+  @Test
+  void toolCallNestsRepositoryAndNotificationSpans() {
+    try (Scope root = Context.root().makeCurrent()) {
+      Map<String, Object> result = agent.processPayment("CUST001", 10.0, null);
+
+      assertEquals(true, result.get("success"));
+      // Every span's scope was closed on return
+      assertNull(tracing.getTracer().currentSpan());
+    }
+
+    tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+    SpanData tool = span("tool processPayment");
+    assertFalse(tool.getParentSpanContext().isValid());
+    for (SpanData child :
+        List.of(span("db CustomerRepository.findByIdForUpdate"), span("notify /topic/payments"))) {
+      assertEquals(tool.getTraceId(), child.getTraceId());
+      assertEquals(tool.getSpanId(), child.getParentSpanId());
+      assertTrue(child.hasEnded());
+    }
+    assertTrue(tool.hasEnded());
+  }
+
+  @Test
+  void failedBodyMarksTheSpanAndClosesItsScope() {
+    try (Scope root = Context.root().makeCurrent()) {
+      assertThrows(
+          IllegalStateException.class,
+          () ->
+              tracing.inSpan(
+                  "tool failing",
+                  () -> {
+                    throw new IllegalStateException("boom");
+                  }));
+
+      assertNull(tracing.getTracer().currentSpan());
+    }
+    tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+    assertEquals(StatusCode.ERROR, span("tool failing").getStatus().getStatusCode());
+  }
+
+  private SpanData span(String name) {
+    return exporter.spans.stream()
+        .filter(span -> span.getName().equals(name))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new AssertionError(
+                    "No span "
+                        + name
+                        + " in "
+                        + exporter.spans.stream().map(SpanData::getName).toList()));
+  }
+
+  @TestConfiguration
+  static class ExporterConfiguration {
+
+    @Bean
+    InMemorySpanExporter inMemorySpanExporter() {
+      return new InMemorySpanExporter();
+    }
+  }
+
+  /** Keeps finished spans in memory. */
+  static class InMemorySpanExporter implements SpanExporter {
+
+    final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+      spans.addAll(batch);
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.support.versioning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.support.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** ETags on customer and ticket reads, and the version stamps GraphQL clients see. */
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:versionsdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoSpyBean private CustomerRepository customerRepository;
+
+  @Test
+  void customerReadIsNotModifiedUntilAPayment() throws Exception {
+    String etag = etag("/api/customer/CUST001");
+    assertNotNull(etag);
+
+    clearInvocations(customerRepository);
+    mockMvc
+        .perform(get("/api/customer/CUST001").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+    verify(customerRepository, never()).findById(any());
+
+    mockMvc
+        .perform(
+            post("/api/payment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":\"CUST001\",\"amount\":10.0}"))
+        .andExpect(jsonPath("$.success").value(true));
+
+    mockMvc
+        .perform(get("/api/customer/CUST001").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+    assertNotEquals(etag, etag("/api/customer/CUST001"));
+  }
+
+  @Test
+  void ticketListChangesWithANewTicket() throws Exception {
+    String etag = etag("/api/tickets/CUST002");
+    mockMvc
+        .perform(get("/api/tickets/CUST002").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    mockMvc
+        .perform(
+            post("/api/ticket")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "{\"customerId\":\"CUST002\",\"subject\":\"Cannot export invoices\","
+                        + "\"description\":\"The export button does nothing\","
+                        + "\"priority\":\"low\"}"))
+        .andExpect(jsonPath("$.success").value(true));
+
+    mockMvc
+        .perform(get("/api/tickets/CUST002").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].subject").value("Cannot export invoices"));
+  }
+
+  @Test
+  void graphQlCustomerCarriesTheCurrentVersion() throws Exception {
+    String body =
+        mockMvc
+            .perform(
+                post("/graphql")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        "{\"query\":\"{ customerVersion(customerId: \\\"CUST003\\\")"
+                            + " customer(customerId: \\\"CUST003\\\") { name version } }\"}"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    JsonNode data = new ObjectMapper().readTree(body).get("data");
+
+    assertNotNull(data.get("customerVersion").textValue());
+    assertEquals(data.get("customerVersion"), data.get("customer").get("version"));
+  }
+
+  private String etag(String path) throws Exception {
+    return mockMvc
+        .perform(get(path))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getHeader(HttpHeaders.ETAG);
+  }
+}
@@ -3,7 +3,7 @@ CREATE TABLE customers (
     name VARCHAR(100) NOT NULL,
     email VARCHAR(100) NOT NULL,
     tier VARCHAR(50) NOT NULL,
-    balance DOUBLE PRECISION NOT NULL DEFAULT 0.0,
+    balance NUMERIC(19, 2) NOT NULL DEFAULT 0,
     account_created TIMESTAMP NOT NULL,
     status VARCHAR(50) NOT NULL
 );
@@ -15,7 +15,9 @@ CREATE TABLE tickets (
     description VARCHAR(1000) NOT NULL,
     priority VARCHAR(50) NOT NULL,
     status VARCHAR(50) NOT NULL,
-    created TIMESTAMP NOT NULL
+    created TIMESTAMP NOT NULL,
+    sla_due TIMESTAMP,
+    assignee VARCHAR(100)
 );
 
 -- Seed mock data
@@ -23,3 +25,45 @@ INSERT INTO customers (customer_id, name, email, tier, balance, account_created,
 VALUES ('CUST001', 'John Doe', 'john.doe@example.com', 'Premium', 1250.00, DATEADD('DAY', -45, CURRENT_TIMESTAMP), 'active'),
        ('CUST002', 'Jane Smith', 'jane.smith@example.com', 'Basic', 0.00, DATEADD('DAY', -5, CURRENT_TIMESTAMP), 'active'),
        ('CUST003', 'Bob Johnson', 'bob.johnson@example.com', 'Enterprise', 5000.00, DATEADD('DAY', -10, CURRENT_TIMESTAMP), 'active');
+
+CREATE TABLE analytics_deltas (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred TIMESTAMP NOT NULL,
+    metric VARCHAR(32) NOT NULL,
+    dimension VARCHAR(32) NOT NULL DEFAULT '',
+    count BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE analytics_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    metric VARCHAR(32) NOT NULL,
+    dimension VARCHAR(32) NOT NULL DEFAULT '',
+    count BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, metric, dimension)
+);
+
+CREATE TABLE ticket_archive (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id VARCHAR(50) NOT NULL,
+    month_start DATE NOT NULL,
+    ticket_count INTEGER NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL
+);
+
+CREATE TABLE idempotency_keys (
+    operation VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response TEXT,
+    created TIMESTAMP NOT NULL,
+    PRIMARY KEY (operation, idempotency_key)
+);
+
+CREATE TABLE refund_token_nonces (
+    nonce BIGINT PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);